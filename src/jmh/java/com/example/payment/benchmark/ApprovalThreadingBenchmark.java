@@ -0,0 +1,139 @@
+package com.example.payment.benchmark;
+
+import com.example.payment.application.exception.BusinessException;
+import com.example.payment.application.orchestration.PaymentApproveOrchestration;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.entity.id.TsidFactory;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 플랫폼 스레드 풀(Tomcat 기본 200) vs 가상 스레드에서의 승인 처리량 비교.
+ * 한 번의 호출마다 inFlight 개의 승인을 동시에 실행하고, 초당 완료된 승인 수를 approvals 카운터로 보고합니다.
+ * virtual 모드는 Java 21 이상이 필요합니다: ./gradlew jmh -PjavaVersion=21 -PjmhIncludes=ApprovalThreadingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class ApprovalThreadingBenchmark {
+
+	private static final long LECTURE_ID = 1L;
+
+	@Param({"platform", "virtual"})
+	public String threading;
+
+	@Param({"1000"})
+	public int inFlight;
+
+	@Param({"100"})
+	public long pgLatencyMs;
+
+	@Param({"200"})
+	public int platformThreads;
+
+	@Param({"10"})
+	public int poolSize;
+
+	private final AtomicLong userIdSequence = new AtomicLong();
+
+	private BenchmarkApplication app;
+	private PaymentApproveOrchestration approve;
+	private JdbcTemplate jdbc;
+	private ExecutorService executor;
+
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Counters {
+		public long approvals;
+		public long rejected;
+	}
+
+	@Setup(Level.Trial)
+	public void startApplication() throws Exception {
+		executor = "virtual".equals(threading) ? newVirtualThreadPerTaskExecutor()
+			: Executors.newFixedThreadPool(platformThreads);
+		app = BenchmarkApplication.start(Map.of(
+				"benchmark.pg-latency-ms", pgLatencyMs,
+				"spring.threads.virtual.enabled", "virtual".equals(threading),
+				"spring.datasource.hikari.maximum-pool-size", poolSize),
+			LatencyPgApiClientConfig.class);
+		approve = app.bean("paymentApprove3Phase", PaymentApproveOrchestration.class);
+		jdbc = app.jdbc();
+	}
+
+	@Setup(Level.Iteration)
+	public void resetLecture() {
+		app.resetLecture(LECTURE_ID, Integer.MAX_VALUE);
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		executor.shutdownNow();
+		app.close();
+	}
+
+	@Benchmark
+	public void approveInFlight(Counters counters) throws InterruptedException {
+		List<Future<Boolean>> futures = new ArrayList<>(inFlight);
+		for (int i = 0; i < inFlight; i++) {
+			futures.add(executor.submit(this::approveOne));
+		}
+		for (Future<Boolean> future : futures) {
+			try {
+				if (future.get()) {
+					counters.approvals++;
+				} else {
+					counters.rejected++;
+				}
+			} catch (ExecutionException e) {
+				counters.rejected++;
+			}
+		}
+	}
+
+	private boolean approveOne() {
+		long userId = userIdSequence.incrementAndGet();
+		jdbc.update("INSERT INTO payment (id, lecture_id, user_id, status, created_at) VALUES (?, ?, ?, ?, NOW())",
+			TsidFactory.global().next(), LECTURE_ID, userId, PaymentStatus.CREATED.getCode());
+		PaymentRequest request = new PaymentRequest();
+		request.setLectureId(LECTURE_ID);
+		request.setUserId(userId);
+		try {
+			approve.approve(request);
+			return true;
+		} catch (BusinessException e) {
+			return false;
+		}
+	}
+
+	// Java 17 로도 컴파일되도록 리플렉션으로 생성
+	private static ExecutorService newVirtualThreadPerTaskExecutor() throws Exception {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException("virtual threading requires Java 21+ (-PjavaVersion=21)", e);
+		}
+	}
+}
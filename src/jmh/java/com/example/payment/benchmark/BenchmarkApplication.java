@@ -0,0 +1,112 @@
+package com.example.payment.benchmark;
+
+import com.example.PaymentSystemApplication;
+import com.example.payment.entity.id.TsidFactory;
+import com.example.payment.support.EmbeddedMariaDb;
+import com.example.payment.support.EmbeddedMariaDb.RowLockStats;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 벤치마크 공용 부트스트랩: 임베디드 MariaDB를 띄우고 그 위에 애플리케이션 컨텍스트를 올립니다.
+ */
+final class BenchmarkApplication implements AutoCloseable {
+
+	// jmh 소스셋에는 Lombok 이 없으므로 로거를 직접 만듭니다.
+	private static final Logger log = LoggerFactory.getLogger(BenchmarkApplication.class);
+	private static final Path ROW_LOCK_REPORT = Path.of("build", "results", "jmh", "row-lock-wait.csv");
+
+	private final EmbeddedMariaDb db;
+	private final ConfigurableApplicationContext context;
+
+	private BenchmarkApplication(EmbeddedMariaDb db, ConfigurableApplicationContext context) {
+		this.db = db;
+		this.context = context;
+	}
+
+	static BenchmarkApplication start(Map<String, Object> extraProperties, Class<?>... extraSources) {
+		EmbeddedMariaDb db = new EmbeddedMariaDb("payment_bench").start();
+		Map<String, Object> properties = new HashMap<>(db.springProperties());
+		properties.put("spring.jpa.show-sql", "false");
+		properties.put("logging.level.root", "WARN");
+		properties.put("logging.level.com.example.payment.benchmark", "INFO");
+		properties.putAll(extraProperties);
+
+		Class<?>[] sources = new Class<?>[extraSources.length + 1];
+		sources[0] = PaymentSystemApplication.class;
+		System.arraycopy(extraSources, 0, sources, 1, extraSources.length);
+
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(sources)
+			.web(WebApplicationType.NONE)
+			.properties(properties)
+			.run();
+		return new BenchmarkApplication(db, context);
+	}
+
+	<T> T bean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	<T> T bean(String name, Class<T> type) {
+		return context.getBean(name, type);
+	}
+
+	JdbcTemplate jdbc() {
+		return context.getBean(JdbcTemplate.class);
+	}
+
+	/**
+	 * 강의 정원 행과 결제/수강 데이터를 초기화합니다.
+	 */
+	void resetLecture(long lectureId, int capacity) {
+		JdbcTemplate jdbc = jdbc();
+		jdbc.update("DELETE FROM enrollment");
+		jdbc.update("DELETE FROM payment");
+		jdbc.update("DELETE FROM enrollment_count");
+		jdbc.update("INSERT INTO enrollment_count (id, lecture_id, current_count, capacity) VALUES (?, ?, 0, ?)",
+			TsidFactory.global().next(), lectureId, capacity);
+	}
+
+	RowLockStats rowLockStats() {
+		return db.rowLockStats();
+	}
+
+	/**
+	 * 반복(iteration) 단위 행 락 대기 통계를 출력하고 CSV로 누적 기록합니다.
+	 * (Innodb_row_lock_* 는 서버 전역 값이지만 벤치마크에서 경합하는 행은 enrollment_count 뿐입니다.)
+	 */
+	void reportRowLockWait(String benchmark, String params, RowLockStats delta) {
+		String line = String.format("%s,%s,%d,%d,%.3f", benchmark, params, delta.waits(), delta.timeMs(),
+			delta.averageWaitMs());
+		log.info("[row-lock] {}", line);
+		try {
+			Files.createDirectories(ROW_LOCK_REPORT.getParent());
+			if (Files.notExists(ROW_LOCK_REPORT)) {
+				Files.writeString(ROW_LOCK_REPORT, "benchmark,params,waits,wait_time_ms,avg_wait_ms\n");
+			}
+			Files.writeString(ROW_LOCK_REPORT, line + "\n", StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			context.close();
+		} finally {
+			db.close();
+		}
+	}
+}
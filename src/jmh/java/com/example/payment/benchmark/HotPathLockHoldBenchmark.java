@@ -0,0 +1,90 @@
+package com.example.payment.benchmark;
+
+import com.example.payment.application.service.EnrollmentService;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.entity.id.TsidFactory;
+import com.example.payment.support.EmbeddedMariaDb.RowLockStats;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 트랜잭션 1(좌석 확보), 3(최종 반영)을 JPA 경로와 저장 프로시저 핫패스(payment.hot-path.jdbc.enabled)로 비교합니다.
+ * 모든 스레드가 같은 강의의 enrollment_count 행을 갱신하므로, 행 락을 쥐는 시간이 짧을수록
+ * 반복별 행 락 대기(build/results/jmh/row-lock-wait.csv)가 줄고 처리량이 늘어납니다. (PG 호출은 제외)
+ * ./gradlew jmh -PjmhIncludes=HotPathLockHoldBenchmark -PjmhThreads=32
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HotPathLockHoldBenchmark {
+
+	private static final long LECTURE_ID = 1L;
+
+	@Param({"false", "true"})
+	public boolean hotPath;
+
+	@Param({"1000000"})
+	public int capacity;
+
+	private final AtomicLong userIdSequence = new AtomicLong();
+
+	private BenchmarkApplication app;
+	private EnrollmentService enrollmentService;
+	private JdbcTemplate jdbc;
+	private RowLockStats lockStatsBefore;
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		app = BenchmarkApplication.start(Map.of("payment.hot-path.jdbc.enabled", hotPath));
+		enrollmentService = app.bean(EnrollmentService.class);
+		jdbc = app.jdbc();
+	}
+
+	@Setup(Level.Iteration)
+	public void resetLecture() {
+		app.resetLecture(LECTURE_ID, capacity);
+		lockStatsBefore = app.rowLockStats();
+	}
+
+	@TearDown(Level.Iteration)
+	public void reportRowLockWait() {
+		app.reportRowLockWait("HotPathLockHoldBenchmark", "hotPath=" + hotPath + "/capacity=" + capacity,
+			app.rowLockStats().minus(lockStatsBefore));
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		app.close();
+	}
+
+	@Benchmark
+	public void reserveAndFinalize() {
+		long userId = userIdSequence.incrementAndGet();
+		long paymentId = TsidFactory.global().next();
+		jdbc.update("INSERT INTO payment (id, lecture_id, user_id, status, created_at) VALUES (?, ?, ?, ?, NOW())",
+			paymentId, LECTURE_ID, userId, PaymentStatus.CREATED.getCode());
+
+		enrollmentService.enrollmentCountTryIncrement(LECTURE_ID, userId);
+		// 트랜잭션 2(PG 승인) 결과만 반영
+		jdbc.update("UPDATE payment SET status = ? WHERE id = ?", PaymentStatus.PAYMENT_PROCESSED.getCode(), paymentId);
+
+		PaymentRequest request = new PaymentRequest();
+		request.setPaymentId(paymentId);
+		request.setLectureId(LECTURE_ID);
+		request.setUserId(userId);
+		enrollmentService.finalizeEnrollment(request);
+	}
+}
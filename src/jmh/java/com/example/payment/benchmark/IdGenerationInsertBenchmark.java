@@ -0,0 +1,84 @@
+package com.example.payment.benchmark;
+
+import com.example.payment.entity.Enrollment;
+import jakarta.persistence.EntityManager;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 한 트랜잭션에서 rows 개의 수강 행을 persist 할 때의 처리 시간 비교
+ * - identity: 변경 전 방식. INSERT 마다 생성된 키를 받아야 하므로 Hibernate 가 배치를 쓰지 못합니다.
+ * - tsid: @TsidId. hibernate.jdbc.batch_size 단위로 묶여 rewriteBatchedStatements 로 여러 행 INSERT 가 됩니다.
+ * ./gradlew jmh -PjmhIncludes=IdGenerationInsertBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class IdGenerationInsertBenchmark {
+
+	@Param({"identity", "tsid"})
+	public String idStrategy;
+
+	@Param({"100", "1000"})
+	public int rows;
+
+	@Param({"50"})
+	public int batchSize;
+
+	private final AtomicLong userIdSequence = new AtomicLong();
+
+	private BenchmarkApplication app;
+	private EntityManager entityManager;
+	private TransactionTemplate transactionTemplate;
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		app = BenchmarkApplication.start(Map.of("payment.jpa.batch-size", batchSize));
+		entityManager = app.bean(EntityManager.class);
+		transactionTemplate = app.bean(TransactionTemplate.class);
+	}
+
+	@Setup(Level.Iteration)
+	public void resetTables() {
+		app.jdbc().update("DELETE FROM enrollment");
+		app.jdbc().update("DELETE FROM enrollment_identity");
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		app.close();
+	}
+
+	@Benchmark
+	public void insert() {
+		boolean tsid = "tsid".equals(idStrategy);
+		transactionTemplate.executeWithoutResult(status -> {
+			for (int i = 0; i < rows; i++) {
+				long userId = userIdSequence.incrementAndGet();
+				if (tsid) {
+					Enrollment enrollment = new Enrollment();
+					enrollment.setLectureId(1L);
+					enrollment.setUserId(userId);
+					entityManager.persist(enrollment);
+				} else {
+					IdentityEnrollment enrollment = new IdentityEnrollment();
+					enrollment.setLectureId(1L);
+					enrollment.setUserId(userId);
+					entityManager.persist(enrollment);
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,35 @@
+package com.example.payment.benchmark;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * 비교용: 변경 전 Enrollment 와 같은 IDENTITY(AUTO_INCREMENT) 키 엔티티 (IdGenerationInsertBenchmark 전용)
+ */
+@Entity
+@Table(name = "enrollment_identity")
+public class IdentityEnrollment {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	private Long lectureId;
+
+	private Long userId;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setLectureId(Long lectureId) {
+		this.lectureId = lectureId;
+	}
+
+	public void setUserId(Long userId) {
+		this.userId = userId;
+	}
+}
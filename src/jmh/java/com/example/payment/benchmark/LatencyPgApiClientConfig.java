@@ -0,0 +1,31 @@
+package com.example.payment.benchmark;
+
+import com.example.payment.web.controller.dto.PaymentRequest;
+import com.example.payment.web.external.MockPgApiClient;
+import com.example.payment.web.external.PgApiClient;
+import com.example.payment.web.external.dto.PaymentResponse;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * PG 승인 호출에 고정 지연(benchmark.pg-latency-ms)을 주입하는 벤치마크 전용 설정
+ * 컴포넌트 스캔 대상이 되지 않도록 @Configuration 없이 BenchmarkApplication 소스로만 등록합니다.
+ */
+class LatencyPgApiClientConfig {
+
+	@Bean
+	@Primary
+	PgApiClient latencyPgApiClient(@Value("${benchmark.pg-latency-ms:0}") long pgLatencyMs) {
+		return new MockPgApiClient() {
+			@Override
+			public PaymentResponse approve(PaymentRequest request) {
+				if (pgLatencyMs > 0) {
+					LockSupport.parkNanos(pgLatencyMs * 1_000_000L);
+				}
+				return super.approve(request);
+			}
+		};
+	}
+}
@@ -0,0 +1,101 @@
+package com.example.payment.benchmark;
+
+import com.example.payment.application.exception.BusinessException;
+import com.example.payment.application.orchestration.PaymentApproveOrchestration;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.entity.id.TsidFactory;
+import com.example.payment.support.EmbeddedMariaDb.RowLockStats;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * PaymentApprove1Phase vs PaymentApprove3Phase 비교 벤치마크.
+ * - Throughput: 초당 승인 처리량
+ * - SampleTime: 지연 분포(p99 포함)
+ * - 반복마다 enrollment_count 행 락 대기(Innodb_row_lock_*)를 build/results/jmh/row-lock-wait.csv 에 기록
+ *
+ * 스레드 수는 -PjmhThreads 로, 정원/PG 지연은 @Param 으로 조절합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PaymentApproveBenchmark {
+
+	private static final long LECTURE_ID = 1L;
+
+	@Param({"paymentApprove1Phase", "paymentApprove3Phase"})
+	public String orchestration;
+
+	@Param({"1000000"})
+	public int capacity;
+
+	@Param({"0", "50"})
+	public long pgLatencyMs;
+
+	private final AtomicLong userIdSequence = new AtomicLong();
+
+	private BenchmarkApplication app;
+	private PaymentApproveOrchestration approve;
+	private JdbcTemplate jdbc;
+	private RowLockStats lockStatsBefore;
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		app = BenchmarkApplication.start(Map.of("benchmark.pg-latency-ms", pgLatencyMs),
+			LatencyPgApiClientConfig.class);
+		approve = app.bean(orchestration, PaymentApproveOrchestration.class);
+		jdbc = app.jdbc();
+	}
+
+	@Setup(Level.Iteration)
+	public void resetLecture() {
+		app.resetLecture(LECTURE_ID, capacity);
+		lockStatsBefore = app.rowLockStats();
+	}
+
+	@TearDown(Level.Iteration)
+	public void reportRowLockWait() {
+		app.reportRowLockWait("PaymentApproveBenchmark",
+			orchestration + "/capacity=" + capacity + "/pgLatencyMs=" + pgLatencyMs,
+			app.rowLockStats().minus(lockStatsBefore));
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		app.close();
+	}
+
+	@Benchmark
+	public void approve(Blackhole blackhole) {
+		long userId = userIdSequence.incrementAndGet();
+		// 인증 단계에서 Payment가 CREATED로 생성된다고 가정
+		jdbc.update("INSERT INTO payment (id, lecture_id, user_id, status, created_at) VALUES (?, ?, ?, ?, NOW())",
+			TsidFactory.global().next(), LECTURE_ID, userId, PaymentStatus.CREATED.getCode());
+
+		PaymentRequest request = new PaymentRequest();
+		request.setLectureId(LECTURE_ID);
+		request.setUserId(userId);
+		request.setAmount(10000.0);
+		try {
+			approve.approve(request);
+			blackhole.consume(true);
+		} catch (BusinessException e) {
+			// 정원 초과 등 비즈니스 실패도 하나의 처리 결과로 측정
+			blackhole.consume(e);
+		}
+	}
+}
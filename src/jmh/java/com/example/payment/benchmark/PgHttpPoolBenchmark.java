@@ -0,0 +1,73 @@
+package com.example.payment.benchmark;
+
+import com.example.payment.config.HttpClientConfig;
+import com.example.payment.config.HttpClientConfig.PoolSettings;
+import com.example.payment.support.PgStubServer;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import com.example.payment.web.external.HttpPgApiClient;
+import com.example.payment.web.external.dto.PaymentResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 트랜잭션 2의 PG 승인 호출 지연을 커넥션 풀 크기/keep-alive 별로 비교합니다. (로컬 PgStubServer 사용)
+ * - maxPerRoute 가 동시 스레드 수보다 작으면 풀 대기 시간이 지연에 더해집니다.
+ * - keepAliveMs=0 이면 요청마다 TCP 연결을 새로 맺습니다.
+ * ./gradlew jmh -PjmhIncludes=PgHttpPoolBenchmark -PjmhThreads=32
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PgHttpPoolBenchmark {
+
+	private static final Logger log = LoggerFactory.getLogger(PgHttpPoolBenchmark.class);
+
+	@Param({"4", "64"})
+	public int maxPerRoute;
+
+	@Param({"0", "30000"})
+	public long keepAliveMs;
+
+	@Param({"0", "20"})
+	public long pgLatencyMs;
+
+	private final AtomicLong userIdSequence = new AtomicLong();
+
+	private PgStubServer pgStubServer;
+	private HttpPgApiClient client;
+
+	@Setup(Level.Trial)
+	public void start() {
+		pgStubServer = new PgStubServer().start().latencyMs(pgLatencyMs);
+		PoolSettings settings = new PoolSettings(maxPerRoute, maxPerRoute, 1000, 5000, 5000, keepAliveMs);
+		client = new HttpPgApiClient(HttpClientConfig.pooledRestTemplate(settings), pgStubServer.getBaseUrl());
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		log.info("PG stub connections: {}, requests: {}",
+			pgStubServer.getConnectionCount(), pgStubServer.getRequestCount());
+		pgStubServer.close();
+	}
+
+	@Benchmark
+	public PaymentResponse approve() {
+		PaymentRequest request = new PaymentRequest();
+		request.setLectureId(1L);
+		request.setUserId(userIdSequence.incrementAndGet());
+		request.setAmount(1000.0);
+		return client.approve(request);
+	}
+}
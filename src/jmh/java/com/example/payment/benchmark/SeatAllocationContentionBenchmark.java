@@ -0,0 +1,100 @@
+package com.example.payment.benchmark;
+
+import com.example.payment.application.exception.BusinessException;
+import com.example.payment.application.exception.CapacityExceededException;
+import com.example.payment.application.service.EnrollmentService;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.entity.id.TsidFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 좌석 확보 방식(payment.seat-allocation.strategy)별로 같은 강의에 몰린 트랜잭션 1의 처리량/꼬리 지연/포기율을 비교합니다.
+ * - 처리량: Throughput, 꼬리 지연: SampleTime 의 p0.99/p0.999
+ * - 포기율: 보조 카운터 aborted / (allocated + aborted) (경합으로 재시도까지 실패한 요청, 정원 초과는 soldOut 로 따로 셉니다)
+ * ./gradlew jmh -PjmhIncludes=SeatAllocationContentionBenchmark -PjmhThreads=32
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SeatAllocationContentionBenchmark {
+
+	@Param({"conditional-update", "pessimistic-lock", "optimistic", "named-lock", "in-memory", "leased"})
+	public String strategy;
+
+	@Param({"1000000"})
+	public int capacity;
+
+	private final AtomicLong userIdSequence = new AtomicLong();
+	// 좌석 장부가 강의를 한 번만 적재하므로 반복마다 새 강의를 씁니다.
+	private final AtomicLong lectureIdSequence = new AtomicLong();
+
+	private BenchmarkApplication app;
+	private EnrollmentService enrollmentService;
+	private JdbcTemplate jdbc;
+	private volatile long lectureId;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Outcomes {
+		public long allocated;
+		public long aborted;
+		public long soldOut;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			allocated = 0;
+			aborted = 0;
+			soldOut = 0;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		app = BenchmarkApplication.start(Map.of(
+			"payment.seat-allocation.strategy", strategy,
+			"payment.seat-ledger.enabled", "in-memory".equals(strategy)));
+		enrollmentService = app.bean(EnrollmentService.class);
+		jdbc = app.jdbc();
+	}
+
+	@Setup(Level.Iteration)
+	public void resetLecture() {
+		lectureId = lectureIdSequence.incrementAndGet();
+		app.resetLecture(lectureId, capacity);
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		app.close();
+	}
+
+	@Benchmark
+	public void reserveSeat(Outcomes outcomes) {
+		long lecture = lectureId;
+		long userId = userIdSequence.incrementAndGet();
+		jdbc.update("INSERT INTO payment (id, lecture_id, user_id, status, created_at) VALUES (?, ?, ?, ?, NOW())",
+			TsidFactory.global().next(), lecture, userId, PaymentStatus.CREATED.getCode());
+		try {
+			enrollmentService.enrollmentCountTryIncrement(lecture, userId);
+			outcomes.allocated++;
+		} catch (CapacityExceededException e) {
+			outcomes.soldOut++;
+		} catch (BusinessException e) {
+			outcomes.aborted++;
+		}
+	}
+}
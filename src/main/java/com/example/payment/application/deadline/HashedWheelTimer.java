@@ -0,0 +1,123 @@
+package com.example.payment.application.deadline;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 해시 타이머 휠: 기한을 tick 단위 칸(wheelSize 개)에 나눠 담아, 등록/취소는 O(1), 만료 확인은 지나간 칸만 봅니다.
+ * 한 바퀴(tick * wheelSize)보다 먼 기한은 남은 바퀴 수(rounds)를 세어 처리합니다.
+ * 키마다 기한은 하나이며, 같은 키로 다시 등록하면 이전 기한을 대체합니다.
+ * 스레드를 직접 갖지 않으며 호출자가 주기적으로 advance 를 호출합니다.
+ */
+public class HashedWheelTimer<K, V> {
+
+	private final long tickNanos;
+	private final long startNanos;
+	private final Slot<K, V>[] wheel;
+	private final int mask;
+	private final Map<K, Slot<K, V>> byKey = new HashMap<>();
+
+	// 다음에 처리할 tick
+	private long tick;
+
+	@SuppressWarnings("unchecked")
+	public HashedWheelTimer(long tickNanos, int wheelSize, long startNanos) {
+		if (tickNanos <= 0) {
+			throw new IllegalArgumentException("tickNanos must be > 0: " + tickNanos);
+		}
+		int size = Integer.highestOneBit(Math.max(wheelSize, 1) - 1) << 1;
+		size = Math.max(size, 1);
+		this.tickNanos = tickNanos;
+		this.startNanos = startNanos;
+		this.wheel = new Slot[size];
+		this.mask = size - 1;
+		for (int i = 0; i < size; i++) {
+			// 각 칸의 머리(sentinel) 노드
+			Slot<K, V> head = new Slot<>(null, null);
+			head.prev = head;
+			head.next = head;
+			wheel[i] = head;
+		}
+	}
+
+	/**
+	 * deadlineNanos(startNanos 와 같은 시계) 이후 처음 오는 tick 에 만료되도록 등록합니다.
+	 */
+	public synchronized void schedule(K key, V value, long deadlineNanos) {
+		cancel(key);
+		long target = Math.max(ceilDiv(deadlineNanos - startNanos, tickNanos), tick);
+		Slot<K, V> slot = new Slot<>(key, value);
+		slot.rounds = (target - tick) / wheel.length;
+		Slot<K, V> head = wheel[(int) (target & mask)];
+		slot.prev = head.prev;
+		slot.next = head;
+		head.prev.next = slot;
+		head.prev = slot;
+		byKey.put(key, slot);
+	}
+
+	public synchronized boolean cancel(K key) {
+		Slot<K, V> slot = byKey.remove(key);
+		if (slot == null) {
+			return false;
+		}
+		unlink(slot);
+		return true;
+	}
+
+	/**
+	 * nowNanos 까지 지나간 tick 의 칸을 처리하고 만료된 값을 반환합니다.
+	 */
+	public synchronized List<V> advance(long nowNanos) {
+		long lastTick = Math.floorDiv(nowNanos - startNanos, tickNanos);
+		List<V> expired = new ArrayList<>();
+		// 호출이 늦어 밀린 tick 도 차례로 처리해 남은 바퀴 수를 맞춥니다.
+		while (tick <= lastTick) {
+			Slot<K, V> head = wheel[(int) (tick & mask)];
+			Slot<K, V> slot = head.next;
+			while (slot != head) {
+				Slot<K, V> next = slot.next;
+				if (slot.rounds <= 0) {
+					unlink(slot);
+					byKey.remove(slot.key);
+					expired.add(slot.value);
+				} else {
+					slot.rounds--;
+				}
+				slot = next;
+			}
+			tick++;
+		}
+		return expired;
+	}
+
+	public synchronized int size() {
+		return byKey.size();
+	}
+
+	private static void unlink(Slot<?, ?> slot) {
+		slot.prev.next = slot.next;
+		slot.next.prev = slot.prev;
+		slot.prev = null;
+		slot.next = null;
+	}
+
+	private static long ceilDiv(long x, long y) {
+		return -Math.floorDiv(-x, y);
+	}
+
+	private static final class Slot<K, V> {
+		private final K key;
+		private final V value;
+		private long rounds;
+		private Slot<K, V> prev;
+		private Slot<K, V> next;
+
+		private Slot(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,262 @@
+package com.example.payment.application.deadline;
+
+import com.example.payment.application.service.PaymentAdjustmentService;
+import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.repository.PaymentRepository;
+import com.example.payment.repository.PendingPayment;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * 결제별 단계 기한 타이머
+ * - PaymentApprove3Phase 가 단계를 마칠 때마다 현재 상태의 기한(payment.deadline.*-ms)을 등록하고, 최종 완료/보상으로 넘어가면 해제합니다.
+ * - 기한이 지난 결제만 DB 에서 상태를 다시 확인해, 아직 같은 상태에 머물러 있으면 PaymentAdjustmentService 로 보정합니다.
+ *   그래서 전체 조회(PaymentAdjustmentService.adjustPendingPayments)는 낮은 주기의 안전망으로만 둡니다.
+ * - 기한은 메모리의 해시 타이머 휠(HashedWheelTimer)에 두고, 시작 시 DB 의 미완료 결제로 다시 채웁니다. (생성 시각 + 상태별 기한)
+ * - 최대 max-tracked 건까지만 추적하며, 넘치는 결제는 전체 조회가 처리합니다.
+ * - 지표: payment.deadline.tracked, payment.deadline.expired, payment.deadline.adjusted
+ */
+@Component
+@Slf4j
+public class PaymentDeadlineTracker {
+
+	private final PaymentRepository paymentRepository;
+	private final PaymentAdjustmentService paymentAdjustmentService;
+	private final boolean enabled;
+	private final Map<PaymentStatus, Long> timeoutNanos = new EnumMap<>(PaymentStatus.class);
+	private final int maxTracked;
+	private final LongSupplier nanoClock;
+	private final long tickMillis;
+	private final HashedWheelTimer<String, PaymentDeadline> wheel;
+	private final ThreadPoolTaskScheduler ticker;
+
+	private final Counter expiredCounter;
+	private final Counter adjustedCounter;
+
+	@Autowired
+	public PaymentDeadlineTracker(PaymentRepository paymentRepository,
+		PaymentAdjustmentService paymentAdjustmentService,
+		MeterRegistry meterRegistry,
+		@Value("${payment.deadline.enabled:true}") boolean enabled,
+		@Value("${payment.deadline.created-ms:300000}") long createdMillis,
+		@Value("${payment.deadline.count-updated-ms:300000}") long countUpdatedMillis,
+		@Value("${payment.deadline.payment-processed-ms:300000}") long paymentProcessedMillis,
+		@Value("${payment.deadline.default-ms:300000}") long defaultMillis,
+		@Value("${payment.deadline.tick-ms:1000}") long tickMillis,
+		@Value("${payment.deadline.wheel-size:512}") int wheelSize,
+		@Value("${payment.deadline.max-tracked:200000}") int maxTracked,
+		@Value("${payment.request-deadline.max-ms:120000}") long maxRequestMillis) {
+		this(paymentRepository, paymentAdjustmentService, meterRegistry, enabled,
+			validated(timeouts(createdMillis, countUpdatedMillis, paymentProcessedMillis, defaultMillis), maxRequestMillis),
+			tickMillis, wheelSize, maxTracked, System::nanoTime);
+	}
+
+	PaymentDeadlineTracker(PaymentRepository paymentRepository,
+		PaymentAdjustmentService paymentAdjustmentService,
+		MeterRegistry meterRegistry,
+		boolean enabled,
+		Map<PaymentStatus, Long> timeoutMillis,
+		long tickMillis,
+		int wheelSize,
+		int maxTracked,
+		LongSupplier nanoClock) {
+		this.paymentRepository = paymentRepository;
+		this.paymentAdjustmentService = paymentAdjustmentService;
+		this.enabled = enabled;
+		timeoutMillis.forEach((status, millis) -> timeoutNanos.put(status, TimeUnit.MILLISECONDS.toNanos(millis)));
+		this.maxTracked = maxTracked;
+		this.nanoClock = nanoClock;
+		this.tickMillis = Math.max(tickMillis, 1);
+		this.wheel = new HashedWheelTimer<>(TimeUnit.MILLISECONDS.toNanos(this.tickMillis), wheelSize,
+			nanoClock.getAsLong());
+		// 기한 확인은 DB/PG 를 호출하므로 @Scheduled 스레드와 분리된 전용 스레드에서 실행합니다.
+		this.ticker = new ThreadPoolTaskScheduler();
+		ticker.setPoolSize(1);
+		ticker.setThreadNamePrefix("payment-deadline-");
+
+		Gauge.builder("payment.deadline.tracked", wheel, HashedWheelTimer::size)
+			.description("기한을 추적 중인 결제 수")
+			.register(meterRegistry);
+		this.expiredCounter = Counter.builder("payment.deadline.expired")
+			.description("단계 기한이 지난 결제 수")
+			.register(meterRegistry);
+		this.adjustedCounter = Counter.builder("payment.deadline.adjusted")
+			.description("기한이 지나 FINAL_COMPLETED 로 보정한 결제 수")
+			.register(meterRegistry);
+	}
+
+	@PostConstruct
+	public void start() {
+		if (enabled) {
+			ticker.initialize();
+			ticker.scheduleWithFixedDelay(this::tick, Duration.ofMillis(tickMillis));
+		}
+	}
+
+	/**
+	 * 결제가 status 상태에 들어왔음을 기록합니다. (이전 단계의 기한은 대체)
+	 */
+	public void track(PaymentRequest paymentRequest, PaymentStatus status) {
+		if (!enabled || paymentRequest.getLectureId() == null || paymentRequest.getUserId() == null) {
+			return;
+		}
+		schedule(new PaymentDeadline(paymentRequest.getPaymentId(), paymentRequest.getLectureId(),
+			paymentRequest.getUserId(), status), nanoClock.getAsLong() + timeoutOf(status));
+	}
+
+	/**
+	 * 최종 완료되었거나 보상으로 넘어간 결제의 기한을 해제합니다.
+	 */
+	public void untrack(PaymentRequest paymentRequest) {
+		if (!enabled) {
+			return;
+		}
+		wheel.cancel(key(paymentRequest.getLectureId(), paymentRequest.getUserId()));
+	}
+
+	/**
+	 * 시작 시 DB 의 미완료 결제로 기한을 다시 채웁니다. (상태 변경 시각이 없으므로 생성 시각 기준)
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		long nowNanos = nanoClock.getAsLong();
+		LocalDateTime now = LocalDateTime.now();
+		int[] restored = {0};
+		try {
+			paymentAdjustmentService.forEachPendingPage(now, page -> {
+				for (PendingPayment payment : page) {
+					if (wheel.size() >= maxTracked) {
+						return false;
+					}
+					long ageNanos = payment.createdAt() == null ? 0 : Duration.between(payment.createdAt(), now).toNanos();
+					schedule(new PaymentDeadline(payment.id(), payment.lectureId(), payment.userId(), payment.status()),
+						nowNanos - ageNanos + timeoutOf(payment.status()));
+					restored[0]++;
+				}
+				return true;
+			});
+			log.info("Restored {} payment deadlines", restored[0]);
+		} catch (Exception e) {
+			// 복원하지 못한 결제는 전체 조회가 처리
+			log.error("Failed to restore payment deadlines. {}", e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 지나간 tick 의 기한을 꺼내, 아직 같은 상태에 머문 결제만 보정합니다.
+	 */
+	void tick() {
+		List<PaymentDeadline> expired = wheel.advance(nanoClock.getAsLong());
+		if (expired.isEmpty()) {
+			return;
+		}
+		expiredCounter.increment(expired.size());
+		try {
+			List<PendingPayment> stuck = new ArrayList<>();
+			for (PaymentDeadline deadline : expired) {
+				Payment payment = deadline.paymentId() != null
+					? paymentRepository.findById(deadline.paymentId()).orElse(null)
+					: paymentRepository.findByLectureIdAndUserIdAndStatus(deadline.lectureId(), deadline.userId(), deadline.status());
+				if (payment != null && payment.getStatus() == deadline.status()
+					&& !PaymentStatus.NOT_ADJUSTABLE.contains(payment.getStatus())) {
+					stuck.add(new PendingPayment(payment.getId(), payment.getLectureId(), payment.getUserId(),
+						payment.getStatus(), payment.getCreatedAt()));
+				}
+			}
+			if (!stuck.isEmpty()) {
+				long adjusted = paymentAdjustmentService.adjust(stuck);
+				adjustedCounter.increment(adjusted);
+				log.info("Payment deadlines expired: {}, stuck: {}, adjusted: {}", expired.size(), stuck.size(), adjusted);
+			}
+		} catch (Exception e) {
+			// 확인하지 못한 결제는 전체 조회가 처리
+			log.error("Failed to check expired payment deadlines. {}", e.getMessage(), e);
+		}
+	}
+
+	int getTrackedCount() {
+		return wheel.size();
+	}
+
+	private void schedule(PaymentDeadline deadline, long deadlineNanos) {
+		String key = key(deadline.lectureId(), deadline.userId());
+		if (wheel.size() >= maxTracked) {
+			// 이미 추적 중인 결제의 단계 갱신은 허용
+			if (!wheel.cancel(key)) {
+				return;
+			}
+		}
+		wheel.schedule(key, deadline, deadlineNanos);
+	}
+
+	private long timeoutOf(PaymentStatus status) {
+		return timeoutNanos.get(status);
+	}
+
+	// 진행 중인 결제는 강의/사용자별로 하나이므로 결제 ID 가 아직 없는 동기 승인과 같은 키를 씁니다.
+	private static String key(Long lectureId, Long userId) {
+		return lectureId + ":" + userId;
+	}
+
+	/**
+	 * 상태별 기한 (CREATED, COUNT_UPDATED, PAYMENT_PROCESSED 외의 상태는 defaultMillis)
+	 */
+	static Map<PaymentStatus, Long> timeouts(long createdMillis, long countUpdatedMillis,
+		long paymentProcessedMillis, long defaultMillis) {
+		Map<PaymentStatus, Long> timeouts = new EnumMap<>(PaymentStatus.class);
+		for (PaymentStatus status : PaymentStatus.values()) {
+			timeouts.put(status, defaultMillis);
+		}
+		timeouts.put(PaymentStatus.CREATED, createdMillis);
+		timeouts.put(PaymentStatus.COUNT_UPDATED, countUpdatedMillis);
+		timeouts.put(PaymentStatus.PAYMENT_PROCESSED, paymentProcessedMillis);
+		return timeouts;
+	}
+
+	/**
+	 * 진행 중인 사가보다 먼저 보정하면 사가의 다음 상태 변경이 실패해 보상으로 넘어가므로,
+	 * 단계 기한은 한 단계가 걸릴 수 있는 최대 시간(요청 기한 상한, PG 재시도 포함)보다 길어야 합니다.
+	 */
+	static Map<PaymentStatus, Long> validated(Map<PaymentStatus, Long> timeouts, long maxRequestMillis) {
+		timeouts.forEach((status, millis) -> {
+			if (millis <= maxRequestMillis) {
+				throw new IllegalArgumentException("payment.deadline for " + status + " (" + millis
+					+ "ms) must be longer than payment.request-deadline.max-ms (" + maxRequestMillis + "ms)");
+			}
+		});
+		return timeouts;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (enabled) {
+			ticker.shutdown();
+		}
+	}
+
+	record PaymentDeadline(Long paymentId, Long lectureId, Long userId, PaymentStatus status) {
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.payment.application.deadline;
+
+import com.example.payment.application.service.EnrollmentService;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+import org.springframework.retry.listener.RetryListenerSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * PG 승인 재시도(EnrollmentService.processPayment)를 요청 기한에 맞춰 멈추는 리스너
+ * 실패 직후(백오프 대기 전)에 남은 시간이 "최대 대기 + PG 1회 시도 시간"보다 짧으면 재시도를 끝내,
+ * 어차피 기한 안에 끝나지 않을 대기/호출 없이 바로 보상으로 넘깁니다.
+ * (spring-retry 1.3 의 RetryListener 는 open/close 가 추상 메서드이므로 RetryListenerSupport 를 상속합니다)
+ * - 지표: payment.request_deadline.retry_stopped
+ */
+@Component("pgRetryDeadlineListener")
+@Slf4j
+public class PgRetryDeadlineListener extends RetryListenerSupport {
+
+	private final long attemptMillis;
+	private final Counter stoppedCounter;
+
+	public PgRetryDeadlineListener(MeterRegistry meterRegistry,
+		@Value("${payment.request-deadline.pg-attempt-ms:${payment.pg.http.read-timeout-ms:3000}}") long attemptMillis) {
+		this.attemptMillis = attemptMillis;
+		this.stoppedCounter = Counter.builder("payment.request_deadline.retry_stopped")
+			.description("요청 기한이 부족해 멈춘 PG 재시도 수")
+			.register(meterRegistry);
+	}
+
+	@Override
+	public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+		Throwable throwable) {
+		RequestDeadline deadline = deadlineOf(callback);
+		if (deadline == null) {
+			return;
+		}
+		long remainingMillis = deadline.remainingMillis();
+		if (remainingMillis < EnrollmentService.PG_RETRY_MAX_BACKOFF_MS + attemptMillis) {
+			context.setExhaustedOnly();
+			stoppedCounter.increment();
+			log.info("Stop PG retry after attempt {}: remaining deadline {}ms is not enough", context.getRetryCount(),
+				remainingMillis);
+		}
+	}
+
+	static RequestDeadline deadlineOf(RetryCallback<?, ?> callback) {
+		if (callback instanceof MethodInvocationRetryCallback<?, ?> invocationCallback) {
+			for (Object argument : invocationCallback.getInvocation().getArguments()) {
+				if (argument instanceof PaymentRequest paymentRequest) {
+					return paymentRequest.getDeadline();
+				}
+			}
+		}
+		return null;
+	}
+}
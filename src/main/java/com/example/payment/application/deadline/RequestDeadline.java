@@ -0,0 +1,51 @@
+package com.example.payment.application.deadline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 클라이언트가 결과를 기다리는 요청 기한
+ * PaymentRequest 에 실려 트랜잭션 2, 3과 PG 호출 시간 제한, 재시도 판단까지 전달됩니다.
+ * 같은 JVM 안에서만 쓰이므로 시계 변경에 영향받지 않는 nanoTime 기준으로 계산합니다. (null 이면 기한 없음)
+ */
+public final class RequestDeadline {
+
+	private final long expiresAtNanos;
+	private final LongSupplier nanoClock;
+
+	private RequestDeadline(long expiresAtNanos, LongSupplier nanoClock) {
+		this.expiresAtNanos = expiresAtNanos;
+		this.nanoClock = nanoClock;
+	}
+
+	public static RequestDeadline after(long timeoutMillis) {
+		return after(timeoutMillis, System::nanoTime);
+	}
+
+	static RequestDeadline after(long timeoutMillis, LongSupplier nanoClock) {
+		return new RequestDeadline(nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis), nanoClock);
+	}
+
+	/**
+	 * 남은 시간 (지났으면 0)
+	 */
+	public long remainingMillis() {
+		return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - nanoClock.getAsLong()));
+	}
+
+	public boolean isExpired() {
+		return expiresAtNanos - nanoClock.getAsLong() <= 0;
+	}
+
+	/**
+	 * 기한이 있고 이미 지났는지 (null 이면 기한 없음)
+	 */
+	public static boolean isExpired(RequestDeadline deadline) {
+		return deadline != null && deadline.isExpired();
+	}
+
+	@Override
+	public String toString() {
+		return "RequestDeadline[remainingMs=" + remainingMillis() + "]";
+	}
+}
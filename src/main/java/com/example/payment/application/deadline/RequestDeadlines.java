@@ -0,0 +1,63 @@
+package com.example.payment.application.deadline;
+
+import com.example.payment.application.exception.BusinessException;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 요청 기한 결정: Request-Timeout-Ms 헤더(밀리초)가 있으면 그 값을, 없으면 엔드포인트별 기본값을 사용합니다.
+ * 헤더 값은 payment.request-deadline.max-ms 를 넘지 않도록 잘라냅니다.
+ */
+@Component
+public class RequestDeadlines {
+
+	public static final String HEADER = "Request-Timeout-Ms";
+
+	public enum Endpoint {
+		// POST /payment: 클라이언트가 세 단계가 끝날 때까지 기다림
+		PAYMENT,
+		// POST /payments/batch
+		BATCH,
+		// POST /payment/async: 응답은 트랜잭션 1 직후지만 트랜잭션 2, 3도 이 기한 안에 끝나야 함
+		ASYNC
+	}
+
+	private final Map<Endpoint, Long> defaultMillis = new EnumMap<>(Endpoint.class);
+	private final long maxMillis;
+
+	public RequestDeadlines(
+		@Value("${payment.request-deadline.payment-ms:10000}") long paymentMillis,
+		@Value("${payment.request-deadline.batch-ms:30000}") long batchMillis,
+		@Value("${payment.request-deadline.async-ms:60000}") long asyncMillis,
+		@Value("${payment.request-deadline.max-ms:120000}") long maxMillis) {
+		defaultMillis.put(Endpoint.PAYMENT, paymentMillis);
+		defaultMillis.put(Endpoint.BATCH, batchMillis);
+		defaultMillis.put(Endpoint.ASYNC, asyncMillis);
+		this.maxMillis = maxMillis;
+	}
+
+	/**
+	 * @param header Request-Timeout-Ms 헤더 값 (없으면 null)
+	 */
+	public RequestDeadline resolve(Endpoint endpoint, String header) {
+		return RequestDeadline.after(timeoutMillis(endpoint, header));
+	}
+
+	long timeoutMillis(Endpoint endpoint, String header) {
+		if (header == null || header.isBlank()) {
+			return defaultMillis.get(endpoint);
+		}
+		long timeout;
+		try {
+			timeout = Long.parseLong(header.trim());
+		} catch (NumberFormatException e) {
+			throw new BusinessException(HEADER + " 헤더는 밀리초 단위 정수여야 합니다.");
+		}
+		if (timeout <= 0) {
+			throw new BusinessException(HEADER + " 헤더는 0보다 커야 합니다.");
+		}
+		return Math.min(timeout, maxMillis);
+	}
+}
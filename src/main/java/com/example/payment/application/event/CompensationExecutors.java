@@ -0,0 +1,137 @@
+package com.example.payment.application.event;
+
+import com.example.payment.entity.CompensationOutbox;
+import com.example.payment.repository.CompensationOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 보상 단계별 전용 실행기 (벌크헤드)
+ * - 단계마다 크기가 제한된 스레드 풀/큐를 따로 두어, 매진 시 몰리는 트랜잭션 1 보상이 좌석/결제를 되돌리는 트랜잭션 2, 3 보상을 밀어내지 않도록 합니다.
+ * - 큐가 가득 차면 작업을 버리지 않고 compensation_outbox 에 기록해 CompensationOutboxRelay 가 처리하도록 넘깁니다.
+ *   기록마저 실패하면 호출 스레드에서 직접 실행합니다.
+ * - 지표: payment.compensation.executor.active / queue / wait / rejected (phase 태그)
+ */
+@Component
+@Slf4j
+public class CompensationExecutors {
+
+	private final CompensationOutboxRepository compensationOutboxRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final Map<CompensationOutbox.Type, Bulkhead> bulkheads = new EnumMap<>(CompensationOutbox.Type.class);
+
+	public CompensationExecutors(CompensationOutboxRepository compensationOutboxRepository,
+		PlatformTransactionManager transactionManager,
+		MeterRegistry meterRegistry,
+		@Value("${payment.compensation.executor.first.pool-size:2}") int firstPoolSize,
+		@Value("${payment.compensation.executor.first.queue-capacity:1000}") int firstQueueCapacity,
+		@Value("${payment.compensation.executor.second.pool-size:4}") int secondPoolSize,
+		@Value("${payment.compensation.executor.second.queue-capacity:500}") int secondQueueCapacity,
+		@Value("${payment.compensation.executor.final.pool-size:4}") int finalPoolSize,
+		@Value("${payment.compensation.executor.final.queue-capacity:500}") int finalQueueCapacity) {
+		this.compensationOutboxRepository = compensationOutboxRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		// 발행 스레드의 트랜잭션이 롤백되더라도 기록은 남도록 분리합니다.
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+		// Executor 빈으로 등록하면 Spring Boot 기본 @Async 실행기가 비활성화되므로 내부에서 직접 관리합니다.
+		bulkheads.put(CompensationOutbox.Type.FIRST,
+			new Bulkhead(CompensationOutbox.Type.FIRST, firstPoolSize, firstQueueCapacity, meterRegistry));
+		bulkheads.put(CompensationOutbox.Type.SECOND,
+			new Bulkhead(CompensationOutbox.Type.SECOND, secondPoolSize, secondQueueCapacity, meterRegistry));
+		bulkheads.put(CompensationOutbox.Type.FINAL,
+			new Bulkhead(CompensationOutbox.Type.FINAL, finalPoolSize, finalQueueCapacity, meterRegistry));
+	}
+
+	/**
+	 * 단계 전용 실행기에서 보상을 실행합니다.
+	 * @param fallback 큐가 가득 찼을 때 compensation_outbox 에 기록할 행
+	 */
+	public void execute(CompensationOutbox.Type phase, Runnable task, Supplier<CompensationOutbox> fallback) {
+		Bulkhead bulkhead = bulkheads.get(phase);
+		long submittedAt = System.nanoTime();
+		try {
+			bulkhead.executor.execute(() -> {
+				bulkhead.waitTime.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+				task.run();
+			});
+		} catch (TaskRejectedException e) {
+			bulkhead.rejected.increment();
+			divert(phase, task, fallback);
+		}
+	}
+
+	private void divert(CompensationOutbox.Type phase, Runnable task, Supplier<CompensationOutbox> fallback) {
+		try {
+			CompensationOutbox outbox = fallback.get();
+			transactionTemplate.executeWithoutResult(status -> compensationOutboxRepository.save(outbox));
+			log.warn("Compensation executor for phase {} is saturated, diverted to outbox for lectureId: {}, userId: {}",
+				phase, outbox.getLectureId(), outbox.getUserId());
+		} catch (Exception e) {
+			log.error("Compensation outbox write failed for phase {}, running on caller thread. {}", phase, e.getMessage(), e);
+			task.run();
+		}
+	}
+
+	int getQueueSize(CompensationOutbox.Type phase) {
+		return bulkheads.get(phase).executor.getQueueSize();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		bulkheads.values().forEach(bulkhead -> bulkhead.executor.shutdown());
+	}
+
+	private static final class Bulkhead {
+
+		private final ThreadPoolTaskExecutor executor;
+		private final Timer waitTime;
+		private final Counter rejected;
+
+		private Bulkhead(CompensationOutbox.Type phase, int poolSize, int queueCapacity, MeterRegistry meterRegistry) {
+			String name = phase.name().toLowerCase(Locale.ROOT);
+			this.executor = new ThreadPoolTaskExecutor();
+			executor.setThreadNamePrefix("compensation-" + name + "-");
+			executor.setCorePoolSize(Math.max(poolSize, 1));
+			executor.setMaxPoolSize(Math.max(poolSize, 1));
+			executor.setQueueCapacity(Math.max(queueCapacity, 0));
+			// 기본 AbortPolicy: 거절되면 TaskRejectedException 으로 받아 아웃박스로 넘깁니다.
+			executor.setWaitForTasksToCompleteOnShutdown(true);
+			executor.setAwaitTerminationSeconds(30);
+			executor.initialize();
+
+			Gauge.builder("payment.compensation.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+				.description("보상 실행 중인 스레드 수")
+				.tag("phase", name)
+				.register(meterRegistry);
+			Gauge.builder("payment.compensation.executor.queue", executor, ThreadPoolTaskExecutor::getQueueSize)
+				.description("실행 대기 중인 보상 수")
+				.tag("phase", name)
+				.register(meterRegistry);
+			this.waitTime = Timer.builder("payment.compensation.executor.wait")
+				.description("보상이 큐에서 실행되기까지 기다린 시간")
+				.tag("phase", name)
+				.register(meterRegistry);
+			this.rejected = Counter.builder("payment.compensation.executor.rejected")
+				.description("큐가 가득 차 아웃박스로 넘긴 보상 수")
+				.tag("phase", name)
+				.register(meterRegistry);
+		}
+	}
+}
@@ -1,33 +1,47 @@
 package com.example.payment.application.event;
 
 
-import com.example.payment.application.service.CompensationService;
+import com.example.payment.application.service.CompensationRetryScheduler;
+import com.example.payment.entity.CompensationOutbox;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+/**
+ * 보상 이벤트를 단계별 전용 실행기(CompensationExecutors)에서 처리합니다. 실패 시 재시도는 CompensationRetryScheduler 가 예약합니다.
+ * payment.compensation.outbox.enabled=true 이면 대신 아웃박스(CompensationOutboxWriter/Relay)로 처리합니다.
+ */
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "payment.compensation.outbox.enabled", havingValue = "false", matchIfMissing = true)
 public class PaymentCompensationListener {
 
-	private final CompensationService compensationService;
+	private final CompensationExecutors compensationExecutors;
+	private final CompensationRetryScheduler compensationRetryScheduler;
+
 	@EventListener
-	@Async
 	public void firstPhaseCompensation(FirstCompensationEvent event) {
-		compensationService.firstCompensationProcess(event);
+		compensationExecutors.execute(CompensationOutbox.Type.FIRST,
+			() -> compensationRetryScheduler.firstCompensation(event),
+			() -> CompensationOutbox.of(CompensationOutbox.Type.FIRST,
+				event.getPaymentId(), event.getLectureId(), event.getUserId(), event.getReason()));
 	}
 
 	@EventListener
-	@Async
 	public void secondPhaseCompensation(SecondCompensationEvent event) {
-		compensationService.secondCompensationProcess(event);
+		compensationExecutors.execute(CompensationOutbox.Type.SECOND,
+			() -> compensationRetryScheduler.secondCompensation(event),
+			() -> CompensationOutbox.of(CompensationOutbox.Type.SECOND,
+				event.getPaymentId(), event.getLectureId(), event.getUserId(), event.getReason()));
 	}
 
 	@EventListener
-	@Async
 	public void finalPhaseCompensation(FinalCompensationEvent event) {
-		compensationService.finalCompensationProcess(event);
+		compensationExecutors.execute(CompensationOutbox.Type.FINAL,
+			() -> compensationRetryScheduler.finalCompensation(event),
+			() -> CompensationOutbox.of(CompensationOutbox.Type.FINAL,
+				event.getPaymentId(), event.getLectureId(), event.getUserId(), event.getReason()));
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package com.example.payment.application.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 비동기 결제 파이프라인의 진행 상태 변경 알림 (SSE 로 클라이언트에 전달)
+ */
+@Getter
+public class PaymentStatusChangedEvent extends ApplicationEvent {
+	private final Long paymentId;
+	private final String status;
+	private final String message;
+	// 더 이상 상태 변경 알림이 없는 마지막 이벤트 여부
+	private final boolean terminal;
+
+	public PaymentStatusChangedEvent(Object source, Long paymentId, String status, String message, boolean terminal) {
+		super(source);
+		this.paymentId = paymentId;
+		this.status = status;
+		this.message = message;
+		this.terminal = terminal;
+	}
+}
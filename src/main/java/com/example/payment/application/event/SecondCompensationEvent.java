@@ -7,12 +7,19 @@ import org.springframework.context.ApplicationEvent;
 @Getter
 @Setter
 public class SecondCompensationEvent extends ApplicationEvent {
+	// 결제 ID (알 수 없는 경우 null, 이때는 lectureId/userId 로 Payment 를 찾습니다)
+	private final Long paymentId;
 	private final Long lectureId;
 	private final Long userId;
 	private final String reason;
 
 	public SecondCompensationEvent(Object source, Long lectureId, Long userId, String reason) {
+		this(source, null, lectureId, userId, reason);
+	}
+
+	public SecondCompensationEvent(Object source, Long paymentId, Long lectureId, Long userId, String reason) {
 		super(source);
+		this.paymentId = paymentId;
 		this.lectureId = lectureId;
 		this.userId = userId;
 		this.reason = reason;
@@ -0,0 +1,10 @@
+package com.example.payment.application.exception;
+
+/**
+ * 강의 정원이 모두 찬 경우 (동시성 제어 단계의 좌석 확보 실패)
+ */
+public class CapacityExceededException extends BusinessException {
+	public CapacityExceededException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,10 @@
+package com.example.payment.application.exception;
+
+/**
+ * 요청 기한이 지나 남은 단계를 진행하지 않는 경우 (재시도하지 않고 보상으로 넘깁니다)
+ */
+public class DeadlineExceededException extends BusinessException {
+	public DeadlineExceededException(String message) {
+		super(message);
+	}
+}
@@ -14,6 +14,18 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
 	}
 
+	@ExceptionHandler(IdempotencyKeyReuseException.class)
+	public ResponseEntity<?> handleIdempotencyKeyReuseException(IdempotencyKeyReuseException ex) {
+		// 같은 키로 다른 요청을 보낸 경우 422 Unprocessable Entity
+		return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ex.getMessage());
+	}
+
+	@ExceptionHandler(IdempotencyInProgressException.class)
+	public ResponseEntity<?> handleIdempotencyInProgressException(IdempotencyInProgressException ex) {
+		// 같은 키의 요청이 아직 처리 중인 경우 409 Conflict (클라이언트는 잠시 후 재시도)
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+	}
+
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<?> handleException(Exception ex) {
 		// 기타 모든 예외 발생 시 500 Internal Server Error 반환
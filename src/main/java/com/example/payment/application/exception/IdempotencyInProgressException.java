@@ -0,0 +1,10 @@
+package com.example.payment.application.exception;
+
+/**
+ * 같은 Idempotency-Key 의 요청이 아직 처리 중이어서 결과를 돌려줄 수 없는 경우 (다른 노드에서 처리 중이거나 대기 시간 초과)
+ */
+public class IdempotencyInProgressException extends BusinessException {
+	public IdempotencyInProgressException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,10 @@
+package com.example.payment.application.exception;
+
+/**
+ * 같은 Idempotency-Key 로 내용이 다른 요청이 들어온 경우
+ */
+public class IdempotencyKeyReuseException extends BusinessException {
+	public IdempotencyKeyReuseException(String message) {
+		super(message);
+	}
+}
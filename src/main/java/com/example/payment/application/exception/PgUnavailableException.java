@@ -0,0 +1,10 @@
+package com.example.payment.application.exception;
+
+/**
+ * PG 회로 차단기가 열려 있거나 동시 호출 한도를 넘어 PG 를 호출하지 않은 경우
+ */
+public class PgUnavailableException extends BusinessException {
+	public PgUnavailableException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,11 @@
+package com.example.payment.application.exception;
+
+/**
+ * 좌석 확보 중 다른 요청과 경합해 확보하지 못한 경우 (버전 충돌, 네임드 락 대기 시간 초과)
+ * 정원 초과와 달리 새 트랜잭션에서 다시 시도하면 성공할 수 있습니다.
+ */
+public class SeatAllocationConflictException extends BusinessException {
+	public SeatAllocationConflictException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,229 @@
+package com.example.payment.application.idempotency;
+
+import com.example.payment.application.exception.IdempotencyInProgressException;
+import com.example.payment.application.exception.IdempotencyKeyReuseException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Idempotency-Key 별 응답 캐시 (크기 제한 + TTL)
+ * - 처음 들어온 키는 요청을 처리하고 응답을 저장합니다.
+ * - 같은 키가 처리 중에 다시 들어오면 새로 처리하지 않고 진행 중인 처리의 결과를 기다려 돌려줍니다.
+ * - 처리가 끝난 키는 DB 를 거치지 않고 저장된 응답을 그대로 돌려줍니다.
+ * - 같은 키로 내용이 다른 요청이 들어오면 IdempotencyKeyReuseException 을 던집니다.
+ * - 예기치 못한 예외(5xx)는 저장하지 않으므로 같은 키로 다시 시도할 수 있습니다.
+ * payment.idempotency.persistent.enabled=true 이면 IdempotencyRecordStore 로 노드 간/재시작 후에도 결과를 공유합니다.
+ */
+@Component
+@Slf4j
+public class IdempotencyCache {
+
+	// MariaDB/MySQL ER_DUP_ENTRY
+	private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+
+	private final IdempotencyRecordStore recordStore;
+	private final int maxEntries;
+	private final long ttlMillis;
+	private final long waitTimeoutMillis;
+
+	// 삽입 순서 = 만료 순서 (TTL 이 모두 같음)
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+	@Autowired
+	public IdempotencyCache(ObjectProvider<IdempotencyRecordStore> recordStore,
+		@Value("${payment.idempotency.max-entries:100000}") int maxEntries,
+		@Value("${payment.idempotency.ttl-seconds:3600}") long ttlSeconds,
+		@Value("${payment.idempotency.wait-timeout-ms:30000}") long waitTimeoutMillis) {
+		this(recordStore.getIfAvailable(), maxEntries, TimeUnit.SECONDS.toMillis(ttlSeconds), waitTimeoutMillis);
+	}
+
+	IdempotencyCache(IdempotencyRecordStore recordStore, int maxEntries, long ttlMillis, long waitTimeoutMillis) {
+		this.recordStore = recordStore;
+		this.maxEntries = Math.max(maxEntries, 1);
+		this.ttlMillis = ttlMillis;
+		this.waitTimeoutMillis = waitTimeoutMillis;
+	}
+
+	/**
+	 * @param fingerprint 요청 지문 (같은 키로 같은 요청이 들어왔는지 확인)
+	 * @param action 처음 들어온 요청의 처리. 저장할 응답을 반환하고, 저장하지 않을 오류는 예외로 던집니다.
+	 */
+	public IdempotentResponse execute(String key, String fingerprint, Supplier<IdempotentResponse> action) {
+		while (true) {
+			Entry existing;
+			Entry mine = null;
+			long now = System.currentTimeMillis();
+			synchronized (entries) {
+				purgeExpired(now);
+				existing = entries.get(key);
+				if (existing == null) {
+					mine = new Entry(fingerprint, now + ttlMillis);
+					entries.put(key, mine);
+					evictOverflow();
+				}
+			}
+
+			if (mine != null) {
+				return run(key, mine, action);
+			}
+			if (!existing.fingerprint.equals(fingerprint)) {
+				throw new IdempotencyKeyReuseException("같은 Idempotency-Key 로 다른 요청이 들어왔습니다.");
+			}
+			IdempotentResponse response = await(existing);
+			if (response != null) {
+				return response.asReplay();
+			}
+			// 먼저 들어온 요청이 저장하지 않는 오류로 끝났으면 다시 시도
+		}
+	}
+
+	private IdempotentResponse run(String key, Entry mine, Supplier<IdempotentResponse> action) {
+		try {
+			if (recordStore != null) {
+				Optional<IdempotentResponse> stored = begin(key, mine);
+				if (stored.isPresent()) {
+					mine.result.complete(stored.get());
+					return stored.get();
+				}
+			}
+		} catch (RuntimeException e) {
+			discard(key, mine, e);
+			throw e;
+		}
+
+		IdempotentResponse response;
+		try {
+			response = action.get();
+		} catch (RuntimeException e) {
+			if (recordStore != null) {
+				abandon(key);
+			}
+			discard(key, mine, e);
+			throw e;
+		}
+
+		if (recordStore != null) {
+			try {
+				recordStore.complete(key, response);
+			} catch (Exception e) {
+				log.error("Failed to store idempotent response for key: {}. {}", key, e.getMessage(), e);
+			}
+		}
+		mine.result.complete(response);
+		return response;
+	}
+
+	private Optional<IdempotentResponse> begin(String key, Entry mine) {
+		LocalDateTime expiresAt = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+		try {
+			return recordStore.begin(key, mine.fingerprint, expiresAt);
+		} catch (DataIntegrityViolationException e) {
+			// 다른 노드가 같은 키를 먼저 선점한 PK 충돌만 처리 중으로 봅니다. (그 밖의 제약 위반은 그대로 전달)
+			if (isDuplicateKey(e)) {
+				throw new IdempotencyInProgressException("같은 Idempotency-Key 의 요청이 처리 중입니다.");
+			}
+			throw e;
+		}
+	}
+
+	static boolean isDuplicateKey(DataIntegrityViolationException e) {
+		if (e instanceof DuplicateKeyException) {
+			return true;
+		}
+		for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+			if (cause instanceof SQLException sqlException
+				&& (sqlException.getErrorCode() == MYSQL_DUPLICATE_ENTRY || "23505".equals(sqlException.getSQLState()))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void abandon(String key) {
+		try {
+			recordStore.abandon(key);
+		} catch (Exception e) {
+			log.error("Failed to release idempotency key: {}. {}", key, e.getMessage(), e);
+		}
+	}
+
+	private void discard(String key, Entry mine, RuntimeException cause) {
+		synchronized (entries) {
+			entries.remove(key, mine);
+		}
+		mine.result.completeExceptionally(cause);
+	}
+
+	private IdempotentResponse await(Entry existing) {
+		try {
+			return existing.result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IdempotencyKeyReuseException reuse) {
+				throw reuse;
+			}
+			return null;
+		} catch (TimeoutException e) {
+			throw new IdempotencyInProgressException("같은 Idempotency-Key 의 요청이 처리 중입니다.");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IdempotencyInProgressException("같은 Idempotency-Key 의 요청이 처리 중입니다.");
+		}
+	}
+
+	private void purgeExpired(long now) {
+		Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Entry entry = iterator.next().getValue();
+			if (entry.expiresAt > now) {
+				break;
+			}
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * 처리가 끝난 키만 오래된 순서로 비웁니다. 처리 중인 키를 비우면 같은 키의 재시도가 결제를 다시 처리하므로 남겨 둡니다.
+	 * (처리 중인 키만 남으면 잠시 최대 개수를 넘을 수 있습니다)
+	 */
+	private void evictOverflow() {
+		Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+		while (entries.size() > maxEntries && iterator.hasNext()) {
+			if (iterator.next().getValue().result.isDone()) {
+				iterator.remove();
+			}
+		}
+	}
+
+	int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	private static final class Entry {
+		private final String fingerprint;
+		private final long expiresAt;
+		private final CompletableFuture<IdempotentResponse> result = new CompletableFuture<>();
+
+		private Entry(String fingerprint, long expiresAt) {
+			this.fingerprint = fingerprint;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
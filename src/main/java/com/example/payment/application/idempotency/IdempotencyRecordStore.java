@@ -0,0 +1,84 @@
+package com.example.payment.application.idempotency;
+
+import com.example.payment.application.exception.IdempotencyInProgressException;
+import com.example.payment.application.exception.IdempotencyKeyReuseException;
+import com.example.payment.entity.IdempotencyRecord;
+import com.example.payment.repository.IdempotencyRecordRepository;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Idempotency-Key 처리 결과를 idempotency_record 테이블에 저장합니다. (payment.idempotency.persistent.enabled=true 일 때 사용)
+ * 요청 처리 전에 키를 선점(처리 중 행 삽입)하므로, 다른 노드로 들어온 같은 키의 요청은 409 로 거절되고 완료 후에는 저장된 응답을 돌려받습니다.
+ * 각 메서드는 결제 트랜잭션과 분리된 별도 트랜잭션에서 실행합니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "payment.idempotency.persistent.enabled", havingValue = "true")
+public class IdempotencyRecordStore {
+
+	private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+	/**
+	 * 키 선점. 이미 완료된 키면 저장된 응답을 반환하고, 처음이면 처리 중 행을 남기고 빈 값을 반환합니다.
+	 * 동시에 같은 키를 선점하면 PK 충돌(DataIntegrityViolationException)이 발생합니다.
+	 */
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public Optional<IdempotentResponse> begin(String key, String fingerprint, LocalDateTime expiresAt) {
+		LocalDateTime now = LocalDateTime.now();
+		IdempotencyRecord record = idempotencyRecordRepository.findById(key)
+			.filter(existing -> existing.getExpiresAt().isAfter(now))
+			.orElse(null);
+		if (record != null) {
+			if (!record.getFingerprint().equals(fingerprint)) {
+				throw new IdempotencyKeyReuseException("같은 Idempotency-Key 로 다른 요청이 들어왔습니다.");
+			}
+			if (record.getResponseStatus() == null) {
+				throw new IdempotencyInProgressException("같은 Idempotency-Key 의 요청이 처리 중입니다.");
+			}
+			return Optional.of(new IdempotentResponse(record.getResponseStatus(), record.getResponseBody(), true));
+		}
+
+		IdempotencyRecord pending = new IdempotencyRecord();
+		pending.setIdempotencyKey(key);
+		pending.setFingerprint(fingerprint);
+		pending.setCreatedAt(now);
+		pending.setExpiresAt(expiresAt);
+		// 만료된 행이 남아 있으면 덮어씀
+		idempotencyRecordRepository.saveAndFlush(pending);
+		return Optional.empty();
+	}
+
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public void complete(String key, IdempotentResponse response) {
+		idempotencyRecordRepository.findById(key).ifPresent(record -> {
+			record.setResponseStatus(response.status());
+			record.setResponseBody(response.body() != null && response.body().length() > 1000
+				? response.body().substring(0, 1000) : response.body());
+		});
+	}
+
+	/**
+	 * 예기치 못한 오류로 응답을 저장하지 않는 경우 선점을 해제해 재시도할 수 있게 합니다.
+	 */
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public void abandon(String key) {
+		idempotencyRecordRepository.deleteById(key);
+	}
+
+	@Scheduled(fixedDelayString = "${payment.idempotency.persistent.purge-interval-ms:600000}")
+	public void purgeExpired() {
+		int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+		if (deleted > 0) {
+			log.info("Purged {} expired idempotency records", deleted);
+		}
+	}
+}
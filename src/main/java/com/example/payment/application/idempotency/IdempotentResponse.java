@@ -0,0 +1,16 @@
+package com.example.payment.application.idempotency;
+
+/**
+ * Idempotency-Key 로 저장해 두었다가 재시도 요청에 그대로 돌려줄 응답
+ * @param replayed 저장된 응답을 돌려준 경우 true
+ */
+public record IdempotentResponse(int status, String body, boolean replayed) {
+
+	public static IdempotentResponse of(int status, String body) {
+		return new IdempotentResponse(status, body, false);
+	}
+
+	IdempotentResponse asReplay() {
+		return replayed ? this : new IdempotentResponse(status, body, true);
+	}
+}
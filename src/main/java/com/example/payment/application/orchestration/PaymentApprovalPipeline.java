@@ -0,0 +1,110 @@
+package com.example.payment.application.orchestration;
+
+import com.example.payment.application.event.PaymentStatusChangedEvent;
+import com.example.payment.application.orchestration.impl.PaymentApprove3Phase;
+import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.repository.PaymentRepository;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import jakarta.annotation.PreDestroy;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * 비동기 결제 승인 파이프라인
+ * - 트랜잭션 1(좌석 확보)은 요청 스레드에서 실행하고 결제 핸들(paymentId)을 바로 반환합니다.
+ * - 트랜잭션 2, 3은 전용 스레드 풀에서 이어서 실행하며, 단계마다 PaymentStatusChangedEvent 를 발행합니다.
+ * - 각 단계의 실패 보상은 PaymentApprove3Phase 가 동기 승인과 동일하게 처리합니다.
+ */
+@Service
+@Slf4j
+public class PaymentApprovalPipeline {
+
+	private final PaymentApprove3Phase paymentApprove3Phase;
+	private final PaymentRepository paymentRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Executor executor;
+	private final ThreadPoolTaskExecutor ownedExecutor;
+
+	@Autowired
+	public PaymentApprovalPipeline(PaymentApprove3Phase paymentApprove3Phase,
+		PaymentRepository paymentRepository,
+		ApplicationEventPublisher eventPublisher,
+		@Value("${payment.async.pool-size:16}") int poolSize,
+		@Value("${payment.async.queue-capacity:1000}") int queueCapacity) {
+		// Executor 빈으로 등록하면 Spring Boot 기본 @Async 실행기가 비활성화되므로 내부에서 직접 관리합니다.
+		this(paymentApprove3Phase, paymentRepository, eventPublisher, pipelineExecutor(poolSize, queueCapacity));
+	}
+
+	PaymentApprovalPipeline(PaymentApprove3Phase paymentApprove3Phase,
+		PaymentRepository paymentRepository,
+		ApplicationEventPublisher eventPublisher,
+		Executor executor) {
+		this.paymentApprove3Phase = paymentApprove3Phase;
+		this.paymentRepository = paymentRepository;
+		this.eventPublisher = eventPublisher;
+		this.executor = executor;
+		this.ownedExecutor = executor instanceof ThreadPoolTaskExecutor pool ? pool : null;
+	}
+
+	/**
+	 * 트랜잭션 1 실행 후 결제 핸들 반환. 트랜잭션 1 실패 시 동기 승인과 같이 BusinessException 이 발생합니다.
+	 */
+	public Long submit(PaymentRequest paymentRequest) {
+		Long paymentId = paymentApprove3Phase.reserveSeatForHandle(paymentRequest);
+		publish(paymentId, PaymentStatus.COUNT_UPDATED.name(), "좌석 확보 완료", false);
+
+		executor.execute(() -> completeInBackground(paymentId, paymentRequest));
+		return paymentId;
+	}
+
+	public Optional<Payment> findPayment(Long paymentId) {
+		return paymentRepository.findById(paymentId);
+	}
+
+	void completeInBackground(Long paymentId, PaymentRequest paymentRequest) {
+		try {
+			paymentApprove3Phase.processPayment(paymentRequest);
+			publish(paymentId, PaymentStatus.PAYMENT_PROCESSED.name(), "PG 결제 완료", false);
+
+			paymentApprove3Phase.finalizeEnrollment(paymentRequest);
+			publish(paymentId, PaymentStatus.FINAL_COMPLETED.name(), "결제 완료", true);
+		} catch (Exception e) {
+			// 보상 이벤트는 실패한 단계에서 이미 발행되었으므로 보상이 옮길 상태(CANCELLED)로 종료 알림만 전달
+			log.warn("Async payment pipeline failed for paymentId: {}. {}", paymentId, e.getMessage());
+			publish(paymentId, PaymentStatus.CANCELLED.name(), e.getMessage(), true);
+		}
+	}
+
+	private void publish(Long paymentId, String status, String message, boolean terminal) {
+		eventPublisher.publishEvent(new PaymentStatusChangedEvent(this, paymentId, status, message, terminal));
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (ownedExecutor != null) {
+			ownedExecutor.shutdown();
+		}
+	}
+
+	private static ThreadPoolTaskExecutor pipelineExecutor(int poolSize, int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("payment-pipeline-");
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		// 큐가 가득 차면 요청 스레드에서 실행 (동기 승인으로 자연스럽게 감속)
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(30);
+		executor.initialize();
+		return executor;
+	}
+}
@@ -1,9 +1,28 @@
 package com.example.payment.application.orchestration;
 
 
+import com.example.payment.application.exception.BusinessException;
+import com.example.payment.web.controller.dto.PaymentBatchResult;
 import com.example.payment.web.controller.dto.PaymentRequest;
+import java.util.ArrayList;
+import java.util.List;
 
 public interface PaymentApproveOrchestration {
 	void approve(PaymentRequest paymentRequest);
-}
 
+	/**
+	 * 일괄 승인: 기본 구현은 요청마다 approve 를 실행하고 요청 순서대로 결과를 반환합니다.
+	 */
+	default List<PaymentBatchResult> approveBatch(List<PaymentRequest> paymentRequests) {
+		List<PaymentBatchResult> results = new ArrayList<>(paymentRequests.size());
+		for (PaymentRequest paymentRequest : paymentRequests) {
+			try {
+				approve(paymentRequest);
+				results.add(PaymentBatchResult.success(paymentRequest));
+			} catch (BusinessException e) {
+				results.add(PaymentBatchResult.failure(paymentRequest, e.getMessage()));
+			}
+		}
+		return results;
+	}
+}
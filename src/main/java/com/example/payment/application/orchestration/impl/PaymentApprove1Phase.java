@@ -26,7 +26,7 @@ public class PaymentApprove1Phase implements PaymentApproveOrchestration {
 			enrollmentService.enrollmentCountTryIncrement(lectureId, userId);
 		} catch (Exception e) {
 			eventPublisher.publishEvent(
-				new FirstCompensationEvent(this, lectureId, userId, "PG API 호출 실패: " + e.getMessage())
+				new FirstCompensationEvent(this, paymentRequest.getPaymentId(), lectureId, userId, "PG API 호출 실패: " + e.getMessage())
 			);
 			if(!(e instanceof BusinessException))
 				e.printStackTrace();
@@ -38,7 +38,7 @@ public class PaymentApprove1Phase implements PaymentApproveOrchestration {
 			enrollmentService.processPayment(paymentRequest);
 		} catch (Exception e) {
 			eventPublisher.publishEvent(
-				new SecondCompensationEvent(this, lectureId, userId, "PG API 호출 실패: " + e.getMessage())
+				new SecondCompensationEvent(this, paymentRequest.getPaymentId(), lectureId, userId, "PG API 호출 실패: " + e.getMessage())
 			);
 			e.printStackTrace();
 			throw new BusinessException("PG 결제 실패: " + e.getMessage());
@@ -46,10 +46,10 @@ public class PaymentApprove1Phase implements PaymentApproveOrchestration {
 
 		// 트랜잭션 3: 구매강의 DB 반영 및 Payment 상태 변경(PAYMENT_PROCESSED -> FINAL_COMPLETED)
 		try {
-			enrollmentService.finalizeEnrollment(lectureId, userId);
+			enrollmentService.finalizeEnrollment(paymentRequest);
 		} catch (Exception e) {
 			eventPublisher.publishEvent(
-				new FinalCompensationEvent(this, lectureId, userId, "최종 결제 DB 반영 실패: " + e.getMessage())
+				new FinalCompensationEvent(this, paymentRequest.getPaymentId(), lectureId, userId, "최종 결제 DB 반영 실패: " + e.getMessage())
 			);
 			e.printStackTrace();
 			throw new BusinessException("최종 결제 반영 실패: " + e.getMessage());
@@ -1,13 +1,35 @@
 package com.example.payment.application.orchestration.impl;
 
+import com.example.payment.application.deadline.PaymentDeadlineTracker;
+import com.example.payment.application.deadline.RequestDeadline;
 import com.example.payment.application.event.FinalCompensationEvent;
 import com.example.payment.application.event.FirstCompensationEvent;
 import com.example.payment.application.event.SecondCompensationEvent;
 import com.example.payment.application.exception.BusinessException;
+import com.example.payment.application.exception.CapacityExceededException;
+import com.example.payment.application.exception.DeadlineExceededException;
 import com.example.payment.application.orchestration.PaymentApproveOrchestration;
+import com.example.payment.application.outbox.CompensationOutboxWriter;
+import com.example.payment.application.seat.SoldOutCache;
+import com.example.payment.application.service.BatchSeatReservation;
 import com.example.payment.application.service.EnrollmentService;
+import com.example.payment.entity.CompensationOutbox;
+import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.repository.PaymentRepository;
+import com.example.payment.web.controller.dto.PaymentBatchResult;
 import com.example.payment.web.controller.dto.PaymentRequest;
+import com.example.payment.web.external.PgCallGuard;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
@@ -15,51 +37,265 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 @Primary
+@Slf4j
 public class PaymentApprove3Phase implements PaymentApproveOrchestration {
 
 	private final EnrollmentService enrollmentService;
 	private final ApplicationEventPublisher eventPublisher;
+	private final SoldOutCache soldOutCache;
+	private final PgCallGuard pgCallGuard;
+	private final PaymentDeadlineTracker deadlineTracker;
+	private final PaymentRepository paymentRepository;
+	// 아웃박스 모드에서만 존재: 트랜잭션 2, 3의 보상 행을 시작 전에 미리 기록
+	private final ObjectProvider<CompensationOutboxWriter> compensationOutboxWriter;
 	/**
 	 * 전체 결제 프로세스 오케스트레이션
 	 * 각 단계에서 실패 시 해당 보상 이벤트를 발행합니다.
 	 */
 	public void approve(PaymentRequest paymentRequest) {
-		// 트랜잭션 1: 동시성 제어 - 수강 인원 증가 및 Payment 상태 변경(CREATED -> COUNT_UPDATED)
+		reserveSeat(paymentRequest);
+		processPayment(paymentRequest);
+		finalizeEnrollment(paymentRequest);
+	}
+
+	/**
+	 * 일괄 결제 승인
+	 * 요청을 강의별로 묶어 트랜잭션 1을 강의당 한 번에 처리하고, 좌석을 확보한 요청만 트랜잭션 2, 3을 건별로 진행합니다.
+	 * 실패한 요청은 단건 승인과 같은 보상 이벤트를 발행하며, 결과는 요청 순서대로 반환합니다.
+	 */
+	@Override
+	public List<PaymentBatchResult> approveBatch(List<PaymentRequest> paymentRequests) {
+		Map<PaymentRequest, PaymentBatchResult> results = new IdentityHashMap<>();
+		Map<Long, List<PaymentRequest>> byLecture = new LinkedHashMap<>();
+		for (PaymentRequest paymentRequest : paymentRequests) {
+			if (paymentRequest.getLectureId() == null || paymentRequest.getUserId() == null) {
+				results.put(paymentRequest, PaymentBatchResult.failure(paymentRequest, "lectureId, userId 는 필수입니다."));
+				continue;
+			}
+			byLecture.computeIfAbsent(paymentRequest.getLectureId(), id -> new ArrayList<>()).add(paymentRequest);
+		}
+
+		byLecture.forEach((lectureId, group) -> {
+			for (PaymentRequest paymentRequest : reserveSeats(lectureId, group, results)) {
+				try {
+					processPayment(paymentRequest);
+					finalizeEnrollment(paymentRequest);
+					results.put(paymentRequest, PaymentBatchResult.success(paymentRequest));
+				} catch (BusinessException e) {
+					results.put(paymentRequest, PaymentBatchResult.failure(paymentRequest, e.getMessage()));
+				}
+			}
+		});
+		return paymentRequests.stream().map(results::get).toList();
+	}
+
+	/**
+	 * 일괄 트랜잭션 1: 강의 단위로 좌석을 한 번에 확보하고, 좌석을 확보한 요청 목록을 반환합니다.
+	 * 일괄 처리 자체가 실패하면(상태 경합 등) 건별 트랜잭션 1로 대체합니다.
+	 */
+	private List<PaymentRequest> reserveSeats(Long lectureId, List<PaymentRequest> group,
+		Map<PaymentRequest, PaymentBatchResult> results) {
+		// 같은 사용자의 중복 요청은 첫 요청만 처리 (보상 이벤트를 발행하면 첫 요청의 Payment 가 취소되므로 결과만 기록)
+		Map<Long, PaymentRequest> byUser = new LinkedHashMap<>();
+		for (PaymentRequest paymentRequest : group) {
+			if (byUser.putIfAbsent(paymentRequest.getUserId(), paymentRequest) != null) {
+				results.put(paymentRequest, PaymentBatchResult.failure(paymentRequest, "중복된 결제 요청입니다."));
+			}
+		}
+		List<PaymentRequest> requests = new ArrayList<>(byUser.values());
+
+		if (soldOutCache.isSoldOut(lectureId)) {
+			requests.forEach(paymentRequest -> rejectSeat(paymentRequest, "수강 인원이 모두 찼습니다.", results));
+			return List.of();
+		}
+
+		BatchSeatReservation reservation;
+		try {
+			reservation = enrollmentService.enrollmentCountTryIncrementBatch(lectureId, new ArrayList<>(byUser.keySet()));
+		} catch (Exception e) {
+			log.warn("Batch seat reservation failed for lectureId: {}, falling back to single reservations. {}",
+				lectureId, e.getMessage());
+			List<PaymentRequest> reserved = new ArrayList<>();
+			for (PaymentRequest paymentRequest : requests) {
+				try {
+					reserveSeat(paymentRequest);
+					reserved.add(paymentRequest);
+				} catch (BusinessException be) {
+					results.put(paymentRequest, PaymentBatchResult.failure(paymentRequest, be.getMessage()));
+				}
+			}
+			return reserved;
+		}
+
+		if (!reservation.exceeded().isEmpty()) {
+			soldOutCache.markSoldOut(lectureId);
+		}
+		Set<Long> reservedUsers = new HashSet<>(reservation.reserved());
+		Set<Long> exceededUsers = new HashSet<>(reservation.exceeded());
+		List<PaymentRequest> reserved = new ArrayList<>();
+		for (PaymentRequest paymentRequest : requests) {
+			Long userId = paymentRequest.getUserId();
+			if (reservedUsers.contains(userId)) {
+				deadlineTracker.track(paymentRequest, PaymentStatus.COUNT_UPDATED);
+				reserved.add(paymentRequest);
+			} else if (exceededUsers.contains(userId)) {
+				rejectSeat(paymentRequest, "수강 인원이 모두 찼습니다.", results);
+			} else {
+				rejectSeat(paymentRequest, "Payment 상태 업데이트 실패(CREATED -> COUNT_UPDATED).", results);
+			}
+		}
+		return reserved;
+	}
+
+	private void rejectSeat(PaymentRequest paymentRequest, String reason, Map<PaymentRequest, PaymentBatchResult> results) {
+		eventPublisher.publishEvent(new FirstCompensationEvent(this, paymentRequest.getPaymentId(),
+			paymentRequest.getLectureId(), paymentRequest.getUserId(), "동시성 제어 실패: " + reason));
+		results.put(paymentRequest, PaymentBatchResult.failure(paymentRequest, "동시성 제어 실패: " + reason));
+	}
+
+	/**
+	 * 트랜잭션 1: 동시성 제어 - 수강 인원 증가 및 Payment 상태 변경(CREATED -> COUNT_UPDATED)
+	 */
+	public void reserveSeat(PaymentRequest paymentRequest) {
 		Long lectureId = paymentRequest.getLectureId();
 		Long userId = paymentRequest.getUserId();
 
+		// 매진된 강의는 트랜잭션 없이 바로 실패 (Payment 는 보상 이벤트로 EXCEEDS_CAPACITY 처리)
+		if (soldOutCache.isSoldOut(lectureId)) {
+			eventPublisher.publishEvent(
+				new FirstCompensationEvent(this, paymentRequest.getPaymentId(), lectureId, userId, "동시성 제어 실패: 수강 인원이 모두 찼습니다.")
+			);
+			throw new BusinessException("동시성 제어 실패: 수강 인원이 모두 찼습니다.");
+		}
+
 		try {
 			enrollmentService.enrollmentCountTryIncrement(lectureId, userId);
 		} catch (Exception e) {
+			if (e instanceof CapacityExceededException) {
+				soldOutCache.markSoldOut(lectureId);
+			}
 			eventPublisher.publishEvent(
-				new FirstCompensationEvent(this, lectureId, userId, "동시성 제어 실패: " + e.getMessage())
+				new FirstCompensationEvent(this, paymentRequest.getPaymentId(), lectureId, userId, "동시성 제어 실패: " + e.getMessage())
 			);
 			if(!(e instanceof BusinessException))
 				e.printStackTrace();
 			throw new BusinessException("동시성 제어 실패: " + e.getMessage());
 		}
+		deadlineTracker.track(paymentRequest, PaymentStatus.COUNT_UPDATED);
+	}
+
+	/**
+	 * 트랜잭션 1 실행 후 결제 핸들(paymentId)을 반환합니다. (비동기 승인)
+	 * 좌석을 확보한 결제를 찾지 못하면 이미 커밋된 좌석을 보상 이벤트로 반환하고 BusinessException 이 발생합니다.
+	 */
+	public Long reserveSeatForHandle(PaymentRequest paymentRequest) {
+		reserveSeat(paymentRequest);
+		if (paymentRequest.getPaymentId() != null) {
+			return paymentRequest.getPaymentId();
+		}
+
+		Long lectureId = paymentRequest.getLectureId();
+		Long userId = paymentRequest.getUserId();
+		Payment payment = paymentRepository.findByLectureIdAndUserIdAndStatus(lectureId, userId, PaymentStatus.COUNT_UPDATED);
+		if (payment == null) {
+			deadlineTracker.untrack(paymentRequest);
+			eventPublisher.publishEvent(
+				new SecondCompensationEvent(this, null, lectureId, userId, "결제 정보를 찾을 수 없습니다.")
+			);
+			throw new BusinessException("결제 정보를 찾을 수 없습니다.");
+		}
+		// 이후 단계의 상태 변경과 보상 이벤트는 결제 ID(PK) 기준으로 처리
+		paymentRequest.setPaymentId(payment.getId());
+		return payment.getId();
+	}
+
+	/**
+	 * 트랜잭션 2: PG API 호출 및 Payment 상태 변경(COUNT_UPDATED -> PAYMENT_PROCESSED)
+	 */
+	public void processPayment(PaymentRequest paymentRequest) {
+		Long lectureId = paymentRequest.getLectureId();
+		Long userId = paymentRequest.getUserId();
+
+		// 요청 기한이 지났으면 PG 를 호출하지 않고 바로 보상 (클라이언트는 이미 결과를 기다리지 않음)
+		if (RequestDeadline.isExpired(paymentRequest.getDeadline())) {
+			deadlineTracker.untrack(paymentRequest);
+			eventPublisher.publishEvent(
+				new SecondCompensationEvent(this, paymentRequest.getPaymentId(), lectureId, userId, "PG 결제 실패: 요청 기한이 지났습니다.")
+			);
+			throw new DeadlineExceededException("PG 결제 실패: 요청 기한이 지났습니다.");
+		}
+
+		// PG 회로가 열려 있으면 트랜잭션 없이 바로 실패 (좌석은 보상 이벤트로 반환)
+		if (pgCallGuard.isOpen()) {
+			deadlineTracker.untrack(paymentRequest);
+			eventPublisher.publishEvent(
+				new SecondCompensationEvent(this, paymentRequest.getPaymentId(), lectureId, userId, "PG 결제 실패: PG 호출이 차단되었습니다.")
+			);
+			throw new BusinessException("PG 결제 실패: PG 호출이 차단되었습니다.");
+		}
 
-		// 트랜잭션 2: PG API 호출 및 Payment 상태 변경(COUNT_UPDATED -> PAYMENT_PROCESSED)
 		try {
+			guardCompensation(CompensationOutbox.Type.SECOND, paymentRequest);
 			enrollmentService.processPayment(paymentRequest);
 		} catch (Exception e) {
+			// 이후 처리는 보상 이벤트가 맡음
+			deadlineTracker.untrack(paymentRequest);
 			eventPublisher.publishEvent(
-				new SecondCompensationEvent(this, lectureId, userId, "PG 결제 실패: " + e.getMessage())
+				new SecondCompensationEvent(this, paymentRequest.getPaymentId(), lectureId, userId, "PG 결제 실패: " + e.getMessage())
 			);
 			e.printStackTrace();
 			throw new BusinessException("PG 결제 실패: " + e.getMessage());
 		}
+		releaseCompensation(CompensationOutbox.Type.SECOND, paymentRequest);
+		deadlineTracker.track(paymentRequest, PaymentStatus.PAYMENT_PROCESSED);
+	}
+
+	/**
+	 * 트랜잭션 3: 구매강의 DB 반영 및 Payment 상태 변경(PAYMENT_PROCESSED -> FINAL_COMPLETED)
+	 */
+	public void finalizeEnrollment(PaymentRequest paymentRequest) {
+		Long lectureId = paymentRequest.getLectureId();
+		Long userId = paymentRequest.getUserId();
+
+		// PG 승인 중 요청 기한이 지났으면 반영하지 않고 PG 취소/좌석 반환으로 넘김
+		if (RequestDeadline.isExpired(paymentRequest.getDeadline())) {
+			deadlineTracker.untrack(paymentRequest);
+			eventPublisher.publishEvent(
+				new FinalCompensationEvent(this, paymentRequest.getPaymentId(), lectureId, userId, "최종 결제 반영 실패: 요청 기한이 지났습니다.")
+			);
+			throw new DeadlineExceededException("최종 결제 반영 실패: 요청 기한이 지났습니다.");
+		}
 
-		// 트랜잭션 3: 구매강의 DB 반영 및 Payment 상태 변경(PAYMENT_PROCESSED -> FINAL_COMPLETED)
 		try {
-			enrollmentService.finalizeEnrollment(lectureId, userId);
+			guardCompensation(CompensationOutbox.Type.FINAL, paymentRequest);
+			enrollmentService.finalizeEnrollment(paymentRequest);
 		} catch (Exception e) {
+			deadlineTracker.untrack(paymentRequest);
 			eventPublisher.publishEvent(
-				new FinalCompensationEvent(this, lectureId, userId, "최종 결제 DB 반영 실패: " + e.getMessage())
+				new FinalCompensationEvent(this, paymentRequest.getPaymentId(), lectureId, userId, "최종 결제 DB 반영 실패: " + e.getMessage())
 			);
 			e.printStackTrace();
 			throw new BusinessException("최종 결제 반영 실패: " + e.getMessage());
 		}
+		releaseCompensation(CompensationOutbox.Type.FINAL, paymentRequest);
+		deadlineTracker.untrack(paymentRequest);
+	}
+
+	private void guardCompensation(CompensationOutbox.Type type, PaymentRequest paymentRequest) {
+		compensationOutboxWriter.ifAvailable(writer -> writer.guard(type, paymentRequest));
+	}
+
+	/**
+	 * 단계가 성공했으므로 실패해도 결과에 영향을 주지 않습니다.
+	 * (남은 행은 guard-ms 뒤에 릴레이가 가져가지만 보상은 조건부 상태 변경이라 결제를 되돌리지 않습니다)
+	 */
+	private void releaseCompensation(CompensationOutbox.Type type, PaymentRequest paymentRequest) {
+		try {
+			compensationOutboxWriter.ifAvailable(writer -> writer.release(type, paymentRequest));
+		} catch (Exception e) {
+			log.warn("Failed to release {} compensation guard for lectureId: {}, userId: {}. {}",
+				type, paymentRequest.getLectureId(), paymentRequest.getUserId(), e.getMessage());
+		}
 	}
 
 }
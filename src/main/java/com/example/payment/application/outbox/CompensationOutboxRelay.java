@@ -0,0 +1,206 @@
+package com.example.payment.application.outbox;
+
+import com.example.payment.application.event.FinalCompensationEvent;
+import com.example.payment.application.event.FirstCompensationEvent;
+import com.example.payment.application.event.SecondCompensationEvent;
+import com.example.payment.application.service.CompensationRetryScheduler;
+import com.example.payment.application.service.CompensationService;
+import com.example.payment.entity.CompensationOutbox;
+import com.example.payment.repository.CompensationOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * compensation_outbox 를 배치 단위로 가져와 CompensationService 에 전달합니다.
+ * 아웃박스 모드(payment.compensation.outbox.enabled=true)의 모든 보상과, 단계별 실행기(CompensationExecutors)가 가득 차 넘긴 보상을 처리합니다.
+ * - 가져오기: SELECT ... FOR UPDATE SKIP LOCKED 로 다른 노드가 잡은 행은 건너뛰고, lease 만큼 availableAt 을 미룬 뒤 바로 커밋
+ * - 처리: 트랜잭션 밖에서 보상을 실행하고 성공하면 행을 삭제
+ *   배치는 한 행씩 처리하므로 처리 직전에 행의 lease 를 다시 연장하고, 그사이 lease 가 만료되어 다른 노드가 다시 가져간 행은 건너뜁니다.
+ * - 실패: CompensationRetryScheduler 와 같은 정책으로 availableAt 을 미뤄 재시도하고, 시도 횟수를 다 쓰면 recover 후 삭제
+ *   (노드가 죽으면 lease 만료 후 다른 노드가 이어서 처리)
+ * - 아웃박스 모드가 꺼져 있으면 테이블에는 실행기가 넘긴 보상만 드물게 쌓이므로, 비어 있을 때는
+ *   idle-poll-interval-ms 동안 조회(claim/count/MIN)를 건너뜁니다.
+ * - 지표: 처리량(payment.compensation.outbox.drained), 적체 수(backlog), 가장 오래된 이벤트의 지연(lag)
+ */
+@Component
+@Slf4j
+public class CompensationOutboxRelay {
+
+	private final CompensationOutboxRepository compensationOutboxRepository;
+	private final CompensationService compensationService;
+	private final CompensationRetryScheduler compensationRetryScheduler;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final long leaseSeconds;
+	private final boolean outboxEnabled;
+	private final long idlePollIntervalNanos;
+
+	private final Counter drained;
+	private final Counter failed;
+	private final AtomicLong backlog = new AtomicLong();
+	private final AtomicLong lagMillis = new AtomicLong();
+	// 스케줄러 스레드에서만 갱신
+	private volatile boolean idle;
+	private volatile long idleSinceNanos;
+
+	public CompensationOutboxRelay(CompensationOutboxRepository compensationOutboxRepository,
+		CompensationService compensationService,
+		CompensationRetryScheduler compensationRetryScheduler,
+		PlatformTransactionManager transactionManager,
+		MeterRegistry meterRegistry,
+		@Value("${payment.compensation.outbox.batch-size:100}") int batchSize,
+		@Value("${payment.compensation.outbox.lease-seconds:60}") long leaseSeconds,
+		@Value("${payment.compensation.outbox.enabled:false}") boolean outboxEnabled,
+		@Value("${payment.compensation.outbox.idle-poll-interval-ms:5000}") long idlePollIntervalMillis) {
+		this.compensationOutboxRepository = compensationOutboxRepository;
+		this.compensationService = compensationService;
+		this.compensationRetryScheduler = compensationRetryScheduler;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+		this.leaseSeconds = leaseSeconds;
+		this.outboxEnabled = outboxEnabled;
+		this.idlePollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(idlePollIntervalMillis, 0));
+
+		this.drained = Counter.builder("payment.compensation.outbox.drained")
+			.description("처리 완료된 보상 이벤트 수")
+			.register(meterRegistry);
+		this.failed = Counter.builder("payment.compensation.outbox.failed")
+			.description("처리 중 예외가 발생한 보상 시도 수")
+			.register(meterRegistry);
+		Gauge.builder("payment.compensation.outbox.backlog", backlog, AtomicLong::get)
+			.description("미처리 보상 이벤트 수")
+			.register(meterRegistry);
+		Gauge.builder("payment.compensation.outbox.lag", lagMillis, value -> value.get() / 1000.0)
+			.description("가장 오래된 미처리 보상 이벤트의 대기 시간")
+			.baseUnit("seconds")
+			.register(meterRegistry);
+	}
+
+	@Scheduled(fixedDelayString = "${payment.compensation.outbox.poll-interval-ms:200}")
+	public void drain() {
+		if (idle && System.nanoTime() - idleSinceNanos < idlePollIntervalNanos) {
+			return;
+		}
+		int claimed;
+		do {
+			List<CompensationOutbox> batch = claim();
+			claimed = batch.size();
+			batch.forEach(this::process);
+		} while (claimed == batchSize);
+		refreshBacklog();
+		idle = !outboxEnabled && backlog.get() == 0;
+		idleSinceNanos = System.nanoTime();
+	}
+
+	/**
+	 * 처리 가능한 이벤트를 최대 batchSize 개 가져와 lease 를 설정합니다.
+	 */
+	List<CompensationOutbox> claim() {
+		return transactionTemplate.execute(status -> {
+			LocalDateTime now = LocalDateTime.now();
+			List<CompensationOutbox> rows = compensationOutboxRepository.findClaimable(now, Limit.of(batchSize));
+			for (CompensationOutbox row : rows) {
+				row.setAvailableAt(now.plusSeconds(leaseSeconds));
+				row.setAttempts(row.getAttempts() + 1);
+			}
+			return rows;
+		});
+	}
+
+	void process(CompensationOutbox row) {
+		if (!extendLease(row)) {
+			return;
+		}
+		try {
+			switch (row.getType()) {
+				case FIRST -> compensationService.firstCompensationProcess(firstEvent(row));
+				case SECOND -> compensationService.secondCompensationProcess(secondEvent(row));
+				case FINAL -> compensationService.finalCompensationProcess(finalEvent(row));
+			}
+			compensationOutboxRepository.deleteById(row.getId());
+			drained.increment();
+		} catch (Exception e) {
+			failed.increment();
+			try {
+				retryOrRecover(row, e);
+			} catch (Exception handling) {
+				// 처리하지 못하면 lease 만료 후 다시 가져감
+				log.error("Compensation outbox failure handling failed for id: {}. {}",
+					row.getId(), handling.getMessage(), handling);
+			}
+		}
+	}
+
+	/**
+	 * 처리 직전에 lease 를 연장합니다. 다른 노드가 다시 가져갔거나 이미 삭제된 행이면 false
+	 */
+	private boolean extendLease(CompensationOutbox row) {
+		LocalDateTime leaseUntil = LocalDateTime.now().plusSeconds(leaseSeconds);
+		try {
+			Integer extended = transactionTemplate.execute(status ->
+				compensationOutboxRepository.extendLease(row.getId(), row.getAttempts(), leaseUntil));
+			if (extended == null || extended == 0) {
+				log.info("Skip compensation outbox id: {}, lease was taken over by another relay", row.getId());
+				return false;
+			}
+		} catch (Exception e) {
+			// lease 만료 후 다시 가져감
+			log.error("Compensation outbox lease extension failed for id: {}. {}", row.getId(), e.getMessage(), e);
+			return false;
+		}
+		row.setAvailableAt(leaseUntil);
+		return true;
+	}
+
+	private void retryOrRecover(CompensationOutbox row, Exception cause) {
+		if (row.getAttempts() >= compensationRetryScheduler.getMaxAttempts()) {
+			recover(row, cause);
+			return;
+		}
+		long delay = compensationRetryScheduler.nextDelayMillis();
+		log.warn("Compensation outbox attempt {} failed for id: {}, type: {}, retrying in {} ms. {}",
+			row.getAttempts(), row.getId(), row.getType(), delay, cause.getMessage());
+		row.setAvailableAt(LocalDateTime.now().plusNanos(delay * 1_000_000));
+		compensationOutboxRepository.save(row);
+	}
+
+	private void recover(CompensationOutbox row, Exception cause) {
+		switch (row.getType()) {
+			case FIRST -> compensationService.recoverFirstCompensationProcess(cause, firstEvent(row));
+			case SECOND -> compensationService.recoverSecondCompensationProcess(cause, secondEvent(row));
+			case FINAL -> compensationService.recoverFinalCompensationProcess(cause, finalEvent(row));
+		}
+		compensationOutboxRepository.deleteById(row.getId());
+	}
+
+	private FirstCompensationEvent firstEvent(CompensationOutbox row) {
+		return new FirstCompensationEvent(this, row.getPaymentId(), row.getLectureId(), row.getUserId(), row.getReason());
+	}
+
+	private SecondCompensationEvent secondEvent(CompensationOutbox row) {
+		return new SecondCompensationEvent(this, row.getPaymentId(), row.getLectureId(), row.getUserId(), row.getReason());
+	}
+
+	private FinalCompensationEvent finalEvent(CompensationOutbox row) {
+		return new FinalCompensationEvent(this, row.getPaymentId(), row.getLectureId(), row.getUserId(), row.getReason());
+	}
+
+	private void refreshBacklog() {
+		backlog.set(compensationOutboxRepository.count());
+		LocalDateTime oldest = compensationOutboxRepository.findOldestCreatedAt();
+		lagMillis.set(oldest == null ? 0 : Math.max(Duration.between(oldest, LocalDateTime.now()).toMillis(), 0));
+	}
+}
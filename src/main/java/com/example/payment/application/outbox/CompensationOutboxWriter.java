@@ -0,0 +1,100 @@
+package com.example.payment.application.outbox;
+
+import com.example.payment.application.event.FinalCompensationEvent;
+import com.example.payment.application.event.FirstCompensationEvent;
+import com.example.payment.application.event.SecondCompensationEvent;
+import com.example.payment.entity.CompensationOutbox;
+import com.example.payment.repository.CompensationOutboxRepository;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 보상 이벤트를 compensation_outbox 테이블에 기록합니다 (payment.compensation.outbox.enabled=true 일 때 사용)
+ * 이벤트는 실패한 단계의 트랜잭션이 롤백된 뒤 발행되므로, 롤백과 기록 사이에 노드가 죽으면 보상이 유실될 수 있습니다.
+ * 그래서 트랜잭션 2, 3은 시작 전에 보상 행을 guard-ms 뒤에 가져갈 수 있도록 미리 커밋(guard)하고, 성공하면 지웁니다(release).
+ * - 단계가 실패하면 이벤트가 미리 기록한 행을 바로 처리 가능하게 바꿉니다. (없으면 새로 기록)
+ * - 노드가 죽으면 guard-ms 가 지난 뒤 CompensationOutboxRelay 가 보상합니다.
+ *   guard-ms 는 진행 중인 단계를 보상하지 않도록 한 단계의 최대 시간(payment.request-deadline.max-ms)보다 길어야 합니다.
+ * 트랜잭션 1의 실패는 좌석을 잡지 않은 채 CREATED 로 남으므로 미리 기록하지 않습니다.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.compensation.outbox.enabled", havingValue = "true")
+public class CompensationOutboxWriter {
+
+	private final CompensationOutboxRepository compensationOutboxRepository;
+	private final long guardMillis;
+
+	public CompensationOutboxWriter(CompensationOutboxRepository compensationOutboxRepository,
+		@Value("${payment.compensation.outbox.guard-ms:600000}") long guardMillis,
+		@Value("${payment.request-deadline.max-ms:120000}") long maxRequestMillis) {
+		if (guardMillis <= maxRequestMillis) {
+			throw new IllegalStateException("payment.compensation.outbox.guard-ms (" + guardMillis
+				+ ") must be longer than payment.request-deadline.max-ms (" + maxRequestMillis + ")");
+		}
+		this.compensationOutboxRepository = compensationOutboxRepository;
+		this.guardMillis = guardMillis;
+	}
+
+	/**
+	 * 단계 시작 전에 보상 행을 미리 커밋합니다. guard-ms 가 지나기 전에는 릴레이가 가져가지 않습니다.
+	 */
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public void guard(CompensationOutbox.Type type, PaymentRequest paymentRequest) {
+		CompensationOutbox outbox = CompensationOutbox.of(type, paymentRequest.getPaymentId(),
+			paymentRequest.getLectureId(), paymentRequest.getUserId(), "단계 진행 중 중단되었습니다.");
+		outbox.setAvailableAt(outbox.getCreatedAt().plusNanos(guardMillis * 1_000_000));
+		compensationOutboxRepository.save(outbox);
+	}
+
+	/**
+	 * 단계가 성공하면 미리 기록한 보상 행을 지웁니다.
+	 */
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public void release(CompensationOutbox.Type type, PaymentRequest paymentRequest) {
+		compensationOutboxRepository.deleteAll(compensationOutboxRepository.findGuards(type,
+			paymentRequest.getLectureId(), paymentRequest.getUserId(), LocalDateTime.now()));
+	}
+
+	@EventListener
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public void firstPhaseCompensation(FirstCompensationEvent event) {
+		save(CompensationOutbox.Type.FIRST, event.getPaymentId(), event.getLectureId(), event.getUserId(), event.getReason());
+	}
+
+	@EventListener
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public void secondPhaseCompensation(SecondCompensationEvent event) {
+		save(CompensationOutbox.Type.SECOND, event.getPaymentId(), event.getLectureId(), event.getUserId(), event.getReason());
+	}
+
+	@EventListener
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public void finalPhaseCompensation(FinalCompensationEvent event) {
+		save(CompensationOutbox.Type.FINAL, event.getPaymentId(), event.getLectureId(), event.getUserId(), event.getReason());
+	}
+
+	private void save(CompensationOutbox.Type type, Long paymentId, Long lectureId, Long userId, String reason) {
+		CompensationOutbox outbox = CompensationOutbox.of(type, paymentId, lectureId, userId, reason);
+		List<CompensationOutbox> guards = compensationOutboxRepository.findGuards(type, lectureId, userId, outbox.getCreatedAt());
+		if (guards.isEmpty()) {
+			compensationOutboxRepository.save(outbox);
+			return;
+		}
+		// 미리 기록한 행을 바로 처리 가능하게 바꿈
+		CompensationOutbox guard = guards.get(0);
+		guard.setPaymentId(paymentId);
+		guard.setReason(outbox.getReason());
+		guard.setAvailableAt(outbox.getAvailableAt());
+		compensationOutboxRepository.save(guard);
+		if (guards.size() > 1) {
+			compensationOutboxRepository.deleteAll(guards.subList(1, guards.size()));
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package com.example.payment.application.seat;
+
+import java.util.Arrays;
+
+/**
+ * 좌석 확보 방식 (payment.seat-allocation.strategy / payment.seat-allocation.lectures 의 값)
+ */
+public enum SeatAllocationMode {
+
+	// 조건부 UPDATE 한 번 (current_count < capacity)
+	CONDITIONAL_UPDATE("conditional-update"),
+	// SELECT ... FOR UPDATE 로 행을 잠근 뒤 확인하고 증가
+	PESSIMISTIC_LOCK("pessimistic-lock"),
+	// 락 없이 읽고 version 비교 UPDATE, 충돌하면 새 트랜잭션에서 재시도
+	OPTIMISTIC("optimistic"),
+	// MySQL 네임드 락(GET_LOCK)으로 강의 단위 직렬화 후 조건부 UPDATE
+	NAMED_LOCK("named-lock"),
+	// 메모리 좌석 장부(SeatLedger)의 원자적 카운터
+	IN_MEMORY("in-memory"),
+	// 노드별로 좌석을 묶음 임대(SeatLeaseManager)한 뒤 원자적 카운터로 배분
+	LEASED("leased");
+
+	private final String value;
+
+	SeatAllocationMode(String value) {
+		this.value = value;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public static SeatAllocationMode of(String value) {
+		return Arrays.stream(values())
+			.filter(mode -> mode.value.equalsIgnoreCase(value.trim()))
+			.findFirst()
+			.orElseThrow(() -> new IllegalArgumentException("Unknown seat allocation strategy: " + value));
+	}
+}
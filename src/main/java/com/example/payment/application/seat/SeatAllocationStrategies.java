@@ -0,0 +1,88 @@
+package com.example.payment.application.seat;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 강의별 좌석 확보 방식 선택
+ * - payment.seat-allocation.strategy: 전역 기본값 (비어 있으면 좌석 장부 사용 시 in-memory, 아니면 conditional-update)
+ * - payment.seat-allocation.lectures: 강의별 지정 ("101=pessimistic-lock,102=optimistic")
+ * 좌석 반환(보상)도 확보한 방식으로 처리해야 하므로 실행 중에는 바꾸지 않습니다.
+ * 설정에서 쓰는 방식은 시작 시 activate() 로 준비합니다. (leased: 임대 연장/반환/회수 작업)
+ */
+@Component
+@Slf4j
+public class SeatAllocationStrategies {
+
+	private final Map<SeatAllocationMode, SeatAllocationStrategy> strategies = new EnumMap<>(SeatAllocationMode.class);
+	private final SeatAllocationMode defaultMode;
+	private final Map<Long, SeatAllocationMode> lectureModes;
+
+	public SeatAllocationStrategies(List<SeatAllocationStrategy> strategies,
+		SeatLedger seatLedger,
+		@Value("${payment.seat-allocation.strategy:}") String defaultMode,
+		@Value("${payment.seat-allocation.lectures:}") String lectureModes) {
+		strategies.forEach(strategy -> this.strategies.put(strategy.mode(), strategy));
+		this.defaultMode = defaultMode == null || defaultMode.isBlank()
+			? (seatLedger.isEnabled() ? SeatAllocationMode.IN_MEMORY : SeatAllocationMode.CONDITIONAL_UPDATE)
+			: SeatAllocationMode.of(defaultMode);
+		this.lectureModes = parseLectureModes(lectureModes);
+
+		boolean inMemoryUsed = this.defaultMode == SeatAllocationMode.IN_MEMORY
+			|| this.lectureModes.containsValue(SeatAllocationMode.IN_MEMORY);
+		if (inMemoryUsed && !seatLedger.isEnabled()) {
+			throw new IllegalStateException("Seat allocation strategy in-memory requires payment.seat-ledger.enabled=true");
+		}
+		if (!this.lectureModes.isEmpty()) {
+			log.info("Seat allocation strategy: default {}, per lecture {}", this.defaultMode, this.lectureModes);
+		}
+
+		EnumSet<SeatAllocationMode> usedModes = EnumSet.of(this.defaultMode);
+		usedModes.addAll(this.lectureModes.values());
+		usedModes.stream()
+			.map(this.strategies::get)
+			.filter(Objects::nonNull)
+			.forEach(SeatAllocationStrategy::activate);
+	}
+
+	public SeatAllocationStrategy forLecture(Long lectureId) {
+		SeatAllocationStrategy strategy = strategies.get(modeOf(lectureId));
+		if (strategy == null) {
+			throw new IllegalStateException("No seat allocation strategy registered for " + modeOf(lectureId));
+		}
+		return strategy;
+	}
+
+	public SeatAllocationMode modeOf(Long lectureId) {
+		return lectureModes.getOrDefault(lectureId, defaultMode);
+	}
+
+	/**
+	 * "lectureId=strategy" 목록(쉼표 구분)을 읽습니다.
+	 */
+	static Map<Long, SeatAllocationMode> parseLectureModes(String value) {
+		if (value == null || value.isBlank()) {
+			return Collections.emptyMap();
+		}
+		Map<Long, SeatAllocationMode> modes = new HashMap<>();
+		for (String entry : value.split(",")) {
+			if (entry.isBlank()) {
+				continue;
+			}
+			String[] pair = entry.split("=", 2);
+			if (pair.length != 2) {
+				throw new IllegalArgumentException("Invalid payment.seat-allocation.lectures entry: " + entry);
+			}
+			modes.put(Long.parseLong(pair[0].trim()), SeatAllocationMode.of(pair[1]));
+		}
+		return Collections.unmodifiableMap(modes);
+	}
+}
@@ -0,0 +1,37 @@
+package com.example.payment.application.seat;
+
+/**
+ * 트랜잭션 1에서 강의 좌석을 확보/반환하는 방식
+ * 호출자의 트랜잭션 안에서 실행되며, 트랜잭션이 롤백되면 확보한 좌석도 함께 되돌려져야 합니다.
+ * 강의별로 어떤 구현을 쓸지는 SeatAllocationStrategies 가 설정(payment.seat-allocation.*)에 따라 정합니다.
+ * 다른 요청과의 경합으로 확보하지 못하면 SeatAllocationConflictException 을 던지며, 호출 측이 새 트랜잭션에서 재시도합니다.
+ */
+public interface SeatAllocationStrategy {
+
+	SeatAllocationMode mode();
+
+	/**
+	 * 좌석 1개 확보
+	 * @return 잔여 좌석이 없으면 false
+	 */
+	default boolean tryAllocate(Long lectureId) {
+		return tryAllocate(lectureId, 1) == 1;
+	}
+
+	/**
+	 * 좌석 최대 count 개 확보 (잔여 좌석이 부족하면 남은 만큼만)
+	 * @return 확보한 좌석 수
+	 */
+	int tryAllocate(Long lectureId, int count);
+
+	/**
+	 * 좌석 1개 반환 (보상)
+	 */
+	void release(Long lectureId);
+
+	/**
+	 * 이 방식을 쓰는 강의가 설정되어 있으면 시작 시 한 번 호출됩니다. (백그라운드 작업이 필요한 방식만 구현)
+	 */
+	default void activate() {
+	}
+}
@@ -0,0 +1,540 @@
+package com.example.payment.application.seat;
+
+import com.example.payment.application.exception.SeatAllocationConflictException;
+import com.example.payment.entity.SeatLease;
+import com.example.payment.repository.EnrollmentCountRepository;
+import com.example.payment.repository.SeatLeaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 노드별 좌석 임대 (좌석 확보 방식 leased, LeasedSeatAllocation 이 사용)
+ * - 노드는 강의 정원에서 좌석을 묶음으로 임대하고(enrollment_count 조건부 UPDATE 한 번), 메모리의 원자적 카운터로 나눠 줍니다.
+ *   여러 노드가 같은 강의를 팔아도 enrollment_count 행은 묶음마다 한 번만 잠그며,
+ *   좌석마다의 판매 기록(seat_lease.used)은 노드 전용 행에 남기므로 노드끼리 행 락을 다투지 않습니다.
+ * - 묶음 크기는 강의별로 관찰한 판매 속도(EWMA)로 refill-interval-ms 동안 팔 만큼 정합니다. (min-size ~ max-size)
+ *   판매 막바지에는 남은 좌석을 살아 있는 노드 수로 나눈 몫까지만 임대하여 한 노드가 남은 좌석을 모두 쥐지 않게 합니다.
+ * - 정원에서 더 임대할 수 없는데 다른 노드의 임대에 미사용 좌석이 남아 있으면 매진으로 끝내지 않고,
+ *   롤백 후 그 좌석 일부를 enrollment_count 로 회수한 뒤 SeatAllocationConflictException 으로 재시도하게 합니다.
+ *   (좌석을 회수당한 노드는 다음 판매의 seat_lease.used 갱신이 실패하면서 다시 임대합니다)
+ * - 남은 좌석은 종료 시와 idle-return-ms 동안 판매가 없을 때 enrollment_count 로 반환합니다.
+ * - renew-interval-ms 주기로 이 노드의 임대 기간을 연장하고, lease-seconds + reclaim-grace-seconds 가 지나도록
+ *   갱신되지 않은(죽은 노드의) 임대는 살아 있는 노드가 남은 좌석을 반환한 뒤 삭제합니다.
+ * 판매 트랜잭션에서 seat_lease.used 를 함께 올리므로 노드가 언제 죽어도 반환할 좌석 수가 정확하고,
+ * 로컬 카운터가 DB 와 어긋나면 그 UPDATE 가 실패하여 초과 판매 대신 다시 임대합니다.
+ * 노드 간 시계 차이는 reclaim-grace-seconds 보다 충분히 작아야 합니다.
+ * - 지표: payment.seat_lease.granted / returned / reclaimed / rebalanced (좌석 수), payment.seat_lease.available
+ */
+@Component
+@Slf4j
+public class SeatLeaseManager {
+
+	private static final int RECLAIM_BATCH_SIZE = 100;
+
+	private final SeatLeaseRepository seatLeaseRepository;
+	private final EnrollmentCountRepository enrollmentCountRepository;
+	private final SoldOutCache soldOutCache;
+	private final TransactionTemplate transactionTemplate;
+	private final String nodeId;
+	private final int initialSize;
+	private final int minSize;
+	private final int maxSize;
+	private final long refillIntervalMillis;
+	private final Duration leaseDuration;
+	private final Duration reclaimGrace;
+	private final long renewIntervalMillis;
+	private final long idleReturnNanos;
+	private final ThreadPoolTaskScheduler maintenanceScheduler;
+
+	private final Counter grantedCounter;
+	private final Counter returnedCounter;
+	private final Counter reclaimedCounter;
+	private final Counter rebalancedCounter;
+	private final Counter conflictCounter;
+
+	private final Map<Long, LectureLease> leases = new ConcurrentHashMap<>();
+	private final AtomicBoolean started = new AtomicBoolean();
+
+	public SeatLeaseManager(SeatLeaseRepository seatLeaseRepository,
+		EnrollmentCountRepository enrollmentCountRepository,
+		SoldOutCache soldOutCache,
+		PlatformTransactionManager transactionManager,
+		MeterRegistry meterRegistry,
+		@Value("${payment.seat-lease.node-id:}") String nodeId,
+		@Value("${payment.seat-lease.initial-size:20}") int initialSize,
+		@Value("${payment.seat-lease.min-size:5}") int minSize,
+		@Value("${payment.seat-lease.max-size:200}") int maxSize,
+		@Value("${payment.seat-lease.refill-interval-ms:1000}") long refillIntervalMillis,
+		@Value("${payment.seat-lease.lease-seconds:30}") long leaseSeconds,
+		@Value("${payment.seat-lease.reclaim-grace-seconds:30}") long reclaimGraceSeconds,
+		@Value("${payment.seat-lease.renew-interval-ms:10000}") long renewIntervalMillis,
+		@Value("${payment.seat-lease.idle-return-ms:60000}") long idleReturnMillis) {
+		this.seatLeaseRepository = seatLeaseRepository;
+		this.enrollmentCountRepository = enrollmentCountRepository;
+		this.soldOutCache = soldOutCache;
+		// 반환/회수는 호출한 쪽 트랜잭션과 무관하게 바로 커밋
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+		this.minSize = Math.max(minSize, 1);
+		this.maxSize = Math.max(maxSize, this.minSize);
+		this.initialSize = Math.max(this.minSize, Math.min(initialSize, this.maxSize));
+		this.refillIntervalMillis = Math.max(refillIntervalMillis, 1);
+		this.leaseDuration = Duration.ofSeconds(Math.max(leaseSeconds, 1));
+		this.reclaimGrace = Duration.ofSeconds(Math.max(reclaimGraceSeconds, 0));
+		this.renewIntervalMillis = Math.max(renewIntervalMillis, 100);
+		this.idleReturnNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(idleReturnMillis, 0));
+
+		// 판매 요청 스레드와 무관하게 임대 연장/반환/회수가 밀리지 않도록 전용 스레드에서 실행합니다.
+		this.maintenanceScheduler = new ThreadPoolTaskScheduler();
+		maintenanceScheduler.setPoolSize(1);
+		maintenanceScheduler.setThreadNamePrefix("seat-lease-");
+		maintenanceScheduler.initialize();
+
+		this.grantedCounter = Counter.builder("payment.seat_lease.granted")
+			.description("enrollment_count 에서 임대한 좌석 수")
+			.register(meterRegistry);
+		this.returnedCounter = Counter.builder("payment.seat_lease.returned")
+			.description("이 노드가 반환한 미사용 임대 좌석 수")
+			.register(meterRegistry);
+		this.reclaimedCounter = Counter.builder("payment.seat_lease.reclaimed")
+			.description("만료된(죽은 노드의) 임대에서 회수한 좌석 수")
+			.register(meterRegistry);
+		this.rebalancedCounter = Counter.builder("payment.seat_lease.rebalanced")
+			.description("정원이 바닥나 다른 노드의 임대에서 회수한 미사용 좌석 수")
+			.register(meterRegistry);
+		this.conflictCounter = Counter.builder("payment.seat_allocation.conflict")
+			.description("경합으로 좌석 확보에 실패한 횟수")
+			.tag("strategy", SeatAllocationMode.LEASED.getValue())
+			.register(meterRegistry);
+		Gauge.builder("payment.seat_lease.available", this, SeatLeaseManager::available)
+			.description("이 노드가 임대해 두고 아직 배분하지 않은 좌석 수")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 임대 연장/반환/회수 작업 시작 (leased 방식을 쓰는 강의가 설정되어 있으면 SeatAllocationStrategies 가 호출)
+	 */
+	public void start() {
+		if (started.compareAndSet(false, true)) {
+			maintenanceScheduler.scheduleWithFixedDelay(this::safeMaintain, Duration.ofMillis(renewIntervalMillis));
+			log.info("Seat lease maintenance started for node {}", nodeId);
+		}
+	}
+
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	/**
+	 * 임대한 좌석에서 최대 count 개 확보 (임대가 바닥나면 현재 트랜잭션에서 다시 임대). 롤백 시 확보한 좌석을 로컬 카운터로 돌려 놓습니다.
+	 * @return 확보한 좌석 수 (정원이 부족하면 count 보다 적음)
+	 * @throws SeatAllocationConflictException 로컬 임대가 반환/회수되어 DB 기록과 맞지 않거나,
+	 * 정원은 바닥났지만 다른 노드의 임대에 미사용 좌석이 남은 경우 (새 트랜잭션에서 재시도)
+	 */
+	public int allocate(Long lectureId, int count) {
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			throw new IllegalStateException("Leased seat allocation requires an active transaction");
+		}
+		LectureLease lease = leases.computeIfAbsent(lectureId, LectureLease::new);
+		int allocated = 0;
+		while (allocated < count) {
+			Block block = lease.block;
+			int taken = block.take(count - allocated);
+			if (taken == 0) {
+				// 이 트랜잭션이 이미 임대 행을 잠갔다면(일부 확보) 다른 스레드의 충전을 기다리지 않음: 행 락과 충전 락의 교착 방지
+				if (!refill(lease, count - allocated, allocated == 0)) {
+					if (allocated == 0) {
+						requestPeerSeats(lectureId, count);
+					}
+					break;
+				}
+				continue;
+			}
+			if (seatLeaseRepository.use(block.leaseId, taken) == 0) {
+				lease.invalidate(block);
+				conflictCounter.increment();
+				throw new SeatAllocationConflictException("좌석 임대 불일치: 임대가 반환/회수되어 다시 임대합니다.");
+			}
+			onRollback(() -> lease.giveBack(block, taken));
+			lease.sold(taken);
+			allocated += taken;
+		}
+		return allocated;
+	}
+
+	/**
+	 * 이 노드가 당분간 팔지 않을 강의(유휴, 종료)의 미사용 임대 좌석을 enrollment_count 로 반환합니다.
+	 * @return 반환한 좌석 수
+	 */
+	public int returnLease(Long lectureId) {
+		LectureLease lease = leases.get(lectureId);
+		if (lease == null) {
+			return 0;
+		}
+		Long leaseId;
+		lease.refillLock.lock();
+		try {
+			leaseId = lease.leaseId;
+			lease.block = Block.EMPTY;
+			lease.leaseId = null;
+		} finally {
+			lease.refillLock.unlock();
+		}
+		if (leaseId == null) {
+			return 0;
+		}
+		// 충전 락을 놓은 뒤 반환: 그 사이 충전하는 스레드는 반환이 커밋될 때까지 임대 행에서 기다렸다가 새 임대를 만듭니다.
+		Integer returned = transactionTemplate.execute(status ->
+			seatLeaseRepository.expire(leaseId, LocalDateTime.now()) == 0 ? 0 : releaseUnused(leaseId));
+		int seats = returned == null ? 0 : returned;
+		returnedCounter.increment(seats);
+		if (seats > 0) {
+			log.info("Returned {} leased seats of lectureId: {} from node {}", seats, lectureId, nodeId);
+		}
+		return seats;
+	}
+
+	/**
+	 * lease-seconds + reclaim-grace-seconds 가 지나도록 갱신되지 않은 임대의 남은 좌석을 반환하고 임대를 삭제합니다.
+	 * @return 회수한 좌석 수
+	 */
+	public int reclaimExpired() {
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime cutoff = now.minus(reclaimGrace);
+		int reclaimed = 0;
+		for (Long leaseId : seatLeaseRepository.findExpiredIds(cutoff, Limit.of(RECLAIM_BATCH_SIZE))) {
+			Integer seats = transactionTemplate.execute(status ->
+				// 조회 이후 갱신된 임대(살아 있는 노드)는 건너뜀
+				seatLeaseRepository.expireIfStale(leaseId, cutoff, now) == 0 ? 0 : releaseUnused(leaseId));
+			if (seats != null && seats > 0) {
+				reclaimed += seats;
+				log.warn("Reclaimed {} seats from expired seat lease {}", seats, leaseId);
+			}
+		}
+		reclaimedCounter.increment(reclaimed);
+		return reclaimed;
+	}
+
+	/**
+	 * 이 노드의 임대 기간을 연장하고 idle-return-ms 동안 판매가 없던 강의의 임대를 반환한 뒤, 죽은 노드의 임대를 회수합니다.
+	 * (이 노드가 응답하지 못하는 사이 회수된 임대는 다음 판매의 seat_lease.used 갱신이 실패하면서 새로 임대합니다)
+	 */
+	public void maintain() {
+		if (!leases.isEmpty()) {
+			seatLeaseRepository.renew(nodeId, LocalDateTime.now().plus(leaseDuration));
+			long now = System.nanoTime();
+			leases.values().stream()
+				.filter(lease -> lease.leaseId != null && now - lease.lastActiveNanos >= idleReturnNanos)
+				.forEach(lease -> returnLease(lease.lectureId));
+		}
+		reclaimExpired();
+	}
+
+	private void safeMaintain() {
+		try {
+			maintain();
+		} catch (Exception e) {
+			log.error("Failed to maintain seat leases for node {}. {}", nodeId, e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 종료 시 미사용 임대 좌석을 반환하여 다른 노드가 만료를 기다리지 않고 바로 팔 수 있게 합니다.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		maintenanceScheduler.shutdown();
+		for (Long lectureId : List.copyOf(leases.keySet())) {
+			try {
+				returnLease(lectureId);
+			} catch (Exception e) {
+				log.warn("Failed to return seat lease of lectureId: {} for node {}. {}", lectureId, nodeId, e.getMessage());
+			}
+		}
+	}
+
+	int available() {
+		return leases.values().stream().mapToInt(lease -> lease.block.available()).sum();
+	}
+
+	/**
+	 * 현재 트랜잭션에서 임대를 충전합니다. 트랜잭션이 롤백되면 충전도 취소되므로 로컬 카운터를 비웁니다.
+	 * @param wait 다른 스레드가 충전 중일 때 기다릴지 여부
+	 * @return 배분할 좌석이 생겼으면 true (정원이 모두 임대/판매되었거나 기다리지 않기로 했으면 false)
+	 */
+	private boolean refill(LectureLease lease, int wanted, boolean wait) {
+		if (wait) {
+			lease.refillLock.lock();
+		} else if (!lease.refillLock.tryLock()) {
+			return false;
+		}
+		try {
+			if (lease.block.available() > 0) {
+				// 기다리는 동안 다른 스레드가 충전함
+				return true;
+			}
+			long now = System.nanoTime();
+			int sold = lease.soldSinceRefill.getAndSet(0);
+			if (lease.refilledAtNanos != 0) {
+				lease.demand.record(sold, now - lease.refilledAtNanos);
+			}
+			int size = Math.max(wanted, lease.demand.nextSize(initialSize, minSize, maxSize, refillIntervalMillis));
+			size = capToShare(lease.lectureId, size, wanted);
+			Block block = grant(lease, size);
+			lease.block = block;
+			lease.refilledAtNanos = now;
+			lease.lastActiveNanos = now;
+			onRollback(() -> lease.invalidate(block));
+			return block.available() > 0;
+		} finally {
+			lease.refillLock.unlock();
+		}
+	}
+
+	/**
+	 * 락 순서(seat_lease → enrollment_count): 임대 행을 먼저 잠그고(없으면 생성) 정원에서 최대 size 개를 가져옵니다.
+	 * 배분 가능한 좌석은 잠근 행 기준(granted - used)으로 다시 맞추므로 로컬 카운터의 오차가 여기서 정리됩니다.
+	 */
+	private Block grant(LectureLease lease, int size) {
+		Long lectureId = lease.lectureId;
+		LocalDateTime leaseUntil = LocalDateTime.now().plus(leaseDuration);
+		Long leaseId = lease.leaseId;
+		if (leaseId == null) {
+			leaseId = seatLeaseRepository.findIdByLectureIdAndNodeId(lectureId, nodeId).orElse(null);
+		}
+		if (leaseId == null || seatLeaseRepository.extend(leaseId, leaseUntil) == 0) {
+			SeatLease created = new SeatLease();
+			created.setLectureId(lectureId);
+			created.setNodeId(nodeId);
+			created.setLeaseUntil(leaseUntil);
+			leaseId = seatLeaseRepository.saveAndFlush(created).getId();
+		}
+		lease.leaseId = leaseId;
+
+		int granted = enrollmentCountRepository.tryIncrementBy(lectureId, size);
+		if (granted > 0) {
+			seatLeaseRepository.addGranted(leaseId, granted);
+			grantedCounter.increment(granted);
+		}
+		int unused = seatLeaseRepository.findUnused(leaseId).orElse(0);
+		log.debug("Leased {}/{} seats of lectureId: {} to node {} (available: {})", granted, size, lectureId, nodeId,
+			unused);
+		return new Block(leaseId, unused);
+	}
+
+	/**
+	 * 남은 좌석을 살아 있는 노드(이 노드 포함) 수로 나눈 몫까지만 임대합니다. (이번 요청에 필요한 wanted 개는 보장)
+	 * 남은 좌석이 충분하면 몫이 size 보다 커서 그대로이고, 판매 막바지에만 줄어듭니다.
+	 */
+	private int capToShare(Long lectureId, int size, int wanted) {
+		int remaining = enrollmentCountRepository.findRemaining(lectureId);
+		long nodes = seatLeaseRepository.countActiveOtherNodes(lectureId, nodeId, LocalDateTime.now()) + 1;
+		int share = (int) ((remaining + nodes - 1) / nodes);
+		return Math.max(wanted, Math.min(size, share));
+	}
+
+	/**
+	 * 정원에서 더 임대하지 못했을 때 다른 노드의 임대에 미사용 좌석이 남아 있으면, 롤백 후 그 좌석을 회수하도록 예약하고
+	 * 재시도를 요청합니다. 다른 노드에도 남은 좌석이 없으면(실제 매진) 그대로 반환합니다.
+	 */
+	private void requestPeerSeats(Long lectureId, int wanted) {
+		if (seatLeaseRepository.sumUnusedOfOtherNodes(lectureId, nodeId) <= 0) {
+			return;
+		}
+		// 이 트랜잭션이 잡은 임대 행/enrollment_count 락이 풀린 뒤에 다른 노드의 임대 행을 잠금
+		onRollback(() -> safeRebalance(lectureId, wanted));
+		conflictCounter.increment();
+		throw new SeatAllocationConflictException("좌석 임대 부족: 다른 노드의 미사용 좌석을 회수한 뒤 다시 임대합니다.");
+	}
+
+	private void safeRebalance(Long lectureId, int wanted) {
+		try {
+			rebalance(lectureId, wanted);
+		} catch (Exception e) {
+			log.warn("Failed to rebalance seat leases of lectureId: {} for node {}. {}", lectureId, nodeId, e.getMessage());
+		}
+	}
+
+	/**
+	 * 미사용 좌석이 남은 다른 노드의 임대에서 좌석을 enrollment_count 로 회수합니다. (임대마다 남은 좌석의 절반 이상, 합계 wanted 이상)
+	 * 락 순서(seat_lease → enrollment_count)를 지키며 임대 행은 id 순으로 잠급니다.
+	 * 그 사이 팔린 좌석은 조건부 UPDATE 가 건너뛰므로 판매된 좌석을 회수하지 않습니다.
+	 * @return 회수한 좌석 수
+	 */
+	int rebalance(Long lectureId, int wanted) {
+		Integer moved = transactionTemplate.execute(status -> {
+			int taken = 0;
+			for (Long leaseId : seatLeaseRepository.findIdsWithUnusedOfOtherNodes(lectureId, nodeId)) {
+				if (taken >= wanted) {
+					break;
+				}
+				int unused = seatLeaseRepository.findUnused(leaseId).orElse(0);
+				int take = Math.min(unused, Math.max(wanted - taken, (unused + 1) / 2));
+				if (take > 0 && seatLeaseRepository.shrink(leaseId, take) > 0) {
+					taken += take;
+				}
+			}
+			if (taken > 0) {
+				enrollmentCountRepository.addCount(lectureId, -taken);
+				soldOutCache.evictOnCommit(lectureId);
+			}
+			return taken;
+		});
+		int seats = moved == null ? 0 : moved;
+		rebalancedCounter.increment(seats);
+		if (seats > 0) {
+			log.info("Rebalanced {} leased seats of lectureId: {} from other nodes for node {}", seats, lectureId, nodeId);
+		}
+		return seats;
+	}
+
+	/**
+	 * 잠근 임대 행의 미사용 좌석을 enrollment_count 로 돌려주고 임대를 삭제합니다.
+	 */
+	private int releaseUnused(Long leaseId) {
+		SeatLease lease = seatLeaseRepository.findById(leaseId).orElse(null);
+		if (lease == null) {
+			return 0;
+		}
+		int unused = lease.getGranted() - lease.getUsed();
+		if (unused > 0) {
+			enrollmentCountRepository.addCount(lease.getLectureId(), -unused);
+			soldOutCache.evictOnCommit(lease.getLectureId());
+		}
+		seatLeaseRepository.delete(lease);
+		return Math.max(unused, 0);
+	}
+
+	private static void onRollback(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				if (status != STATUS_COMMITTED) {
+					action.run();
+				}
+			}
+		});
+	}
+
+	/**
+	 * 한 번 충전한 임대 좌석 묶음. 충전/반환 시 새 묶음으로 교체하므로, 교체 전에 꺼낸 좌석이 새 묶음으로 돌아오지 않습니다.
+	 */
+	static final class Block {
+
+		static final Block EMPTY = new Block(null, 0);
+
+		private final Long leaseId;
+		private final AtomicInteger available;
+
+		Block(Long leaseId, int available) {
+			this.leaseId = leaseId;
+			this.available = new AtomicInteger(Math.max(available, 0));
+		}
+
+		int take(int count) {
+			int current;
+			int taken;
+			do {
+				current = available.get();
+				taken = Math.min(current, count);
+				if (taken <= 0) {
+					return 0;
+				}
+			} while (!available.compareAndSet(current, current - taken));
+			return taken;
+		}
+
+		int available() {
+			return available.get();
+		}
+	}
+
+	static final class LectureLease {
+
+		private final Long lectureId;
+		private final ReentrantLock refillLock = new ReentrantLock();
+		private final AtomicInteger soldSinceRefill = new AtomicInteger();
+		private final DemandRate demand = new DemandRate();
+
+		private volatile Block block = Block.EMPTY;
+		private volatile Long leaseId;
+		private volatile long lastActiveNanos = System.nanoTime();
+		// refillLock 안에서만 갱신 (0 이면 아직 충전 전)
+		private long refilledAtNanos;
+
+		LectureLease(Long lectureId) {
+			this.lectureId = lectureId;
+		}
+
+		void sold(int count) {
+			soldSinceRefill.addAndGet(count);
+			lastActiveNanos = System.nanoTime();
+		}
+
+		// 롤백된 판매의 좌석을 같은 묶음에 돌려 놓음 (이미 교체된 묶음이면 다음 충전 때 DB 기준으로 다시 맞춰짐)
+		void giveBack(Block from, int count) {
+			soldSinceRefill.addAndGet(-count);
+			if (block == from) {
+				from.available.addAndGet(count);
+			}
+		}
+
+		void invalidate(Block stale) {
+			if (block == stale) {
+				block = Block.EMPTY;
+			}
+		}
+	}
+
+	/**
+	 * 강의별 판매 속도(초당 좌석 수, 지수 가중 이동 평균)로 다음 임대 크기를 정합니다.
+	 */
+	static final class DemandRate {
+
+		private static final double ALPHA = 0.5;
+
+		private double seatsPerSecond = -1;
+
+		void record(int sold, long elapsedNanos) {
+			if (elapsedNanos <= 0 || sold < 0) {
+				return;
+			}
+			double sample = sold * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+			seatsPerSecond = seatsPerSecond < 0 ? sample : ALPHA * sample + (1 - ALPHA) * seatsPerSecond;
+		}
+
+		int nextSize(int initialSize, int minSize, int maxSize, long refillIntervalMillis) {
+			if (seatsPerSecond < 0) {
+				return initialSize;
+			}
+			long size = (long) Math.ceil(seatsPerSecond * refillIntervalMillis / 1000d);
+			return (int) Math.max(minSize, Math.min(maxSize, size));
+		}
+	}
+}
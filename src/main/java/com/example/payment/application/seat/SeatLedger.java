@@ -0,0 +1,203 @@
+package com.example.payment.application.seat;
+
+import com.example.payment.entity.EnrollmentCount;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.repository.EnrollmentCountRepository;
+import com.example.payment.repository.PaymentRepository;
+import jakarta.annotation.PreDestroy;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 강의별 잔여 좌석을 메모리의 원자적 카운터로 관리하는 좌석 장부 (payment.seat-ledger.enabled=true, InMemorySeatAllocation 이 사용)
+ * - 좌석 예약/반환은 CAS 로만 처리하여 enrollment_count 행 락을 잡지 않습니다.
+ * - 증감분은 강의별로 모아 두었다가 주기적으로 한 번의 UPDATE 로 반영합니다(write-behind).
+ * - 강의를 처음 적재할 때 좌석을 점유한 Payment 수와 테이블 값을 비교해 보정하므로,
+ *   반영 전 재시작되더라도 초과 판매가 발생하지 않습니다.
+ * 장부는 노드 로컬이므로 한 강의의 판매는 하나의 노드에서만 처리해야 합니다.
+ */
+@Component
+@Slf4j
+public class SeatLedger {
+
+	// 좌석을 점유하고 있는 Payment 상태 (보상 실패 상태는 좌석 감소가 롤백되었으므로 점유로 간주.
+	// 좌석 반환 후 PG 취소가 실패한 FINAL_COMPENSATION_FAILED 도 수동 처리 전까지 보수적으로 점유로 계산)
+	static final Set<PaymentStatus> SEAT_HOLDING_STATUSES = EnumSet.of(
+		PaymentStatus.COUNT_UPDATED, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.FINAL_COMPLETED,
+		PaymentStatus.CANCELLATION_FAILED, PaymentStatus.FINAL_COMPENSATION_FAILED);
+
+	private final EnrollmentCountRepository enrollmentCountRepository;
+	private final PaymentRepository paymentRepository;
+	private final boolean enabled;
+
+	private final Map<Long, LectureSeats> lectures = new ConcurrentHashMap<>();
+
+	public SeatLedger(EnrollmentCountRepository enrollmentCountRepository,
+		PaymentRepository paymentRepository,
+		@Value("${payment.seat-ledger.enabled:false}") boolean enabled) {
+		this.enrollmentCountRepository = enrollmentCountRepository;
+		this.paymentRepository = paymentRepository;
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * 좌석 1개 예약. 현재 트랜잭션이 롤백되면 예약한 좌석을 자동으로 반환합니다.
+	 * @return 잔여 좌석이 없으면 false
+	 */
+	public boolean tryReserve(Long lectureId) {
+		return tryReserve(lectureId, 1) == 1;
+	}
+
+	/**
+	 * 좌석 최대 count 개 예약 (잔여 좌석이 부족하면 남은 만큼만 예약). 롤백 시 예약한 좌석을 자동으로 반환합니다.
+	 * @return 예약한 좌석 수
+	 */
+	public int tryReserve(Long lectureId, int count) {
+		LectureSeats seats = seats(lectureId);
+		int reserved = seats == null ? 0 : seats.tryReserve(count);
+		if (reserved > 0 && TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status != STATUS_COMMITTED) {
+						seats.release(reserved);
+					}
+				}
+			});
+		}
+		return reserved;
+	}
+
+	/**
+	 * 좌석 1개 반환. 현재 트랜잭션이 있으면 커밋된 후에 반환합니다.
+	 */
+	public void releaseOnCommit(Long lectureId) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			release(lectureId);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				release(lectureId);
+			}
+		});
+	}
+
+	public void release(Long lectureId) {
+		LectureSeats seats = seats(lectureId);
+		if (seats != null) {
+			seats.release();
+		}
+	}
+
+	public int remaining(Long lectureId) {
+		LectureSeats seats = seats(lectureId);
+		return seats == null ? 0 : seats.remaining.get();
+	}
+
+	/**
+	 * 누적된 증감분을 강의별 한 번의 UPDATE 로 enrollment_count 에 반영합니다.
+	 */
+	@Scheduled(fixedDelayString = "${payment.seat-ledger.flush-interval-ms:100}")
+	public void flush() {
+		if (!enabled) {
+			return;
+		}
+		lectures.forEach((lectureId, seats) -> {
+			int delta = seats.pendingDelta.getAndSet(0);
+			if (delta == 0) {
+				return;
+			}
+			try {
+				enrollmentCountRepository.addCount(lectureId, delta);
+			} catch (Exception e) {
+				// 반영 실패분은 다음 주기에 다시 반영
+				seats.pendingDelta.addAndGet(delta);
+				log.error("Failed to flush seat ledger for lectureId: {}, delta: {}", lectureId, delta, e);
+			}
+		});
+	}
+
+	@PreDestroy
+	public void flushOnShutdown() {
+		flush();
+	}
+
+	private LectureSeats seats(Long lectureId) {
+		if (!enabled) {
+			throw new IllegalStateException("SeatLedger is disabled");
+		}
+		LectureSeats seats = lectures.get(lectureId);
+		if (seats != null) {
+			return seats;
+		}
+		return lectures.computeIfAbsent(lectureId, this::load);
+	}
+
+	/**
+	 * enrollment_count 를 기준으로 장부를 적재합니다.
+	 * 좌석 점유 Payment 수가 테이블 값보다 크면(반영 전 비정상 종료) 테이블을 먼저 보정합니다.
+	 */
+	private LectureSeats load(Long lectureId) {
+		EnrollmentCount enrollmentCount = enrollmentCountRepository.findByLectureId(lectureId);
+		if (enrollmentCount == null) {
+			return null;
+		}
+		int currentCount = enrollmentCount.getCurrentCount();
+		int held = (int) paymentRepository.countByLectureIdAndStatusIn(lectureId, SEAT_HOLDING_STATUSES);
+		if (held > currentCount) {
+			enrollmentCountRepository.raiseCount(lectureId, held);
+			log.warn("Seat ledger reconciled lectureId: {} currentCount {} -> {}", lectureId, currentCount, held);
+			currentCount = held;
+		}
+		int remaining = Math.max(enrollmentCount.getCapacity() - currentCount, 0);
+		log.info("Seat ledger loaded lectureId: {}, remaining: {}", lectureId, remaining);
+		return new LectureSeats(remaining);
+	}
+
+	static final class LectureSeats {
+		private final AtomicInteger remaining;
+		private final AtomicInteger pendingDelta = new AtomicInteger();
+
+		LectureSeats(int remaining) {
+			this.remaining = new AtomicInteger(remaining);
+		}
+
+		int tryReserve(int count) {
+			int current;
+			int reserved;
+			do {
+				current = remaining.get();
+				reserved = Math.min(current, count);
+				if (reserved <= 0) {
+					return 0;
+				}
+			} while (!remaining.compareAndSet(current, current - reserved));
+			pendingDelta.addAndGet(reserved);
+			return reserved;
+		}
+
+		void release() {
+			release(1);
+		}
+
+		void release(int count) {
+			remaining.addAndGet(count);
+			pendingDelta.addAndGet(-count);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.example.payment.application.seat;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 정원이 찬 강의를 기억해 두는 음성(negative) 캐시.
+ * 매진된 강의의 결제 요청은 트랜잭션을 시작하기 전에 바로 실패시켜 enrollment_count 조건부 UPDATE 를 생략합니다.
+ * - 보상 처리로 좌석이 반환되면 즉시 무효화됩니다.
+ * - 다른 노드에서 반환된 좌석은 알 수 없으므로 TTL(payment.sold-out-cache.ttl-ms) 이후 다시 DB 로 확인합니다.
+ */
+@Component
+public class SoldOutCache {
+
+	private final boolean enabled;
+	private final long ttlNanos;
+
+	// lectureId -> 만료 시각(System.nanoTime 기준)
+	private final Map<Long, Long> soldOutUntil = new ConcurrentHashMap<>();
+
+	public SoldOutCache(@Value("${payment.sold-out-cache.enabled:true}") boolean enabled,
+		@Value("${payment.sold-out-cache.ttl-ms:1000}") long ttlMillis) {
+		this.enabled = enabled;
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+	}
+
+	public boolean isSoldOut(Long lectureId) {
+		if (!enabled || lectureId == null) {
+			return false;
+		}
+		Long until = soldOutUntil.get(lectureId);
+		if (until == null) {
+			return false;
+		}
+		if (System.nanoTime() - until >= 0) {
+			soldOutUntil.remove(lectureId, until);
+			return false;
+		}
+		return true;
+	}
+
+	public void markSoldOut(Long lectureId) {
+		if (!enabled || lectureId == null) {
+			return;
+		}
+		soldOutUntil.put(lectureId, System.nanoTime() + ttlNanos);
+	}
+
+	public void evict(Long lectureId) {
+		if (lectureId == null) {
+			return;
+		}
+		soldOutUntil.remove(lectureId);
+	}
+
+	/**
+	 * 좌석 반환 트랜잭션이 커밋된 뒤에 무효화합니다. (커밋 전 무효화 시 다시 매진으로 기록될 수 있음)
+	 */
+	public void evictOnCommit(Long lectureId) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			evict(lectureId);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				evict(lectureId);
+			}
+		});
+	}
+}
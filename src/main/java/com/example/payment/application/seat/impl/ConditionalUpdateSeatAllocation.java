@@ -0,0 +1,38 @@
+package com.example.payment.application.seat.impl;
+
+import com.example.payment.application.seat.SeatAllocationMode;
+import com.example.payment.application.seat.SeatAllocationStrategy;
+import com.example.payment.repository.EnrollmentCountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 조건부 UPDATE(current_count < capacity) 한 번으로 좌석을 확보합니다. (기본값)
+ * 행 락은 UPDATE 부터 커밋까지만 잡으며, 버킷 모드 강의는 버킷 행으로 분산됩니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalUpdateSeatAllocation implements SeatAllocationStrategy {
+
+	private final EnrollmentCountRepository enrollmentCountRepository;
+
+	@Override
+	public SeatAllocationMode mode() {
+		return SeatAllocationMode.CONDITIONAL_UPDATE;
+	}
+
+	@Override
+	public boolean tryAllocate(Long lectureId) {
+		return enrollmentCountRepository.tryIncrement(lectureId) > 0;
+	}
+
+	@Override
+	public int tryAllocate(Long lectureId, int count) {
+		return enrollmentCountRepository.tryIncrementBy(lectureId, count);
+	}
+
+	@Override
+	public void release(Long lectureId) {
+		enrollmentCountRepository.decrement(lectureId);
+	}
+}
@@ -0,0 +1,38 @@
+package com.example.payment.application.seat.impl;
+
+import com.example.payment.application.seat.SeatAllocationMode;
+import com.example.payment.application.seat.SeatAllocationStrategy;
+import com.example.payment.application.seat.SeatLedger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 메모리 좌석 장부(SeatLedger)의 원자적 카운터로 좌석을 확보합니다. (payment.seat-ledger.enabled=true 필요)
+ * DB 행 락을 잡지 않으며 증감분은 장부가 주기적으로 반영합니다. 장부가 노드 로컬이므로 한 강의는 한 노드에서만 판매해야 합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class InMemorySeatAllocation implements SeatAllocationStrategy {
+
+	private final SeatLedger seatLedger;
+
+	@Override
+	public SeatAllocationMode mode() {
+		return SeatAllocationMode.IN_MEMORY;
+	}
+
+	@Override
+	public boolean tryAllocate(Long lectureId) {
+		return seatLedger.tryReserve(lectureId);
+	}
+
+	@Override
+	public int tryAllocate(Long lectureId, int count) {
+		return seatLedger.tryReserve(lectureId, count);
+	}
+
+	@Override
+	public void release(Long lectureId) {
+		seatLedger.releaseOnCommit(lectureId);
+	}
+}
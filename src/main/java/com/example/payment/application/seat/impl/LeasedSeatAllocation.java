@@ -0,0 +1,41 @@
+package com.example.payment.application.seat.impl;
+
+import com.example.payment.application.seat.SeatAllocationMode;
+import com.example.payment.application.seat.SeatAllocationStrategy;
+import com.example.payment.application.seat.SeatLeaseManager;
+import com.example.payment.repository.EnrollmentCountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 노드가 임대한 좌석 묶음(SeatLeaseManager)에서 좌석을 확보합니다.
+ * enrollment_count 는 묶음을 충전할 때만 갱신하고, 좌석마다 이 노드 전용 seat_lease 행의 사용 수를 올립니다.
+ * 판매한 좌석은 이미 enrollment_count 에 포함되어 있으므로 반환(보상)은 enrollment_count 를 직접 줄입니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeasedSeatAllocation implements SeatAllocationStrategy {
+
+	private final SeatLeaseManager seatLeaseManager;
+	private final EnrollmentCountRepository enrollmentCountRepository;
+
+	@Override
+	public SeatAllocationMode mode() {
+		return SeatAllocationMode.LEASED;
+	}
+
+	@Override
+	public int tryAllocate(Long lectureId, int count) {
+		return seatLeaseManager.allocate(lectureId, count);
+	}
+
+	@Override
+	public void release(Long lectureId) {
+		enrollmentCountRepository.decrement(lectureId);
+	}
+
+	@Override
+	public void activate() {
+		seatLeaseManager.start();
+	}
+}
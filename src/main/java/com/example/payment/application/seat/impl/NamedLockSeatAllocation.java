@@ -0,0 +1,70 @@
+package com.example.payment.application.seat.impl;
+
+import com.example.payment.application.exception.SeatAllocationConflictException;
+import com.example.payment.application.seat.SeatAllocationMode;
+import com.example.payment.application.seat.SeatAllocationStrategy;
+import com.example.payment.repository.EnrollmentCountRepository;
+import com.example.payment.repository.NamedLockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 강의별 MySQL 네임드 락(GET_LOCK)을 잡은 뒤 조건부 UPDATE 로 좌석을 확보하고, 트랜잭션이 끝나면 락을 해제합니다.
+ * 행 락 대신 DB 세션 락으로 강의 단위 직렬화를 하므로, 여러 테이블/외부 자원을 함께 다루는 확보 로직으로 넓힐 때 기준이 됩니다.
+ * payment.seat-allocation.named-lock.timeout-seconds 안에 락을 잡지 못하면 SeatAllocationConflictException 을 던집니다.
+ * - 지표: payment.seat_allocation.conflict (strategy=named-lock)
+ */
+@Component
+public class NamedLockSeatAllocation implements SeatAllocationStrategy {
+
+	private static final String LOCK_PREFIX = "payment_seat_";
+
+	private final EnrollmentCountRepository enrollmentCountRepository;
+	private final NamedLockRepository namedLockRepository;
+	private final int timeoutSeconds;
+	private final Counter conflictCounter;
+
+	public NamedLockSeatAllocation(EnrollmentCountRepository enrollmentCountRepository,
+		NamedLockRepository namedLockRepository,
+		MeterRegistry meterRegistry,
+		@Value("${payment.seat-allocation.named-lock.timeout-seconds:3}") int timeoutSeconds) {
+		this.enrollmentCountRepository = enrollmentCountRepository;
+		this.namedLockRepository = namedLockRepository;
+		this.timeoutSeconds = timeoutSeconds;
+		this.conflictCounter = Counter.builder("payment.seat_allocation.conflict")
+			.description("경합으로 좌석 확보에 실패한 횟수")
+			.tag("strategy", SeatAllocationMode.NAMED_LOCK.getValue())
+			.register(meterRegistry);
+	}
+
+	@Override
+	public SeatAllocationMode mode() {
+		return SeatAllocationMode.NAMED_LOCK;
+	}
+
+	@Override
+	public boolean tryAllocate(Long lectureId) {
+		lock(lectureId);
+		return enrollmentCountRepository.tryIncrement(lectureId) > 0;
+	}
+
+	@Override
+	public int tryAllocate(Long lectureId, int count) {
+		lock(lectureId);
+		return enrollmentCountRepository.tryIncrementBy(lectureId, count);
+	}
+
+	@Override
+	public void release(Long lectureId) {
+		enrollmentCountRepository.decrement(lectureId);
+	}
+
+	private void lock(Long lectureId) {
+		if (!namedLockRepository.lockUntilCompletion(LOCK_PREFIX + lectureId, timeoutSeconds)) {
+			conflictCounter.increment();
+			throw new SeatAllocationConflictException("좌석 확보 경합: 강의 락을 " + timeoutSeconds + "초 안에 잡지 못했습니다.");
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.example.payment.application.seat.impl;
+
+import com.example.payment.application.exception.SeatAllocationConflictException;
+import com.example.payment.application.seat.SeatAllocationMode;
+import com.example.payment.application.seat.SeatAllocationStrategy;
+import com.example.payment.repository.EnrollmentCountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * 락 없이 enrollment_count 를 읽고 version 이 그대로일 때만 증가합니다. (EnrollmentCount.version)
+ * 읽은 뒤 다른 요청이 먼저 갱신했으면 SeatAllocationConflictException 을 던지고,
+ * EnrollmentService 가 새 트랜잭션에서 재시도합니다. (payment.seat-allocation.max-attempts)
+ * 경합이 적은 강의에서는 행 락 대기가 없지만, 경합이 심하면 충돌/재시도가 늘어납니다.
+ * - 지표: payment.seat_allocation.conflict (strategy=optimistic)
+ */
+@Component
+public class OptimisticSeatAllocation implements SeatAllocationStrategy {
+
+	private final EnrollmentCountRepository enrollmentCountRepository;
+	private final Counter conflictCounter;
+
+	public OptimisticSeatAllocation(EnrollmentCountRepository enrollmentCountRepository, MeterRegistry meterRegistry) {
+		this.enrollmentCountRepository = enrollmentCountRepository;
+		this.conflictCounter = Counter.builder("payment.seat_allocation.conflict")
+			.description("경합으로 좌석 확보에 실패한 횟수")
+			.tag("strategy", SeatAllocationMode.OPTIMISTIC.getValue())
+			.register(meterRegistry);
+	}
+
+	@Override
+	public SeatAllocationMode mode() {
+		return SeatAllocationMode.OPTIMISTIC;
+	}
+
+	@Override
+	public int tryAllocate(Long lectureId, int count) {
+		int reserved = enrollmentCountRepository.tryIncrementVersioned(lectureId, count);
+		if (reserved < 0) {
+			conflictCounter.increment();
+			throw new SeatAllocationConflictException("좌석 확보 경합: 다른 요청이 먼저 수강 인원을 변경했습니다.");
+		}
+		return reserved;
+	}
+
+	@Override
+	public void release(Long lectureId) {
+		enrollmentCountRepository.decrement(lectureId);
+	}
+}
@@ -0,0 +1,33 @@
+package com.example.payment.application.seat.impl;
+
+import com.example.payment.application.seat.SeatAllocationMode;
+import com.example.payment.application.seat.SeatAllocationStrategy;
+import com.example.payment.repository.EnrollmentCountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * SELECT ... FOR UPDATE 로 enrollment_count 행(버킷 모드면 버킷 행까지)을 잠그고 남은 좌석을 확인한 뒤 증가합니다.
+ * 조회와 갱신 사이에도 락을 쥐므로 조건부 UPDATE 보다 락 보유 시간이 길지만, 잔여 좌석 계산이 복잡한 경우에도 안전합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PessimisticLockSeatAllocation implements SeatAllocationStrategy {
+
+	private final EnrollmentCountRepository enrollmentCountRepository;
+
+	@Override
+	public SeatAllocationMode mode() {
+		return SeatAllocationMode.PESSIMISTIC_LOCK;
+	}
+
+	@Override
+	public int tryAllocate(Long lectureId, int count) {
+		return enrollmentCountRepository.tryIncrementLocked(lectureId, count);
+	}
+
+	@Override
+	public void release(Long lectureId) {
+		enrollmentCountRepository.decrement(lectureId);
+	}
+}
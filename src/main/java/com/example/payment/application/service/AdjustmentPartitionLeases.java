@@ -0,0 +1,205 @@
+package com.example.payment.application.service;
+
+import com.example.payment.entity.AdjustmentNode;
+import com.example.payment.entity.AdjustmentPartitionLease;
+import com.example.payment.repository.AdjustmentNodeRepository;
+import com.example.payment.repository.AdjustmentPartitionLeaseRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * 보정 작업 파티션 임대 (payment.adjustment.partitioning.enabled=true 일 때 사용)
+ * - 결제는 id % partition-count 로 파티션에 속하고, 노드는 임대한 파티션의 결제만 보정합니다.
+ * - 노드마다 renew-interval-ms 주기로 생존 시각(adjustment_node)과 임대를 갱신하고, 살아 있는 노드 수로 나눈 몫만큼만 파티션을 가집니다.
+ *   몫보다 많이 가진 노드는 남는 파티션을 내놓고, 만료된(죽은 노드의) 파티션은 다른 노드가 가져갑니다.
+ * - 임대는 조건부 UPDATE(내 임대이거나 만료된 경우에만) 로 얻으므로 한 파티션을 두 노드가 동시에 가지지 않습니다.
+ *   노드 간 시계 차이는 lease-seconds 보다 충분히 작아야 합니다.
+ * - 지표: payment.adjustment.partitions.owned
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "payment.adjustment.partitioning.enabled", havingValue = "true")
+public class AdjustmentPartitionLeases {
+
+	private final AdjustmentPartitionLeaseRepository leaseRepository;
+	private final AdjustmentNodeRepository nodeRepository;
+	private final String nodeId;
+	private final int partitionCount;
+	private final Duration leaseDuration;
+	private final long renewIntervalMillis;
+	private final ThreadPoolTaskScheduler heartbeatScheduler;
+
+	private volatile Set<Integer> owned = Collections.emptySet();
+
+	public AdjustmentPartitionLeases(AdjustmentPartitionLeaseRepository leaseRepository,
+		AdjustmentNodeRepository nodeRepository,
+		MeterRegistry meterRegistry,
+		@Value("${payment.adjustment.node-id:}") String nodeId,
+		@Value("${payment.adjustment.partition-count:16}") int partitionCount,
+		@Value("${payment.adjustment.lease-seconds:30}") long leaseSeconds,
+		@Value("${payment.adjustment.renew-interval-ms:10000}") long renewIntervalMillis) {
+		this.leaseRepository = leaseRepository;
+		this.nodeRepository = nodeRepository;
+		this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+		this.partitionCount = Math.max(partitionCount, 1);
+		this.leaseDuration = Duration.ofSeconds(Math.max(leaseSeconds, 1));
+		this.renewIntervalMillis = Math.max(renewIntervalMillis, 100);
+
+		// 보정 작업(@Scheduled)이 오래 걸려도 임대 갱신이 밀리지 않도록 전용 스레드에서 실행합니다.
+		this.heartbeatScheduler = new ThreadPoolTaskScheduler();
+		heartbeatScheduler.setPoolSize(1);
+		heartbeatScheduler.setThreadNamePrefix("adjustment-lease-");
+		heartbeatScheduler.initialize();
+
+		Gauge.builder("payment.adjustment.partitions.owned", this, leases -> leases.owned.size())
+			.description("이 노드가 임대한 보정 파티션 수")
+			.register(meterRegistry);
+	}
+
+	@PostConstruct
+	public void start() {
+		createMissingPartitions();
+		heartbeatScheduler.scheduleWithFixedDelay(this::safeRefresh, Duration.ofMillis(renewIntervalMillis));
+	}
+
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	public int getPartitionCount() {
+		return partitionCount;
+	}
+
+	/**
+	 * 마지막 갱신 기준으로 이 노드가 가진 파티션
+	 */
+	public Set<Integer> ownedPartitions() {
+		return owned;
+	}
+
+	/**
+	 * 임대를 갱신하고 몫에 맞게 파티션을 가져오거나 내놓은 뒤, 이 노드가 가진 파티션을 반환합니다.
+	 */
+	public synchronized Set<Integer> refresh() {
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime leaseUntil = now.plus(leaseDuration);
+		heartbeat(leaseUntil);
+		List<AdjustmentPartitionLease> leases = leaseRepository.findByPartitionNoLessThan(partitionCount);
+
+		Set<String> liveNodes = new TreeSet<>(nodeRepository.findLiveNodeIds(now));
+		liveNodes.add(nodeId);
+		List<Integer> mine = new ArrayList<>();
+		List<Integer> free = new ArrayList<>();
+		for (AdjustmentPartitionLease lease : leases) {
+			boolean live = lease.getOwner() != null && lease.getLeaseUntil() != null && lease.getLeaseUntil().isAfter(now);
+			if (!live) {
+				free.add(lease.getPartitionNo());
+			} else if (nodeId.equals(lease.getOwner())) {
+				mine.add(lease.getPartitionNo());
+			}
+		}
+		int fairShare = (partitionCount + liveNodes.size() - 1) / liveNodes.size();
+
+		Set<Integer> acquired = new TreeSet<>();
+		for (Integer partitionNo : mine) {
+			if (acquired.size() >= fairShare) {
+				// 새 노드가 들어와 몫이 줄었으면 남는 파티션을 내놓음
+				leaseRepository.release(partitionNo, nodeId);
+			} else if (leaseRepository.tryAcquire(partitionNo, nodeId, now, leaseUntil) > 0) {
+				acquired.add(partitionNo);
+			}
+		}
+		Collections.shuffle(free);
+		for (Integer partitionNo : free) {
+			if (acquired.size() >= fairShare) {
+				break;
+			}
+			if (leaseRepository.tryAcquire(partitionNo, nodeId, now, leaseUntil) > 0) {
+				acquired.add(partitionNo);
+			}
+		}
+
+		if (!acquired.equals(owned)) {
+			log.info("Adjustment partitions for node {}: {} (live nodes: {})", nodeId, acquired, liveNodes.size());
+		}
+		owned = Collections.unmodifiableSet(acquired);
+		return owned;
+	}
+
+	private void heartbeat(LocalDateTime aliveUntil) {
+		AdjustmentNode node = nodeRepository.findById(nodeId).orElseGet(() -> {
+			AdjustmentNode created = new AdjustmentNode();
+			created.setNodeId(nodeId);
+			return created;
+		});
+		node.setAliveUntil(aliveUntil);
+		nodeRepository.save(node);
+		// 죽은 노드의 기록 정리
+		nodeRepository.deleteExpired(aliveUntil.minus(leaseDuration.multipliedBy(10)));
+	}
+
+	private void safeRefresh() {
+		try {
+			refresh();
+		} catch (Exception e) {
+			// 갱신하지 못하면 임대가 만료되기 전에 이 노드도 파티션을 처리하지 않도록 비웁니다.
+			owned = Collections.emptySet();
+			log.error("Failed to refresh adjustment partition leases for node {}. {}", nodeId, e.getMessage(), e);
+		}
+	}
+
+	private void createMissingPartitions() {
+		Set<Integer> existing = new TreeSet<>();
+		leaseRepository.findByPartitionNoLessThan(partitionCount)
+			.forEach(lease -> existing.add(lease.getPartitionNo()));
+		for (int partitionNo = 0; partitionNo < partitionCount; partitionNo++) {
+			if (existing.contains(partitionNo)) {
+				continue;
+			}
+			AdjustmentPartitionLease lease = new AdjustmentPartitionLease();
+			lease.setPartitionNo(partitionNo);
+			try {
+				leaseRepository.saveAndFlush(lease);
+			} catch (DataIntegrityViolationException e) {
+				// 다른 노드가 먼저 생성
+			}
+		}
+	}
+
+	/**
+	 * 종료 시 임대를 내놓아 다른 노드가 만료를 기다리지 않고 바로 가져가도록 합니다.
+	 */
+	@PreDestroy
+	public synchronized void shutdown() {
+		heartbeatScheduler.shutdown();
+		for (Integer partitionNo : owned) {
+			try {
+				leaseRepository.release(partitionNo, nodeId);
+			} catch (Exception e) {
+				log.warn("Failed to release adjustment partition {} for node {}. {}", partitionNo, nodeId, e.getMessage());
+			}
+		}
+		try {
+			nodeRepository.deleteById(nodeId);
+		} catch (Exception e) {
+			log.warn("Failed to remove adjustment node {}. {}", nodeId, e.getMessage());
+		}
+		owned = Collections.emptySet();
+	}
+}
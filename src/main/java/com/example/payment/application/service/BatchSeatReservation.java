@@ -0,0 +1,12 @@
+package com.example.payment.application.service;
+
+import java.util.List;
+
+/**
+ * 강의 단위 일괄 좌석 확보 결과
+ * @param reserved 좌석을 확보하고 COUNT_UPDATED 로 변경된 사용자
+ * @param exceeded 결제 대상이었으나 정원이 부족해 좌석을 확보하지 못한 사용자
+ * 두 목록에 없는 요청 사용자는 CREATED 상태의 Payment 가 없는 경우입니다.
+ */
+public record BatchSeatReservation(List<Long> reserved, List<Long> exceeded) {
+}
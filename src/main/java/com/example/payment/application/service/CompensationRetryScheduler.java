@@ -0,0 +1,223 @@
+package com.example.payment.application.service;
+
+import com.example.payment.application.event.CompensationExecutors;
+import com.example.payment.application.event.FinalCompensationEvent;
+import com.example.payment.application.event.FirstCompensationEvent;
+import com.example.payment.application.event.SecondCompensationEvent;
+import com.example.payment.entity.CompensationOutbox;
+import com.example.payment.repository.CompensationOutboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * 보상 처리 재시도 (기존 @Retryable 과 같은 정책: 최대 3회, 1~3초 무작위 지연)
+ * - 재시도 대기는 스케줄러의 지연 큐에만 머무르며 스레드를 점유하지 않습니다. (@Retryable 은 대기 동안 Thread.sleep)
+ * - 스케줄러 스레드는 때가 된 재시도를 해당 단계 실행기(CompensationExecutors)에 다시 넣기만 합니다.
+ *   실행기가 가득 차 있으면 첫 시도와 같이 시도 횟수와 함께 compensation_outbox 로 넘어갑니다.
+ * - 모든 시도가 실패하면 CompensationService 의 recover 메서드로 최종 실패(CANCELLATION_FAILED 등 + 슬랙 알림)를 처리합니다.
+ * - 대기 중인 재시도 수는 payment.compensation.retry.pending 지표로 노출합니다.
+ * - 종료 시(또는 스케줄러가 예약을 거부하면) 대기 중인 재시도를 버리지 않고 그때까지의 시도 횟수와 함께 compensation_outbox 에 넘겨,
+ *   재시작한 노드나 다른 노드의 CompensationOutboxRelay 가 남은 시도를 이어서 처리합니다. 기록하지 못하면 recover 로 최종 실패 처리합니다.
+ */
+@Component
+@Slf4j
+public class CompensationRetryScheduler {
+
+	private final CompensationService compensationService;
+	private final CompensationOutboxRepository compensationOutboxRepository;
+	private final CompensationExecutors compensationExecutors;
+	private final TaskScheduler taskScheduler;
+	private final ThreadPoolTaskScheduler ownedScheduler;
+	private final int maxAttempts;
+	private final long delayMillis;
+	private final long maxDelayMillis;
+
+	// 예약된 재시도 ID -> 실행하지 못했을 때 아웃박스로 넘기는 작업 (재시도가 실행되거나 넘겨지면 제거)
+	private final Map<Long, Runnable> pendingRetries = new ConcurrentHashMap<>();
+	private final AtomicLong retrySequence = new AtomicLong();
+
+	@Autowired
+	public CompensationRetryScheduler(CompensationService compensationService,
+		CompensationOutboxRepository compensationOutboxRepository,
+		CompensationExecutors compensationExecutors,
+		MeterRegistry meterRegistry,
+		@Value("${payment.compensation.retry.max-attempts:3}") int maxAttempts,
+		@Value("${payment.compensation.retry.delay-ms:1000}") long delayMillis,
+		@Value("${payment.compensation.retry.max-delay-ms:3000}") long maxDelayMillis,
+		@Value("${payment.compensation.retry.pool-size:2}") int poolSize) {
+		// TaskScheduler 빈으로 등록하면 Spring Boot 기본 @Scheduled 스케줄러가 비활성화되므로 내부에서 직접 관리합니다.
+		this(compensationService, compensationOutboxRepository, compensationExecutors, meterRegistry, maxAttempts, delayMillis, maxDelayMillis,
+			retryScheduler(poolSize));
+	}
+
+	CompensationRetryScheduler(CompensationService compensationService,
+		CompensationOutboxRepository compensationOutboxRepository,
+		CompensationExecutors compensationExecutors,
+		MeterRegistry meterRegistry,
+		int maxAttempts,
+		long delayMillis,
+		long maxDelayMillis,
+		TaskScheduler taskScheduler) {
+		this.compensationService = compensationService;
+		this.compensationOutboxRepository = compensationOutboxRepository;
+		this.compensationExecutors = compensationExecutors;
+		this.taskScheduler = taskScheduler;
+		this.ownedScheduler = taskScheduler instanceof ThreadPoolTaskScheduler scheduler ? scheduler : null;
+		this.maxAttempts = Math.max(maxAttempts, 1);
+		this.delayMillis = delayMillis;
+		this.maxDelayMillis = Math.max(maxDelayMillis, delayMillis);
+
+		Gauge.builder("payment.compensation.retry.pending", pendingRetries, Map::size)
+			.description("재시도 대기 중인 보상 처리 수")
+			.register(meterRegistry);
+	}
+
+	public void firstCompensation(FirstCompensationEvent event) {
+		attempt(CompensationOutbox.Type.FIRST, event, compensationService::firstCompensationProcess,
+			compensationService::recoverFirstCompensationProcess,
+			e -> CompensationOutbox.of(CompensationOutbox.Type.FIRST, e.getPaymentId(), e.getLectureId(), e.getUserId(),
+				e.getReason()), 1);
+	}
+
+	public void secondCompensation(SecondCompensationEvent event) {
+		attempt(CompensationOutbox.Type.SECOND, event, compensationService::secondCompensationProcess,
+			compensationService::recoverSecondCompensationProcess,
+			e -> CompensationOutbox.of(CompensationOutbox.Type.SECOND, e.getPaymentId(), e.getLectureId(), e.getUserId(),
+				e.getReason()), 1);
+	}
+
+	public void finalCompensation(FinalCompensationEvent event) {
+		attempt(CompensationOutbox.Type.FINAL, event, compensationService::finalCompensationProcess,
+			compensationService::recoverFinalCompensationProcess,
+			e -> CompensationOutbox.of(CompensationOutbox.Type.FINAL, e.getPaymentId(), e.getLectureId(), e.getUserId(),
+				e.getReason()), 1);
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	public int getPendingCount() {
+		return pendingRetries.size();
+	}
+
+	/**
+	 * 다음 재시도까지의 지연 (delay ~ maxDelay 사이 균등 분포)
+	 */
+	public long nextDelayMillis() {
+		if (maxDelayMillis <= delayMillis) {
+			return delayMillis;
+		}
+		return ThreadLocalRandom.current().nextLong(delayMillis, maxDelayMillis + 1);
+	}
+
+	private <E> void attempt(CompensationOutbox.Type phase, E event, Consumer<E> process, BiConsumer<Exception, E> recover,
+		Function<E, CompensationOutbox> toOutbox, int attempt) {
+		try {
+			process.accept(event);
+		} catch (Exception e) {
+			if (attempt >= maxAttempts) {
+				recover(event, recover, e);
+				return;
+			}
+			long delay = nextDelayMillis();
+			log.warn("Compensation attempt {}/{} failed, retrying in {} ms. {}", attempt, maxAttempts, delay, e.getMessage());
+			long retryId = retrySequence.incrementAndGet();
+			pendingRetries.put(retryId, () -> handOff(event, recover, toOutbox, attempt, e));
+			try {
+				taskScheduler.schedule(() -> {
+					// 종료 시 이미 아웃박스로 넘긴 재시도는 실행하지 않음
+					if (pendingRetries.remove(retryId) != null) {
+						resubmit(phase, event, process, recover, toOutbox, attempt);
+					}
+				}, Instant.now().plusMillis(delay));
+			} catch (TaskRejectedException rejected) {
+				// 종료 중이면 이 노드에서는 더 재시도하지 않고 아웃박스로 넘김
+				Runnable handOff = pendingRetries.remove(retryId);
+				if (handOff != null) {
+					handOff.run();
+				}
+			}
+		}
+	}
+
+	/**
+	 * 때가 된 재시도를 단계 실행기에 다시 넣습니다. 스케줄러 스레드에서는 보상을 직접 실행하지 않습니다.
+	 * 실행기가 가득 차면 지금까지의 시도 횟수와 함께 compensation_outbox 로 넘어갑니다.
+	 */
+	private <E> void resubmit(CompensationOutbox.Type phase, E event, Consumer<E> process,
+		BiConsumer<Exception, E> recover, Function<E, CompensationOutbox> toOutbox, int attempts) {
+		compensationExecutors.execute(phase,
+			() -> attempt(phase, event, process, recover, toOutbox, attempts + 1),
+			() -> {
+				CompensationOutbox outbox = toOutbox.apply(event);
+				outbox.setAttempts(attempts);
+				return outbox;
+			});
+	}
+
+	/**
+	 * 실행하지 못한 재시도를 지금까지의 시도 횟수와 함께 compensation_outbox 에 기록합니다. 기록하지 못하면 최종 실패로 처리합니다.
+	 */
+	private <E> void handOff(E event, BiConsumer<Exception, E> recover, Function<E, CompensationOutbox> toOutbox,
+		int attempts, Exception cause) {
+		try {
+			CompensationOutbox outbox = toOutbox.apply(event);
+			outbox.setAttempts(attempts);
+			compensationOutboxRepository.save(outbox);
+			log.info("Handed off compensation retry to outbox after {}/{} attempts for lectureId: {}, userId: {}",
+				attempts, maxAttempts, outbox.getLectureId(), outbox.getUserId());
+		} catch (Exception e) {
+			log.error("Failed to hand off compensation retry to outbox for event: {}. {}", event, e.getMessage(), e);
+			recover(event, recover, cause);
+		}
+	}
+
+	private <E> void recover(E event, BiConsumer<Exception, E> recover, Exception cause) {
+		try {
+			recover.accept(cause, event);
+		} catch (Exception e) {
+			log.error("Compensation recovery failed for event: {}. {}", event, e.getMessage(), e);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (ownedScheduler != null) {
+			ownedScheduler.shutdown();
+		}
+		// 지연 큐에 남은 재시도는 버리지 않고 아웃박스로 넘김
+		for (Long retryId : List.copyOf(pendingRetries.keySet())) {
+			Runnable handOff = pendingRetries.remove(retryId);
+			if (handOff != null) {
+				handOff.run();
+			}
+		}
+	}
+
+	private static ThreadPoolTaskScheduler retryScheduler(int poolSize) {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setThreadNamePrefix("compensation-retry-");
+		scheduler.setPoolSize(Math.max(poolSize, 1));
+		scheduler.setRemoveOnCancelPolicy(true);
+		scheduler.initialize();
+		return scheduler;
+	}
+}
@@ -3,60 +3,82 @@ package com.example.payment.application.service;
 import com.example.payment.application.event.FinalCompensationEvent;
 import com.example.payment.application.event.FirstCompensationEvent;
 import com.example.payment.application.event.SecondCompensationEvent;
-import com.example.payment.repository.EnrollmentCountRepository;
+import com.example.payment.application.seat.SeatAllocationStrategies;
+import com.example.payment.application.seat.SoldOutCache;
+import com.example.payment.entity.PaymentStatus;
 import com.example.payment.repository.PaymentRepository;
 import com.example.payment.web.external.PgApiClient;
+import com.example.payment.web.external.PgCallGuard;
 import com.example.payment.web.external.SlackApiClient;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * 보상 처리 (각 메서드는 1회 시도)
+ * 재시도와 최종 실패 처리(recover)는 CompensationRetryScheduler 가 담당합니다.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CompensationService {
 
-	private final EnrollmentCountRepository enrollmentCountRepository;
 	private final PaymentRepository paymentRepository;
 	private final PgApiClient pgApiClient;
+	private final PgCallGuard pgCallGuard;
 	private final SlackApiClient slackApiClient;
+	private final SeatAllocationStrategies seatAllocationStrategies;
+	private final SoldOutCache soldOutCache;
+	private final TransactionTemplate transactionTemplate;
+
+	public CompensationService(PaymentRepository paymentRepository,
+		PgApiClient pgApiClient,
+		PgCallGuard pgCallGuard,
+		SlackApiClient slackApiClient,
+		SeatAllocationStrategies seatAllocationStrategies,
+		SoldOutCache soldOutCache,
+		PlatformTransactionManager transactionManager) {
+		this.paymentRepository = paymentRepository;
+		this.pgApiClient = pgApiClient;
+		this.pgCallGuard = pgCallGuard;
+		this.slackApiClient = slackApiClient;
+		this.seatAllocationStrategies = seatAllocationStrategies;
+		this.soldOutCache = soldOutCache;
+		// 최종 보상의 상태 변경/좌석 반환만 짧게 커밋하고 PG 취소는 트랜잭션 밖에서 호출
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
 
 	/**
 	 * 트랜잭션 1 보상: 동시성 제어 실패에 따른 보상 처리
 	 *  Payment 상태를 CREATED → EXCEEDS_CAPACITY 로 조건부 업데이트합니다₩.
 	 */
 	@Transactional
-	@Retryable(value = Exception.class, maxAttempts = 3,
-		backoff = @Backoff(delay = 1000, maxDelay = 3000, random = true))
 	public void firstCompensationProcess(FirstCompensationEvent event) {
-		paymentRepository.updateStatusConditionally(event.getLectureId(), event.getUserId(), "CREATED", "EXCEEDS_CAPACITY");
+		updateStatus(event.getPaymentId(), event.getLectureId(), event.getUserId(), PaymentStatus.CREATED, PaymentStatus.EXCEEDS_CAPACITY);
 		log.info("PaymentCancellation compensation successful for lectureId: {}, userId: {}",
 			event.getLectureId(), event.getUserId());
 	}
 
 	/**
 	 * 트랜잭션 2 보상: PG API 호출 실패에 따른 보상 처리
-	 * - 수강 인원 감소 및 외부 결제 취소 API(모킹) 호출 후,
-	 *   Payment 상태를 COUNT_UPDATED → CANCELLED 로 조건부 업데이트합니다.
+	 * - Payment 상태를 COUNT_UPDATED → CANCELLED 로 조건부 업데이트한 뒤 수강 인원을 감소합니다.
 	 */
 	@Transactional
-	@Retryable(value = Exception.class, maxAttempts = 3,
-		backoff = @Backoff(delay = 1000, maxDelay = 3000, random = true))
 	public void secondCompensationProcess(SecondCompensationEvent event) {
-		// 보상 로직: 수강 인원 감소
-		enrollmentCountRepository.decrement(event.getLectureId());
-
-		// 보상 성공 시 Payment 상태 업데이트: COUNT_UPDATED → CANCELLED
-		int updated = paymentRepository.updateStatusConditionally(
-			event.getLectureId(), event.getUserId(), "COUNT_UPDATED", "CANCELLED"
+		// 상태 변경을 먼저 선점: 보정(PaymentAdjustmentService)이 이미 완료 처리한 결제는 좌석을 반환하지 않음
+		int updated = updateStatus(
+			event.getPaymentId(), event.getLectureId(), event.getUserId(), PaymentStatus.COUNT_UPDATED, PaymentStatus.CANCELLED
 		);
 		if (updated == 0) {
+			if (isAdjusted(event.getLectureId(), event.getUserId())) {
+				return;
+			}
 			throw new RuntimeException("Failed to update Payment status during PaymentCancellation compensation");
 		}
+
+		// 보상 로직: 수강 인원 감소
+		releaseSeat(event.getLectureId());
 		log.info("PaymentCancellation compensation successful for lectureId: {}, userId: {}",
 			event.getLectureId(), event.getUserId());
 	}
@@ -64,38 +86,105 @@ public class CompensationService {
 
 	/**
 	 * 트랜잭션 3 보상: 구매 DB 반영 실패에 따른 보상 처리
-	 * - 수강 인원 감소 및 외부 출금 취소 API(모킹) 호출 후,
-	 *   Payment 상태를 PAYMENT_PROCESSED → CANCELLED 로 조건부 업데이트합니다.
+	 * - Payment 상태를 PAYMENT_PROCESSED → CANCELLED 로 조건부 업데이트하고 수강 인원을 감소하는 짧은 트랜잭션을 커밋한 뒤,
+	 *   DB 커넥션 없이 외부 출금 취소 API 를 호출합니다.
+	 * - 취소가 실패하면 예외로 재시도를 요청합니다. 재시도는 이미 CANCELLED 인 결제에 대해 취소 호출만 다시 하며
+	 *   (PG 취소는 멱등이어야 함), 재시도를 다 쓰면 recover 가 FINAL_COMPENSATION_FAILED 로 바꿉니다.
 	 */
-	@Transactional
-	@Retryable(value = Exception.class, maxAttempts = 3,
-		backoff = @Backoff(delay = 1000, maxDelay = 3000, random = true))
 	public void finalCompensationProcess(FinalCompensationEvent event) {
-		// 보상 로직: 수강 인원 감소
-		enrollmentCountRepository.decrement(event.getLectureId());
-
-		// 외부 출금 취소 API 호출 (모킹 처리)
-		pgApiClient.mockCancelApiCall(event);
-
-		// 보상 성공 시 Payment 상태 업데이트: PAYMENT_PROCESSED → CANCELLED
-		int updated = paymentRepository.updateStatusConditionally(
-			event.getLectureId(), event.getUserId(), "PAYMENT_PROCESSED", "CANCELLED"
-		);
-		if (updated == 0) {
+		Boolean cancelRequired = transactionTemplate.execute(status -> {
+			// 상태 변경을 먼저 선점: 보정이 이미 수강 등록까지 마친 결제는 좌석 반환/출금 취소를 하지 않음
+			int updated = updateStatus(
+				event.getPaymentId(), event.getLectureId(), event.getUserId(), PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.CANCELLED
+			);
+			if (updated > 0) {
+				// 보상 로직: 수강 인원 감소
+				releaseSeat(event.getLectureId());
+				return true;
+			}
+			if (isAdjusted(event.getLectureId(), event.getUserId())) {
+				return false;
+			}
+			if (isCancelPending(event)) {
+				return true;
+			}
 			throw new RuntimeException("Failed to update Payment status during Finalization compensation");
+		});
+		if (!Boolean.TRUE.equals(cancelRequired)) {
+			return;
+		}
+
+		// 외부 출금 취소 API 호출 (트랜잭션 밖)
+		if (!pgCallGuard.call(() -> pgApiClient.cancel(event))) {
+			throw new RuntimeException("PG cancel failed during Finalization compensation");
 		}
 		log.info("Finalization compensation successful for lectureId: {}, userId: {}",
 			event.getLectureId(), event.getUserId());
 	}
 
+	/**
+	 * 앞선 최종 보상 시도가 상태 변경/좌석 반환은 커밋했지만 PG 취소에 실패한 결제인지 확인합니다.
+	 */
+	private boolean isCancelPending(FinalCompensationEvent event) {
+		boolean cancelled = event.getPaymentId() != null
+			? paymentRepository.findById(event.getPaymentId())
+				.map(payment -> payment.getStatus() == PaymentStatus.CANCELLED)
+				.orElse(false)
+			: paymentRepository.findByLectureIdAndUserIdAndStatus(
+				event.getLectureId(), event.getUserId(), PaymentStatus.CANCELLED) != null;
+		if (cancelled) {
+			log.info("Retry PG cancel of already cancelled payment. lectureId: {}, userId: {}",
+				event.getLectureId(), event.getUserId());
+		}
+		return cancelled;
+	}
+
+	/**
+	 * 사가가 단계를 마치기 전에 보정(PaymentDeadlineTracker / 전체 조회)이 FINAL_COMPLETED 로 완료한 결제인지 확인합니다.
+	 */
+	private boolean isAdjusted(Long lectureId, Long userId) {
+		if (paymentRepository.findByLectureIdAndUserIdAndStatus(lectureId, userId, PaymentStatus.FINAL_COMPLETED) == null) {
+			return false;
+		}
+		log.info("Skip compensation, payment was already completed by adjustment. lectureId: {}, userId: {}",
+			lectureId, userId);
+		return true;
+	}
+
+	/**
+	 * 결제 ID 가 있으면 PK 로, 없으면 lectureId/userId 로 조건부 상태 변경
+	 */
+	private int updateStatus(Long paymentId, Long lectureId, Long userId, PaymentStatus fromStatus, PaymentStatus toStatus) {
+		return paymentId != null
+			? paymentRepository.updateStatusById(paymentId, lectureId, userId, fromStatus, toStatus)
+			: paymentRepository.updateStatusConditionally(lectureId, userId, fromStatus, toStatus);
+	}
+
+	/**
+	 * 좌석 반환: 강의의 좌석 확보 방식으로 반환합니다. (좌석 장부는 커밋 후 장부에, 그 외는 enrollment_count 를 직접 감소)
+	 * 반환된 좌석이 바로 판매될 수 있도록 커밋 후 매진 캐시를 무효화합니다.
+	 */
+	private void releaseSeat(Long lectureId) {
+		seatAllocationStrategies.forLecture(lectureId).release(lectureId);
+		soldOutCache.evictOnCommit(lectureId);
+	}
+
+	/**
+	 * FirstCompensationEvent 보상 로직 최종 실패 시 fallback 처리.
+	 * Payment 는 CREATED 상태로 남아 PaymentAdjustmentService 의 보정 대상이 됩니다.
+	 */
+	public void recoverFirstCompensationProcess(Exception e, FirstCompensationEvent event) {
+		log.error("Capacity exceeded compensation FAILED for lectureId: {}, userId: {}. Reason: {}",
+			event.getLectureId(), event.getUserId(), event.getReason(), e);
+	}
+
 	/**
 	 * SecondCompensationEvent 보상 로직 최종 실패 시 fallback 처리.
 	 * 모든 재시도가 실패한 경우 Payment 상태를 CANCELLATION_FAILED로 업데이트하고, 슬랙 알림 전송.
 	 */
-	@Recover
 	public void recoverSecondCompensationProcess(Exception e, SecondCompensationEvent event) {
-		int updated = paymentRepository.updateStatusConditionally(
-			event.getLectureId(), event.getUserId(), "COUNT_UPDATED", "CANCELLATION_FAILED"
+		int updated = updateStatus(
+			event.getPaymentId(), event.getLectureId(), event.getUserId(), PaymentStatus.COUNT_UPDATED, PaymentStatus.CANCELLATION_FAILED
 		);
 		log.error("Payment cancellation compensation FAILED for lectureId: {}, userId: {}. Reason: {}. Updated rows: {}",
 			event.getLectureId(), event.getUserId(), event.getReason(), updated, e);
@@ -106,12 +195,17 @@ public class CompensationService {
 	/**
 	 * FinalCompensationEvent 보상 로직 최종 실패 시 fallback 처리.
 	 * 모든 재시도가 실패한 경우 Payment 상태를 FINAL_COMPENSATION_FAILED로 업데이트하고, 슬랙 알림 전송.
+	 * (상태 변경/좌석 반환은 커밋했지만 PG 취소에 실패한 CANCELLED 결제도 FINAL_COMPENSATION_FAILED 로 바꿉니다)
 	 */
-	@Recover
 	public void recoverFinalCompensationProcess(Exception e, FinalCompensationEvent event) {
-		int updated = paymentRepository.updateStatusConditionally(
-			event.getLectureId(), event.getUserId(), "PAYMENT_PROCESSED", "FINAL_COMPENSATION_FAILED"
+		int updated = updateStatus(
+			event.getPaymentId(), event.getLectureId(), event.getUserId(), PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.FINAL_COMPENSATION_FAILED
 		);
+		if (updated == 0) {
+			updated = updateStatus(
+				event.getPaymentId(), event.getLectureId(), event.getUserId(), PaymentStatus.CANCELLED, PaymentStatus.FINAL_COMPENSATION_FAILED
+			);
+		}
 		log.error("Finalization compensation FAILED for lectureId: {}, userId: {}. Reason: {}. Updated rows: {}",
 			event.getLectureId(), event.getUserId(), event.getReason(), updated, e);
 		slackApiClient.sendSlackAlert("Finalization compensation FAILED for lectureId: " +
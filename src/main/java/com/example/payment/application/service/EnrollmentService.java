@@ -1,13 +1,28 @@
 package com.example.payment.application.service;
 
+import com.example.payment.application.deadline.RequestDeadline;
 import com.example.payment.application.exception.BusinessException;
+import com.example.payment.application.exception.CapacityExceededException;
+import com.example.payment.application.exception.DeadlineExceededException;
+import com.example.payment.application.exception.PgUnavailableException;
+import com.example.payment.application.exception.SeatAllocationConflictException;
+import com.example.payment.application.seat.SeatAllocationMode;
+import com.example.payment.application.seat.SeatAllocationStrategies;
+import com.example.payment.application.seat.SeatAllocationStrategy;
 import com.example.payment.entity.Enrollment;
-import com.example.payment.repository.EnrollmentCountRepository;
+import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
 import com.example.payment.repository.EnrollmentRepository;
+import com.example.payment.repository.PaymentHotPathRepository;
+import com.example.payment.repository.PaymentHotPathRepository.Outcome;
 import com.example.payment.repository.PaymentRepository;
 import com.example.payment.web.controller.dto.PaymentRequest;
 import com.example.payment.web.external.PgApiClient;
+import com.example.payment.web.external.PgCallGuard;
 import com.example.payment.web.external.dto.PaymentResponse;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
@@ -18,49 +33,122 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class EnrollmentService {
 
-	private final EnrollmentCountRepository enrollmentCountRepository;
+	// PG 재시도 사이의 최대 대기 시간 (PgRetryDeadlineListener 가 남은 기한과 비교)
+	public static final long PG_RETRY_MAX_BACKOFF_MS = 5000;
+
 	private final EnrollmentRepository enrollmentRepository;
 	private final PaymentRepository paymentRepository;
 	private final PgApiClient pgApiClient;
+	private final PgCallGuard pgCallGuard;
+	private final SeatAllocationStrategies seatAllocationStrategies;
+	private final SeatRequestCombiner seatRequestCombiner;
+	private final PaymentHotPathRepository paymentHotPathRepository;
 
 	/**
 	 * 트랜잭션 1: 동시성 제어 - 수강 인원 증가
 	 * 성공 시 Payment 상태를 CREATED -> COUNT_UPDATED 로 조건부 업데이트합니다.
+	 * 좌석은 강의에 지정된 SeatAllocationStrategy 로 확보합니다(롤백 시 함께 반환).
+	 * 요청 결합이 활성화된 경우 같은 강의에 동시에 들어온 요청을 묶어 일괄 처리합니다.
+	 * 핫패스가 활성화된 경우 조건부 UPDATE 방식 강의의 두 UPDATE 를 저장 프로시저 호출 한 번으로 처리합니다.
+	 * 경합으로 좌석을 확보하지 못하면(낙관적 버전 충돌, 네임드 락 시간 초과) 새 트랜잭션에서 다시 시도합니다.
+	 * 트랜잭션은 SeatRequestCombiner 가 단건/일괄 처리마다 엽니다. (묶음을 기다리는 동안 커넥션을 쥐지 않도록)
 	 */
-	@Transactional
+	@Retryable(
+		value = SeatAllocationConflictException.class,
+		maxAttemptsExpression = "${payment.seat-allocation.max-attempts:3}",
+		backoff = @Backoff(delay = 5, maxDelay = 50, random = true)
+	)
 	public void enrollmentCountTryIncrement(Long lectureId, Long userId) {
-		int updatedRows = enrollmentCountRepository.tryIncrement(lectureId);
-		if (updatedRows == 0) {
-			throw new BusinessException("수강 인원이 모두 찼습니다.");
+		seatRequestCombiner.reserve(lectureId, userId,
+			() -> reserveSeat(lectureId, userId),
+			userIds -> enrollmentCountTryIncrementBatch(lectureId, userIds));
+	}
+
+	private void reserveSeat(Long lectureId, Long userId) {
+		SeatAllocationStrategy strategy = seatAllocationStrategies.forLecture(lectureId);
+		if (strategy.mode() == SeatAllocationMode.CONDITIONAL_UPDATE && paymentHotPathRepository.isEnabled()) {
+			Outcome outcome = paymentHotPathRepository.reserveSeat(lectureId, userId);
+			if (outcome == Outcome.OK) {
+				return;
+			}
+			if (outcome == Outcome.STATUS_MISMATCH) {
+				throw new BusinessException("Payment 상태 업데이트 실패(CREATED -> COUNT_UPDATED).");
+			}
+			// 좌석 없음: 정원 초과인지 버킷 모드인지 아래 JPA 경로로 확인
+		}
+		if (!strategy.tryAllocate(lectureId)) {
+			throw new CapacityExceededException("수강 인원이 모두 찼습니다.");
 		}
 		// Payment 상태 조건부 업데이트: CREATED 상태인 경우에만 COUNT_UPDATED로 변경
-		int paymentUpdated = paymentRepository.updateStatusConditionally(lectureId, userId, "CREATED", "COUNT_UPDATED");
+		int paymentUpdated = paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.CREATED, PaymentStatus.COUNT_UPDATED);
 		if (paymentUpdated == 0) {
 			throw new BusinessException("Payment 상태 업데이트 실패(CREATED -> COUNT_UPDATED).");
 		}
 	}
 
+	/**
+	 * 트랜잭션 1 (일괄): 한 강의에 대한 여러 사용자의 좌석을 한 번에 확보합니다.
+	 * CREATED 상태인 사용자 수만큼 조건부 UPDATE 한 번으로 좌석을 늘리고, 정원이 부족하면 남은 좌석만큼만 확보합니다.
+	 * 좌석을 확보한 사용자의 Payment 는 한 번의 UPDATE 로 CREATED -> COUNT_UPDATED 변경합니다.
+	 */
+	@Transactional
+	public BatchSeatReservation enrollmentCountTryIncrementBatch(Long lectureId, List<Long> userIds) {
+		Set<Long> created = new HashSet<>(
+			paymentRepository.findUserIdsByLectureIdAndUserIdInAndStatus(lectureId, userIds, PaymentStatus.CREATED));
+		// 요청 순서대로 좌석 배정
+		List<Long> eligible = userIds.stream().distinct().filter(created::contains).toList();
+		if (eligible.isEmpty()) {
+			return new BatchSeatReservation(List.of(), List.of());
+		}
+
+		int reservedCount = seatAllocationStrategies.forLecture(lectureId).tryAllocate(lectureId, eligible.size());
+		List<Long> reserved = eligible.subList(0, reservedCount);
+		List<Long> exceeded = eligible.subList(reservedCount, eligible.size());
+
+		if (!reserved.isEmpty()) {
+			int paymentUpdated = paymentRepository.updateStatusConditionallyForUsers(
+				lectureId, reserved, PaymentStatus.CREATED, PaymentStatus.COUNT_UPDATED);
+			// 조회 이후 다른 요청이 상태를 바꾼 경우 전체 롤백 (호출 측에서 건별 처리로 대체)
+			if (paymentUpdated != reserved.size()) {
+				throw new BusinessException("Payment 일괄 상태 업데이트 실패(CREATED -> COUNT_UPDATED).");
+			}
+		}
+		return new BatchSeatReservation(List.copyOf(reserved), List.copyOf(exceeded));
+	}
+
 	/**
 	 * 트랜잭션 2: PG API 호출
 	 * Spring Retry를 이용하여 최대 3회, 지터 백오프를 적용합니다.
 	 * 성공 시 Payment 상태를 COUNT_UPDATED -> PAYMENT_PROCESSED 로 조건부 업데이트합니다.
+	 * PG 호출(재시도 대기 포함) 동안 DB 커넥션을 쥐지 않도록 트랜잭션을 열지 않으며,
+	 * 상태 변경만 저장소의 짧은 트랜잭션(UPDATE 1건)으로 실행합니다.
+	 * 요청 기한의 남은 시간으로 다음 시도를 마칠 수 없으면 PgRetryDeadlineListener 가 대기 없이 재시도를 멈춥니다.
 	 */
 	@Retryable(
 		value = Exception.class,
+		// 회로 차단/동시 호출 한도 초과, 기한 초과는 기다려도 풀리지 않으므로 재시도하지 않고 바로 보상으로 넘깁니다.
+		exclude = {PgUnavailableException.class, DeadlineExceededException.class},
 		maxAttempts = 3,
-		backoff = @Backoff(delay = 2000, maxDelay = 5000, random = true)
+		backoff = @Backoff(delay = 2000, maxDelay = PG_RETRY_MAX_BACKOFF_MS, random = true),
+		listeners = "pgRetryDeadlineListener"
 	)
-	@Transactional
 	public void processPayment(PaymentRequest paymentRequest) {
 		Long lectureId = paymentRequest.getLectureId();
 		Long userId = paymentRequest.getUserId();
 
-		PaymentResponse response = pgApiClient.mockApproveApiCall(paymentRequest);
+		if (RequestDeadline.isExpired(paymentRequest.getDeadline())) {
+			throw new DeadlineExceededException("요청 기한이 지나 PG 결제를 진행하지 않습니다.");
+		}
+
+		// 기한 때문에 짧아진 시간 제한으로 끝난 호출은 PG 장애로 집계하지 않음
+		PaymentResponse response = pgCallGuard.call(paymentRequest.getDeadline(),
+			() -> pgApiClient.approve(paymentRequest));
 		if (!response.isSuccess()) {
 			throw new BusinessException("결제 실패");
 		}
 		// Payment 상태 조건부 업데이트: COUNT_UPDATED 상태인 경우에만 PAYMENT_PROCESSED로 변경
-		int paymentUpdated = paymentRepository.updateStatusConditionally(lectureId, userId, "COUNT_UPDATED", "PAYMENT_PROCESSED");
+		int paymentUpdated = updateStatus(paymentRequest.getPaymentId(), lectureId, userId,
+			PaymentStatus.COUNT_UPDATED, PaymentStatus.PAYMENT_PROCESSED);
 		if (paymentUpdated == 0) {
 			throw new BusinessException("Payment 상태 업데이트 실패(COUNT_UPDATED -> PAYMENT_PROCESSED).");
 		}
@@ -69,9 +157,20 @@ public class EnrollmentService {
 	/**
 	 * 트랜잭션 3: 구매강의 DB 반영 및 결제 완료
 	 * Enrollment 기록 생성과 함께 Payment 상태를 PAYMENT_PROCESSED -> FINAL_COMPLETED 로 업데이트합니다.
+	 * 핫패스가 활성화된 경우 저장 프로시저 호출 한 번으로 처리합니다.
 	 */
 	@Transactional
-	public void finalizeEnrollment(Long lectureId, Long userId) {
+	public void finalizeEnrollment(PaymentRequest paymentRequest) {
+		Long lectureId = paymentRequest.getLectureId();
+		Long userId = paymentRequest.getUserId();
+
+		if (paymentHotPathRepository.isEnabled()) {
+			if (paymentHotPathRepository.finalizeEnrollment(paymentRequest.getPaymentId(), lectureId, userId) != Outcome.OK) {
+				throw new BusinessException("Payment 상태 업데이트 실패(PAYMENT_PROCESSED -> FINAL_COMPLETED).");
+			}
+			return;
+		}
+
 		// Enrollment 기록 생성
 		Enrollment enrollment = new Enrollment();
 		enrollment.setLectureId(lectureId);
@@ -79,23 +178,36 @@ public class EnrollmentService {
 		enrollmentRepository.save(enrollment);
 
 		// Payment 상태 조건부 업데이트: PAYMENT_PROCESSED 상태인 경우에만 FINAL_COMPLETED로 변경
-		int paymentUpdated = paymentRepository.updateStatusConditionally(lectureId, userId, "PAYMENT_PROCESSED", "FINAL_COMPLETED");
+		int paymentUpdated = updateStatus(paymentRequest.getPaymentId(), lectureId, userId,
+			PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.FINAL_COMPLETED);
 		if (paymentUpdated == 0) {
 			throw new BusinessException("Payment 상태 업데이트 실패(PAYMENT_PROCESSED -> FINAL_COMPLETED).");
 		}
 	}
 
+	/**
+	 * 보정: 조회한 Payment 가 그 사이 다른 상태로 바뀌지 않은 경우에만 FINAL_COMPLETED 로 변경합니다. (PK 기준)
+	 */
 	@Transactional
-	public void adjustPayments(Long lectureId, Long userId) {
+	public void adjustPayments(Payment payment) {
 		Enrollment enrollment = new Enrollment();
-		enrollment.setLectureId(lectureId);
-		enrollment.setUserId(userId);
+		enrollment.setLectureId(payment.getLectureId());
+		enrollment.setUserId(payment.getUserId());
 		enrollmentRepository.save(enrollment);
 
-		// Payment 상태 조건부 업데이트: PAYMENT_PROCESSED 상태인 경우에만 FINAL_COMPLETED로 변경
-		int paymentUpdated = paymentRepository.updateStatus(lectureId, userId, "FINAL_COMPLETED");
+		int paymentUpdated = paymentRepository.updateStatusById(payment.getId(), payment.getLectureId(), payment.getUserId(),
+			payment.getStatus(), PaymentStatus.FINAL_COMPLETED);
 		if (paymentUpdated == 0) {
-			throw new BusinessException("Payment 상태 업데이트 실패(PAYMENT_PROCESSED -> FINAL_COMPLETED).");
+			throw new BusinessException("Payment 상태 업데이트 실패(" + payment.getStatus() + " -> FINAL_COMPLETED).");
 		}
 	}
+
+	/**
+	 * 결제 ID 가 있으면 PK 로, 없으면 lectureId/userId 로 조건부 상태 변경
+	 */
+	private int updateStatus(Long paymentId, Long lectureId, Long userId, PaymentStatus fromStatus, PaymentStatus toStatus) {
+		return paymentId != null
+			? paymentRepository.updateStatusById(paymentId, lectureId, userId, fromStatus, toStatus)
+			: paymentRepository.updateStatusConditionally(lectureId, userId, fromStatus, toStatus);
+	}
 }
@@ -1,45 +1,243 @@
 package com.example.payment.application.service;
 
 import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.repository.PaymentAdjustmentBatchRepository;
 import com.example.payment.repository.PaymentRepository;
+import com.example.payment.repository.PendingPayment;
 import com.example.payment.web.external.PgApiClient;
+import com.example.payment.web.external.PgCallGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+/**
+ * 미완료 결제 보정
+ * - 대상은 id 키셋 페이지(payment.adjustment.page-size)로 나눠 프로젝션으로 읽으므로, 장애 후 대상이 많아도 한 페이지만 메모리에 둡니다.
+ * - 페이지의 PG 결제내역 조회는 전용 실행기에서 최대 payment.adjustment.parallelism 건씩 동시에 수행합니다.
+ * - 출금이 확인된 결제는 페이지 단위 JDBC 배치로 반영하고, 배치가 실패하면 건별로 다시 반영합니다.
+ * - payment.adjustment.partitioning.enabled=true 이면 AdjustmentPartitionLeases 로 임대한 파티션(id % partition-count)의 결제만 보정하므로
+ *   여러 노드가 같은 결제를 중복 보정하지 않습니다. 비활성화하면 모든 결제를 대상으로 합니다. (단일 노드)
+ * - 지표: payment.adjustment.scanned / fixed / failed, payment.adjustment.duration (전체 조회 1회당)
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class PaymentAdjustmentService implements CommandLineRunner {
 
 	private final PaymentRepository paymentRepository;
 	private final EnrollmentService enrollmentService;
+	private final PaymentAdjustmentBatchRepository paymentAdjustmentBatchRepository;
 	private final PgApiClient pgApiClient;
+	private final PgCallGuard pgCallGuard;
+	private final AdjustmentPartitionLeases partitionLeases;
+	private final int pageSize;
+	private final ThreadPoolTaskExecutor pgLookupExecutor;
+
+	private final Counter scannedCounter;
+	private final Counter fixedCounter;
+	private final Counter failedCounter;
+	private final Timer durationTimer;
+
+	@Autowired
+	public PaymentAdjustmentService(PaymentRepository paymentRepository,
+		EnrollmentService enrollmentService,
+		PaymentAdjustmentBatchRepository paymentAdjustmentBatchRepository,
+		PgApiClient pgApiClient,
+		PgCallGuard pgCallGuard,
+		ObjectProvider<AdjustmentPartitionLeases> partitionLeases,
+		MeterRegistry meterRegistry,
+		@Value("${payment.adjustment.page-size:500}") int pageSize,
+		@Value("${payment.adjustment.parallelism:4}") int parallelism) {
+		this(paymentRepository, enrollmentService, paymentAdjustmentBatchRepository, pgApiClient, pgCallGuard,
+			partitionLeases.getIfAvailable(), meterRegistry, pageSize, parallelism);
+	}
+
+	PaymentAdjustmentService(PaymentRepository paymentRepository,
+		EnrollmentService enrollmentService,
+		PaymentAdjustmentBatchRepository paymentAdjustmentBatchRepository,
+		PgApiClient pgApiClient,
+		PgCallGuard pgCallGuard,
+		AdjustmentPartitionLeases partitionLeases,
+		MeterRegistry meterRegistry,
+		int pageSize,
+		int parallelism) {
+		this.paymentRepository = paymentRepository;
+		this.enrollmentService = enrollmentService;
+		this.paymentAdjustmentBatchRepository = paymentAdjustmentBatchRepository;
+		this.pgApiClient = pgApiClient;
+		this.pgCallGuard = pgCallGuard;
+		this.partitionLeases = partitionLeases;
+		this.pageSize = Math.max(pageSize, 1);
+
+		// 실시간 승인이 쓸 PG 동시 호출 한도(PgCallGuard)를 보정 작업이 모두 차지하지 않도록 작게 유지합니다.
+		this.pgLookupExecutor = new ThreadPoolTaskExecutor();
+		pgLookupExecutor.setThreadNamePrefix("payment-adjust-");
+		pgLookupExecutor.setCorePoolSize(Math.max(parallelism, 1));
+		pgLookupExecutor.setMaxPoolSize(Math.max(parallelism, 1));
+		pgLookupExecutor.initialize();
+
+		this.scannedCounter = Counter.builder("payment.adjustment.scanned")
+			.description("보정 작업이 조회한 미완료 결제 수")
+			.register(meterRegistry);
+		this.fixedCounter = Counter.builder("payment.adjustment.fixed")
+			.description("FINAL_COMPLETED 로 보정한 결제 수")
+			.register(meterRegistry);
+		this.failedCounter = Counter.builder("payment.adjustment.failed")
+			.description("PG 조회/반영에 실패해 다음 실행으로 넘긴 결제 수")
+			.register(meterRegistry);
+		this.durationTimer = Timer.builder("payment.adjustment.duration")
+			.description("보정 작업 1회 실행 시간")
+			.register(meterRegistry);
+	}
 
 	/**
-	 * 스케줄러: 5분마다 미완료(PENDING 등) 결제를 대상으로 보정 프로세스를 수행합니다.
+	 * 스케줄러: 미완료(PENDING 등) 결제 전체를 대상으로 보정 프로세스를 수행합니다.
+	 * 진행 중인 결제는 PaymentDeadlineTracker 가 단계별 기한이 지나면 바로 보정하므로, 이 전체 조회는 낮은 주기의 안전망입니다.
 	 */
-	@Scheduled(fixedDelay = 300000) // 300,000ms = 5분
+	@Scheduled(fixedDelayString = "${payment.adjustment.scan-interval-ms:1800000}") // 기본 30분
 	public void adjustPendingPayments() {
+		long startedAt = System.nanoTime();
 		LocalDateTime threshold = LocalDateTime.now().minusMinutes(5);
-		List<Payment> pendingPayments = paymentRepository.findByStatusNotInAndCreatedAtBefore(List.of("EXCEEDS_CAPACITY","FINAL_COMPLETED"), threshold);
+		RunStats stats = new RunStats();
+
+		forEachPendingPage(threshold, page -> {
+			if (pgCallGuard.isOpen()) {
+				log.warn("PG circuit is open, stopping payment adjustment before id: {}", page.get(0).id());
+				return false;
+			}
+			stats.scanned += page.size();
+			complete(findWithdrawn(page, stats), stats);
+			return true;
+		});
+
+		long elapsedNanos = System.nanoTime() - startedAt;
+		scannedCounter.increment(stats.scanned);
+		fixedCounter.increment(stats.fixed);
+		failedCounter.increment(stats.failed);
+		durationTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+		log.info("Payment adjustment finished. scanned: {}, fixed: {}, failed: {}, took: {}ms",
+			stats.scanned, stats.fixed, stats.failed, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+	}
+
+	/**
+	 * 기한이 지난 결제만 골라 보정합니다. (PaymentDeadlineTracker)
+	 * @return FINAL_COMPLETED 로 보정한 결제 수
+	 */
+	public long adjust(List<PendingPayment> payments) {
+		if (payments.isEmpty() || pgCallGuard.isOpen()) {
+			return 0;
+		}
+		RunStats stats = new RunStats();
+		stats.scanned = payments.size();
+		complete(findWithdrawn(payments, stats), stats);
+		scannedCounter.increment(stats.scanned);
+		fixedCounter.increment(stats.fixed);
+		failedCounter.increment(stats.failed);
+		return stats.fixed;
+	}
+
+	/**
+	 * threshold 이전에 생성된, 이 노드가 맡은 미완료 결제를 id 키셋 페이지로 순회합니다.
+	 * @param pageHandler false 를 반환하면 순회를 멈춥니다.
+	 */
+	public void forEachPendingPage(LocalDateTime threshold, Predicate<List<PendingPayment>> pageHandler) {
+		if (partitionLeases != null) {
+			partitionLeases.refresh();
+		}
+		long afterId = 0L;
+		while (true) {
+			// 실행 중 임대를 잃은 파티션은 다음 페이지부터 제외
+			List<Long> partitions = ownedPartitions();
+			if (partitions.isEmpty()) {
+				log.debug("No adjustment partitions owned by this node, skipping");
+				return;
+			}
+			List<PendingPayment> page = paymentRepository.findPendingPage(PaymentStatus.NOT_ADJUSTABLE, threshold,
+				partitionCount(), partitions, afterId, Limit.of(pageSize));
+			if (page.isEmpty() || !pageHandler.test(page) || page.size() < pageSize) {
+				return;
+			}
+			afterId = page.get(page.size() - 1).id();
+		}
+	}
 
-		for (Payment payment : pendingPayments) {
+	private long partitionCount() {
+		return partitionLeases == null ? 1 : partitionLeases.getPartitionCount();
+	}
+
+	private List<Long> ownedPartitions() {
+		if (partitionLeases == null) {
+			return List.of(0L);
+		}
+		Set<Integer> owned = partitionLeases.ownedPartitions();
+		return owned.stream().map(Integer::longValue).toList();
+	}
+
+	/**
+	 * 페이지의 PG 결제내역을 동시에 조회해 실제 출금이 이루어진 결제만 돌려줍니다.
+	 */
+	private List<PendingPayment> findWithdrawn(List<PendingPayment> page, RunStats stats) {
+		List<CompletableFuture<Boolean>> checks = new ArrayList<>(page.size());
+		for (PendingPayment payment : page) {
+			checks.add(CompletableFuture.supplyAsync(() -> checkPaymentStatusFromPG(payment.toPayment()), pgLookupExecutor));
+		}
+
+		List<PendingPayment> withdrawn = new ArrayList<>();
+		for (int i = 0; i < page.size(); i++) {
+			PendingPayment payment = page.get(i);
 			try {
-				// 실제 PG 결제내역 조회 API 호출 (모킹 처리)
-				boolean isWithdrawn = checkPaymentStatusFromPG(payment);
-				if (isWithdrawn) {
-					// 실제 출금이 이루어진 경우, 최종 결제 DB 반영 재실행
-					// Payment 상태 업데이트
-					enrollmentService.adjustPayments(payment.getLectureId(), payment.getUserId());
-					log.info("Payment adjusted to FINAL_COMPLETED for payment id: {}", payment.getId());
+				if (checks.get(i).join()) {
+					withdrawn.add(payment);
 				}
 			} catch (Exception e) {
-				e.printStackTrace();
+				stats.failed++;
+				log.error("Error checking PG payment history for payment id: {}. {}", payment.id(), e.getMessage());
+			}
+		}
+		return withdrawn;
+	}
+
+	/**
+	 * 실제 출금이 이루어진 결제를 최종 결제 상태로 반영합니다. (배치 실패 시 건별 반영)
+	 */
+	private void complete(List<PendingPayment> withdrawn, RunStats stats) {
+		if (withdrawn.isEmpty()) {
+			return;
+		}
+		try {
+			List<PendingPayment> adjusted = paymentAdjustmentBatchRepository.completeAll(withdrawn);
+			stats.fixed += adjusted.size();
+			log.info("Payments adjusted to FINAL_COMPLETED: {} of {}", adjusted.size(), withdrawn.size());
+			return;
+		} catch (Exception e) {
+			log.warn("Batch payment adjustment failed, falling back to one by one. {}", e.getMessage());
+		}
+
+		for (PendingPayment pendingPayment : withdrawn) {
+			Payment payment = pendingPayment.toPayment();
+			try {
+				enrollmentService.adjustPayments(payment);
+				stats.fixed++;
+				log.info("Payment adjusted to FINAL_COMPLETED for payment id: {}", payment.getId());
+			} catch (Exception e) {
+				stats.failed++;
 				log.error("Error adjusting payment id: {}. {}", payment.getId(), e.getMessage());
 			}
 		}
@@ -57,7 +255,18 @@ public class PaymentAdjustmentService implements CommandLineRunner {
 	 * 실제 PG 결제내역을 조회하는 모킹 메서드
 	 */
 	public boolean checkPaymentStatusFromPG(Payment payment) {
-		pgApiClient.mockFindPaymentHistoryApiCall(payment);
+		pgCallGuard.call(() -> pgApiClient.findHistory(payment));
 		return true;
 	}
-}
\ No newline at end of file
+
+	@PreDestroy
+	public void shutdown() {
+		pgLookupExecutor.shutdown();
+	}
+
+	private static final class RunStats {
+		private long scanned;
+		private long fixed;
+		private long failed;
+	}
+}
@@ -0,0 +1,189 @@
+package com.example.payment.application.service;
+
+import com.example.payment.application.exception.BusinessException;
+import com.example.payment.application.exception.CapacityExceededException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 같은 강의에 동시에 들어온 트랜잭션 1 요청을 묶어 한 번에 처리합니다 (payment.seat-combining.enabled=true 일 때 사용)
+ * - 같은 강의의 트랜잭션 1이 이미 진행 중이면(경합) 첫 요청이 리더가 되어 window 동안 요청을 모읍니다.
+ * - 리더는 별도 트랜잭션에서 좌석 일괄 확보 + Payment 일괄 상태 변경을 한 번 실행하고, 도착 순서대로 결과를 나눠줍니다.
+ * - 경합이 없으면 기다리지 않고 바로 단건 처리하며, 일괄 처리가 실패하면 각 요청이 단건 처리로 대체합니다.
+ * - 트랜잭션 1의 경계는 이 클래스가 가집니다. 호출자는 트랜잭션 밖에서 호출해야 하며, 묶음을 기다리는 동안에는 커넥션을 쥐지 않습니다.
+ *   (대기 중인 요청이 커넥션을 쥐고 있으면 리더가 일괄 처리용 커넥션을 얻지 못해 풀이 고갈됩니다)
+ */
+@Component
+@Slf4j
+public class SeatRequestCombiner {
+
+	private final TransactionTemplate singleTransaction;
+	private final TransactionTemplate transactionTemplate;
+	private final boolean enabled;
+	private final long windowMicros;
+	private final int maxGroupSize;
+
+	private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+	public SeatRequestCombiner(PlatformTransactionManager transactionManager,
+		@Value("${payment.seat-combining.enabled:false}") boolean enabled,
+		@Value("${payment.seat-combining.window-micros:1000}") long windowMicros,
+		@Value("${payment.seat-combining.max-group-size:32}") int maxGroupSize) {
+		this.singleTransaction = new TransactionTemplate(transactionManager);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		// 호출자의 트랜잭션과 분리하여, 리더 자신의 실패가 그룹 전체를 롤백하지 않도록 합니다.
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.enabled = enabled;
+		this.windowMicros = windowMicros;
+		this.maxGroupSize = Math.max(maxGroupSize, 1);
+	}
+
+	/**
+	 * 좌석 1개 확보. 묶이지 않은 경우 single 을 호출 스레드의 트랜잭션에서 실행합니다.
+	 * 결합이 비활성화되어 있거나 호출자가 이미 트랜잭션 안에 있으면 묶지 않습니다.
+	 * @param single 단건 처리 (실패 시 예외)
+	 * @param group 사용자 목록에 대한 일괄 처리 (새 트랜잭션에서 실행)
+	 */
+	public void reserve(Long lectureId, Long userId, Runnable single,
+		Function<List<Long>, BatchSeatReservation> group) {
+		if (!enabled || maxGroupSize <= 1 || TransactionSynchronizationManager.isActualTransactionActive()) {
+			runSingle(single);
+			return;
+		}
+		Lane lane = lanes.computeIfAbsent(lectureId, id -> new Lane());
+		int concurrent = lane.inFlight.incrementAndGet();
+		try {
+			// 경합이 없으면 묶지 않음
+			if (concurrent <= 1) {
+				runSingle(single);
+				return;
+			}
+			Outcome outcome = join(lane, userId, group);
+			switch (outcome) {
+				case RESERVED -> {
+				}
+				case EXCEEDED -> throw new CapacityExceededException("수강 인원이 모두 찼습니다.");
+				case NOT_CREATED -> throw new BusinessException("Payment 상태 업데이트 실패(CREATED -> COUNT_UPDATED).");
+				case NOT_COMBINED -> runSingle(single);
+			}
+		} finally {
+			lane.inFlight.decrementAndGet();
+		}
+	}
+
+	private void runSingle(Runnable single) {
+		singleTransaction.executeWithoutResult(status -> single.run());
+	}
+
+	private Outcome join(Lane lane, Long userId, Function<List<Long>, BatchSeatReservation> group) {
+		Waiter waiter = new Waiter(userId);
+		Batch batch;
+		boolean leader;
+		synchronized (lane) {
+			leader = lane.open == null;
+			if (leader) {
+				lane.open = new Batch();
+			}
+			batch = lane.open;
+			batch.waiters.add(waiter);
+			if (batch.waiters.size() >= maxGroupSize) {
+				lane.open = null;
+				batch.full.countDown();
+			}
+		}
+		if (!leader) {
+			return waiter.outcome.join();
+		}
+
+		try {
+			batch.full.await(windowMicros, TimeUnit.MICROSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		List<Waiter> waiters;
+		synchronized (lane) {
+			if (lane.open == batch) {
+				lane.open = null;
+			}
+			waiters = new ArrayList<>(batch.waiters);
+		}
+		return lead(waiter, waiters, group);
+	}
+
+	/**
+	 * 리더: 묶인 요청을 한 번에 처리하고 대기 중인 요청에 결과를 전달합니다.
+	 */
+	private Outcome lead(Waiter self, List<Waiter> waiters, Function<List<Long>, BatchSeatReservation> group) {
+		if (waiters.size() == 1) {
+			return Outcome.NOT_COMBINED;
+		}
+		try {
+			List<Long> userIds = waiters.stream().map(w -> w.userId).toList();
+			BatchSeatReservation reservation = transactionTemplate.execute(status -> group.apply(userIds));
+			Set<Long> reserved = new HashSet<>(reservation.reserved());
+			Set<Long> exceeded = new HashSet<>(reservation.exceeded());
+			// 같은 사용자의 중복 요청은 첫 요청만 결과를 받음
+			Set<Long> assigned = new HashSet<>();
+			for (Waiter waiter : waiters) {
+				Outcome outcome;
+				if (!assigned.add(waiter.userId)) {
+					outcome = Outcome.NOT_CREATED;
+				} else if (reserved.contains(waiter.userId)) {
+					outcome = Outcome.RESERVED;
+				} else if (exceeded.contains(waiter.userId)) {
+					outcome = Outcome.EXCEEDED;
+				} else {
+					outcome = Outcome.NOT_CREATED;
+				}
+				waiter.outcome.complete(outcome);
+			}
+			log.debug("Combined {} seat requests into one reservation ({} reserved)", waiters.size(), reserved.size());
+		} catch (Exception e) {
+			log.warn("Combined seat reservation failed, falling back to single reservations. {}", e.getMessage());
+		} finally {
+			// 결과를 받지 못한 요청은 단건 처리로 대체
+			waiters.forEach(waiter -> waiter.outcome.complete(Outcome.NOT_COMBINED));
+		}
+		return self.outcome.join();
+	}
+
+	enum Outcome {
+		RESERVED, EXCEEDED, NOT_CREATED, NOT_COMBINED
+	}
+
+	private static final class Lane {
+		// 이 강의에서 트랜잭션 1을 진행 중인 요청 수 (경합 감지)
+		private final AtomicInteger inFlight = new AtomicInteger();
+		private Batch open;
+	}
+
+	private static final class Batch {
+		private final List<Waiter> waiters = new ArrayList<>();
+		private final CountDownLatch full = new CountDownLatch(1);
+	}
+
+	private static final class Waiter {
+		private final Long userId;
+		private final CompletableFuture<Outcome> outcome = new CompletableFuture<>();
+
+		private Waiter(Long userId) {
+			this.userId = userId;
+		}
+	}
+}
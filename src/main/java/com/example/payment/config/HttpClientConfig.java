@@ -0,0 +1,99 @@
+package com.example.payment.config;
+
+import com.example.payment.web.external.PgRequestTimeout;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * 외부 API(PG) 호출용 RestTemplate
+ * JDK 기본 SimpleClientHttpRequestFactory 대신 커넥션 풀(Apache HttpClient 5)을 사용하며,
+ * 연결/응답/풀 대기 시간을 모두 제한해 PG 장애 시 요청 스레드가 무한정 묶이지 않도록 합니다.
+ */
+@Configuration
+public class HttpClientConfig {
+
+	@Bean
+	public RestTemplate restTemplate(
+		@Value("${payment.pg.http.max-total:200}") int maxTotal,
+		@Value("${payment.pg.http.max-per-route:50}") int maxPerRoute,
+		@Value("${payment.pg.http.connect-timeout-ms:1000}") long connectTimeoutMs,
+		@Value("${payment.pg.http.read-timeout-ms:3000}") long readTimeoutMs,
+		@Value("${payment.pg.http.pool-acquire-timeout-ms:500}") long poolAcquireTimeoutMs,
+		@Value("${payment.pg.http.keep-alive-ms:30000}") long keepAliveMs) {
+		return pooledRestTemplate(new PoolSettings(maxTotal, maxPerRoute, connectTimeoutMs, readTimeoutMs,
+			poolAcquireTimeoutMs, keepAliveMs));
+	}
+
+	/**
+	 * 커넥션 풀 설정
+	 * @param maxPerRoute 호스트(PG)별 최대 연결 수
+	 * @param poolAcquireTimeoutMs 풀에서 연결을 얻기까지 기다리는 최대 시간
+	 * @param keepAliveMs 유휴 연결 유지 시간 (0 이하이면 keep-alive 없이 요청마다 새 연결)
+	 */
+	public record PoolSettings(int maxTotal, int maxPerRoute, long connectTimeoutMs, long readTimeoutMs,
+							   long poolAcquireTimeoutMs, long keepAliveMs) {
+	}
+
+	/**
+	 * 벤치마크 등 스프링 컨텍스트 밖에서도 같은 설정으로 만들 수 있도록 분리합니다.
+	 */
+	public static RestTemplate pooledRestTemplate(PoolSettings settings) {
+		PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+			.setMaxConnTotal(settings.maxTotal())
+			.setMaxConnPerRoute(settings.maxPerRoute())
+			.setDefaultConnectionConfig(ConnectionConfig.custom()
+				.setConnectTimeout(Timeout.ofMilliseconds(settings.connectTimeoutMs()))
+				.setSocketTimeout(Timeout.ofMilliseconds(settings.readTimeoutMs()))
+				.build())
+			.build();
+
+		RequestConfig defaultRequestConfig = RequestConfig.custom()
+			.setConnectionRequestTimeout(Timeout.ofMilliseconds(settings.poolAcquireTimeoutMs()))
+			.setResponseTimeout(Timeout.ofMilliseconds(settings.readTimeoutMs()))
+			.build();
+		HttpClientBuilder builder = HttpClients.custom()
+			.setConnectionManager(connectionManager)
+			.setDefaultRequestConfig(defaultRequestConfig)
+			.evictExpiredConnections();
+		if (settings.keepAliveMs() > 0) {
+			TimeValue keepAlive = TimeValue.ofMilliseconds(settings.keepAliveMs());
+			builder.setKeepAliveStrategy((response, context) -> keepAlive)
+				.evictIdleConnections(keepAlive);
+		} else {
+			builder.setConnectionReuseStrategy((request, response, context) -> false);
+		}
+		CloseableHttpClient httpClient = builder.build();
+
+		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+		// 요청 기한의 남은 시간이 기본 시간 제한보다 짧으면 이번 호출만 줄여서 적용
+		requestFactory.setHttpContextFactory((method, uri) -> deadlineContext(defaultRequestConfig, settings));
+		return new RestTemplate(requestFactory);
+	}
+
+	private static HttpContext deadlineContext(RequestConfig defaultRequestConfig, PoolSettings settings) {
+		Long timeoutMillis = PgRequestTimeout.current();
+		if (timeoutMillis == null || timeoutMillis >= settings.readTimeoutMs()) {
+			return null;
+		}
+		HttpClientContext context = HttpClientContext.create();
+		context.setRequestConfig(RequestConfig.copy(defaultRequestConfig)
+			.setResponseTimeout(Timeout.ofMilliseconds(timeoutMillis))
+			.setConnectionRequestTimeout(Timeout.ofMilliseconds(Math.min(timeoutMillis, settings.poolAcquireTimeoutMs())))
+			.build());
+		return context;
+	}
+}
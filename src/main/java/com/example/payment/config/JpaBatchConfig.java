@@ -0,0 +1,30 @@
+package com.example.payment.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate INSERT/UPDATE 배치 설정
+ * 엔티티 ID 를 TSID(@TsidId, 노드 번호는 TsidNodeConfig)로 애플리케이션에서 정하므로 IDENTITY 와 달리 flush 시 INSERT 를 묶어 보낼 수 있습니다.
+ * - hibernate.order_inserts/order_updates: 엔티티 종류별로 문장을 정렬해 배치가 끊기지 않도록
+ * - MySQL JDBC URL 에 rewriteBatchedStatements=true 를 함께 주어야 여러 행 INSERT 로 합쳐집니다.
+ * spring.jpa.properties.* 로 직접 지정한 값이 있으면 그 값을 우선합니다.
+ */
+@Slf4j
+@Configuration
+public class JpaBatchConfig {
+
+	@Bean
+	public HibernatePropertiesCustomizer jpaBatchCustomizer(@Value("${payment.jpa.batch-size:50}") int batchSize) {
+		log.info("Hibernate batch size={}", batchSize);
+		return properties -> {
+			properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+			properties.putIfAbsent("hibernate.order_inserts", true);
+			properties.putIfAbsent("hibernate.order_updates", true);
+			properties.putIfAbsent("hibernate.jdbc.batch_versioned_data", true);
+		};
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.payment.config;
+
+import com.example.payment.entity.id.TsidFactory;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * TSID 노드 번호 설정 (payment.id.node-id, 0~1023)
+ * 노드 번호가 겹치는 두 노드는 같은 밀리초에 같은 ID 를 발급할 수 있으므로,
+ * 프로필을 지정해 실행하는 환경(test 제외)에서 노드 번호가 없으면 시작에 실패합니다.
+ * 프로필 없이 실행하는 로컬/테스트 환경에서만 지정하지 않으면 무작위 노드 번호를 씁니다.
+ * 엔티티 ID 를 만들기 전에 적용되도록 EntityManagerFactory 가 이 설정에 의존합니다.
+ */
+@Slf4j
+@Configuration
+public class TsidNodeConfig {
+
+	private static final String TEST_PROFILE = "test";
+
+	public TsidNodeConfig(Environment environment, @Value("${payment.id.node-id:-1}") int nodeId) {
+		int node = resolveNode(nodeId, environment.getActiveProfiles());
+		TsidFactory.configureGlobal(node);
+		log.info("TSID node={}{}", node, nodeId < 0 ? " (random, payment.id.node-id is not set)" : "");
+	}
+
+	@Bean
+	public static EntityManagerFactoryDependsOnPostProcessor tsidNodeConfigDependsOn() {
+		return new EntityManagerFactoryDependsOnPostProcessor(TsidNodeConfig.class);
+	}
+
+	static int resolveNode(int nodeId, String[] activeProfiles) {
+		if (nodeId >= 0) {
+			return nodeId;
+		}
+		boolean deployed = Arrays.stream(activeProfiles).anyMatch(profile -> !TEST_PROFILE.equals(profile));
+		if (deployed) {
+			throw new IllegalStateException("payment.id.node-id must be set (0~" + TsidFactory.MAX_NODE
+				+ ") when running with profiles " + Arrays.toString(activeProfiles));
+		}
+		return ThreadLocalRandom.current().nextInt(TsidFactory.MAX_NODE + 1);
+	}
+}
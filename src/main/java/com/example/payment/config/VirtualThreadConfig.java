@@ -0,0 +1,116 @@
+package com.example.payment.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * 가상 스레드 실행 모드 (spring.threads.virtual.enabled=true, Java 21 이상)
+ * Spring Boot 가 Tomcat 요청 처리, @Async 작업(applicationTaskExecutor), @Scheduled 보정 작업을
+ * 가상 스레드로 실행합니다. (보상 처리는 크기가 제한된 단계별 실행기 CompensationExecutors 에서 실행) 이 설정은 그 위에서 다음을 담당합니다.
+ * - Java 21 미만에서 켜진 경우 플랫폼 스레드로 동작함을 경고
+ * - 캐리어 스레드 고정(pinning) 감시: synchronized 블록 안의 블로킹(JDBC 드라이버/커넥션 풀 등)으로
+ *   가상 스레드가 캐리어에 고정되면 JFR jdk.VirtualThreadPinned 이벤트로 감지해 로그를 남깁니다.
+ * 커넥션 풀 대기 제한 등 권장 설정은 application-virtual.properties 를 참고하세요.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+	private final Environment environment;
+
+	public VirtualThreadConfig(Environment environment) {
+		this.environment = environment;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void checkRuntime() {
+		if (!Threading.VIRTUAL.isActive(environment)) {
+			log.warn("spring.threads.virtual.enabled=true but running on Java {}. Virtual threads require Java 21+, "
+				+ "falling back to platform threads.", Runtime.version().feature());
+		}
+	}
+
+	@Bean
+	@ConditionalOnThreading(Threading.VIRTUAL)
+	public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+		@Value("${payment.virtual-threads.pinned-threshold-ms:20}") long thresholdMillis) {
+		return new VirtualThreadPinningMonitor(Duration.ofMillis(thresholdMillis));
+	}
+
+	/**
+	 * JFR 스트림으로 가상 스레드 고정을 감시합니다.
+	 */
+	@Slf4j
+	public static class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+		private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+		private final Duration threshold;
+		private final AtomicLong pinnedCount = new AtomicLong();
+		private RecordingStream stream;
+
+		public VirtualThreadPinningMonitor(Duration threshold) {
+			this.threshold = threshold;
+		}
+
+		public long getPinnedCount() {
+			return pinnedCount.get();
+		}
+
+		@Override
+		public void start() {
+			stream = new RecordingStream();
+			stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+			stream.onEvent(PINNED_EVENT, this::onPinned);
+			stream.startAsync();
+		}
+
+		private void onPinned(RecordedEvent event) {
+			pinnedCount.incrementAndGet();
+			log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), pinnedAt(event));
+		}
+
+		private String pinnedAt(RecordedEvent event) {
+			if (event.getStackTrace() == null) {
+				return "unknown";
+			}
+			// 애플리케이션 프레임을 우선 표시
+			return event.getStackTrace().getFrames().stream()
+				.filter(RecordedFrame::isJavaFrame)
+				.map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+					+ ":" + frame.getLineNumber())
+				.filter(frame -> frame.startsWith("com.example"))
+				.findFirst()
+				.orElseGet(() -> event.getStackTrace().getFrames().isEmpty()
+					? "unknown" : event.getStackTrace().getFrames().get(0).getMethod().getName());
+		}
+
+		@Override
+		public void stop() {
+			if (stream != null) {
+				stream.close();
+				stream = null;
+			}
+		}
+
+		@Override
+		public boolean isRunning() {
+			return stream != null;
+		}
+	}
+}
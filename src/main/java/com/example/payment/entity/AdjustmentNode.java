@@ -0,0 +1,26 @@
+package com.example.payment.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 보정 작업에 참여 중인 노드 (payment.adjustment.partitioning.enabled=true 일 때 사용)
+ * 파티션을 아직 하나도 임대하지 못한 노드도 몫 계산에 포함되도록 노드마다 생존 시각을 기록합니다.
+ */
+@Entity
+@Table(name = "adjustment_node")
+@Getter
+@Setter
+public class AdjustmentNode {
+
+	@Id
+	@Column(length = 64)
+	private String nodeId;
+
+	private LocalDateTime aliveUntil;
+}
@@ -0,0 +1,30 @@
+package com.example.payment.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 보정 작업 파티션 임대 (payment.adjustment.partitioning.enabled=true 일 때 사용)
+ * 결제는 id % partitionCount 로 파티션에 속하며, 임대를 가진 노드만 해당 파티션의 결제를 보정합니다.
+ * leaseUntil 이 지나면 다른 노드가 가져갈 수 있습니다.
+ */
+@Entity
+@Table(name = "adjustment_partition_lease")
+@Getter
+@Setter
+public class AdjustmentPartitionLease {
+
+	@Id
+	private Integer partitionNo;
+
+	// 임대한 노드 ID
+	@Column(length = 64)
+	private String owner;
+
+	private LocalDateTime leaseUntil;
+}
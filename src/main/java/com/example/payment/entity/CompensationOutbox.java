@@ -0,0 +1,73 @@
+package com.example.payment.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 처리 대기 중인 보상 이벤트 (트랜잭셔널 아웃박스)
+ * 처리가 끝나면 삭제하며, availableAt 이전에는 다른 노드가 가져가지 않습니다(처리 중 lease).
+ */
+@Entity
+@Table(name = "compensation_outbox", indexes = {
+	@Index(name = "idx_compensation_outbox_available_at", columnList = "available_at"),
+	@Index(name = "idx_compensation_outbox_lecture_user", columnList = "lecture_id, user_id")
+})
+@Getter
+@Setter
+public class CompensationOutbox {
+
+	public enum Type {
+		FIRST, SECOND, FINAL
+	}
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Enumerated(EnumType.STRING)
+	@Column(length = 16, nullable = false)
+	private Type type;
+
+	private Long paymentId;
+
+	private Long lectureId;
+
+	private Long userId;
+
+	@Column(length = 1000)
+	private String reason;
+
+	private LocalDateTime createdAt;
+
+	// 이 시각 이후에 가져갈 수 있음 (가져간 노드가 lease 만큼 미룹니다)
+	private LocalDateTime availableAt;
+
+	// 가져간 횟수
+	private int attempts;
+
+	/**
+	 * 바로 처리 가능한 보상 이벤트 행 생성
+	 */
+	public static CompensationOutbox of(Type type, Long paymentId, Long lectureId, Long userId, String reason) {
+		LocalDateTime now = LocalDateTime.now();
+		CompensationOutbox outbox = new CompensationOutbox();
+		outbox.setType(type);
+		outbox.setPaymentId(paymentId);
+		outbox.setLectureId(lectureId);
+		outbox.setUserId(userId);
+		outbox.setReason(reason != null && reason.length() > 1000 ? reason.substring(0, 1000) : reason);
+		outbox.setCreatedAt(now);
+		outbox.setAvailableAt(now);
+		return outbox;
+	}
+}
@@ -1,8 +1,7 @@
 package com.example.payment.entity;
 
+import com.example.payment.entity.id.TsidId;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Data;
@@ -13,7 +12,7 @@ import lombok.Data;
 public class Enrollment {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@TsidId
 	private Long id;
 
 	// 강의 ID
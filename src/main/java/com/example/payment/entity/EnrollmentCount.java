@@ -1,12 +1,13 @@
 package com.example.payment.entity;
 
+import com.example.payment.entity.id.TsidId;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 @Data
 @Entity
@@ -14,7 +15,7 @@ import lombok.Data;
 public class EnrollmentCount {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@TsidId
 	private Long id;
 
 	// 강의 ID
@@ -26,4 +27,13 @@ public class EnrollmentCount {
 	// 최대 정원
 	private int capacity;
 
+	// 카운터 버킷 수 (1이면 이 행 하나로 관리, 2 이상이면 enrollment_count_bucket 으로 분산)
+	@ColumnDefault("1")
+	private int bucketCount = 1;
+
+	// 낙관적 좌석 확보(OptimisticSeatAllocation)의 버전 비교용. 이 행을 바꾸는 벌크 UPDATE 도 모두 1씩 올립니다.
+	@Version
+	@ColumnDefault("0")
+	private long version;
+
 }
\ No newline at end of file
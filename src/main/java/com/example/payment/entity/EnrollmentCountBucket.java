@@ -0,0 +1,34 @@
+package com.example.payment.entity;
+
+import com.example.payment.entity.id.TsidId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * 강의 정원을 여러 행으로 나눈 카운터 버킷 (EnrollmentCount.bucketCount > 1 인 강의에서 사용)
+ */
+@Data
+@Entity
+@Table(name = "enrollment_count_bucket", uniqueConstraints = @UniqueConstraint(columnNames = {"lectureId", "bucketNo"}))
+public class EnrollmentCountBucket {
+
+	@Id
+	@TsidId
+	private Long id;
+
+	// 강의 ID
+	private Long lectureId;
+
+	// 버킷 번호 (0 ~ bucketCount-1)
+	private int bucketNo;
+
+	// 버킷의 현재 수강 인원
+	private int currentCount;
+
+	// 버킷에 할당된 정원
+	private int capacity;
+
+}
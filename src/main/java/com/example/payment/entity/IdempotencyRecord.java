@@ -0,0 +1,47 @@
+package com.example.payment.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Idempotency-Key 별 처리 결과 (payment.idempotency.persistent.enabled=true 일 때 사용)
+ * 노드가 재시작되거나 다른 노드로 재시도가 들어와도 같은 응답을 돌려주기 위해 저장합니다.
+ * responseStatus 가 null 이면 처리 중입니다.
+ */
+@Entity
+@Table(name = "idempotency_record", indexes = {
+	@Index(name = "idx_idempotency_record_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+public class IdempotencyRecord {
+
+	// Idempotency-Key 헤더의 최대 길이 (PaymentController 가 넘는 키를 400 으로 거절)
+	public static final int MAX_KEY_LENGTH = 64;
+
+	// 저장되는 키는 "userId:Idempotency-Key" (사용자별 범위, Long 최대 자릿수 20 + 구분자)
+	public static final int MAX_SCOPED_KEY_LENGTH = MAX_KEY_LENGTH + 21;
+
+	@Id
+	@Column(name = "idempotency_key", length = MAX_SCOPED_KEY_LENGTH)
+	private String idempotencyKey;
+
+	// 같은 키로 다른 요청이 들어왔는지 확인하기 위한 요청 지문
+	@Column(length = 128, nullable = false)
+	private String fingerprint;
+
+	private Integer responseStatus;
+
+	@Column(length = 1000)
+	private String responseBody;
+
+	private LocalDateTime createdAt;
+
+	private LocalDateTime expiresAt;
+}
@@ -1,22 +1,29 @@
 package com.example.payment.entity;
 
+import com.example.payment.entity.id.TsidId;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "payment")
+@Table(name = "payment", indexes = {
+	// 상태 전이 UPDATE 의 조건 (lecture_id, user_id, status). status 는 1바이트 코드라 인덱스 항목이 작습니다.
+	@Index(name = "idx_payment_lecture_user_status", columnList = "lecture_id, user_id, status"),
+	// 보정 대상 조회 (status NOT IN ... AND created_at < ?)
+	@Index(name = "idx_payment_status_created_at", columnList = "status, created_at")
+})
 @Getter
 @Setter
 public class Payment {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@TsidId
 	private Long id;
 
 	// 연동 대상 강의 ID
@@ -25,8 +32,10 @@ public class Payment {
 	// 결제 사용자 ID
 	private Long userId;
 
-	// 결제 상태 (예: PENDING, FINAL_COMPLETED, FAILED 등)
-	private String status;
+	// 결제 상태 (TINYINT 코드로 저장)
+	@Convert(converter = PaymentStatusConverter.class)
+	@Column(columnDefinition = "TINYINT")
+	private PaymentStatus status;
 
 	// 결제 생성 시간
 	private LocalDateTime createdAt;
@@ -0,0 +1,96 @@
+package com.example.payment.entity;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 결제 상태. DB 에는 고정된 코드(TINYINT)로 저장합니다. (코드는 변경하거나 재사용하지 않습니다)
+ *
+ * 정상 흐름: CREATED → COUNT_UPDATED → PAYMENT_PROCESSED → FINAL_COMPLETED
+ * 보상 흐름: CREATED → EXCEEDS_CAPACITY, COUNT_UPDATED → CANCELLED / CANCELLATION_FAILED,
+ *           PAYMENT_PROCESSED → CANCELLED / FINAL_COMPENSATION_FAILED,
+ *           CANCELLED → FINAL_COMPENSATION_FAILED (최종 보상에서 좌석 반환 후 PG 취소가 끝내 실패한 경우)
+ * 보정 흐름: 미완료 상태 → FINAL_COMPLETED (PaymentAdjustmentService)
+ */
+public enum PaymentStatus {
+	CREATED(1),
+	COUNT_UPDATED(2),
+	PAYMENT_PROCESSED(3),
+	FINAL_COMPLETED(4),
+	EXCEEDS_CAPACITY(5),
+	CANCELLED(6),
+	CANCELLATION_FAILED(7),
+	FINAL_COMPENSATION_FAILED(8);
+
+	private static final Map<Integer, PaymentStatus> BY_CODE = Arrays.stream(values())
+		.collect(Collectors.toUnmodifiableMap(PaymentStatus::getCode, Function.identity()));
+
+	// 보정 작업 대상에서 제외되는 상태
+	public static final Set<PaymentStatus> NOT_ADJUSTABLE = EnumSet.of(EXCEEDS_CAPACITY, FINAL_COMPLETED);
+
+	static {
+		CREATED.next = EnumSet.of(COUNT_UPDATED, EXCEEDS_CAPACITY);
+		COUNT_UPDATED.next = EnumSet.of(PAYMENT_PROCESSED, CANCELLED, CANCELLATION_FAILED);
+		PAYMENT_PROCESSED.next = EnumSet.of(FINAL_COMPLETED, CANCELLED, FINAL_COMPENSATION_FAILED);
+		FINAL_COMPLETED.next = EnumSet.noneOf(PaymentStatus.class);
+		EXCEEDS_CAPACITY.next = EnumSet.noneOf(PaymentStatus.class);
+		CANCELLED.next = EnumSet.of(FINAL_COMPENSATION_FAILED);
+		CANCELLATION_FAILED.next = EnumSet.noneOf(PaymentStatus.class);
+		FINAL_COMPENSATION_FAILED.next = EnumSet.noneOf(PaymentStatus.class);
+		// 보정: PG 에서 출금이 확인되면 미완료 상태에서 FINAL_COMPLETED 로 변경
+		for (PaymentStatus status : values()) {
+			if (!NOT_ADJUSTABLE.contains(status)) {
+				status.next.add(FINAL_COMPLETED);
+			}
+		}
+	}
+
+	private final int code;
+	private Set<PaymentStatus> next;
+
+	PaymentStatus(int code) {
+		this.code = code;
+	}
+
+	public int getCode() {
+		return code;
+	}
+
+	public boolean canTransitionTo(PaymentStatus target) {
+		return next.contains(target);
+	}
+
+	/**
+	 * 허용되지 않은 상태 변경이면 IllegalStateException
+	 */
+	public void checkTransitionTo(PaymentStatus target) {
+		if (!canTransitionTo(target)) {
+			throw new IllegalStateException("Illegal payment status transition: " + this + " -> " + target);
+		}
+	}
+
+	/**
+	 * target 으로 변경할 수 있는 상태 목록
+	 */
+	public static Set<PaymentStatus> sourcesOf(PaymentStatus target) {
+		EnumSet<PaymentStatus> sources = EnumSet.noneOf(PaymentStatus.class);
+		for (PaymentStatus status : values()) {
+			if (status.canTransitionTo(target)) {
+				sources.add(status);
+			}
+		}
+		return sources;
+	}
+
+	public static PaymentStatus fromCode(int code) {
+		PaymentStatus status = BY_CODE.get(code);
+		if (status == null) {
+			throw new IllegalArgumentException("Unknown payment status code: " + code);
+		}
+		return status;
+	}
+}
@@ -0,0 +1,21 @@
+package com.example.payment.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * PaymentStatus ↔ TINYINT 코드 변환 (enum 순서가 아닌 고정 코드 사용)
+ */
+@Converter(autoApply = true)
+public class PaymentStatusConverter implements AttributeConverter<PaymentStatus, Integer> {
+
+	@Override
+	public Integer convertToDatabaseColumn(PaymentStatus status) {
+		return status == null ? null : status.getCode();
+	}
+
+	@Override
+	public PaymentStatus convertToEntityAttribute(Integer code) {
+		return code == null ? null : PaymentStatus.fromCode(code);
+	}
+}
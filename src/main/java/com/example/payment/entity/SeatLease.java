@@ -0,0 +1,44 @@
+package com.example.payment.entity;
+
+import com.example.payment.entity.id.TsidId;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 노드별 좌석 임대 (좌석 확보 방식 leased, SeatLeaseManager 가 사용)
+ * 노드는 enrollment_count 에서 좌석을 묶음으로 가져와(granted) 이 행에 기록하고, 판매할 때마다 used 를 올립니다.
+ * enrollment_count.currentCount 에는 임대한 좌석이 모두 포함되어 있으므로, 남은 좌석(granted - used)을
+ * 반환하거나 회수할 때 그만큼 enrollment_count 를 줄입니다.
+ * leaseUntil 이 지나도록 갱신되지 않은(죽은 노드의) 임대는 다른 노드가 회수합니다.
+ */
+@Entity
+@Table(name = "seat_lease", uniqueConstraints = @UniqueConstraint(columnNames = {"lectureId", "nodeId"}))
+@Getter
+@Setter
+public class SeatLease {
+
+	@Id
+	@TsidId
+	private Long id;
+
+	// 강의 ID
+	private Long lectureId;
+
+	// 임대한 노드 ID
+	@Column(length = 64)
+	private String nodeId;
+
+	// enrollment_count 에서 가져온 좌석 수
+	private int granted;
+
+	// 그중 판매한 좌석 수 (판매 후 보상으로 반환된 좌석은 enrollment_count 에서 직접 줄입니다)
+	private int used;
+
+	private LocalDateTime leaseUntil;
+}
@@ -0,0 +1,88 @@
+package com.example.payment.entity.id;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * 시간순 정렬되는 64비트 ID (TSID/Snowflake 형식)
+ * [부호 1비트 = 0][epoch 이후 밀리초 41비트][노드 10비트][밀리초 내 순번 12비트]
+ * - DB 왕복 없이 애플리케이션에서 ID 를 정하므로 IDENTITY 와 달리 Hibernate INSERT 배치가 동작합니다.
+ * - 밀리초가 바뀌면 순번을 0 ~ 2047 중 무작위 값에서 시작합니다.
+ *   보정 작업의 파티션 분배(MOD(id, partitionCount))가 하위 비트를 쓰므로, 한가할 때 ID 가 한 파티션에 몰리지 않도록 하기 위함입니다.
+ * - 같은 밀리초에 순번(4096개)을 다 쓰면 다음 밀리초를 미리 사용하고, 시계가 뒤로 가도 마지막 시각부터 이어서 발급합니다.
+ *   따라서 한 노드 안에서는 항상 증가합니다.
+ * - 노드가 여러 개면 payment.id.node-id 를 노드마다 다르게 지정해야 합니다. (TsidNodeConfig, 프로필 없는 로컬/테스트 실행만 무작위)
+ */
+public final class TsidFactory {
+
+	public static final int NODE_BITS = 10;
+	public static final int SEQUENCE_BITS = 12;
+	public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+
+	// 2024-01-01T00:00:00Z
+	static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+	private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+	private static final int SEQUENCE_START_BOUND = 1 << (SEQUENCE_BITS - 1);
+
+	private static volatile TsidFactory global = new TsidFactory(ThreadLocalRandom.current().nextInt(MAX_NODE + 1));
+
+	private final long node;
+	private final LongSupplier clockMillis;
+	private long lastMillis = -1;
+	private int sequence;
+
+	public TsidFactory(int node) {
+		this(node, System::currentTimeMillis);
+	}
+
+	TsidFactory(int node, LongSupplier clockMillis) {
+		if (node < 0 || node > MAX_NODE) {
+			throw new IllegalArgumentException("node must be between 0 and " + MAX_NODE + ": " + node);
+		}
+		this.node = node;
+		this.clockMillis = clockMillis;
+	}
+
+	/**
+	 * 엔티티 ID 생성에 쓰는 공용 인스턴스
+	 */
+	public static TsidFactory global() {
+		return global;
+	}
+
+	/**
+	 * 공용 인스턴스의 노드 번호를 지정합니다. (애플리케이션 시작 시 TsidNodeConfig 가 한 번)
+	 */
+	public static void configureGlobal(int node) {
+		global = new TsidFactory(node);
+	}
+
+	public synchronized long next() {
+		long millis = clockMillis.getAsLong();
+		if (millis > lastMillis) {
+			lastMillis = millis;
+			sequence = ThreadLocalRandom.current().nextInt(SEQUENCE_START_BOUND);
+		} else if (++sequence > MAX_SEQUENCE) {
+			// 순번을 다 썼거나 시계가 뒤로 간 경우: 마지막 시각을 1ms 앞당겨 계속 증가하도록
+			lastMillis++;
+			sequence = ThreadLocalRandom.current().nextInt(SEQUENCE_START_BOUND);
+		}
+		return ((lastMillis - EPOCH_MILLIS) << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+	}
+
+	public int getNode() {
+		return (int) node;
+	}
+
+	/**
+	 * ID 가 발급된 시각 (epoch 밀리초)
+	 */
+	public static long extractMillis(long id) {
+		return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+	}
+
+	public static int extractNode(long id) {
+		return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE);
+	}
+}
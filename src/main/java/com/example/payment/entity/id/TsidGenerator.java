@@ -0,0 +1,15 @@
+package com.example.payment.entity.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * @TsidId 가 붙은 엔티티 ID 를 TsidFactory 로 생성하는 Hibernate 식별자 생성기
+ */
+public class TsidGenerator implements IdentifierGenerator {
+
+	@Override
+	public Object generate(SharedSessionContractImplementor session, Object object) {
+		return TsidFactory.global().next();
+	}
+}
@@ -0,0 +1,21 @@
+package com.example.payment.repository;
+
+import com.example.payment.entity.AdjustmentNode;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface AdjustmentNodeRepository extends JpaRepository<AdjustmentNode, String> {
+
+	@Query("SELECT n.nodeId FROM AdjustmentNode n WHERE n.aliveUntil > :now")
+	List<String> findLiveNodeIds(@Param("now") LocalDateTime now);
+
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM AdjustmentNode n WHERE n.aliveUntil < :before")
+	int deleteExpired(@Param("before") LocalDateTime before);
+}
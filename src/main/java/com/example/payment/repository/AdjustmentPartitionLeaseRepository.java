@@ -0,0 +1,32 @@
+package com.example.payment.repository;
+
+import com.example.payment.entity.AdjustmentPartitionLease;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface AdjustmentPartitionLeaseRepository extends JpaRepository<AdjustmentPartitionLease, Integer> {
+
+	List<AdjustmentPartitionLease> findByPartitionNoLessThan(int partitionCount);
+
+	// 조건부 임대: 내가 가진 임대(갱신)이거나 만료된 경우에만 성공
+	@Transactional
+	@Modifying
+	@Query("UPDATE AdjustmentPartitionLease l SET l.owner = :owner, l.leaseUntil = :leaseUntil " +
+		"WHERE l.partitionNo = :partitionNo AND (l.owner = :owner OR l.leaseUntil IS NULL OR l.leaseUntil < :now)")
+	int tryAcquire(@Param("partitionNo") int partitionNo,
+		@Param("owner") String owner,
+		@Param("now") LocalDateTime now,
+		@Param("leaseUntil") LocalDateTime leaseUntil);
+
+	// 내가 가진 임대를 즉시 만료시켜 다른 노드가 가져갈 수 있게 함
+	@Transactional
+	@Modifying
+	@Query("UPDATE AdjustmentPartitionLease l SET l.owner = NULL, l.leaseUntil = NULL " +
+		"WHERE l.partitionNo = :partitionNo AND l.owner = :owner")
+	int release(@Param("partitionNo") int partitionNo, @Param("owner") String owner);
+}
@@ -0,0 +1,38 @@
+package com.example.payment.repository;
+
+import com.example.payment.entity.CompensationOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+public interface CompensationOutboxRepository extends JpaRepository<CompensationOutbox, Long> {
+
+	// 처리 가능한 보상 이벤트를 잠금 (다른 노드가 잠근 행은 건너뜀: FOR UPDATE SKIP LOCKED)
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("SELECT o FROM CompensationOutbox o WHERE o.availableAt <= :now ORDER BY o.id")
+	List<CompensationOutbox> findClaimable(@Param("now") LocalDateTime now, Limit limit);
+
+	// 가져간 행의 lease 연장 (그사이 lease 가 만료되어 다른 노드가 다시 가져갔으면 attempts 가 달라 0건)
+	@Modifying
+	@Query("UPDATE CompensationOutbox o SET o.availableAt = :leaseUntil WHERE o.id = :id AND o.attempts = :attempts")
+	int extendLease(@Param("id") Long id, @Param("attempts") int attempts, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+	// 단계 시작 전에 미리 기록한 보상 행 (아직 가져간 적이 없고 guard 기간이 남은 행)
+	@Query("SELECT o FROM CompensationOutbox o WHERE o.type = :type AND o.lectureId = :lectureId AND o.userId = :userId "
+		+ "AND o.attempts = 0 AND o.availableAt > :now")
+	List<CompensationOutbox> findGuards(@Param("type") CompensationOutbox.Type type, @Param("lectureId") Long lectureId,
+		@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+	// 가장 오래된 미처리 이벤트의 생성 시간 (적체 지연 측정)
+	@Query("SELECT MIN(o.createdAt) FROM CompensationOutbox o")
+	LocalDateTime findOldestCreatedAt();
+}
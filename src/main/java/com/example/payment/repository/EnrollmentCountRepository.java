@@ -2,27 +2,11 @@ package com.example.payment.repository;
 
 import com.example.payment.entity.EnrollmentCount;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
-import org.springframework.transaction.annotation.Transactional;
 
-public interface EnrollmentCountRepository extends JpaRepository<EnrollmentCount, Long> {
+/**
+ * 수강 인원 카운터 저장소.
+ * 증감/조회는 버킷 모드를 고려해야 하므로 EnrollmentCountRepositoryCustomImpl 에서 구현합니다.
+ */
+public interface EnrollmentCountRepository extends JpaRepository<EnrollmentCount, Long>, EnrollmentCountRepositoryCustom {
 
-	@Modifying
-	@Transactional
-	@Query("UPDATE EnrollmentCount ec SET ec.currentCount = ec.currentCount + 1 " +
-		"WHERE ec.lectureId = :lectureId AND ec.currentCount < ec.capacity")
-	int tryIncrement(@Param("lectureId") Long lectureId);
-
-	@Modifying
-	@Transactional
-	@Query("UPDATE EnrollmentCount ec SET ec.currentCount = ec.currentCount - 1 " +
-		"WHERE ec.lectureId = :lectureId AND ec.currentCount > 0")
-	int decrement(@Param("lectureId") Long lectureId);
-
-	EnrollmentCount findByLectureId(long lectureId);
-
-
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package com.example.payment.repository;
+
+import com.example.payment.entity.EnrollmentCount;
+
+/**
+ * 단일 행 / 버킷 분산 모드를 모두 지원하는 수강 인원 카운터 연산
+ */
+public interface EnrollmentCountRepositoryCustom {
+
+	// 정원 미만인 경우에만 1 증가 (버킷 모드: 임의 버킷부터 시도 후 다른 버킷으로 대체)
+	int tryIncrement(Long lectureId);
+
+	// 최대 count 만큼 증가 후 실제 증가한 수 반환 (정원이 부족하면 남은 좌석만큼만 증가)
+	int tryIncrementBy(Long lectureId, int count);
+
+	// 행 락(SELECT ... FOR UPDATE)을 잡고 남은 좌석만큼만 최대 count 증가 후 실제 증가한 수 반환
+	int tryIncrementLocked(Long lectureId, int count);
+
+	// 버전 비교 갱신: 읽은 뒤 다른 갱신이 없을 때만 최대 count 증가 후 실제 증가한 수 반환 (경합이면 -1)
+	int tryIncrementVersioned(Long lectureId, int count);
+
+	// 0보다 큰 경우에만 1 감소 (버킷 모드: 좌석이 남아있는 버킷에 반환)
+	int decrement(Long lectureId);
+
+	// 좌석 장부(write-behind) 누적 증감분 반영
+	int addCount(Long lectureId, int delta);
+
+	// 보정: 현재 인원이 count보다 작은 경우에만 올립니다.
+	int raiseCount(Long lectureId, int count);
+
+	// 남은 좌석 수 (잠그지 않고 조회, 엔티티를 영속성 컨텍스트에 올리지 않음)
+	int findRemaining(Long lectureId);
+
+	// 버킷 모드인 경우 버킷 합계를 반영한 조회 결과를 반환합니다.
+	EnrollmentCount findByLectureId(long lectureId);
+
+	// 강의의 버킷 수 변경 (현재 인원/정원을 버킷에 재분배)
+	void rebucket(Long lectureId, int bucketCount);
+}
@@ -0,0 +1,379 @@
+package com.example.payment.repository;
+
+import com.example.payment.entity.EnrollmentCount;
+import com.example.payment.entity.EnrollmentCountBucket;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 수강 인원 카운터 구현.
+ * - 단일 행 모드(bucketCount <= 1): 기존과 같이 enrollment_count 한 행에 조건부 UPDATE
+ * - 버킷 모드(bucketCount > 1): 정원을 enrollment_count_bucket 의 N개 행으로 나눠 행 락 경합을 분산
+ *
+ * 단일 행 UPDATE 에는 항상 "bucketCount <= 1" 조건을 걸고, 버킷 모드 전환 시 요약 행은 정원이 찬 상태로 둡니다.
+ * 따라서 캐시된 버킷 수가 오래되어도 잘못된 행이 갱신되지 않으며, 갱신에 실패하면 버킷 수를 다시 읽어 재시도합니다.
+ * 락 순서: enrollment_count(요약 행) → enrollment_count_bucket(bucketNo 오름차순) (LockOrder)
+ * 요약 행을 바꾸는 벌크 UPDATE 는 모두 version 을 올려, 낙관적 좌석 확보가 다른 갱신을 덮어쓰지 않도록 합니다.
+ */
+@RequiredArgsConstructor
+@Transactional
+public class EnrollmentCountRepositoryCustomImpl implements EnrollmentCountRepositoryCustom {
+
+	private static final String INCREMENT_ROW =
+		"UPDATE EnrollmentCount ec SET ec.currentCount = ec.currentCount + 1, ec.version = ec.version + 1 " +
+		"WHERE ec.lectureId = :lectureId AND ec.currentCount < ec.capacity AND ec.bucketCount <= 1";
+	private static final String INCREMENT_BUCKET =
+		"UPDATE EnrollmentCountBucket b SET b.currentCount = b.currentCount + 1 " +
+		"WHERE b.lectureId = :lectureId AND b.bucketNo = :bucketNo AND b.currentCount < b.capacity";
+	private static final String INCREMENT_ROW_BY =
+		"UPDATE EnrollmentCount ec SET ec.currentCount = ec.currentCount + :count, ec.version = ec.version + 1 " +
+		"WHERE ec.lectureId = :lectureId AND ec.currentCount + :count <= ec.capacity AND ec.bucketCount <= 1";
+	private static final String DECREMENT_ROW =
+		"UPDATE EnrollmentCount ec SET ec.currentCount = ec.currentCount - 1, ec.version = ec.version + 1 " +
+		"WHERE ec.lectureId = :lectureId AND ec.currentCount > 0 AND ec.bucketCount <= 1";
+	private static final String DECREMENT_BUCKET =
+		"UPDATE EnrollmentCountBucket b SET b.currentCount = b.currentCount - 1 " +
+		"WHERE b.lectureId = :lectureId AND b.bucketNo = :bucketNo AND b.currentCount > 0";
+	private static final String INCREMENT_ROW_VERSIONED =
+		"UPDATE EnrollmentCount ec SET ec.currentCount = ec.currentCount + :count, ec.version = ec.version + 1 " +
+		"WHERE ec.lectureId = :lectureId AND ec.version = :version AND ec.bucketCount <= 1";
+
+	private final EntityManager em;
+
+	// 강의별 버킷 수 캐시
+	private final Map<Long, Integer> bucketCounts = new ConcurrentHashMap<>();
+
+	@Override
+	public int tryIncrement(Long lectureId) {
+		return updateOne(lectureId, INCREMENT_ROW, INCREMENT_BUCKET);
+	}
+
+	/**
+	 * 단일 행 모드는 조건부 UPDATE 한 번으로 count 좌석을 확보합니다.
+	 * 정원이 부족하거나 버킷 모드인 경우 락을 잡고 남은 좌석만큼만 확보합니다.
+	 */
+	@Override
+	public int tryIncrementBy(Long lectureId, int count) {
+		if (count <= 0) {
+			return 0;
+		}
+		int updated = em.createQuery(INCREMENT_ROW_BY)
+			.setParameter("lectureId", lectureId)
+			.setParameter("count", count)
+			.executeUpdate();
+		if (updated > 0) {
+			return count;
+		}
+		return tryIncrementLocked(lectureId, count);
+	}
+
+	/**
+	 * 요약 행(버킷 모드면 버킷 행까지)을 SELECT ... FOR UPDATE 로 잠근 뒤 남은 좌석만큼만 확보합니다.
+	 */
+	@Override
+	public int tryIncrementLocked(Long lectureId, int count) {
+		if (count <= 0) {
+			return 0;
+		}
+		EnrollmentCount summary = lockSummary(lectureId);
+		if (summary == null) {
+			return 0;
+		}
+		bucketCounts.put(lectureId, summary.getBucketCount());
+		if (summary.getBucketCount() <= 1) {
+			int reserved = Math.min(Math.max(summary.getCapacity() - summary.getCurrentCount(), 0), count);
+			summary.setCurrentCount(summary.getCurrentCount() + reserved);
+			return reserved;
+		}
+		List<EnrollmentCountBucket> buckets = lockBuckets(lectureId);
+		int free = buckets.stream().mapToInt(b -> Math.max(b.getCapacity() - b.getCurrentCount(), 0)).sum();
+		int reserved = Math.min(free, count);
+		spread(buckets, reserved);
+		return reserved;
+	}
+
+	/**
+	 * 락 없이 읽은 버전이 그대로일 때만 증가합니다. 읽은 뒤 다른 요청이 이 행을 갱신했으면 -1 을 반환하며,
+	 * 같은 트랜잭션에서 다시 읽으면 같은 스냅샷(REPEATABLE READ)을 보게 되므로 재시도는 새 트랜잭션에서 해야 합니다.
+	 * 버킷 모드 강의는 버킷 행에 버전이 없으므로 tryIncrementBy 로 처리합니다.
+	 */
+	@Override
+	public int tryIncrementVersioned(Long lectureId, int count) {
+		if (count <= 0) {
+			return 0;
+		}
+		List<Object[]> rows = em.createQuery("SELECT ec.currentCount, ec.capacity, ec.version, ec.bucketCount " +
+				"FROM EnrollmentCount ec WHERE ec.lectureId = :lectureId", Object[].class)
+			.setParameter("lectureId", lectureId)
+			.getResultList();
+		if (rows.isEmpty()) {
+			return 0;
+		}
+		Object[] row = rows.get(0);
+		int currentCount = ((Number) row[0]).intValue();
+		int capacity = ((Number) row[1]).intValue();
+		long version = ((Number) row[2]).longValue();
+		int bucketCount = ((Number) row[3]).intValue();
+		bucketCounts.put(lectureId, bucketCount);
+		if (bucketCount > 1) {
+			return tryIncrementBy(lectureId, count);
+		}
+		int reserved = Math.min(Math.max(capacity - currentCount, 0), count);
+		if (reserved == 0) {
+			return 0;
+		}
+		int updated = em.createQuery(INCREMENT_ROW_VERSIONED)
+			.setParameter("lectureId", lectureId)
+			.setParameter("count", reserved)
+			.setParameter("version", version)
+			.executeUpdate();
+		return updated > 0 ? reserved : -1;
+	}
+
+	@Override
+	public int decrement(Long lectureId) {
+		return updateOne(lectureId, DECREMENT_ROW, DECREMENT_BUCKET);
+	}
+
+	@Override
+	public int addCount(Long lectureId, int delta) {
+		int updated = em.createQuery("UPDATE EnrollmentCount ec SET ec.currentCount = ec.currentCount + :delta, " +
+				"ec.version = ec.version + 1 WHERE ec.lectureId = :lectureId AND ec.bucketCount <= 1")
+			.setParameter("lectureId", lectureId)
+			.setParameter("delta", delta)
+			.executeUpdate();
+		if (updated > 0) {
+			return updated;
+		}
+		if (lockSummary(lectureId) == null) {
+			return 0;
+		}
+		spread(lockBuckets(lectureId), delta);
+		return 1;
+	}
+
+	@Override
+	public int raiseCount(Long lectureId, int count) {
+		int updated = em.createQuery("UPDATE EnrollmentCount ec SET ec.currentCount = :count, ec.version = ec.version + 1 " +
+				"WHERE ec.lectureId = :lectureId AND ec.currentCount < :count AND ec.bucketCount <= 1")
+			.setParameter("lectureId", lectureId)
+			.setParameter("count", count)
+			.executeUpdate();
+		if (updated > 0) {
+			return updated;
+		}
+		EnrollmentCount summary = lockSummary(lectureId);
+		if (summary == null || summary.getBucketCount() <= 1) {
+			return 0;
+		}
+		List<EnrollmentCountBucket> buckets = lockBuckets(lectureId);
+		int current = buckets.stream().mapToInt(EnrollmentCountBucket::getCurrentCount).sum();
+		if (current >= count) {
+			return 0;
+		}
+		spread(buckets, count - current);
+		return 1;
+	}
+
+	@Override
+	public int findRemaining(Long lectureId) {
+		List<Object[]> rows = em.createQuery("SELECT ec.currentCount, ec.capacity, ec.bucketCount " +
+				"FROM EnrollmentCount ec WHERE ec.lectureId = :lectureId", Object[].class)
+			.setParameter("lectureId", lectureId)
+			.getResultList();
+		if (rows.isEmpty()) {
+			return 0;
+		}
+		Object[] row = rows.get(0);
+		int currentCount = ((Number) row[0]).intValue();
+		int capacity = ((Number) row[1]).intValue();
+		int bucketCount = ((Number) row[2]).intValue();
+		bucketCounts.put(lectureId, bucketCount);
+		if (bucketCount > 1) {
+			currentCount = em.createQuery(
+					"SELECT COALESCE(SUM(b.currentCount), 0) FROM EnrollmentCountBucket b WHERE b.lectureId = :lectureId",
+					Long.class)
+				.setParameter("lectureId", lectureId)
+				.getSingleResult()
+				.intValue();
+		}
+		return Math.max(capacity - currentCount, 0);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public EnrollmentCount findByLectureId(long lectureId) {
+		List<EnrollmentCount> rows = em.createQuery(
+				"SELECT ec FROM EnrollmentCount ec WHERE ec.lectureId = :lectureId", EnrollmentCount.class)
+			.setParameter("lectureId", lectureId)
+			.getResultList();
+		if (rows.isEmpty()) {
+			return null;
+		}
+		EnrollmentCount enrollmentCount = rows.get(0);
+		bucketCounts.put(lectureId, enrollmentCount.getBucketCount());
+		if (enrollmentCount.getBucketCount() <= 1) {
+			return enrollmentCount;
+		}
+		Long sum = em.createQuery(
+				"SELECT COALESCE(SUM(b.currentCount), 0) FROM EnrollmentCountBucket b WHERE b.lectureId = :lectureId",
+				Long.class)
+			.setParameter("lectureId", lectureId)
+			.getSingleResult();
+
+		// 요약 행(영속 엔티티)은 변경하지 않고 합계를 담은 별도 객체로 반환
+		EnrollmentCount summed = new EnrollmentCount();
+		summed.setId(enrollmentCount.getId());
+		summed.setLectureId(enrollmentCount.getLectureId());
+		summed.setCapacity(enrollmentCount.getCapacity());
+		summed.setBucketCount(enrollmentCount.getBucketCount());
+		summed.setCurrentCount(sum.intValue());
+		return summed;
+	}
+
+	@Override
+	public void rebucket(Long lectureId, int bucketCount) {
+		if (bucketCount < 1) {
+			throw new IllegalArgumentException("bucketCount must be >= 1: " + bucketCount);
+		}
+		EnrollmentCount summary = lockSummary(lectureId);
+		if (summary == null) {
+			throw new IllegalArgumentException("EnrollmentCount not found for lectureId: " + lectureId);
+		}
+		List<EnrollmentCountBucket> oldBuckets = lockBuckets(lectureId);
+		int currentCount = summary.getBucketCount() <= 1
+			? summary.getCurrentCount()
+			: oldBuckets.stream().mapToInt(EnrollmentCountBucket::getCurrentCount).sum();
+		oldBuckets.forEach(em::remove);
+		em.flush();
+
+		int capacity = summary.getCapacity();
+		int buckets = Math.max(1, Math.min(bucketCount, capacity));
+		if (buckets == 1) {
+			summary.setCurrentCount(currentCount);
+			summary.setBucketCount(1);
+			bucketCounts.put(lectureId, 1);
+			return;
+		}
+
+		// 정원과 현재 인원을 버킷에 고르게 분배 (정원 초과분은 마지막 버킷에 기록)
+		for (int bucketNo = 0; bucketNo < buckets; bucketNo++) {
+			EnrollmentCountBucket bucket = new EnrollmentCountBucket();
+			bucket.setLectureId(lectureId);
+			bucket.setBucketNo(bucketNo);
+			bucket.setCapacity(share(capacity, buckets, bucketNo));
+			bucket.setCurrentCount(Math.min(share(currentCount, buckets, bucketNo), bucket.getCapacity()));
+			em.persist(bucket);
+		}
+		int overflow = currentCount - Math.min(currentCount, capacity);
+		if (overflow > 0) {
+			em.flush();
+			spread(lockBuckets(lectureId), overflow);
+		}
+		// 요약 행은 정원이 찬 상태로 두어 단일 행 UPDATE 가 성공하지 않도록 합니다.
+		summary.setCurrentCount(capacity);
+		summary.setBucketCount(buckets);
+		bucketCounts.put(lectureId, buckets);
+	}
+
+	/**
+	 * 현재 모드에 맞게 1건 갱신하고, 실패 시 버킷 수를 다시 읽어 모드가 바뀌었으면 한 번 더 시도합니다.
+	 */
+	private int updateOne(Long lectureId, String rowJpql, String bucketJpql) {
+		int bucketCount = bucketCounts.getOrDefault(lectureId, 1);
+		int updated = updateOne(lectureId, bucketCount, rowJpql, bucketJpql);
+		if (updated > 0) {
+			return updated;
+		}
+		int refreshed = refreshBucketCount(lectureId);
+		if (refreshed == bucketCount) {
+			return 0;
+		}
+		return updateOne(lectureId, refreshed, rowJpql, bucketJpql);
+	}
+
+	private int updateOne(Long lectureId, int bucketCount, String rowJpql, String bucketJpql) {
+		if (bucketCount <= 1) {
+			return em.createQuery(rowJpql)
+				.setParameter("lectureId", lectureId)
+				.executeUpdate();
+		}
+		// 임의의 버킷부터 시작해 실패하면 다음 버킷으로 넘어갑니다.
+		int start = ThreadLocalRandom.current().nextInt(bucketCount);
+		for (int i = 0; i < bucketCount; i++) {
+			int updated = em.createQuery(bucketJpql)
+				.setParameter("lectureId", lectureId)
+				.setParameter("bucketNo", (start + i) % bucketCount)
+				.executeUpdate();
+			if (updated > 0) {
+				return updated;
+			}
+		}
+		return 0;
+	}
+
+	private int refreshBucketCount(Long lectureId) {
+		List<Integer> rows = em.createQuery(
+				"SELECT ec.bucketCount FROM EnrollmentCount ec WHERE ec.lectureId = :lectureId", Integer.class)
+			.setParameter("lectureId", lectureId)
+			.getResultList();
+		int bucketCount = rows.isEmpty() ? 1 : rows.get(0);
+		bucketCounts.put(lectureId, bucketCount);
+		return bucketCount;
+	}
+
+	private EnrollmentCount lockSummary(Long lectureId) {
+		List<EnrollmentCount> rows = em.createQuery(
+				"SELECT ec FROM EnrollmentCount ec WHERE ec.lectureId = :lectureId", EnrollmentCount.class)
+			.setParameter("lectureId", lectureId)
+			.setLockMode(LockModeType.PESSIMISTIC_WRITE)
+			.getResultList();
+		return rows.isEmpty() ? null : rows.get(0);
+	}
+
+	private List<EnrollmentCountBucket> lockBuckets(Long lectureId) {
+		return em.createQuery("SELECT b FROM EnrollmentCountBucket b WHERE b.lectureId = :lectureId " +
+				"ORDER BY b.bucketNo", EnrollmentCountBucket.class)
+			.setParameter("lectureId", lectureId)
+			.setLockMode(LockModeType.PESSIMISTIC_WRITE)
+			.getResultList();
+	}
+
+	/**
+	 * 락을 잡은 버킷들에 증감분을 나눠 반영합니다. (증가는 여유가 있는 버킷부터, 감소는 인원이 있는 버킷부터)
+	 */
+	private void spread(List<EnrollmentCountBucket> buckets, int delta) {
+		if (buckets.isEmpty() || delta == 0) {
+			return;
+		}
+		int remaining = Math.abs(delta);
+		for (EnrollmentCountBucket bucket : buckets) {
+			if (remaining == 0) {
+				break;
+			}
+			int amount = delta > 0
+				? Math.min(bucket.getCapacity() - bucket.getCurrentCount(), remaining)
+				: Math.min(bucket.getCurrentCount(), remaining);
+			if (amount <= 0) {
+				continue;
+			}
+			bucket.setCurrentCount(bucket.getCurrentCount() + (delta > 0 ? amount : -amount));
+			remaining -= amount;
+		}
+		if (delta > 0 && remaining > 0) {
+			// 이미 판매된 좌석(정원 초과분)은 버릴 수 없으므로 마지막 버킷에 기록
+			EnrollmentCountBucket last = buckets.get(buckets.size() - 1);
+			last.setCurrentCount(last.getCurrentCount() + remaining);
+		}
+	}
+
+	private static int share(int total, int parts, int index) {
+		return total / parts + (index < total % parts ? 1 : 0);
+	}
+}
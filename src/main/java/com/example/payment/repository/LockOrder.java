@@ -0,0 +1,38 @@
+package com.example.payment.repository;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * 한 트랜잭션에서 여러 테이블의 행을 갱신할 때 지켜야 하는 락 순서 (선언 순서대로 잠급니다)
+ * JPA 저장소(EnrollmentCountRepositoryCustomImpl, PaymentRepositoryCustomImpl)와
+ * JDBC 저장소(PaymentHotPathRepository, PaymentAdjustmentBatchRepository), 보상 처리가 모두 이 순서를 따릅니다.
+ * - 좌석 확보/반환: enrollment_count(→ enrollment_count_bucket, bucketNo 오름차순) → payment
+ * - 좌석 임대(leased): seat_lease → enrollment_count (임대 충전/반환/회수), seat_lease → payment (임대 좌석 판매)
+ * - 최종 반영/보정: payment → enrollment (Enrollment 는 새 행 INSERT 뿐이므로 마지막)
+ * 순서를 거스르는 갱신을 추가하면 같은 강의/결제를 다루는 트랜잭션끼리 교착 상태가 생길 수 있습니다.
+ */
+public enum LockOrder {
+
+	SEAT_LEASE("seat_lease"),
+	ENROLLMENT_COUNT("enrollment_count"),
+	ENROLLMENT_COUNT_BUCKET("enrollment_count_bucket"),
+	PAYMENT("payment"),
+	ENROLLMENT("enrollment");
+
+	private final String table;
+
+	LockOrder(String table) {
+		this.table = table;
+	}
+
+	public String getTable() {
+		return table;
+	}
+
+	public static Optional<LockOrder> ofTable(String table) {
+		String normalized = table.toLowerCase(Locale.ROOT);
+		return Arrays.stream(values()).filter(order -> order.table.equals(normalized)).findFirst();
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.payment.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * MySQL 네임드 락(GET_LOCK / RELEASE_LOCK)
+ * 네임드 락은 트랜잭션이 아니라 DB 세션(커넥션)에 묶이므로, 현재 트랜잭션의 커넥션으로 잡고
+ * 트랜잭션이 끝난 뒤(커밋/롤백, 커넥션 반환 전) 같은 커넥션에서 해제합니다.
+ * 그래서 호출자의 트랜잭션 안에서만 호출할 수 있습니다(MANDATORY).
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class NamedLockRepository {
+
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * @return timeoutSeconds 안에 락을 잡지 못하면 false
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public boolean lockUntilCompletion(String name, int timeoutSeconds) {
+		return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+			if (!getLock(connection, name, timeoutSeconds)) {
+				return false;
+			}
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					releaseLock(connection, name);
+				}
+			});
+			return true;
+		}));
+	}
+
+	private static boolean getLock(Connection connection, String name, int timeoutSeconds) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+			statement.setString(1, name);
+			statement.setInt(2, timeoutSeconds);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				// 1 = 획득, 0 = 시간 초과, NULL = 오류
+				return resultSet.next() && resultSet.getInt(1) == 1;
+			}
+		}
+	}
+
+	private static void releaseLock(Connection connection, String name) {
+		try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+			statement.setString(1, name);
+			statement.executeQuery().close();
+		} catch (SQLException e) {
+			// 해제하지 못한 락은 커넥션(세션)이 닫힐 때 해제됨
+			log.error("Failed to release named lock: {}", name, e);
+		}
+	}
+}
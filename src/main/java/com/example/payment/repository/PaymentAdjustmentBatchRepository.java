@@ -0,0 +1,63 @@
+package com.example.payment.repository;
+
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.entity.id.TsidFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 보정(PaymentAdjustmentService) 결과를 JDBC 배치로 반영합니다.
+ * 한 페이지의 Enrollment INSERT 와 Payment 상태 UPDATE 를 건별 JPA 호출 대신 각각 한 번의 배치로 보냅니다.
+ * (MySQL 에서는 JDBC URL 에 rewriteBatchedStatements=true 를 주어야 여러 행 INSERT 로 합쳐집니다)
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentAdjustmentBatchRepository {
+
+	private static final String LOCK_PAYMENTS = "SELECT id, status FROM payment WHERE id IN (:ids) FOR UPDATE";
+	private static final String UPDATE_STATUS = "UPDATE payment SET status = ? WHERE id = ? AND status = ?";
+	private static final String INSERT_ENROLLMENT = "INSERT INTO enrollment (id, lecture_id, user_id) VALUES (?, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+	/**
+	 * 출금이 확인된 결제를 FINAL_COMPLETED 로 변경하고 Enrollment 를 생성합니다.
+	 * 결제 행을 먼저 잠그고, 조회 이후 상태가 바뀐 결제는 건너뜁니다.
+	 * @return 실제로 보정한 결제
+	 */
+	@Transactional
+	public List<PendingPayment> completeAll(List<PendingPayment> payments) {
+		if (payments.isEmpty()) {
+			return List.of();
+		}
+		payments.forEach(payment -> payment.status().checkTransitionTo(PaymentStatus.FINAL_COMPLETED));
+
+		Map<Long, Integer> lockedStatuses = new HashMap<>();
+		namedParameterJdbcTemplate.query(LOCK_PAYMENTS,
+			Map.of("ids", payments.stream().map(PendingPayment::id).toList()),
+			rs -> {
+				lockedStatuses.put(rs.getLong("id"), rs.getInt("status"));
+			});
+		List<PendingPayment> unchanged = payments.stream()
+			.filter(payment -> Integer.valueOf(payment.status().getCode()).equals(lockedStatuses.get(payment.id())))
+			.toList();
+		if (unchanged.isEmpty()) {
+			return List.of();
+		}
+
+		jdbcTemplate.batchUpdate(UPDATE_STATUS, unchanged.stream()
+			.map(payment -> new Object[] {PaymentStatus.FINAL_COMPLETED.getCode(), payment.id(), payment.status().getCode()})
+			.toList());
+		jdbcTemplate.batchUpdate(INSERT_ENROLLMENT, unchanged.stream()
+			.map(payment -> new Object[] {TsidFactory.global().next(), payment.lectureId(), payment.userId()})
+			.toList());
+		return unchanged;
+	}
+}
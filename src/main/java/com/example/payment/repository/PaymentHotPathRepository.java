@@ -0,0 +1,136 @@
+package com.example.payment.repository;
+
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.entity.id.TsidFactory;
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 승인 핫패스(트랜잭션 1, 3)를 저장 프로시저 호출 한 번(DB 왕복 1회)으로 처리합니다.
+ * JPA 경로는 조건부 UPDATE 마다 flush/쿼리 변환과 별도 왕복이 있어, 그동안 enrollment_count 행 락을 쥐고 있게 됩니다.
+ * 갱신 순서는 JPA 경로와 같은 LockOrder 를 따르며, 프로시저는 db/payment-hot-path-procedures.sql 에 있습니다.
+ *
+ * 실패 시 이미 반영된 갱신을 되돌리지 않으므로 호출자의 트랜잭션 안에서만 호출할 수 있고(MANDATORY),
+ * 결과가 OK 가 아니면 호출자가 예외를 던져 롤백해야 합니다.
+ * payment.hot-path.jdbc.enabled=true 로 켭니다.
+ */
+@Slf4j
+@Repository
+public class PaymentHotPathRepository {
+
+	static final String PROCEDURES_SCRIPT = "db/payment-hot-path-procedures.sql";
+	static final String PROCEDURES_SEPARATOR = "$$";
+	// 스크립트의 프로시저 COMMENT 와 같아야 함 (프로시저를 바꾸면 함께 올림)
+	static final String PROCEDURES_VERSION = "payment-hot-path v2";
+	static final List<String> PROCEDURES = List.of("payment_reserve_seat", "payment_finalize_enrollment");
+
+	private static final String RESERVE_SEAT = "CALL payment_reserve_seat(?, ?, ?, ?)";
+	private static final String FINALIZE_ENROLLMENT = "CALL payment_finalize_enrollment(?, ?, ?, ?, ?, ?)";
+
+	/**
+	 * 프로시저 결과 코드
+	 */
+	public enum Outcome {
+		// 모든 갱신 성공
+		OK,
+		// 좌석 없음: 정원 초과 또는 버킷 모드 강의 (아무것도 갱신하지 않음)
+		SEAT_UNAVAILABLE,
+		// Payment 가 기대한 상태가 아님 (앞선 갱신은 호출자 롤백으로 취소)
+		STATUS_MISMATCH;
+
+		static Outcome of(int code) {
+			return switch (code) {
+				case 0 -> OK;
+				case 1 -> SEAT_UNAVAILABLE;
+				case 2 -> STATUS_MISMATCH;
+				default -> throw new IllegalStateException("Unknown hot path result: " + code);
+			};
+		}
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+	private final boolean enabled;
+	private final boolean installProcedures;
+
+	public PaymentHotPathRepository(JdbcTemplate jdbcTemplate,
+		@Value("${payment.hot-path.jdbc.enabled:false}") boolean enabled,
+		@Value("${payment.hot-path.jdbc.install-procedures:true}") boolean installProcedures) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.enabled = enabled;
+		this.installProcedures = installProcedures;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * 프로시저가 없거나 설치된 버전(COMMENT)이 PROCEDURES_VERSION 과 다를 때만 (재)설치합니다.
+	 * 매 시작마다 DROP/CREATE 하면 실행 중인 다른 노드의 호출이 그 사이에 실패할 수 있기 때문입니다.
+	 * DB 계정에 CREATE ROUTINE 권한이 없으면 install-procedures=false 로 두고 스크립트를 직접 실행합니다.
+	 */
+	@PostConstruct
+	public void installProcedures() {
+		if (!enabled || !installProcedures) {
+			return;
+		}
+		if (isInstalled()) {
+			log.info("Payment hot path procedures are up to date ({})", PROCEDURES_VERSION);
+			return;
+		}
+		jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			ScriptUtils.executeSqlScript(connection, new EncodedResource(new ClassPathResource(PROCEDURES_SCRIPT), "UTF-8"),
+				false, false, ScriptUtils.DEFAULT_COMMENT_PREFIX, PROCEDURES_SEPARATOR,
+				ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER, ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+			return null;
+		});
+		log.info("Installed payment hot path procedures ({}) from {}", PROCEDURES_VERSION, PROCEDURES_SCRIPT);
+	}
+
+	boolean isInstalled() {
+		Integer current = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.ROUTINES "
+				+ "WHERE ROUTINE_SCHEMA = DATABASE() AND ROUTINE_TYPE = 'PROCEDURE' AND ROUTINE_NAME IN (?, ?) "
+				+ "AND ROUTINE_COMMENT = ?",
+			Integer.class, PROCEDURES.get(0), PROCEDURES.get(1), PROCEDURES_VERSION);
+		return current != null && current == PROCEDURES.size();
+	}
+
+	/**
+	 * 트랜잭션 1: 단일 행 모드 강의의 좌석 1개 확보 + Payment CREATED -> COUNT_UPDATED
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public Outcome reserveSeat(Long lectureId, Long userId) {
+		PaymentStatus.CREATED.checkTransitionTo(PaymentStatus.COUNT_UPDATED);
+		return call(RESERVE_SEAT, lectureId, userId, PaymentStatus.CREATED.getCode(),
+			PaymentStatus.COUNT_UPDATED.getCode());
+	}
+
+	/**
+	 * 트랜잭션 3: Payment PAYMENT_PROCESSED -> FINAL_COMPLETED + Enrollment 생성
+	 * @param paymentId 없으면 lectureId/userId 로 결제를 찾습니다.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public Outcome finalizeEnrollment(Long paymentId, Long lectureId, Long userId) {
+		PaymentStatus.PAYMENT_PROCESSED.checkTransitionTo(PaymentStatus.FINAL_COMPLETED);
+		return call(FINALIZE_ENROLLMENT, TsidFactory.global().next(), paymentId, lectureId, userId,
+			PaymentStatus.PAYMENT_PROCESSED.getCode(), PaymentStatus.FINAL_COMPLETED.getCode());
+	}
+
+	private Outcome call(String sql, Object... args) {
+		Integer code = jdbcTemplate.queryForObject(sql, Integer.class, args);
+		if (code == null) {
+			throw new IllegalStateException("Hot path procedure returned no result: " + sql);
+		}
+		return Outcome.of(code);
+	}
+}
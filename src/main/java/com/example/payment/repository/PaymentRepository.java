@@ -1,32 +1,40 @@
 package com.example.payment.repository;
 
 import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, PaymentRepositoryCustom {
 
-	// "FINAL_COMPLETED"가 아닌 상태 중, 생성 시간이 threshold 이전인 Payment 목록 조회
-	List<Payment> findByStatusNotInAndCreatedAtBefore(List<String> statuses, LocalDateTime threshold);
+	// 주어진 상태가 아닌 Payment 중, 생성 시간이 threshold 이전인 Payment 목록 조회
+	List<Payment> findByStatusNotInAndCreatedAtBefore(Collection<PaymentStatus> statuses, LocalDateTime threshold);
 
-	// lectureId, userId, 특정 상태를 기준으로 Payment 조회
-	Payment findByLectureIdAndUserIdAndStatus(Long lectureId, Long userId, String status);
+	// 보정 대상 키셋 페이지 조회: 파티션(id % partitionCount)에 속한 결제를 afterId 이후 id 오름차순으로 limit 건 (엔티티 대신 프로젝션)
+	@Query("SELECT new com.example.payment.repository.PendingPayment(p.id, p.lectureId, p.userId, p.status, p.createdAt) " +
+		"FROM Payment p WHERE p.status NOT IN :statuses AND p.createdAt < :threshold AND p.id > :afterId " +
+		"AND MOD(p.id, :partitionCount) IN :partitions ORDER BY p.id")
+	List<PendingPayment> findPendingPage(@Param("statuses") Collection<PaymentStatus> statuses,
+		@Param("threshold") LocalDateTime threshold,
+		@Param("partitionCount") long partitionCount,
+		@Param("partitions") Collection<Long> partitions,
+		@Param("afterId") Long afterId,
+		Limit limit);
+
+	// 강의별 특정 상태들의 Payment 수 조회
+	long countByLectureIdAndStatusIn(Long lectureId, Collection<PaymentStatus> statuses);
 
-	// 조건부 상태 변경: 특정 상태(fromStatus)인 경우에만 toStatus로 변경
-	@Modifying
-	@Query("UPDATE Payment p SET p.status = :toStatus WHERE p.lectureId = :lectureId AND p.userId = :userId AND p.status = :fromStatus")
-	int updateStatusConditionally(@Param("lectureId") Long lectureId,
-		@Param("userId") Long userId,
-		@Param("fromStatus") String fromStatus,
-		@Param("toStatus") String toStatus);
+	// lectureId, userId, 특정 상태를 기준으로 Payment 조회
+	Payment findByLectureIdAndUserIdAndStatus(Long lectureId, Long userId, PaymentStatus status);
 
-	@Modifying
-	@Query("UPDATE Payment p SET p.status = :toStatus WHERE p.lectureId = :lectureId AND p.userId = :userId")
-	int updateStatus(@Param("lectureId") Long lectureId,
-		@Param("userId") Long userId,
-		@Param("toStatus") String toStatus);
-}
\ No newline at end of file
+	// 일괄 승인: 요청 사용자 중 특정 상태인 사용자 조회
+	@Query("SELECT p.userId FROM Payment p WHERE p.lectureId = :lectureId AND p.userId IN :userIds AND p.status = :status")
+	List<Long> findUserIdsByLectureIdAndUserIdInAndStatus(@Param("lectureId") Long lectureId,
+		@Param("userIds") List<Long> userIds,
+		@Param("status") PaymentStatus status);
+}
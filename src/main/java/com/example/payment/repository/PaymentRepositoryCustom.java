@@ -0,0 +1,20 @@
+package com.example.payment.repository;
+
+import com.example.payment.entity.PaymentStatus;
+import java.util.List;
+
+/**
+ * Payment 상태 변경. SQL 실행 전에 PaymentStatus 전이 규칙을 검사합니다(허용되지 않으면 IllegalStateException).
+ */
+public interface PaymentRepositoryCustom {
+
+	// 조건부 상태 변경: 특정 상태(fromStatus)인 경우에만 toStatus로 변경
+	int updateStatusConditionally(Long lectureId, Long userId, PaymentStatus fromStatus, PaymentStatus toStatus);
+
+	// PK 기준 조건부 상태 변경 (강의/사용자가 일치하는 결제만)
+	int updateStatusById(Long paymentId, Long lectureId, Long userId, PaymentStatus fromStatus, PaymentStatus toStatus);
+
+	// 일괄 조건부 상태 변경: 여러 사용자의 Payment 를 한 번의 UPDATE 로 변경
+	int updateStatusConditionallyForUsers(Long lectureId, List<Long> userIds, PaymentStatus fromStatus,
+		PaymentStatus toStatus);
+}
@@ -0,0 +1,53 @@
+package com.example.payment.repository;
+
+import com.example.payment.entity.PaymentStatus;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+@Transactional
+public class PaymentRepositoryCustomImpl implements PaymentRepositoryCustom {
+
+	private final EntityManager em;
+
+	@Override
+	public int updateStatusConditionally(Long lectureId, Long userId, PaymentStatus fromStatus, PaymentStatus toStatus) {
+		fromStatus.checkTransitionTo(toStatus);
+		return em.createQuery("UPDATE Payment p SET p.status = :toStatus " +
+				"WHERE p.lectureId = :lectureId AND p.userId = :userId AND p.status = :fromStatus")
+			.setParameter("lectureId", lectureId)
+			.setParameter("userId", userId)
+			.setParameter("fromStatus", fromStatus)
+			.setParameter("toStatus", toStatus)
+			.executeUpdate();
+	}
+
+	@Override
+	public int updateStatusById(Long paymentId, Long lectureId, Long userId, PaymentStatus fromStatus,
+		PaymentStatus toStatus) {
+		fromStatus.checkTransitionTo(toStatus);
+		return em.createQuery("UPDATE Payment p SET p.status = :toStatus " +
+				"WHERE p.id = :paymentId AND p.lectureId = :lectureId AND p.userId = :userId AND p.status = :fromStatus")
+			.setParameter("paymentId", paymentId)
+			.setParameter("lectureId", lectureId)
+			.setParameter("userId", userId)
+			.setParameter("fromStatus", fromStatus)
+			.setParameter("toStatus", toStatus)
+			.executeUpdate();
+	}
+
+	@Override
+	public int updateStatusConditionallyForUsers(Long lectureId, List<Long> userIds, PaymentStatus fromStatus,
+		PaymentStatus toStatus) {
+		fromStatus.checkTransitionTo(toStatus);
+		return em.createQuery("UPDATE Payment p SET p.status = :toStatus " +
+				"WHERE p.lectureId = :lectureId AND p.userId IN :userIds AND p.status = :fromStatus")
+			.setParameter("lectureId", lectureId)
+			.setParameter("userIds", userIds)
+			.setParameter("fromStatus", fromStatus)
+			.setParameter("toStatus", toStatus)
+			.executeUpdate();
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.payment.repository;
+
+import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
+import java.time.LocalDateTime;
+
+/**
+ * 보정 대상 결제의 읽기 전용 프로젝션 (영속성 컨텍스트에 올리지 않음)
+ */
+public record PendingPayment(Long id, Long lectureId, Long userId, PaymentStatus status, LocalDateTime createdAt) {
+
+	/**
+	 * PG 조회/단건 보정에 넘길 비영속 Payment
+	 */
+	public Payment toPayment() {
+		Payment payment = new Payment();
+		payment.setId(id);
+		payment.setLectureId(lectureId);
+		payment.setUserId(userId);
+		payment.setStatus(status);
+		payment.setCreatedAt(createdAt);
+		return payment;
+	}
+}
@@ -0,0 +1,86 @@
+package com.example.payment.repository;
+
+import com.example.payment.entity.SeatLease;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 좌석 임대(seat_lease) 저장소
+ * 임대 행은 UPDATE 로 먼저 잠근 뒤 enrollment_count 를 갱신합니다. (LockOrder: seat_lease → enrollment_count)
+ * 같은 트랜잭션에서 벌크 UPDATE 로 바뀐 값을 영속성 컨텍스트의 엔티티가 덮어쓰지 않도록 granted/used 는 벌크 UPDATE 로만 바꿉니다.
+ */
+public interface SeatLeaseRepository extends JpaRepository<SeatLease, Long> {
+
+	// 잠그지 않고 조회 (없는 키를 잠금 조회하면 갭 락이 남아 다른 노드의 임대 생성을 막음)
+	@Query("SELECT l.id FROM SeatLease l WHERE l.lectureId = :lectureId AND l.nodeId = :nodeId")
+	Optional<Long> findIdByLectureIdAndNodeId(@Param("lectureId") Long lectureId, @Param("nodeId") String nodeId);
+
+	@Query("SELECT l.granted - l.used FROM SeatLease l WHERE l.id = :id")
+	Optional<Integer> findUnused(@Param("id") Long id);
+
+	// 다른 노드가 임대해 두고 아직 팔지 않은 좌석 수
+	@Query("SELECT COALESCE(SUM(l.granted - l.used), 0) FROM SeatLease l WHERE l.lectureId = :lectureId AND l.nodeId <> :nodeId")
+	long sumUnusedOfOtherNodes(@Param("lectureId") Long lectureId, @Param("nodeId") String nodeId);
+
+	// 미사용 좌석이 남은 다른 노드의 임대 (잠금 순서를 맞추도록 id 순)
+	@Query("SELECT l.id FROM SeatLease l WHERE l.lectureId = :lectureId AND l.nodeId <> :nodeId "
+		+ "AND l.granted > l.used ORDER BY l.id")
+	List<Long> findIdsWithUnusedOfOtherNodes(@Param("lectureId") Long lectureId, @Param("nodeId") String nodeId);
+
+	// 살아 있는(임대 기간이 남은) 다른 노드 수
+	@Query("SELECT COUNT(l) FROM SeatLease l WHERE l.lectureId = :lectureId AND l.nodeId <> :nodeId AND l.leaseUntil >= :now")
+	long countActiveOtherNodes(@Param("lectureId") Long lectureId, @Param("nodeId") String nodeId,
+		@Param("now") LocalDateTime now);
+
+	// 임대 충전 전 행 잠금 + 기간 연장 (반환/회수되어 행이 없으면 0)
+	@Transactional
+	@Modifying
+	@Query("UPDATE SeatLease l SET l.leaseUntil = :leaseUntil WHERE l.id = :id")
+	int extend(@Param("id") Long id, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE SeatLease l SET l.granted = l.granted + :count WHERE l.id = :id")
+	int addGranted(@Param("id") Long id, @Param("count") int count);
+
+	// 임대한 좌석 중 count 개 판매: 남은 좌석이 부족하면(반환/회수된 임대 포함) 갱신하지 않음
+	@Transactional
+	@Modifying
+	@Query("UPDATE SeatLease l SET l.used = l.used + :count WHERE l.id = :id AND l.used + :count <= l.granted")
+	int use(@Param("id") Long id, @Param("count") int count);
+
+	// 다른 노드의 미사용 좌석 count 개 회수: 그 사이 팔려서 부족하면 갱신하지 않음
+	@Transactional
+	@Modifying
+	@Query("UPDATE SeatLease l SET l.granted = l.granted - :count WHERE l.id = :id AND l.granted - l.used >= :count")
+	int shrink(@Param("id") Long id, @Param("count") int count);
+
+	// 반환 전 행 잠금 (이미 반환/회수되어 행이 없으면 0)
+	@Transactional
+	@Modifying
+	@Query("UPDATE SeatLease l SET l.leaseUntil = :now WHERE l.id = :id")
+	int expire(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+	// 회수 전 행 잠금: 조회 이후 갱신되었으면(노드가 살아 있으면) 0
+	@Transactional
+	@Modifying
+	@Query("UPDATE SeatLease l SET l.leaseUntil = :now WHERE l.id = :id AND l.leaseUntil < :cutoff")
+	int expireIfStale(@Param("id") Long id, @Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now);
+
+	// 살아 있는 노드의 임대 기간 연장
+	@Transactional
+	@Modifying
+	@Query("UPDATE SeatLease l SET l.leaseUntil = :leaseUntil WHERE l.nodeId = :nodeId")
+	int renew(@Param("nodeId") String nodeId, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+	// 회수 대상: cutoff 보다 오래 갱신되지 않은 임대
+	@Query("SELECT l.id FROM SeatLease l WHERE l.leaseUntil < :cutoff ORDER BY l.id")
+	List<Long> findExpiredIds(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+}
@@ -1,30 +1,138 @@
 package com.example.payment.web.controller;
 
+import com.example.payment.application.deadline.RequestDeadline;
+import com.example.payment.application.deadline.RequestDeadlines;
+import com.example.payment.application.deadline.RequestDeadlines.Endpoint;
+import com.example.payment.application.exception.BusinessException;
+import com.example.payment.application.idempotency.IdempotencyCache;
+import com.example.payment.application.idempotency.IdempotentResponse;
+import com.example.payment.application.orchestration.PaymentApprovalPipeline;
 import com.example.payment.application.orchestration.PaymentApproveOrchestration;
+import com.example.payment.entity.IdempotencyRecord;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.web.controller.dto.PaymentBatchResult;
+import com.example.payment.web.controller.dto.PaymentHandleResponse;
 import com.example.payment.web.controller.dto.PaymentRequest;
+import com.example.payment.web.controller.dto.PaymentStatusResponse;
+import java.net.URI;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 
 public class PaymentController {
 	private final PaymentApproveOrchestration paymentApproveOrchestration;
+	private final PaymentApprovalPipeline paymentApprovalPipeline;
+	private final PaymentStatusEmitters paymentStatusEmitters;
+	private final IdempotencyCache idempotencyCache;
+	private final RequestDeadlines requestDeadlines;
 
-	public PaymentController(@Qualifier("paymentApprove3Phase") PaymentApproveOrchestration paymentApproveOrchestration) {
+	public PaymentController(@Qualifier("paymentApprove3Phase") PaymentApproveOrchestration paymentApproveOrchestration,
+		PaymentApprovalPipeline paymentApprovalPipeline,
+		PaymentStatusEmitters paymentStatusEmitters,
+		IdempotencyCache idempotencyCache,
+		RequestDeadlines requestDeadlines) {
 		this.paymentApproveOrchestration = paymentApproveOrchestration;
+		this.paymentApprovalPipeline = paymentApprovalPipeline;
+		this.paymentStatusEmitters = paymentStatusEmitters;
+		this.idempotencyCache = idempotencyCache;
+		this.requestDeadlines = requestDeadlines;
 	}
 
 	/**
 	 * 인증과정에서 Payment가 CREATED 상태로 넘어온다고 가정, 인증과정 구현 X
 	 */
 
+	/**
+	 * Idempotency-Key 헤더가 있으면 같은 키의 재시도는 결제를 다시 진행하지 않고 처음 요청의 응답을 돌려줍니다.
+	 * (처리 중이면 결과를 기다리고, 재전송한 응답에는 Idempotent-Replayed: true 헤더를 붙입니다)
+	 * 키는 최대 64자이며, 넘으면 결제를 진행하지 않고 400 을 반환합니다. 키는 사용자별 범위이므로 다른 사용자의 같은 키와 충돌하지 않습니다.
+	 * Request-Timeout-Ms 헤더(없으면 payment.request-deadline.payment-ms)가 지나면 남은 단계를 진행하지 않고 보상합니다.
+	 */
 	@PostMapping("/payment")
-	public ResponseEntity<?> payment(@RequestBody PaymentRequest paymentRequest) {
-		paymentApproveOrchestration.approve(paymentRequest);
-		return ResponseEntity.ok().build();
+	public ResponseEntity<?> payment(@RequestBody PaymentRequest paymentRequest,
+		@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+		@RequestHeader(value = RequestDeadlines.HEADER, required = false) String requestTimeout) {
+		paymentRequest.setDeadline(requestDeadlines.resolve(Endpoint.PAYMENT, requestTimeout));
+		if (idempotencyKey == null || idempotencyKey.isBlank()) {
+			paymentApproveOrchestration.approve(paymentRequest);
+			return ResponseEntity.ok().build();
+		}
+		if (idempotencyKey.length() > IdempotencyRecord.MAX_KEY_LENGTH) {
+			throw new BusinessException("Idempotency-Key 는 " + IdempotencyRecord.MAX_KEY_LENGTH + "자를 넘을 수 없습니다.");
+		}
+
+		String scopedKey = paymentRequest.getUserId() + ":" + idempotencyKey;
+		IdempotentResponse response = idempotencyCache.execute(scopedKey, fingerprint(paymentRequest), () -> {
+			try {
+				paymentApproveOrchestration.approve(paymentRequest);
+				return IdempotentResponse.of(HttpStatus.OK.value(), null);
+			} catch (BusinessException e) {
+				// 보상까지 끝난 실패도 같은 응답을 돌려줌 (GlobalExceptionHandler 와 같은 400)
+				return IdempotentResponse.of(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+			}
+		});
+		return ResponseEntity.status(response.status())
+			.header("Idempotent-Replayed", String.valueOf(response.replayed()))
+			.body(response.body());
+	}
+
+	/**
+	 * 일괄 승인: 강의별로 좌석을 한 번에 확보하고 요청별 성공/실패 결과를 요청 순서대로 반환합니다.
+	 */
+	@PostMapping("/payments/batch")
+	public ResponseEntity<List<PaymentBatchResult>> paymentBatch(@RequestBody List<PaymentRequest> paymentRequests,
+		@RequestHeader(value = RequestDeadlines.HEADER, required = false) String requestTimeout) {
+		// 일괄 요청 전체가 하나의 기한을 공유
+		RequestDeadline deadline = requestDeadlines.resolve(Endpoint.BATCH, requestTimeout);
+		paymentRequests.forEach(paymentRequest -> paymentRequest.setDeadline(deadline));
+		return ResponseEntity.ok(paymentApproveOrchestration.approveBatch(paymentRequests));
+	}
+
+	/**
+	 * 비동기 승인: 트랜잭션 1(좌석 확보)까지만 처리하고 202 Accepted 와 결제 핸들을 반환합니다.
+	 * 이후 진행 상태는 상태 조회 또는 SSE 구독으로 확인합니다.
+	 * 트랜잭션 2, 3도 요청 기한(기본 payment.request-deadline.async-ms) 안에 끝나지 않으면 보상으로 넘어갑니다.
+	 */
+	@PostMapping("/payment/async")
+	public ResponseEntity<PaymentHandleResponse> paymentAsync(@RequestBody PaymentRequest paymentRequest,
+		@RequestHeader(value = RequestDeadlines.HEADER, required = false) String requestTimeout) {
+		paymentRequest.setDeadline(requestDeadlines.resolve(Endpoint.ASYNC, requestTimeout));
+		Long paymentId = paymentApprovalPipeline.submit(paymentRequest);
+		String statusUrl = "/payment/" + paymentId;
+		return ResponseEntity.accepted()
+			.location(URI.create(statusUrl))
+			.body(new PaymentHandleResponse(paymentId, PaymentStatus.COUNT_UPDATED.name(), statusUrl, statusUrl + "/events"));
+	}
+
+	@GetMapping("/payment/{paymentId}")
+	public ResponseEntity<PaymentStatusResponse> paymentStatus(@PathVariable Long paymentId) {
+		return paymentApprovalPipeline.findPayment(paymentId)
+			.map(payment -> ResponseEntity.ok(new PaymentStatusResponse(payment.getId(), payment.getLectureId(),
+				payment.getUserId(), payment.getStatus() != null ? payment.getStatus().name() : null, null)))
+			.orElseGet(() -> ResponseEntity.notFound().build());
+	}
+
+	@GetMapping(value = "/payment/{paymentId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> paymentEvents(@PathVariable Long paymentId) {
+		return paymentStatusEmitters.subscribe(paymentId, paymentApprovalPipeline::findPayment)
+			.map(ResponseEntity::ok)
+			.orElseGet(() -> ResponseEntity.notFound().build());
+	}
+
+	// paymentId 는 입력으로 받지 않는 값(READ_ONLY)이므로 지문에서 제외
+	private static String fingerprint(PaymentRequest paymentRequest) {
+		return paymentRequest.getLectureId() + ":" + paymentRequest.getUserId() + ":" + paymentRequest.getAmount();
 	}
 
 }
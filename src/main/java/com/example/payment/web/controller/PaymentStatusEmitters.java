@@ -0,0 +1,100 @@
+package com.example.payment.web.controller;
+
+import com.example.payment.application.event.PaymentStatusChangedEvent;
+import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.web.controller.dto.PaymentStatusResponse;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 결제별 SSE 구독자 관리: PaymentStatusChangedEvent 를 구독 중인 클라이언트에 푸시합니다.
+ * 클라이언트가 payment 테이블을 반복 조회하지 않고 진행 상태를 받을 수 있습니다.
+ */
+@Component
+@Slf4j
+public class PaymentStatusEmitters {
+
+	private static final String EVENT_NAME = "payment-status";
+
+	// 더 이상 변경되지 않는 Payment 상태
+	private static final Set<PaymentStatus> TERMINAL_STATUSES = EnumSet.of(
+		PaymentStatus.FINAL_COMPLETED, PaymentStatus.EXCEEDS_CAPACITY, PaymentStatus.CANCELLED,
+		PaymentStatus.CANCELLATION_FAILED, PaymentStatus.FINAL_COMPENSATION_FAILED);
+
+	private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+	private final long timeoutMillis;
+
+	public PaymentStatusEmitters(@Value("${payment.async.sse-timeout-ms:60000}") long timeoutMillis) {
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * 구독을 먼저 등록한 뒤 결제를 다시 읽어 현재 상태를 전송합니다. 이미 종료된 결제라면 바로 스트림을 닫습니다.
+	 * 등록 전에 읽은 상태를 보내면 그 사이 발행된 종료 이벤트를 놓쳐 스트림이 닫히지 않으므로, 등록 후에 읽습니다.
+	 * @param loader 결제 조회 (없으면 구독을 해제하고 빈 값을 반환)
+	 */
+	public Optional<SseEmitter> subscribe(Long paymentId, Function<Long, Optional<Payment>> loader) {
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		emitters.computeIfAbsent(paymentId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+		emitter.onCompletion(() -> remove(paymentId, emitter));
+		emitter.onTimeout(() -> remove(paymentId, emitter));
+		emitter.onError(e -> remove(paymentId, emitter));
+
+		Payment payment = loader.apply(paymentId).orElse(null);
+		if (payment == null) {
+			remove(paymentId, emitter);
+			return Optional.empty();
+		}
+		boolean terminal = TERMINAL_STATUSES.contains(payment.getStatus());
+		send(paymentId, emitter, new PaymentStatusResponse(paymentId, payment.getLectureId(), payment.getUserId(),
+			payment.getStatus() != null ? payment.getStatus().name() : null, null), terminal);
+		return Optional.of(emitter);
+	}
+
+	@EventListener
+	public void onStatusChanged(PaymentStatusChangedEvent event) {
+		List<SseEmitter> subscribers = emitters.get(event.getPaymentId());
+		if (subscribers == null) {
+			return;
+		}
+		PaymentStatusResponse body = new PaymentStatusResponse(event.getPaymentId(), null, null,
+			event.getStatus(), event.getMessage());
+		for (SseEmitter emitter : subscribers) {
+			send(event.getPaymentId(), emitter, body, event.isTerminal());
+		}
+	}
+
+	private void send(Long paymentId, SseEmitter emitter, PaymentStatusResponse body, boolean terminal) {
+		try {
+			emitter.send(SseEmitter.event().name(EVENT_NAME).data(body));
+			if (terminal) {
+				emitter.complete();
+				remove(paymentId, emitter);
+			}
+		} catch (IOException | IllegalStateException e) {
+			// 클라이언트 연결 종료 등
+			log.debug("Failed to push payment status for paymentId: {}. {}", paymentId, e.getMessage());
+			remove(paymentId, emitter);
+		}
+	}
+
+	private void remove(Long paymentId, SseEmitter emitter) {
+		emitters.computeIfPresent(paymentId, (id, list) -> {
+			list.remove(emitter);
+			return list.isEmpty() ? null : list;
+		});
+	}
+}
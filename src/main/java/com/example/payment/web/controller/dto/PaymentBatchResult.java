@@ -0,0 +1,25 @@
+package com.example.payment.web.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 일괄 결제 승인의 요청별 결과
+ */
+@Data
+@AllArgsConstructor
+public class PaymentBatchResult {
+	private Long userId;
+	private Long lectureId;
+	private boolean success;
+	// 실패 사유 (성공 시 null)
+	private String message;
+
+	public static PaymentBatchResult success(PaymentRequest paymentRequest) {
+		return new PaymentBatchResult(paymentRequest.getUserId(), paymentRequest.getLectureId(), true, null);
+	}
+
+	public static PaymentBatchResult failure(PaymentRequest paymentRequest, String message) {
+		return new PaymentBatchResult(paymentRequest.getUserId(), paymentRequest.getLectureId(), false, message);
+	}
+}
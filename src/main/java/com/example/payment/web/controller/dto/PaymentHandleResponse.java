@@ -0,0 +1,18 @@
+package com.example.payment.web.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 비동기 결제 승인 접수 응답 (202 Accepted)
+ */
+@Data
+@AllArgsConstructor
+public class PaymentHandleResponse {
+	private Long paymentId;
+	private String status;
+	// 상태 조회 URL
+	private String statusUrl;
+	// 상태 변경 SSE 구독 URL
+	private String eventsUrl;
+}
@@ -1,11 +1,25 @@
 package com.example.payment.web.controller.dto;
 
+import com.example.payment.application.deadline.RequestDeadline;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Data
 public class PaymentRequest {
+	// 서버가 생성/조회한 Payment ID (있으면 상태 변경을 PK 로 처리). 요청 본문으로는 받지 않고 PG 요청에만 포함합니다.
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	private Long paymentId;
 	private Long userId;
 	private Long lectureId;
 	private Double amount;
 	// 기타 결제 관련 정보 (예: 카드번호, 결제타입 등)
-}
\ No newline at end of file
+
+	// 요청 기한 (Request-Timeout-Ms 헤더 또는 엔드포인트 기본값, 요청 본문/PG 요청에는 포함하지 않음)
+	@JsonIgnore
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private RequestDeadline deadline;
+}
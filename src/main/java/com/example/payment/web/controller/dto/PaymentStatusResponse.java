@@ -0,0 +1,14 @@
+package com.example.payment.web.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PaymentStatusResponse {
+	private Long paymentId;
+	private Long lectureId;
+	private Long userId;
+	private String status;
+	private String message;
+}
@@ -0,0 +1,15 @@
+package com.example.payment.web.external;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 외부 시스템(PG, 슬랙 등)을 호출하는 클라이언트 표시
+ * ExternalCallConnectionGuard 가 이 클래스의 메서드 호출 시 DB 커넥션을 쥐고 있는지 검사합니다.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExternalCall {
+}
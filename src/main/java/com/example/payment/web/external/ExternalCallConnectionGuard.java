@@ -0,0 +1,83 @@
+package com.example.payment.web.external;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.Locale;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 외부 호출(@ExternalCall) 중에 DB 커넥션을 쥐고 있는지 감시합니다.
+ * 외부 호출이 느려지면 그동안 커넥션 풀이 묶여 DB 만 쓰는 요청까지 멈추므로, 외부 호출은 트랜잭션 밖에서 해야 합니다.
+ * - 진행 중인 트랜잭션이 있거나, 스레드에 묶인 EntityManager(open-in-view 등)가 물리 커넥션을 잡고 있으면 위반으로 봅니다.
+ * - payment.external-call-guard.mode: warn(기본, 경고 로그 + 지표), fail(IllegalStateException), off
+ * - 지표: payment.external_call.connection_held
+ */
+@Aspect
+@Component
+@Slf4j
+public class ExternalCallConnectionGuard {
+
+	public enum Mode {
+		OFF, WARN, FAIL
+	}
+
+	private final Mode mode;
+	private final MeterRegistry meterRegistry;
+
+	public ExternalCallConnectionGuard(MeterRegistry meterRegistry,
+		@Value("${payment.external-call-guard.mode:warn}") String mode) {
+		this.meterRegistry = meterRegistry;
+		this.mode = Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+	}
+
+	@Around("@within(com.example.payment.web.external.ExternalCall)")
+	public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+		if (mode != Mode.OFF && isConnectionHeld()) {
+			String call = joinPoint.getSignature().toShortString();
+			Counter.builder("payment.external_call.connection_held")
+				.description("DB 커넥션을 쥔 채로 한 외부 호출 수")
+				.tag("call", call)
+				.register(meterRegistry)
+				.increment();
+			if (mode == Mode.FAIL) {
+				throw new IllegalStateException("External call made while holding a DB connection: " + call);
+			}
+			log.warn("External call {} made while holding a DB connection", call);
+		}
+		return joinPoint.proceed();
+	}
+
+	/**
+	 * 현재 스레드가 DB 커넥션을 쥐고 있는지
+	 */
+	static boolean isConnectionHeld() {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return true;
+		}
+		for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+			if (resource instanceof EntityManagerHolder holder && isPhysicallyConnected(holder.getEntityManager())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isPhysicallyConnected(EntityManager entityManager) {
+		if (!entityManager.isOpen()) {
+			return false;
+		}
+		return entityManager.unwrap(SharedSessionContractImplementor.class)
+			.getJdbcCoordinator()
+			.getLogicalConnection()
+			.isPhysicallyConnected();
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.payment.web.external;
+
+import com.example.payment.application.deadline.RequestDeadline;
+import com.example.payment.application.event.FinalCompensationEvent;
+import com.example.payment.application.exception.DeadlineExceededException;
+import com.example.payment.entity.Payment;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import com.example.payment.web.external.dto.PaymentResponse;
+import com.example.payment.web.external.dto.PgCancelRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * HTTP 로 PG 를 호출하는 PgApiClient (payment.pg.mode=http 일 때 사용)
+ * 커넥션 풀/시간 제한은 HttpClientConfig 의 RestTemplate 설정을 따르며,
+ * 시간 초과/연결 실패는 예외(ResourceAccessException)로 전달되어 호출 측의 재시도·보상 흐름을 탑니다.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "payment.pg.mode", havingValue = "http")
+@ExternalCall
+public class HttpPgApiClient implements PgApiClient {
+
+	private final RestTemplate restTemplate;
+	private final String baseUrl;
+
+	public HttpPgApiClient(RestTemplate restTemplate, @Value("${payment.pg.base-url}") String baseUrl) {
+		this.restTemplate = restTemplate;
+		this.baseUrl = baseUrl;
+	}
+
+	@Override
+	public PaymentResponse approve(PaymentRequest request) {
+		// 요청 기한이 있으면 남은 시간만큼만 PG 응답을 기다림 (HttpClient 는 0 을 무제한으로 해석하므로 만료 시 호출하지 않음)
+		RequestDeadline deadline = request.getDeadline();
+		Long timeoutMillis = null;
+		if (deadline != null) {
+			timeoutMillis = deadline.remainingMillis();
+			if (timeoutMillis <= 0) {
+				throw new DeadlineExceededException("요청 기한이 지나 PG 승인을 호출하지 않습니다.");
+			}
+		}
+		PaymentResponse response = PgRequestTimeout.with(timeoutMillis,
+			() -> restTemplate.postForObject(baseUrl + "/v1/payments/approve", request, PaymentResponse.class));
+		if (response == null) {
+			throw new IllegalStateException("Empty PG approve response for lectureId: " + request.getLectureId()
+				+ ", userId: " + request.getUserId());
+		}
+		return response;
+	}
+
+	@Override
+	public boolean cancel(FinalCompensationEvent event) {
+		PgCancelRequest request = new PgCancelRequest(event.getPaymentId(), event.getLectureId(), event.getUserId(),
+			event.getReason());
+		PaymentResponse response = restTemplate.postForObject(baseUrl + "/v1/payments/cancel", request, PaymentResponse.class);
+		return response != null && response.isSuccess();
+	}
+
+	@Override
+	public boolean findHistory(Payment payment) {
+		PaymentResponse response = restTemplate.getForObject(
+			baseUrl + "/v1/payments/history?paymentId={paymentId}&lectureId={lectureId}&userId={userId}",
+			PaymentResponse.class, payment.getId(), payment.getLectureId(), payment.getUserId());
+		return response != null && response.isSuccess();
+	}
+}
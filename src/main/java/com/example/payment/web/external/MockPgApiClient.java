@@ -0,0 +1,36 @@
+package com.example.payment.web.external;
+
+import com.example.payment.application.event.FinalCompensationEvent;
+import com.example.payment.entity.Payment;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import com.example.payment.web.external.dto.PaymentResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * PG 호출 모킹 (기본값, payment.pg.mode=mock)
+ * 실제 HTTP 호출은 payment.pg.mode=http 로 HttpPgApiClient 를 사용합니다.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.pg.mode", havingValue = "mock", matchIfMissing = true)
+@ExternalCall
+public class MockPgApiClient implements PgApiClient {
+
+	@Override
+	public PaymentResponse approve(PaymentRequest request) {
+		PaymentResponse response = new PaymentResponse();
+		response.setSuccess(true);
+		response.setMessage("Payment Success");
+		return response;
+	}
+
+	@Override
+	public boolean cancel(FinalCompensationEvent event) {
+		return true;
+	}
+
+	@Override
+	public boolean findHistory(Payment payment) {
+		return true;
+	}
+}
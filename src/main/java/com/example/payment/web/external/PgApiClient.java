@@ -4,25 +4,28 @@ import com.example.payment.application.event.FinalCompensationEvent;
 import com.example.payment.entity.Payment;
 import com.example.payment.web.controller.dto.PaymentRequest;
 import com.example.payment.web.external.dto.PaymentResponse;
-import org.springframework.stereotype.Component;
 
-@Component
-public class PgApiClient {
-	/** 사용하는 PG에 따라 맞는 멱등성 보장 방법을 구현해야 합니다. 단순화를 위해 생략합니다. **/
-	public PaymentResponse mockApproveApiCall(PaymentRequest request)  {
-		PaymentResponse response = new PaymentResponse();
-		response.setSuccess(true);
-		response.setMessage("Payment Success");
-		return response;
-	}
+/**
+ * PG API 호출
+ * 구현은 payment.pg.mode 로 고릅니다. (mock: MockPgApiClient, 기본값 / http: HttpPgApiClient)
+ * 사용하는 PG에 따라 맞는 멱등성 보장 방법을 구현해야 합니다.
+ */
+public interface PgApiClient {
 
-	/** 사용하는 PG에 따라 맞는 멱등성 보장 방법을 구현해야 합니다. 단순화를 위해 생략합니다. **/
-	public boolean mockCancelApiCall(FinalCompensationEvent event)  {
-		return true;
-	}
+	/**
+	 * 결제 승인
+	 */
+	PaymentResponse approve(PaymentRequest request);
 
-	/** 사용하는 PG에 따라 맞는 멱등성 보장 방법을 구현해야 합니다. 단순화를 위해 생략합니다. **/
-	public boolean mockFindPaymentHistoryApiCall(Payment payment)  {
-		return true;
-	}
+	/**
+	 * 결제 취소 (최종 보상)
+	 * @return 취소 성공 여부
+	 */
+	boolean cancel(FinalCompensationEvent event);
+
+	/**
+	 * 결제 내역 조회 (대사)
+	 * @return PG 에 결제 내역이 있으면 true
+	 */
+	boolean findHistory(Payment payment);
 }
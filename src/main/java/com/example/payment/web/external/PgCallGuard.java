@@ -0,0 +1,132 @@
+package com.example.payment.web.external;
+
+import com.example.payment.application.deadline.RequestDeadline;
+import com.example.payment.application.exception.DeadlineExceededException;
+import com.example.payment.application.exception.PgUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * PG 호출(승인/취소/내역 조회) 보호: 회로 차단기 + 적응형 동시 호출 제한
+ * PG 가 느려지면 동시 호출 한도를 줄이고, 실패가 이어지면 회로를 열어 호출 없이 바로 PgUnavailableException 을 던집니다.
+ * PG 의 승인 거절(success=false)은 정상 응답으로 취급합니다.
+ * 클라이언트 요청 기한 때문에 끝난 호출(기한 초과 예외, 또는 기한이 지난 뒤의 실패)은 PG 상태를 알려주지 않으므로
+ * 회로 차단기와 동시 호출 한도 어느 쪽에도 반영하지 않습니다.
+ */
+@Component
+@Slf4j
+public class PgCallGuard {
+
+	private final PgCircuitBreaker circuitBreaker;
+	private final PgConcurrencyLimiter concurrencyLimiter;
+	private final Counter circuitOpenRejected;
+	private final Counter limitRejected;
+	private final Counter deadlineIgnored;
+
+	@Autowired
+	public PgCallGuard(MeterRegistry meterRegistry,
+		@Value("${payment.pg.circuit-breaker.window-size:20}") int windowSize,
+		@Value("${payment.pg.circuit-breaker.minimum-calls:10}") int minimumCalls,
+		@Value("${payment.pg.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+		@Value("${payment.pg.circuit-breaker.slow-call-ms:2000}") long slowCallMillis,
+		@Value("${payment.pg.circuit-breaker.open-ms:10000}") long openMillis,
+		@Value("${payment.pg.limiter.initial-limit:20}") int initialLimit,
+		@Value("${payment.pg.limiter.min-limit:2}") int minLimit,
+		@Value("${payment.pg.limiter.max-limit:200}") int maxLimit,
+		@Value("${payment.pg.limiter.backoff-ratio:0.9}") double backoffRatio,
+		@Value("${payment.pg.limiter.latency-threshold-ms:1000}") long latencyThresholdMillis) {
+		this(new PgCircuitBreaker(windowSize, minimumCalls, failureRateThreshold, slowCallMillis, openMillis, System::nanoTime),
+			new PgConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio, latencyThresholdMillis),
+			meterRegistry);
+	}
+
+	public PgCallGuard(PgCircuitBreaker circuitBreaker, PgConcurrencyLimiter concurrencyLimiter,
+		MeterRegistry meterRegistry) {
+		this.circuitBreaker = circuitBreaker;
+		this.concurrencyLimiter = concurrencyLimiter;
+
+		Gauge.builder("payment.pg.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+			.description("PG 회로 차단기 상태 (0=CLOSED, 1=OPEN, 2=HALF_OPEN)")
+			.register(meterRegistry);
+		Gauge.builder("payment.pg.limiter.limit", concurrencyLimiter, PgConcurrencyLimiter::getLimit)
+			.description("PG 동시 호출 한도")
+			.register(meterRegistry);
+		Gauge.builder("payment.pg.limiter.inflight", concurrencyLimiter, PgConcurrencyLimiter::getInFlight)
+			.description("진행 중인 PG 호출 수")
+			.register(meterRegistry);
+		this.circuitOpenRejected = Counter.builder("payment.pg.rejected")
+			.description("호출하지 않고 거절한 PG 호출 수")
+			.tag("reason", "circuit_open")
+			.register(meterRegistry);
+		this.limitRejected = Counter.builder("payment.pg.rejected")
+			.description("호출하지 않고 거절한 PG 호출 수")
+			.tag("reason", "limit")
+			.register(meterRegistry);
+		this.deadlineIgnored = Counter.builder("payment.pg.deadline_ignored")
+			.description("요청 기한 때문에 끝나 회로 차단기/동시 호출 한도에 반영하지 않은 PG 호출 수")
+			.register(meterRegistry);
+	}
+
+	public <T> T call(Supplier<T> pgCall) {
+		return call(null, pgCall);
+	}
+
+	/**
+	 * @param deadline 이 호출의 시간 제한을 줄이는 요청 기한 (없으면 null)
+	 */
+	public <T> T call(RequestDeadline deadline, Supplier<T> pgCall) {
+		if (!circuitBreaker.tryAcquirePermission()) {
+			circuitOpenRejected.increment();
+			throw new PgUnavailableException("PG 호출 차단: 회로 차단기가 열려 있습니다.");
+		}
+		if (!concurrencyLimiter.tryAcquire()) {
+			circuitBreaker.releasePermission();
+			limitRejected.increment();
+			throw new PgUnavailableException("PG 호출 차단: 동시 호출 한도(" + concurrencyLimiter.getLimit() + ")를 넘었습니다.");
+		}
+
+		long startedAt = System.nanoTime();
+		boolean success = false;
+		boolean neutral = false;
+		try {
+			T result = pgCall.get();
+			success = true;
+			return result;
+		} catch (RuntimeException e) {
+			neutral = e instanceof DeadlineExceededException || RequestDeadline.isExpired(deadline);
+			throw e;
+		} finally {
+			long elapsed = System.nanoTime() - startedAt;
+			if (neutral) {
+				concurrencyLimiter.releaseIgnored();
+				circuitBreaker.releasePermission();
+				deadlineIgnored.increment();
+			} else {
+				record(elapsed, success);
+			}
+		}
+	}
+
+	private void record(long elapsed, boolean success) {
+		concurrencyLimiter.release(elapsed, success);
+		PgCircuitBreaker.State before = circuitBreaker.getState();
+		circuitBreaker.onResult(elapsed, success);
+		PgCircuitBreaker.State after = circuitBreaker.getState();
+		if (before != after) {
+			log.warn("PG circuit breaker {} -> {}", before, after);
+		}
+	}
+
+	/**
+	 * 회로가 열려 있어 PG 를 호출할 수 없는 상태인지 (트랜잭션 시작 전 빠른 실패용, 시험 호출 권한은 소비하지 않음)
+	 */
+	public boolean isOpen() {
+		return circuitBreaker.isOpen();
+	}
+}
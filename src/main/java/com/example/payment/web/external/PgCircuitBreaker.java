@@ -0,0 +1,137 @@
+package com.example.payment.web.external;
+
+import java.util.function.LongSupplier;
+
+/**
+ * PG 호출 회로 차단기 (최근 windowSize 건 기준)
+ * - CLOSED: 최근 호출 중 실패(예외 또는 slowCallMillis 이상 걸린 호출) 비율이 failureRateThreshold 이상이면 OPEN
+ * - OPEN: openMillis 동안 호출하지 않고 바로 실패
+ * - HALF_OPEN: OPEN 시간이 지나면 한 건만 시험 호출을 허용하고, 성공하면 CLOSED / 실패하면 다시 OPEN
+ */
+public class PgCircuitBreaker {
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final int windowSize;
+	private final int minimumCalls;
+	private final double failureRateThreshold;
+	private final long slowCallNanos;
+	private final long openNanos;
+	private final LongSupplier nanoClock;
+
+	// 최근 호출 결과 (원형 버퍼, true = 실패)
+	private final boolean[] outcomes;
+	private int position;
+	private int recorded;
+	private int failures;
+
+	private State state = State.CLOSED;
+	private long openedAt;
+	private boolean probeInFlight;
+
+	public PgCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+		long slowCallMillis, long openMillis, LongSupplier nanoClock) {
+		this.windowSize = Math.max(windowSize, 1);
+		this.minimumCalls = Math.max(Math.min(minimumCalls, this.windowSize), 1);
+		this.failureRateThreshold = failureRateThreshold;
+		this.slowCallNanos = slowCallMillis * 1_000_000L;
+		this.openNanos = openMillis * 1_000_000L;
+		this.nanoClock = nanoClock;
+		this.outcomes = new boolean[this.windowSize];
+	}
+
+	/**
+	 * 호출 허용 여부. HALF_OPEN 에서는 시험 호출 한 건만 허용합니다.
+	 * 허용된 호출은 반드시 onResult 또는 releasePermission 으로 결과를 알려야 합니다.
+	 */
+	public synchronized boolean tryAcquirePermission() {
+		return switch (currentState()) {
+			case CLOSED -> true;
+			case HALF_OPEN -> {
+				if (probeInFlight) {
+					yield false;
+				}
+				probeInFlight = true;
+				yield true;
+			}
+			case OPEN -> false;
+		};
+	}
+
+	/**
+	 * 허용받았지만 호출하지 않았거나, 결과를 PG 상태로 볼 수 없는 경우(요청 기한 초과) 반환
+	 */
+	public synchronized void releasePermission() {
+		if (state == State.HALF_OPEN) {
+			probeInFlight = false;
+		}
+	}
+
+	public synchronized void onResult(long elapsedNanos, boolean success) {
+		boolean failed = !success || elapsedNanos >= slowCallNanos;
+		if (state == State.HALF_OPEN) {
+			probeInFlight = false;
+			if (failed) {
+				open();
+			} else {
+				close();
+			}
+			return;
+		}
+		if (state == State.OPEN) {
+			return;
+		}
+		record(failed);
+		if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+			open();
+		}
+	}
+
+	/**
+	 * 호출 없이 바로 실패해야 하는지 (OPEN 이고 대기 시간이 남아 있음)
+	 */
+	public synchronized boolean isOpen() {
+		return currentState() == State.OPEN;
+	}
+
+	public synchronized State getState() {
+		return currentState();
+	}
+
+	private State currentState() {
+		if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+			state = State.HALF_OPEN;
+			probeInFlight = false;
+		}
+		return state;
+	}
+
+	private void record(boolean failed) {
+		if (recorded == windowSize) {
+			if (outcomes[position]) {
+				failures--;
+			}
+		} else {
+			recorded++;
+		}
+		outcomes[position] = failed;
+		if (failed) {
+			failures++;
+		}
+		position = (position + 1) % windowSize;
+	}
+
+	private void open() {
+		state = State.OPEN;
+		openedAt = nanoClock.getAsLong();
+	}
+
+	private void close() {
+		state = State.CLOSED;
+		position = 0;
+		recorded = 0;
+		failures = 0;
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.payment.web.external;
+
+/**
+ * PG 동시 호출 수 적응형 제한 (AIMD)
+ * - 호출이 latencyThresholdMillis 보다 늦거나 실패하면 한도를 backoffRatio 배로 줄입니다. (Multiplicative Decrease)
+ * - 한도의 절반 이상을 사용하는 중에 정상 응답이 오면 한도를 1 늘립니다. (Additive Increase)
+ * - 한도를 넘는 호출은 기다리지 않고 바로 거절합니다.
+ */
+public class PgConcurrencyLimiter {
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double backoffRatio;
+	private final long latencyThresholdNanos;
+
+	private double limit;
+	private int inFlight;
+
+	public PgConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+		long latencyThresholdMillis) {
+		this.minLimit = Math.max(minLimit, 1);
+		this.maxLimit = Math.max(maxLimit, this.minLimit);
+		this.backoffRatio = backoffRatio;
+		this.latencyThresholdNanos = latencyThresholdMillis * 1_000_000L;
+		this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+	}
+
+	public synchronized boolean tryAcquire() {
+		if (inFlight >= (int) limit) {
+			return false;
+		}
+		inFlight++;
+		return true;
+	}
+
+	public synchronized void release(long elapsedNanos, boolean success) {
+		int inFlightAtCall = inFlight;
+		inFlight--;
+		if (!success || elapsedNanos > latencyThresholdNanos) {
+			limit = Math.max(minLimit, limit * backoffRatio);
+		} else if (inFlightAtCall * 2 >= (int) limit) {
+			limit = Math.min(maxLimit, limit + 1);
+		}
+	}
+
+	/**
+	 * 결과를 한도 조정에 반영하지 않고 반환합니다. (PG 상태와 무관하게 요청 기한 때문에 끝난 호출)
+	 */
+	public synchronized void releaseIgnored() {
+		inFlight--;
+	}
+
+	public synchronized int getLimit() {
+		return (int) limit;
+	}
+
+	public synchronized int getInFlight() {
+		return inFlight;
+	}
+}
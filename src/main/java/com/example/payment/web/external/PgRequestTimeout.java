@@ -0,0 +1,42 @@
+package com.example.payment.web.external;
+
+import java.util.function.Supplier;
+
+/**
+ * 이번 PG 호출에만 적용할 시간 제한 (요청 기한의 남은 시간)
+ * HttpPgApiClient 가 호출하는 동안만 설정하고, HttpClientConfig 의 요청 팩토리가 읽어 응답/풀 대기 시간 제한을 줄입니다.
+ */
+public final class PgRequestTimeout {
+
+	private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+	private PgRequestTimeout() {
+	}
+
+	/**
+	 * @param timeoutMillis null 이면 기본 시간 제한으로 호출
+	 */
+	public static <T> T with(Long timeoutMillis, Supplier<T> call) {
+		if (timeoutMillis == null) {
+			return call.get();
+		}
+		Long previous = CURRENT.get();
+		CURRENT.set(timeoutMillis);
+		try {
+			return call.get();
+		} finally {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * 현재 스레드의 PG 호출 시간 제한 (없으면 null)
+	 */
+	public static Long current() {
+		return CURRENT.get();
+	}
+}
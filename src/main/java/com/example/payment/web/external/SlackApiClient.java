@@ -5,6 +5,7 @@ import org.springframework.stereotype.Component;
 
 @Component
 @Slf4j
+@ExternalCall
 public class SlackApiClient {
 
 	/**
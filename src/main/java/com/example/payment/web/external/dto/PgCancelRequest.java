@@ -0,0 +1,15 @@
+package com.example.payment.web.external.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PgCancelRequest {
+	private Long paymentId;
+	private Long lectureId;
+	private Long userId;
+	private String reason;
+}
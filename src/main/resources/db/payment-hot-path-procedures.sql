@@ -0,0 +1,53 @@
+-- 승인 핫패스 저장 프로시저 (PaymentHotPathRepository)
+-- 문장 구분자는 $$ 입니다. 애플리케이션이 시작 시 설치하며(payment.hot-path.jdbc.install-procedures),
+-- 직접 설치할 때는 mysql --delimiter='$$' < payment-hot-path-procedures.sql 로 실행합니다.
+-- 프로시저를 바꾸면 COMMENT 의 버전과 PaymentHotPathRepository.PROCEDURES_VERSION 을 함께 올립니다.
+-- (애플리케이션은 설치된 프로시저의 COMMENT 가 이 버전과 다를 때만 다시 설치합니다)
+-- 결과 코드: 0 = 성공, 1 = 좌석 없음(정원 초과 또는 버킷 모드), 2 = Payment 상태 불일치
+-- 갱신 순서는 LockOrder(enrollment_count → payment → enrollment)를 따릅니다.
+
+DROP PROCEDURE IF EXISTS payment_reserve_seat$$
+
+-- 트랜잭션 1: 좌석 확보 + Payment 상태 변경 (단일 행 모드만, 버킷 모드는 1을 반환해 JPA 경로로 처리)
+CREATE PROCEDURE payment_reserve_seat(IN p_lecture_id BIGINT, IN p_user_id BIGINT,
+	IN p_from_status TINYINT, IN p_to_status TINYINT)
+COMMENT 'payment-hot-path v2'
+BEGIN
+	DECLARE v_updated INT;
+	UPDATE enrollment_count SET current_count = current_count + 1, version = version + 1
+		WHERE lecture_id = p_lecture_id AND current_count < capacity AND bucket_count <= 1;
+	SET v_updated = ROW_COUNT();
+	IF v_updated = 0 THEN
+		SELECT 1;
+	ELSE
+		UPDATE payment SET status = p_to_status
+			WHERE lecture_id = p_lecture_id AND user_id = p_user_id AND status = p_from_status;
+		SET v_updated = ROW_COUNT();
+		SELECT IF(v_updated = 0, 2, 0);
+	END IF;
+END$$
+
+DROP PROCEDURE IF EXISTS payment_finalize_enrollment$$
+
+-- 트랜잭션 3: Payment 상태 변경 + Enrollment 생성 (결제 ID 가 있어도 lecture_id/user_id 가 일치해야 함)
+CREATE PROCEDURE payment_finalize_enrollment(IN p_enrollment_id BIGINT, IN p_payment_id BIGINT,
+	IN p_lecture_id BIGINT, IN p_user_id BIGINT, IN p_from_status TINYINT, IN p_to_status TINYINT)
+COMMENT 'payment-hot-path v2'
+BEGIN
+	DECLARE v_updated INT;
+	IF p_payment_id IS NULL THEN
+		UPDATE payment SET status = p_to_status
+			WHERE lecture_id = p_lecture_id AND user_id = p_user_id AND status = p_from_status;
+		SET v_updated = ROW_COUNT();
+	ELSE
+		UPDATE payment SET status = p_to_status
+			WHERE id = p_payment_id AND lecture_id = p_lecture_id AND user_id = p_user_id AND status = p_from_status;
+		SET v_updated = ROW_COUNT();
+	END IF;
+	IF v_updated = 0 THEN
+		SELECT 2;
+	ELSE
+		INSERT INTO enrollment (id, lecture_id, user_id) VALUES (p_enrollment_id, p_lecture_id, p_user_id);
+		SELECT 0;
+	END IF;
+END$$
@@ -0,0 +1,5 @@
+-- payment 테이블 인덱스 (Payment 엔티티의 @Table(indexes) 와 동일)
+-- 상태 전이 UPDATE: WHERE lecture_id = ? AND user_id = ? AND status = ?
+CREATE INDEX idx_payment_lecture_user_status ON payment (lecture_id, user_id, status);
+-- 보정 대상 조회: WHERE status NOT IN (...) AND created_at < ?
+CREATE INDEX idx_payment_status_created_at ON payment (status, created_at);
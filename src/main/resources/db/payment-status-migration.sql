@@ -0,0 +1,29 @@
+-- payment.status: VARCHAR 상태명 → TINYINT 코드 (PaymentStatus 의 code 값) 전환
+-- status 컬럼을 포함한 기존 인덱스가 있다면 먼저 삭제한 뒤 실행하고, 이후 payment-index-migration.sql 로 인덱스를 다시 만듭니다.
+-- mysql < payment-status-migration.sql 로 실행합니다. (오류가 나면 멈추도록 --force 없이 실행)
+
+ALTER TABLE payment ADD COLUMN status_code TINYINT NULL;
+
+UPDATE payment SET status_code = CASE status
+	WHEN 'CREATED' THEN 1
+	WHEN 'COUNT_UPDATED' THEN 2
+	WHEN 'PAYMENT_PROCESSED' THEN 3
+	WHEN 'FINAL_COMPLETED' THEN 4
+	WHEN 'EXCEEDS_CAPACITY' THEN 5
+	WHEN 'CANCELLED' THEN 6
+	WHEN 'CANCELLATION_FAILED' THEN 7
+	WHEN 'FINAL_COMPENSATION_FAILED' THEN 8
+END;
+
+-- 알 수 없는 상태명이 남아 있으면 status 컬럼을 지우기 전에 전환을 중단합니다.
+-- 남은 행이 있으면 스칼라 서브쿼리가 두 행 이상을 반환해 오류(1242)가 나므로 MySQL/MariaDB 모두에서 여기서 멈춥니다.
+-- 아래 조회로 행을 확인하고 status_code 를 채운 뒤 이 지점부터 다시 실행합니다.
+--   SELECT id, status FROM payment WHERE status_code IS NULL AND status IS NOT NULL;
+SELECT (
+	SELECT 'ok'
+	UNION ALL
+	SELECT status FROM payment WHERE status_code IS NULL AND status IS NOT NULL
+) AS abort_if_unknown_status;
+
+ALTER TABLE payment DROP COLUMN status;
+ALTER TABLE payment CHANGE COLUMN status_code status TINYINT NULL;
@@ -0,0 +1,68 @@
+package com.example.payment.application.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HashedWheelTimerTest {
+
+	// tick 10ns, 칸 4개 (한 바퀴 40ns)
+	private final HashedWheelTimer<String, String> timer = new HashedWheelTimer<>(10, 4, 0);
+
+	// 기한 전에는 만료되지 않고, 기한이 지난 tick 에서 만료되어야 함
+	@Test
+	void testAdvance_expiresAtDeadline() {
+		timer.schedule("a", "A", 25);
+
+		assertTrue(timer.advance(20).isEmpty());
+		assertEquals(List.of("A"), timer.advance(30));
+		assertEquals(0, timer.size());
+	}
+
+	// 한 바퀴보다 먼 기한은 바퀴 수를 세어 만료되어야 함
+	@Test
+	void testAdvance_deadlineBeyondOneRevolution() {
+		timer.schedule("far", "FAR", 95);
+		timer.schedule("near", "NEAR", 15);
+
+		assertEquals(List.of("NEAR"), timer.advance(50));
+		assertTrue(timer.advance(90).isEmpty());
+		assertEquals(List.of("FAR"), timer.advance(100));
+	}
+
+	// 호출이 늦어도 밀린 기한을 한 번에 돌려줘야 함
+	@Test
+	void testAdvance_catchesUpAfterStall() {
+		timer.schedule("a", "A", 15);
+		timer.schedule("b", "B", 75);
+
+		List<String> expired = timer.advance(200);
+
+		assertEquals(2, expired.size());
+		assertTrue(expired.containsAll(List.of("A", "B")));
+	}
+
+	// 같은 키로 다시 등록하면 이전 기한을 대체하고, 취소하면 만료되지 않아야 함
+	@Test
+	void testScheduleAndCancel() {
+		timer.schedule("a", "A1", 15);
+		timer.schedule("a", "A2", 55);
+		timer.schedule("b", "B", 15);
+		assertTrue(timer.cancel("b"));
+
+		assertTrue(timer.advance(30).isEmpty());
+		assertEquals(List.of("A2"), timer.advance(60));
+		assertEquals(0, timer.size());
+	}
+
+	// 이미 지난 기한은 다음 tick 에서 바로 만료되어야 함
+	@Test
+	void testSchedule_pastDeadline() {
+		timer.advance(100);
+		timer.schedule("late", "LATE", 5);
+
+		assertEquals(List.of("LATE"), timer.advance(110));
+	}
+}
@@ -0,0 +1,141 @@
+package com.example.payment.application.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.payment.application.service.PaymentAdjustmentService;
+import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.repository.PaymentRepository;
+import com.example.payment.repository.PendingPayment;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentDeadlineTrackerTest {
+
+	@Mock
+	private PaymentRepository paymentRepository;
+
+	@Mock
+	private PaymentAdjustmentService paymentAdjustmentService;
+
+	private final AtomicLong clock = new AtomicLong();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private PaymentDeadlineTracker tracker;
+	private PaymentRequest paymentRequest;
+	private Payment payment;
+
+	@BeforeEach
+	void setUp() {
+		// CREATED 5초, COUNT_UPDATED 2초, PAYMENT_PROCESSED 1초, 나머지 5초 / tick 100ms
+		tracker = new PaymentDeadlineTracker(paymentRepository, paymentAdjustmentService, meterRegistry, true,
+			PaymentDeadlineTracker.timeouts(5_000, 2_000, 1_000, 5_000), 100, 64, 1_000, clock::get);
+
+		paymentRequest = new PaymentRequest();
+		paymentRequest.setPaymentId(10L);
+		paymentRequest.setLectureId(1L);
+		paymentRequest.setUserId(100L);
+
+		payment = new Payment();
+		payment.setId(10L);
+		payment.setLectureId(1L);
+		payment.setUserId(100L);
+		payment.setCreatedAt(LocalDateTime.now());
+	}
+
+	private void elapse(long millis) {
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+	}
+
+	// 상태별 기한이 지나고 아직 같은 상태이면 그 결제만 보정해야 함
+	@Test
+	void testTick_adjustsPaymentStuckPastStatusDeadline() {
+		tracker.track(paymentRequest, PaymentStatus.COUNT_UPDATED);
+		payment.setStatus(PaymentStatus.COUNT_UPDATED);
+		when(paymentRepository.findById(10L)).thenReturn(Optional.of(payment));
+		when(paymentAdjustmentService.adjust(any())).thenReturn(1L);
+
+		elapse(1_500);
+		tracker.tick();
+		verify(paymentAdjustmentService, never()).adjust(any());
+
+		elapse(600);
+		tracker.tick();
+		verify(paymentAdjustmentService).adjust(List.of(new PendingPayment(10L, 1L, 100L, PaymentStatus.COUNT_UPDATED,
+			payment.getCreatedAt())));
+		assertEquals(1.0, meterRegistry.get("payment.deadline.adjusted").counter().count());
+		assertEquals(0, tracker.getTrackedCount());
+	}
+
+	// 다음 단계로 넘어가면 새 상태의 기한으로 대체되어야 함
+	@Test
+	void testTrack_nextStatusReplacesDeadline() {
+		tracker.track(paymentRequest, PaymentStatus.COUNT_UPDATED);
+		elapse(1_500);
+		tracker.track(paymentRequest, PaymentStatus.PAYMENT_PROCESSED);
+
+		elapse(600);
+		tracker.tick();
+		verify(paymentRepository, never()).findById(any());
+		assertEquals(1, tracker.getTrackedCount());
+
+		payment.setStatus(PaymentStatus.PAYMENT_PROCESSED);
+		when(paymentRepository.findById(10L)).thenReturn(Optional.of(payment));
+		elapse(500);
+		tracker.tick();
+		verify(paymentAdjustmentService).adjust(any());
+	}
+
+	// 기한이 지났어도 이미 상태가 바뀐 결제는 보정하지 않아야 함
+	@Test
+	void testTick_skipsPaymentThatMovedOn() {
+		tracker.track(paymentRequest, PaymentStatus.COUNT_UPDATED);
+		payment.setStatus(PaymentStatus.CANCELLED);
+		when(paymentRepository.findById(10L)).thenReturn(Optional.of(payment));
+
+		elapse(2_100);
+		tracker.tick();
+
+		verify(paymentAdjustmentService, never()).adjust(any());
+		assertEquals(1.0, meterRegistry.get("payment.deadline.expired").counter().count());
+	}
+
+	// 완료/보상으로 해제된 결제는 만료되지 않아야 함
+	@Test
+	void testUntrack_cancelsDeadline() {
+		tracker.track(paymentRequest, PaymentStatus.COUNT_UPDATED);
+		tracker.untrack(paymentRequest);
+
+		elapse(10_000);
+		tracker.tick();
+
+		verify(paymentRepository, never()).findById(any());
+		assertEquals(0.0, meterRegistry.get("payment.deadline.expired").counter().count());
+	}
+
+	// 단계 기한이 요청 기한 상한보다 짧으면 진행 중인 사가를 보정할 수 있으므로 시작에 실패해야 함
+	@Test
+	void testValidated_rejectsDeadlineShorterThanRequestDeadline() {
+		assertThrows(IllegalArgumentException.class, () -> PaymentDeadlineTracker.validated(
+			PaymentDeadlineTracker.timeouts(300_000, 120_000, 60_000, 300_000), 120_000));
+		assertDoesNotThrow(() -> PaymentDeadlineTracker.validated(
+			PaymentDeadlineTracker.timeouts(300_000, 300_000, 300_000, 300_000), 120_000));
+	}
+}
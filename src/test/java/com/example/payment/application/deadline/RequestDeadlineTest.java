@@ -0,0 +1,83 @@
+package com.example.payment.application.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.payment.application.deadline.RequestDeadlines.Endpoint;
+import com.example.payment.application.exception.BusinessException;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.retry.context.RetryContextSupport;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+
+class RequestDeadlineTest {
+
+	// 남은 시간은 시계에 따라 줄고, 지나면 0 이며 만료로 판단해야 함
+	@Test
+	void testRemainingAndExpired() {
+		AtomicLong clock = new AtomicLong();
+		RequestDeadline deadline = RequestDeadline.after(1000, clock::get);
+
+		assertEquals(1000, deadline.remainingMillis());
+		assertFalse(deadline.isExpired());
+
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+		assertEquals(600, deadline.remainingMillis());
+
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+		assertEquals(0, deadline.remainingMillis());
+		assertTrue(deadline.isExpired());
+		assertFalse(RequestDeadline.isExpired(null));
+	}
+
+	// 헤더가 없으면 엔드포인트 기본값, 있으면 최대값으로 잘라 사용하고, 잘못된 값은 거부해야 함
+	@Test
+	void testResolveTimeout() {
+		RequestDeadlines deadlines = new RequestDeadlines(10_000, 30_000, 60_000, 120_000);
+
+		assertEquals(10_000, deadlines.timeoutMillis(Endpoint.PAYMENT, null));
+		assertEquals(30_000, deadlines.timeoutMillis(Endpoint.BATCH, " "));
+		assertEquals(60_000, deadlines.timeoutMillis(Endpoint.ASYNC, null));
+		assertEquals(2_500, deadlines.timeoutMillis(Endpoint.PAYMENT, "2500"));
+		assertEquals(120_000, deadlines.timeoutMillis(Endpoint.PAYMENT, "999999"));
+
+		assertThrows(BusinessException.class, () -> deadlines.timeoutMillis(Endpoint.PAYMENT, "abc"));
+		assertThrows(BusinessException.class, () -> deadlines.timeoutMillis(Endpoint.PAYMENT, "0"));
+	}
+
+	// 남은 기한으로 "최대 대기 + 1회 시도"를 마칠 수 없으면 대기 전에 재시도를 끝내야 함
+	@Test
+	void testRetryListenerStopsWhenBudgetIsShort() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		PgRetryDeadlineListener listener = new PgRetryDeadlineListener(meterRegistry, 3000);
+
+		RetryContextSupport enough = new RetryContextSupport(null);
+		listener.onError(enough, callback(RequestDeadline.after(60_000)), new IllegalStateException());
+		assertFalse(enough.isExhaustedOnly());
+
+		RetryContextSupport noDeadline = new RetryContextSupport(null);
+		listener.onError(noDeadline, callback(null), new IllegalStateException());
+		assertFalse(noDeadline.isExhaustedOnly());
+
+		RetryContextSupport tooShort = new RetryContextSupport(null);
+		listener.onError(tooShort, callback(RequestDeadline.after(4000)), new IllegalStateException());
+		assertTrue(tooShort.isExhaustedOnly());
+		assertEquals(1.0, meterRegistry.counter("payment.request_deadline.retry_stopped").count());
+	}
+
+	private MethodInvocationRetryCallback<Object, Throwable> callback(RequestDeadline deadline) {
+		PaymentRequest paymentRequest = new PaymentRequest();
+		paymentRequest.setDeadline(deadline);
+		MethodInvocation invocation = mock(MethodInvocation.class);
+		when(invocation.getArguments()).thenReturn(new Object[] {paymentRequest});
+		return new MethodInvocationRetryCallback<>(invocation, "processPayment");
+	}
+}
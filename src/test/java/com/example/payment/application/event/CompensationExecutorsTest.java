@@ -0,0 +1,103 @@
+package com.example.payment.application.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.payment.entity.CompensationOutbox;
+import com.example.payment.repository.CompensationOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class CompensationExecutorsTest {
+
+	private final CompensationOutboxRepository compensationOutboxRepository = mock(CompensationOutboxRepository.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	// 단계마다 스레드 1개, 큐 1개
+	private final CompensationExecutors executors = new CompensationExecutors(compensationOutboxRepository,
+		mock(PlatformTransactionManager.class), meterRegistry, 1, 1, 1, 1, 1, 1);
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		executors.shutdown();
+	}
+
+	private Supplier<CompensationOutbox> fallback(CompensationOutbox.Type type, Long userId) {
+		return () -> CompensationOutbox.of(type, null, 1L, userId, "reason");
+	}
+
+	private void blockWorker(CompensationOutbox.Type phase) throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		executors.execute(phase, () -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, fallback(phase, 100L));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+	}
+
+	// 트랜잭션 1 보상이 밀려 있어도 트랜잭션 2 보상은 자기 실행기에서 바로 실행되어야 함
+	@Test
+	void testExecute_phasesAreIsolated() throws Exception {
+		blockWorker(CompensationOutbox.Type.FIRST);
+		executors.execute(CompensationOutbox.Type.FIRST, () -> { }, fallback(CompensationOutbox.Type.FIRST, 101L));
+
+		CountDownLatch secondRan = new CountDownLatch(1);
+		executors.execute(CompensationOutbox.Type.SECOND, secondRan::countDown, fallback(CompensationOutbox.Type.SECOND, 200L));
+
+		assertTrue(secondRan.await(5, TimeUnit.SECONDS));
+		assertEquals(1, executors.getQueueSize(CompensationOutbox.Type.FIRST));
+		assertEquals(1.0, meterRegistry.get("payment.compensation.executor.queue").tag("phase", "first").gauge().value());
+	}
+
+	// 큐가 가득 차면 버리지 않고 아웃박스에 기록해야 함
+	@Test
+	void testExecute_rejectedGoesToOutbox() throws Exception {
+		blockWorker(CompensationOutbox.Type.FIRST);
+		AtomicInteger ran = new AtomicInteger();
+		executors.execute(CompensationOutbox.Type.FIRST, ran::incrementAndGet, fallback(CompensationOutbox.Type.FIRST, 101L));
+
+		executors.execute(CompensationOutbox.Type.FIRST, ran::incrementAndGet, fallback(CompensationOutbox.Type.FIRST, 102L));
+
+		verify(compensationOutboxRepository).save(argThat(outbox ->
+			outbox.getType() == CompensationOutbox.Type.FIRST && outbox.getUserId().equals(102L)));
+		assertEquals(0, ran.get());
+		assertEquals(1.0, meterRegistry.get("payment.compensation.executor.rejected").tag("phase", "first").counter().count());
+	}
+
+	// 아웃박스 기록도 실패하면 호출 스레드에서 직접 실행해야 함
+	@Test
+	void testExecute_outboxFailureRunsOnCaller() throws Exception {
+		blockWorker(CompensationOutbox.Type.FINAL);
+		executors.execute(CompensationOutbox.Type.FINAL, () -> { }, fallback(CompensationOutbox.Type.FINAL, 301L));
+		when(compensationOutboxRepository.save(any(CompensationOutbox.class))).thenThrow(new RuntimeException("DB down"));
+		Thread caller = Thread.currentThread();
+		AtomicInteger ranOnCaller = new AtomicInteger();
+
+		executors.execute(CompensationOutbox.Type.FINAL, () -> {
+			if (Thread.currentThread() == caller) {
+				ranOnCaller.incrementAndGet();
+			}
+		}, fallback(CompensationOutbox.Type.FINAL, 302L));
+
+		assertEquals(1, ranOnCaller.get());
+		verify(compensationOutboxRepository, never()).save(argThat(outbox -> outbox.getUserId().equals(301L)));
+	}
+}
@@ -0,0 +1,159 @@
+package com.example.payment.application.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.payment.application.exception.IdempotencyKeyReuseException;
+import java.sql.SQLDataException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+class IdempotencyCacheTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+	private final AtomicInteger executions = new AtomicInteger();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	private IdempotencyCache cache(int maxEntries, long ttlMillis) {
+		return new IdempotencyCache(null, maxEntries, ttlMillis, 5_000);
+	}
+
+	private IdempotentResponse ok() {
+		executions.incrementAndGet();
+		return IdempotentResponse.of(200, null);
+	}
+
+	// 처리가 끝난 키는 다시 처리하지 않고 저장된 응답을 돌려줘야 함
+	@Test
+	void testExecute_replaysCompletedResponse() {
+		IdempotencyCache cache = cache(10, 60_000);
+
+		IdempotentResponse first = cache.execute("key", "fp", this::ok);
+		IdempotentResponse second = cache.execute("key", "fp", this::ok);
+
+		assertFalse(first.replayed());
+		assertTrue(second.replayed());
+		assertEquals(200, second.status());
+		assertEquals(1, executions.get());
+	}
+
+	// 처리 중에 같은 키가 들어오면 진행 중인 처리의 결과를 기다려 받아야 함
+	@Test
+	void testExecute_inFlightDuplicateAttaches() throws Exception {
+		IdempotencyCache cache = cache(10, 60_000);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		Future<IdempotentResponse> leader = executor.submit(() -> cache.execute("key", "fp", () -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return IdempotentResponse.of(400, "수강 인원이 모두 찼습니다.");
+		}));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		Future<IdempotentResponse> duplicate = executor.submit(() -> cache.execute("key", "fp", this::ok));
+		release.countDown();
+
+		assertEquals(400, leader.get(5, TimeUnit.SECONDS).status());
+		IdempotentResponse attached = duplicate.get(5, TimeUnit.SECONDS);
+		assertEquals(400, attached.status());
+		assertEquals("수강 인원이 모두 찼습니다.", attached.body());
+		assertTrue(attached.replayed());
+		assertEquals(0, executions.get());
+	}
+
+	// 같은 키로 다른 요청이 들어오면 거절해야 함
+	@Test
+	void testExecute_keyReuseRejected() {
+		IdempotencyCache cache = cache(10, 60_000);
+		cache.execute("key", "fp-1", this::ok);
+
+		assertThrows(IdempotencyKeyReuseException.class, () -> cache.execute("key", "fp-2", this::ok));
+	}
+
+	// 예기치 못한 예외는 저장하지 않아 같은 키로 다시 시도할 수 있어야 함
+	@Test
+	void testExecute_unexpectedFailureNotCached() {
+		IdempotencyCache cache = cache(10, 60_000);
+
+		assertThrows(IllegalStateException.class, () -> cache.execute("key", "fp", () -> {
+			throw new IllegalStateException("DB down");
+		}));
+		IdempotentResponse retried = cache.execute("key", "fp", this::ok);
+
+		assertFalse(retried.replayed());
+		assertEquals(1, executions.get());
+	}
+
+	// 최대 개수를 넘으면 오래된 키부터, TTL 이 지나면 만료된 키를 비워야 함
+	@Test
+	void testExecute_boundedAndExpires() throws Exception {
+		IdempotencyCache bounded = cache(2, 60_000);
+		bounded.execute("a", "fp", this::ok);
+		bounded.execute("b", "fp", this::ok);
+		bounded.execute("c", "fp", this::ok);
+		assertEquals(2, bounded.size());
+		assertFalse(bounded.execute("a", "fp", this::ok).replayed());
+
+		IdempotencyCache expiring = cache(10, 1);
+		expiring.execute("a", "fp", this::ok);
+		Thread.sleep(5);
+		assertFalse(expiring.execute("a", "fp", this::ok).replayed());
+	}
+
+	// 최대 개수를 넘어도 처리 중인 키는 비우지 않아야 함 (같은 키의 재시도가 결제를 다시 처리하지 않도록)
+	@Test
+	void testExecute_overflowKeepsInFlightEntries() throws Exception {
+		IdempotencyCache bounded = cache(1, 60_000);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		Future<IdempotentResponse> leader = executor.submit(() -> bounded.execute("a", "fp", () -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return ok();
+		}));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		bounded.execute("b", "fp", this::ok);
+		assertEquals(2, bounded.size());
+
+		Future<IdempotentResponse> duplicate = executor.submit(() -> bounded.execute("a", "fp", this::ok));
+		release.countDown();
+
+		assertFalse(leader.get(5, TimeUnit.SECONDS).replayed());
+		assertTrue(duplicate.get(5, TimeUnit.SECONDS).replayed());
+		assertEquals(2, executions.get());
+	}
+
+	// 키 선점 충돌(PK 중복)만 처리 중으로 보고, 그 밖의 제약 위반(길이 초과 등)은 그대로 전달해야 함
+	@Test
+	void testIsDuplicateKey() {
+		assertTrue(IdempotencyCache.isDuplicateKey(new DuplicateKeyException("duplicate")));
+		assertTrue(IdempotencyCache.isDuplicateKey(new DataIntegrityViolationException("duplicate",
+			new SQLIntegrityConstraintViolationException("Duplicate entry 'key' for key 'PRIMARY'", "23000", 1062))));
+		assertFalse(IdempotencyCache.isDuplicateKey(new DataIntegrityViolationException("too long",
+			new SQLDataException("Data too long for column 'idempotency_key'", "22001", 1406))));
+	}
+}
@@ -0,0 +1,112 @@
+package com.example.payment.application.orchestration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.payment.application.event.PaymentStatusChangedEvent;
+import com.example.payment.application.exception.BusinessException;
+import com.example.payment.application.orchestration.impl.PaymentApprove3Phase;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.repository.PaymentRepository;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentApprovalPipelineTest {
+
+	@Mock
+	private PaymentApprove3Phase paymentApprove3Phase;
+
+	@Mock
+	private PaymentRepository paymentRepository;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	private PaymentApprovalPipeline pipeline;
+
+	private final Long lectureId = 1L;
+	private final Long userId = 100L;
+	private final Long paymentId = 10L;
+	private PaymentRequest paymentRequest;
+
+	@BeforeEach
+	void setUp() {
+		// 백그라운드 단계를 요청 스레드에서 바로 실행
+		pipeline = new PaymentApprovalPipeline(paymentApprove3Phase, paymentRepository, eventPublisher, Runnable::run);
+		paymentRequest = new PaymentRequest();
+		paymentRequest.setLectureId(lectureId);
+		paymentRequest.setUserId(userId);
+	}
+
+	/**
+	 * 트랜잭션 1 이후 결제 핸들을 반환하고, 나머지 단계 진행 상태를 순서대로 발행해야 합니다.
+	 */
+	@Test
+	void submit_success_publishesEachPhase() {
+		when(paymentApprove3Phase.reserveSeatForHandle(paymentRequest)).thenReturn(paymentId);
+
+		Long handle = pipeline.submit(paymentRequest);
+
+		assertEquals(paymentId, handle);
+		verify(paymentApprove3Phase, times(1)).reserveSeatForHandle(paymentRequest);
+		verify(paymentApprove3Phase, times(1)).processPayment(paymentRequest);
+		verify(paymentApprove3Phase, times(1)).finalizeEnrollment(paymentRequest);
+
+		List<PaymentStatusChangedEvent> events = publishedEvents(3);
+		assertEquals(List.of("COUNT_UPDATED", "PAYMENT_PROCESSED", "FINAL_COMPLETED"),
+			events.stream().map(PaymentStatusChangedEvent::getStatus).toList());
+		assertFalse(events.get(1).isTerminal());
+		assertTrue(events.get(2).isTerminal());
+	}
+
+	/**
+	 * 트랜잭션 1 실패 시 결제 핸들 없이 예외가 전달되고 백그라운드 단계는 실행되지 않아야 합니다.
+	 */
+	@Test
+	void submit_reserveSeatFails_throwsWithoutHandle() {
+		when(paymentApprove3Phase.reserveSeatForHandle(paymentRequest)).thenThrow(new BusinessException("동시성 제어 실패"));
+
+		assertThrows(BusinessException.class, () -> pipeline.submit(paymentRequest));
+
+		verify(paymentApprove3Phase, never()).processPayment(paymentRequest);
+		verifyNoInteractions(eventPublisher);
+	}
+
+	/**
+	 * 트랜잭션 2 실패 시 트랜잭션 3은 실행되지 않고 보상이 옮길 CANCELLED 상태로 종료 알림이 발행되어야 합니다.
+	 */
+	@Test
+	void submit_processPaymentFails_publishesCancelled() {
+		when(paymentApprove3Phase.reserveSeatForHandle(paymentRequest)).thenReturn(paymentId);
+		doThrow(new BusinessException("결제 처리 실패")).when(paymentApprove3Phase).processPayment(paymentRequest);
+
+		pipeline.submit(paymentRequest);
+
+		verify(paymentApprove3Phase, never()).finalizeEnrollment(paymentRequest);
+		List<PaymentStatusChangedEvent> events = publishedEvents(2);
+		assertEquals(PaymentStatus.CANCELLED.name(), events.get(1).getStatus());
+		assertTrue(events.get(1).isTerminal());
+	}
+
+	private List<PaymentStatusChangedEvent> publishedEvents(int expected) {
+		ArgumentCaptor<PaymentStatusChangedEvent> captor = ArgumentCaptor.forClass(PaymentStatusChangedEvent.class);
+		verify(eventPublisher, times(expected)).publishEvent(captor.capture());
+		return captor.getAllValues();
+	}
+}
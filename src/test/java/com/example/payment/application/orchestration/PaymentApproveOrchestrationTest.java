@@ -2,23 +2,39 @@ package com.example.payment.application.orchestration;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import com.example.payment.application.deadline.PaymentDeadlineTracker;
+import com.example.payment.application.deadline.RequestDeadline;
 import com.example.payment.application.event.FinalCompensationEvent;
 import com.example.payment.application.event.SecondCompensationEvent;
 import com.example.payment.application.event.FirstCompensationEvent;
 import com.example.payment.application.exception.BusinessException;
+import com.example.payment.application.exception.CapacityExceededException;
+import com.example.payment.application.exception.DeadlineExceededException;
 import com.example.payment.application.orchestration.impl.PaymentApprove3Phase;
+import com.example.payment.application.outbox.CompensationOutboxWriter;
+import com.example.payment.application.seat.SoldOutCache;
+import com.example.payment.application.service.BatchSeatReservation;
 import com.example.payment.application.service.EnrollmentService;
+import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.repository.PaymentRepository;
+import com.example.payment.web.controller.dto.PaymentBatchResult;
 import com.example.payment.web.controller.dto.PaymentRequest;
+import com.example.payment.web.external.PgCallGuard;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,6 +42,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +54,21 @@ class PaymentApproveOrchestrationTest {
 	@Mock
 	private ApplicationEventPublisher eventPublisher;
 
+	@Mock
+	private SoldOutCache soldOutCache;
+
+	@Mock
+	private PgCallGuard pgCallGuard;
+
+	@Mock
+	private PaymentDeadlineTracker deadlineTracker;
+
+	@Mock
+	private PaymentRepository paymentRepository;
+
+	@Mock
+	private ObjectProvider<CompensationOutboxWriter> compensationOutboxWriter;
+
 	@InjectMocks
 	private PaymentApprove3Phase orchestration;
 
@@ -64,9 +96,13 @@ class PaymentApproveOrchestrationTest {
 		// 각 단계가 한 번씩 호출되었는지 검증
 		verify(enrollmentService, times(1)).enrollmentCountTryIncrement(lectureId, userId);
 		verify(enrollmentService, times(1)).processPayment(paymentRequest);
-		verify(enrollmentService, times(1)).finalizeEnrollment(lectureId, userId);
+		verify(enrollmentService, times(1)).finalizeEnrollment(paymentRequest);
 		// 보상 이벤트는 발행되지 않아야 함
 		verify(eventPublisher, never()).publishEvent(any());
+		// 단계마다 기한을 등록하고, 완료되면 해제해야 함
+		verify(deadlineTracker).track(paymentRequest, PaymentStatus.COUNT_UPDATED);
+		verify(deadlineTracker).track(paymentRequest, PaymentStatus.PAYMENT_PROCESSED);
+		verify(deadlineTracker).untrack(paymentRequest);
 	}
 
 	/**
@@ -85,7 +121,7 @@ class PaymentApproveOrchestrationTest {
 		// 트랜잭션1 실패이므로 다른 단계는 호출되지 않아야 함
 		verify(enrollmentService, times(1)).enrollmentCountTryIncrement(lectureId, userId);
 		verify(enrollmentService, never()).processPayment(any());
-		verify(enrollmentService, never()).finalizeEnrollment(anyLong(), anyLong());
+		verify(enrollmentService, never()).finalizeEnrollment(any(PaymentRequest.class));
 
 		// 보상 이벤트 발행 검증
 		ArgumentCaptor<FirstCompensationEvent> eventCaptor = ArgumentCaptor.forClass(
@@ -97,6 +133,28 @@ class PaymentApproveOrchestrationTest {
 		assertTrue(publishedEvent.getReason().contains("동시성 제어 실패"));
 	}
 
+	/**
+	 * PG 회로가 열려 있으면 트랜잭션 2를 시작하지 않고 바로
+	 * SecondCompensationEvent 를 발행하고 BusinessException 이 발생해야 합니다.
+	 */
+	@Test
+	void testEnrollLecture_pgCircuitOpenFailsFast() {
+		when(pgCallGuard.isOpen()).thenReturn(true);
+
+		BusinessException ex = assertThrows(BusinessException.class,
+			() -> orchestration.approve(paymentRequest));
+
+		assertTrue(ex.getMessage().contains("PG 결제 실패"));
+		verify(enrollmentService, times(1)).enrollmentCountTryIncrement(lectureId, userId);
+		verify(enrollmentService, never()).processPayment(any());
+		verify(enrollmentService, never()).finalizeEnrollment(any(PaymentRequest.class));
+
+		ArgumentCaptor<SecondCompensationEvent> eventCaptor = ArgumentCaptor.forClass(SecondCompensationEvent.class);
+		verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+		assertEquals(lectureId, eventCaptor.getValue().getLectureId());
+		assertEquals(userId, eventCaptor.getValue().getUserId());
+	}
+
 	/**
 	 * 트랜잭션 2(PG API 호출) 실패 시,
 	 * PaymentCancellationEvent가 발행되고 BusinessException이 발생해야 합니다.
@@ -115,7 +173,7 @@ class PaymentApproveOrchestrationTest {
 		assertTrue(ex.getMessage().contains("PG 결제 실패"));
 		verify(enrollmentService, times(1)).enrollmentCountTryIncrement(lectureId, userId);
 		verify(enrollmentService, times(1)).processPayment(paymentRequest);
-		verify(enrollmentService, never()).finalizeEnrollment(anyLong(), anyLong());
+		verify(enrollmentService, never()).finalizeEnrollment(any(PaymentRequest.class));
 
 		// PaymentCancellationEvent가 발행되었는지 검증
 		ArgumentCaptor<SecondCompensationEvent> eventCaptor = ArgumentCaptor.forClass(
@@ -138,7 +196,7 @@ class PaymentApproveOrchestrationTest {
 		doNothing().when(enrollmentService).processPayment(paymentRequest);
 		// 트랜잭션 3에서 예외 발생
 		doThrow(new BusinessException("최종 결제 반영 실패"))
-			.when(enrollmentService).finalizeEnrollment(lectureId, userId);
+			.when(enrollmentService).finalizeEnrollment(paymentRequest);
 
 		BusinessException ex = assertThrows(BusinessException.class,
 			() -> orchestration.approve(paymentRequest));
@@ -146,7 +204,7 @@ class PaymentApproveOrchestrationTest {
 		assertTrue(ex.getMessage().contains("최종 결제 반영 실패"));
 		verify(enrollmentService, times(1)).enrollmentCountTryIncrement(lectureId, userId);
 		verify(enrollmentService, times(1)).processPayment(paymentRequest);
-		verify(enrollmentService, times(1)).finalizeEnrollment(lectureId, userId);
+		verify(enrollmentService, times(1)).finalizeEnrollment(paymentRequest);
 
 		// FinalizationCompensationEvent가 발행되었는지 검증
 		ArgumentCaptor<FinalCompensationEvent> eventCaptor = ArgumentCaptor.forClass(
@@ -157,4 +215,182 @@ class PaymentApproveOrchestrationTest {
 		assertEquals(userId, publishedEvent.getUserId());
 		assertTrue(publishedEvent.getReason().contains("최종 결제 DB 반영 실패"));
 	}
+
+	/**
+	 * 매진 캐시에 기록된 강의는 트랜잭션 1을 호출하지 않고 바로 실패해야 하며,
+	 * Payment 를 EXCEEDS_CAPACITY 로 정리하기 위한 FirstCompensationEvent 는 발행되어야 합니다.
+	 */
+	@Test
+	void testEnrollLecture_soldOutShortCircuit() {
+		when(soldOutCache.isSoldOut(lectureId)).thenReturn(true);
+
+		BusinessException ex = assertThrows(BusinessException.class,
+			() -> orchestration.approve(paymentRequest));
+
+		assertTrue(ex.getMessage().contains("동시성 제어 실패"));
+		verify(enrollmentService, never()).enrollmentCountTryIncrement(anyLong(), anyLong());
+		verify(eventPublisher, times(1)).publishEvent(any(FirstCompensationEvent.class));
+	}
+
+	/**
+	 * 트랜잭션 1이 정원 초과로 실패하면 해당 강의를 매진으로 기록해야 합니다.
+	 */
+	@Test
+	void testEnrollLecture_capacityExceededMarksSoldOut() {
+		doThrow(new CapacityExceededException("수강 인원이 모두 찼습니다."))
+			.when(enrollmentService).enrollmentCountTryIncrement(lectureId, userId);
+
+		assertThrows(BusinessException.class, () -> orchestration.approve(paymentRequest));
+
+		verify(soldOutCache, times(1)).markSoldOut(lectureId);
+	}
+
+	/**
+	 * 정원 초과가 아닌 실패(상태 업데이트 실패 등)는 매진으로 기록하지 않아야 합니다.
+	 */
+	@Test
+	void testEnrollLecture_otherStep1FailureDoesNotMarkSoldOut() {
+		doThrow(new BusinessException("Payment 상태 업데이트 실패(CREATED -> COUNT_UPDATED)."))
+			.when(enrollmentService).enrollmentCountTryIncrement(lectureId, userId);
+
+		assertThrows(BusinessException.class, () -> orchestration.approve(paymentRequest));
+
+		verify(soldOutCache, never()).markSoldOut(any());
+	}
+
+	/**
+	 * 일괄 승인: 강의당 트랜잭션 1은 한 번만 실행하고, 좌석을 확보한 요청만 트랜잭션 2, 3을 진행해야 합니다.
+	 * 정원이 부족한 요청은 FirstCompensationEvent 를 발행하고 결과는 요청 순서대로 반환합니다.
+	 */
+	@Test
+	void testApproveBatch_partialFill() {
+		PaymentRequest second = request(lectureId, 101L);
+		PaymentRequest third = request(lectureId, 102L);
+		when(enrollmentService.enrollmentCountTryIncrementBatch(lectureId, List.of(userId, 101L, 102L)))
+			.thenReturn(new BatchSeatReservation(List.of(userId, 101L), List.of(102L)));
+
+		List<PaymentBatchResult> results = orchestration.approveBatch(List.of(paymentRequest, second, third));
+
+		assertEquals(List.of(true, true, false), results.stream().map(PaymentBatchResult::isSuccess).toList());
+		assertEquals(102L, results.get(2).getUserId());
+		verify(enrollmentService, never()).enrollmentCountTryIncrement(anyLong(), anyLong());
+		verify(enrollmentService, times(2)).processPayment(any(PaymentRequest.class));
+		verify(enrollmentService, never()).processPayment(third);
+		verify(soldOutCache, times(1)).markSoldOut(lectureId);
+		verify(eventPublisher, times(1)).publishEvent(any(FirstCompensationEvent.class));
+	}
+
+	/**
+	 * 일괄 트랜잭션 1 자체가 실패하면 건별 트랜잭션 1로 대체해야 합니다.
+	 */
+	@Test
+	void testApproveBatch_fallsBackToSingleReservation() {
+		PaymentRequest second = request(lectureId, 101L);
+		doThrow(new BusinessException("Payment 일괄 상태 업데이트 실패(CREATED -> COUNT_UPDATED)."))
+			.when(enrollmentService).enrollmentCountTryIncrementBatch(lectureId, List.of(userId, 101L));
+		doThrow(new BusinessException("Payment 상태 업데이트 실패(CREATED -> COUNT_UPDATED)."))
+			.when(enrollmentService).enrollmentCountTryIncrement(lectureId, 101L);
+
+		List<PaymentBatchResult> results = orchestration.approveBatch(List.of(paymentRequest, second));
+
+		assertTrue(results.get(0).isSuccess());
+		assertFalse(results.get(1).isSuccess());
+		verify(enrollmentService, times(1)).finalizeEnrollment(paymentRequest);
+		verify(enrollmentService, never()).finalizeEnrollment(second);
+	}
+
+	/**
+	 * 같은 사용자의 중복 요청은 보상 이벤트 없이 실패로만 기록해야 합니다.
+	 */
+	@Test
+	void testApproveBatch_duplicateRequest() {
+		PaymentRequest duplicate = request(lectureId, userId);
+		when(enrollmentService.enrollmentCountTryIncrementBatch(lectureId, List.of(userId)))
+			.thenReturn(new BatchSeatReservation(List.of(userId), List.of()));
+
+		List<PaymentBatchResult> results = orchestration.approveBatch(List.of(paymentRequest, duplicate));
+
+		assertTrue(results.get(0).isSuccess());
+		assertFalse(results.get(1).isSuccess());
+		verify(enrollmentService, times(1)).processPayment(any(PaymentRequest.class));
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
+	/**
+	 * 요청 기한이 지났으면 PG 를 호출하지 않고 바로 SecondCompensationEvent 를 발행해야 합니다.
+	 */
+	@Test
+	void testEnrollLecture_deadlineExpiredBeforePayment() {
+		paymentRequest.setDeadline(RequestDeadline.after(0));
+
+		BusinessException ex = assertThrows(DeadlineExceededException.class,
+			() -> orchestration.approve(paymentRequest));
+
+		assertTrue(ex.getMessage().contains("요청 기한"));
+		verify(enrollmentService, never()).processPayment(any());
+		verify(enrollmentService, never()).finalizeEnrollment(any(PaymentRequest.class));
+		verify(eventPublisher, times(1)).publishEvent(any(SecondCompensationEvent.class));
+		verify(deadlineTracker).untrack(paymentRequest);
+	}
+
+	/**
+	 * PG 승인 중 요청 기한이 지나면 트랜잭션 3을 진행하지 않고 FinalCompensationEvent(PG 취소)를 발행해야 합니다.
+	 */
+	@Test
+	void testEnrollLecture_deadlineExpiredDuringPayment() {
+		paymentRequest.setDeadline(RequestDeadline.after(60_000));
+		doAnswer(invocation -> {
+			paymentRequest.setDeadline(RequestDeadline.after(0));
+			return null;
+		}).when(enrollmentService).processPayment(paymentRequest);
+
+		assertThrows(DeadlineExceededException.class, () -> orchestration.approve(paymentRequest));
+
+		verify(enrollmentService, never()).finalizeEnrollment(any(PaymentRequest.class));
+		ArgumentCaptor<FinalCompensationEvent> eventCaptor = ArgumentCaptor.forClass(FinalCompensationEvent.class);
+		verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+		assertEquals(userId, eventCaptor.getValue().getUserId());
+		assertTrue(eventCaptor.getValue().getReason().contains("요청 기한"));
+	}
+
+	/**
+	 * 비동기 승인: 트랜잭션 1 후 좌석을 확보한 결제의 ID 를 핸들로 반환하고 요청에도 기록해야 합니다.
+	 */
+	@Test
+	void testReserveSeatForHandle_returnsPaymentId() {
+		Payment payment = new Payment();
+		payment.setId(10L);
+		when(paymentRepository.findByLectureIdAndUserIdAndStatus(lectureId, userId, PaymentStatus.COUNT_UPDATED))
+			.thenReturn(payment);
+
+		assertEquals(10L, orchestration.reserveSeatForHandle(paymentRequest));
+
+		assertEquals(10L, paymentRequest.getPaymentId());
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
+	/**
+	 * 좌석을 확보한 결제를 찾지 못하면 커밋된 좌석을 반환하도록 SecondCompensationEvent 를 발행하고 기한을 해제해야 합니다.
+	 */
+	@Test
+	void testReserveSeatForHandle_paymentNotFoundReleasesSeat() {
+		when(paymentRepository.findByLectureIdAndUserIdAndStatus(lectureId, userId, PaymentStatus.COUNT_UPDATED))
+			.thenReturn(null);
+
+		assertThrows(BusinessException.class, () -> orchestration.reserveSeatForHandle(paymentRequest));
+
+		verify(deadlineTracker).track(paymentRequest, PaymentStatus.COUNT_UPDATED);
+		verify(deadlineTracker).untrack(paymentRequest);
+		ArgumentCaptor<SecondCompensationEvent> eventCaptor = ArgumentCaptor.forClass(SecondCompensationEvent.class);
+		verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+		assertEquals(lectureId, eventCaptor.getValue().getLectureId());
+		assertEquals(userId, eventCaptor.getValue().getUserId());
+	}
+
+	private PaymentRequest request(Long lectureId, Long userId) {
+		PaymentRequest request = new PaymentRequest();
+		request.setLectureId(lectureId);
+		request.setUserId(userId);
+		return request;
+	}
 }
@@ -0,0 +1,188 @@
+package com.example.payment.application.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.payment.application.event.FinalCompensationEvent;
+import com.example.payment.application.event.FirstCompensationEvent;
+import com.example.payment.application.event.SecondCompensationEvent;
+import com.example.payment.application.service.CompensationRetryScheduler;
+import com.example.payment.application.service.CompensationService;
+import com.example.payment.entity.CompensationOutbox;
+import com.example.payment.repository.CompensationOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class CompensationOutboxRelayTest {
+
+	private final CompensationOutboxRepository compensationOutboxRepository = mock(CompensationOutboxRepository.class);
+	private final CompensationService compensationService = mock(CompensationService.class);
+	private final CompensationRetryScheduler compensationRetryScheduler = mock(CompensationRetryScheduler.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private CompensationOutboxRelay relay;
+
+	@BeforeEach
+	void setUp() {
+		when(compensationRetryScheduler.getMaxAttempts()).thenReturn(3);
+		when(compensationRetryScheduler.nextDelayMillis()).thenReturn(1000L);
+		when(compensationOutboxRepository.extendLease(anyLong(), anyInt(), any(LocalDateTime.class))).thenReturn(1);
+		relay = new CompensationOutboxRelay(compensationOutboxRepository, compensationService, compensationRetryScheduler,
+			mock(PlatformTransactionManager.class), meterRegistry, 2, 60, true, 5000);
+	}
+
+	private CompensationOutbox outbox(long id, CompensationOutbox.Type type) {
+		CompensationOutbox outbox = new CompensationOutbox();
+		outbox.setId(id);
+		outbox.setType(type);
+		outbox.setPaymentId(id * 10);
+		outbox.setLectureId(1L);
+		outbox.setUserId(100L + id);
+		outbox.setReason("reason");
+		outbox.setCreatedAt(LocalDateTime.now());
+		outbox.setAvailableAt(LocalDateTime.now());
+		return outbox;
+	}
+
+	// 가져간 이벤트는 종류별 보상으로 전달되고, 성공하면 삭제되어야 함. 배치가 가득 차면 다음 배치를 이어서 가져와야 함
+	@Test
+	void testDrain_dispatchesByTypeAndDeletes() {
+		CompensationOutbox first = outbox(1L, CompensationOutbox.Type.FIRST);
+		CompensationOutbox second = outbox(2L, CompensationOutbox.Type.SECOND);
+		CompensationOutbox fin = outbox(3L, CompensationOutbox.Type.FINAL);
+		when(compensationOutboxRepository.findClaimable(any(LocalDateTime.class), any(Limit.class)))
+			.thenReturn(List.of(first, second), List.of(fin));
+
+		relay.drain();
+
+		verify(compensationService).firstCompensationProcess(
+			argThat((FirstCompensationEvent e) -> e.getPaymentId().equals(10L) && e.getUserId().equals(101L)));
+		verify(compensationService).secondCompensationProcess(any(SecondCompensationEvent.class));
+		verify(compensationService).finalCompensationProcess(
+			argThat((FinalCompensationEvent e) -> e.getPaymentId().equals(30L)));
+		verify(compensationOutboxRepository).deleteById(1L);
+		verify(compensationOutboxRepository).deleteById(2L);
+		verify(compensationOutboxRepository).deleteById(3L);
+		assertEquals(3.0, meterRegistry.get("payment.compensation.outbox.drained").counter().count());
+	}
+
+	// 가져갈 때 lease 만큼 availableAt 을 미루고 시도 횟수를 올려야 함
+	@Test
+	void testClaim_setsLease() {
+		CompensationOutbox first = outbox(1L, CompensationOutbox.Type.FIRST);
+		LocalDateTime before = LocalDateTime.now();
+		when(compensationOutboxRepository.findClaimable(any(LocalDateTime.class), any(Limit.class)))
+			.thenReturn(List.of(first));
+
+		relay.claim();
+
+		assertEquals(1, first.getAttempts());
+		assertTrue(first.getAvailableAt().isAfter(before.plusSeconds(59)));
+	}
+
+	// 처리 직전에 lease 를 연장하고, 그사이 다른 노드가 다시 가져간 행(연장 0건)은 처리하지 않아야 함
+	@Test
+	void testDrain_skipsRowTakenOverByAnotherRelay() {
+		CompensationOutbox first = outbox(1L, CompensationOutbox.Type.FIRST);
+		CompensationOutbox second = outbox(2L, CompensationOutbox.Type.SECOND);
+		when(compensationOutboxRepository.findClaimable(any(LocalDateTime.class), any(Limit.class)))
+			.thenReturn(List.of(first, second), List.of());
+		when(compensationOutboxRepository.extendLease(eq(2L), eq(1), any(LocalDateTime.class))).thenReturn(0);
+
+		relay.drain();
+
+		verify(compensationOutboxRepository).extendLease(eq(1L), eq(1), any(LocalDateTime.class));
+		verify(compensationService).firstCompensationProcess(any(FirstCompensationEvent.class));
+		verify(compensationOutboxRepository).deleteById(1L);
+		verify(compensationService, never()).secondCompensationProcess(any(SecondCompensationEvent.class));
+		verify(compensationOutboxRepository, never()).deleteById(2L);
+	}
+
+	// 보상이 실패하면 행을 남기고 재시도 지연만큼 availableAt 을 미뤄야 함
+	@Test
+	void testDrain_failureReschedulesRow() {
+		CompensationOutbox first = outbox(1L, CompensationOutbox.Type.FIRST);
+		when(compensationOutboxRepository.findClaimable(any(LocalDateTime.class), any(Limit.class)))
+			.thenReturn(List.of(first));
+		doThrow(new RuntimeException("DB down"))
+			.when(compensationService).firstCompensationProcess(any(FirstCompensationEvent.class));
+
+		relay.drain();
+
+		verify(compensationOutboxRepository, never()).deleteById(1L);
+		verify(compensationOutboxRepository).save(first);
+		assertTrue(first.getAvailableAt().isBefore(LocalDateTime.now().plusSeconds(2)));
+		verify(compensationService, never()).recoverFirstCompensationProcess(any(Exception.class), any(FirstCompensationEvent.class));
+		assertEquals(1.0, meterRegistry.get("payment.compensation.outbox.failed").counter().count());
+	}
+
+	// 시도 횟수를 다 쓰면 recover(최종 실패 처리) 후 행을 삭제해야 함
+	@Test
+	void testDrain_exhaustedAttemptsRecovers() {
+		CompensationOutbox second = outbox(2L, CompensationOutbox.Type.SECOND);
+		second.setAttempts(2);
+		when(compensationOutboxRepository.findClaimable(any(LocalDateTime.class), any(Limit.class)))
+			.thenReturn(List.of(second));
+		RuntimeException failure = new RuntimeException("PG down");
+		doThrow(failure)
+			.when(compensationService).secondCompensationProcess(any(SecondCompensationEvent.class));
+
+		relay.drain();
+
+		verify(compensationService).recoverSecondCompensationProcess(
+			eq(failure), argThat((SecondCompensationEvent e) -> e.getPaymentId().equals(20L)));
+		verify(compensationOutboxRepository).deleteById(2L);
+	}
+
+	// 아웃박스 모드가 꺼져 있고 테이블이 비어 있으면 idle-poll-interval-ms 동안 조회를 건너뛰어야 함
+	@Test
+	void testDrain_backsOffWhenDisabledAndEmpty() {
+		CompensationOutboxRelay overflowRelay = new CompensationOutboxRelay(compensationOutboxRepository,
+			compensationService, compensationRetryScheduler, mock(PlatformTransactionManager.class),
+			new SimpleMeterRegistry(), 2, 60, false, 60_000);
+		when(compensationOutboxRepository.findClaimable(any(LocalDateTime.class), any(Limit.class)))
+			.thenReturn(List.of());
+
+		overflowRelay.drain();
+		overflowRelay.drain();
+
+		verify(compensationOutboxRepository, times(1)).findClaimable(any(LocalDateTime.class), any(Limit.class));
+		verify(compensationOutboxRepository, times(1)).count();
+
+		// 아웃박스 모드에서는 비어 있어도 매번 조회
+		relay.drain();
+		relay.drain();
+
+		verify(compensationOutboxRepository, times(3)).findClaimable(any(LocalDateTime.class), any(Limit.class));
+	}
+
+	// 적체 수와 가장 오래된 이벤트의 지연이 지표로 노출되어야 함
+	@Test
+	void testDrain_reportsBacklogAndLag() {
+		when(compensationOutboxRepository.findClaimable(any(LocalDateTime.class), any(Limit.class)))
+			.thenReturn(List.of());
+		when(compensationOutboxRepository.count()).thenReturn(5L);
+		when(compensationOutboxRepository.findOldestCreatedAt()).thenReturn(LocalDateTime.now().minusSeconds(30));
+
+		relay.drain();
+
+		assertEquals(5.0, meterRegistry.get("payment.compensation.outbox.backlog").gauge().value());
+		double lag = meterRegistry.get("payment.compensation.outbox.lag").gauge().value();
+		assertTrue(lag >= 29 && lag < 60);
+	}
+}
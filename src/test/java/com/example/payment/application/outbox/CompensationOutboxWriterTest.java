@@ -0,0 +1,81 @@
+package com.example.payment.application.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.payment.application.event.SecondCompensationEvent;
+import com.example.payment.entity.CompensationOutbox;
+import com.example.payment.repository.CompensationOutboxRepository;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class CompensationOutboxWriterTest {
+
+	private final CompensationOutboxRepository compensationOutboxRepository = mock(CompensationOutboxRepository.class);
+	private CompensationOutboxWriter writer;
+	private PaymentRequest paymentRequest;
+
+	@BeforeEach
+	void setUp() {
+		writer = new CompensationOutboxWriter(compensationOutboxRepository, 600_000, 120_000);
+		paymentRequest = new PaymentRequest();
+		paymentRequest.setLectureId(1L);
+		paymentRequest.setUserId(100L);
+	}
+
+	// 단계 시작 전에 기록한 행은 guard-ms 가 지나야 가져갈 수 있어야 함
+	@Test
+	void testGuard_savesDeferredRow() {
+		LocalDateTime before = LocalDateTime.now();
+
+		writer.guard(CompensationOutbox.Type.SECOND, paymentRequest);
+
+		ArgumentCaptor<CompensationOutbox> captor = ArgumentCaptor.forClass(CompensationOutbox.class);
+		verify(compensationOutboxRepository).save(captor.capture());
+		assertEquals(CompensationOutbox.Type.SECOND, captor.getValue().getType());
+		assertTrue(captor.getValue().getAvailableAt().isAfter(before.plusSeconds(599)));
+	}
+
+	// 단계가 실패하면 미리 기록한 행을 바로 처리 가능하게 바꾸고, 새 행은 만들지 않아야 함
+	@Test
+	void testCompensation_reusesGuardRow() {
+		CompensationOutbox guard = CompensationOutbox.of(CompensationOutbox.Type.SECOND, null, 1L, 100L, "guard");
+		guard.setAvailableAt(LocalDateTime.now().plusMinutes(10));
+		when(compensationOutboxRepository.findGuards(eq(CompensationOutbox.Type.SECOND), eq(1L), eq(100L),
+			any(LocalDateTime.class))).thenReturn(List.of(guard));
+
+		writer.secondPhaseCompensation(new SecondCompensationEvent(this, 10L, 1L, 100L, "PG 결제 실패"));
+
+		verify(compensationOutboxRepository).save(guard);
+		assertEquals(10L, guard.getPaymentId());
+		assertEquals("PG 결제 실패", guard.getReason());
+		assertTrue(!guard.getAvailableAt().isAfter(LocalDateTime.now()));
+	}
+
+	// 미리 기록한 행이 없으면(단계 시작 전 실패) 새로 기록해야 함
+	@Test
+	void testCompensation_savesNewRowWithoutGuard() {
+		when(compensationOutboxRepository.findGuards(any(), any(), any(), any(LocalDateTime.class))).thenReturn(List.of());
+
+		writer.secondPhaseCompensation(new SecondCompensationEvent(this, 10L, 1L, 100L, "PG 결제 실패"));
+
+		verify(compensationOutboxRepository).save(any(CompensationOutbox.class));
+	}
+
+	// guard-ms 가 한 단계의 최대 시간보다 짧으면 진행 중인 단계를 보상할 수 있으므로 시작에 실패해야 함
+	@Test
+	void testConstructor_rejectsShortGuard() {
+		assertThrows(IllegalStateException.class,
+			() -> new CompensationOutboxWriter(compensationOutboxRepository, 60_000, 120_000));
+	}
+}
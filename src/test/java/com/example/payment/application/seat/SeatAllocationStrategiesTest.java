@@ -0,0 +1,86 @@
+package com.example.payment.application.seat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class SeatAllocationStrategiesTest {
+
+	private final SeatAllocationStrategy conditional = strategy(SeatAllocationMode.CONDITIONAL_UPDATE);
+	private final SeatAllocationStrategy pessimistic = strategy(SeatAllocationMode.PESSIMISTIC_LOCK);
+	private final SeatAllocationStrategy optimistic = strategy(SeatAllocationMode.OPTIMISTIC);
+	private final SeatAllocationStrategy inMemory = strategy(SeatAllocationMode.IN_MEMORY);
+
+	// 강의별 지정이 있으면 그 방식을, 없으면 전역 기본값을 써야 함
+	@Test
+	void testForLecture_perLectureOverridesDefault() {
+		SeatAllocationStrategies strategies = new SeatAllocationStrategies(
+			List.of(conditional, pessimistic, optimistic), ledger(false), "pessimistic-lock", "101=optimistic, 102=conditional-update");
+
+		assertSame(optimistic, strategies.forLecture(101L));
+		assertSame(conditional, strategies.forLecture(102L));
+		assertSame(pessimistic, strategies.forLecture(1L));
+	}
+
+	// 기본값이 비어 있으면 좌석 장부 사용 여부에 따라 in-memory / conditional-update 를 써야 함
+	@Test
+	void testDefaultMode_followsSeatLedger() {
+		List<SeatAllocationStrategy> all = List.of(conditional, inMemory);
+
+		assertSame(conditional, new SeatAllocationStrategies(all, ledger(false), "", "").forLecture(1L));
+		assertSame(inMemory, new SeatAllocationStrategies(all, ledger(true), "", "").forLecture(1L));
+	}
+
+	// 좌석 장부 없이 in-memory 를 지정하거나 잘못된 값이면 시작 시 실패해야 함
+	@Test
+	void testInvalidConfiguration() {
+		List<SeatAllocationStrategy> all = List.of(conditional, inMemory);
+
+		assertThrows(IllegalStateException.class,
+			() -> new SeatAllocationStrategies(all, ledger(false), "", "7=in-memory"));
+		assertThrows(IllegalArgumentException.class,
+			() -> new SeatAllocationStrategies(all, ledger(false), "fastest", ""));
+		assertThrows(IllegalArgumentException.class,
+			() -> new SeatAllocationStrategies(all, ledger(false), "", "7"));
+	}
+
+	// 설정에서 쓰는 방식만 시작 시 activate() 되어야 함 (leased 의 임대 연장/회수 작업 등)
+	@Test
+	void testActivate_onlyConfiguredModes() {
+		SeatAllocationStrategy leased = strategy(SeatAllocationMode.LEASED);
+
+		new SeatAllocationStrategies(List.of(conditional, optimistic, leased), ledger(false), "", "");
+		verify(leased, never()).activate();
+
+		new SeatAllocationStrategies(List.of(conditional, optimistic, leased), ledger(false), "", "101=leased");
+		verify(leased).activate();
+		verify(conditional, times(2)).activate();
+		verify(optimistic, never()).activate();
+	}
+
+	@Test
+	void testParseLectureModes() {
+		assertEquals(Map.of(1L, SeatAllocationMode.NAMED_LOCK, 2L, SeatAllocationMode.OPTIMISTIC),
+			SeatAllocationStrategies.parseLectureModes("1=named-lock,,2=OPTIMISTIC"));
+		assertEquals(Map.of(), SeatAllocationStrategies.parseLectureModes(" "));
+	}
+
+	private static SeatAllocationStrategy strategy(SeatAllocationMode mode) {
+		SeatAllocationStrategy strategy = mock(SeatAllocationStrategy.class);
+		when(strategy.mode()).thenReturn(mode);
+		return strategy;
+	}
+
+	private static SeatLedger ledger(boolean enabled) {
+		return new SeatLedger(null, null, enabled);
+	}
+}
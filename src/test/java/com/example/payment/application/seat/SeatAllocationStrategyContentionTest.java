@@ -0,0 +1,139 @@
+package com.example.payment.application.seat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.payment.application.exception.SeatAllocationConflictException;
+import com.example.payment.entity.id.TsidFactory;
+import com.example.payment.support.EmbeddedMariaDb;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class SeatAllocationStrategyContentionTest {
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		EmbeddedMariaDb.shared().springProperties().forEach((key, value) -> registry.add(key, () -> value));
+	}
+
+	@Autowired
+	private List<SeatAllocationStrategy> strategies;
+
+	@Autowired
+	private SeatLeaseManager seatLeaseManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final Long lectureId = 1L;
+
+	@BeforeEach
+	void setUp() {
+		seatLeaseManager.returnLease(lectureId);
+		jdbcTemplate.update("DELETE FROM seat_lease");
+		jdbcTemplate.update("DELETE FROM enrollment_count_bucket");
+		jdbcTemplate.update("DELETE FROM enrollment_count");
+	}
+
+	// DB 를 쓰는 모든 방식은 동시 요청에도 정원을 넘지 않고, 성공한 확보 수와 수강 인원이 같아야 함
+	@Test
+	void testConcurrentAllocation_neverOversells() throws Exception {
+		for (SeatAllocationStrategy strategy : strategies) {
+			if (strategy.mode() == SeatAllocationMode.IN_MEMORY) {
+				continue;
+			}
+			setUp();
+			insertLecture(20);
+
+			AtomicInteger allocated = new AtomicInteger();
+			AtomicInteger conflicts = new AtomicInteger();
+			ExecutorService executor = Executors.newFixedThreadPool(8);
+			for (int i = 0; i < 40; i++) {
+				executor.submit(() -> {
+					try {
+						if (Boolean.TRUE.equals(transactionTemplate.execute(status -> strategy.tryAllocate(lectureId)))) {
+							allocated.incrementAndGet();
+						}
+					} catch (SeatAllocationConflictException e) {
+						conflicts.incrementAndGet();
+					}
+				});
+			}
+			executor.shutdown();
+			assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+			// 임대 방식은 남은 임대 좌석을 반환한 뒤 비교
+			seatLeaseManager.returnLease(lectureId);
+
+			assertThat(currentCount()).as(strategy.mode().getValue()).isEqualTo(allocated.get());
+			assertThat(allocated.get()).as(strategy.mode().getValue()).isLessThanOrEqualTo(20);
+			if (strategy.mode() != SeatAllocationMode.OPTIMISTIC) {
+				// 충돌로 포기하지 않는 방식은 정원을 모두 채워야 함
+				assertThat(allocated.get()).as(strategy.mode().getValue()).isEqualTo(20);
+			}
+		}
+	}
+
+	// 네임드 락은 트랜잭션이 롤백되어도 해제되어야 함
+	@Test
+	void testNamedLock_releasedAfterRollback() {
+		insertLecture(5);
+		SeatAllocationStrategy namedLock = strategies.stream()
+			.filter(strategy -> strategy.mode() == SeatAllocationMode.NAMED_LOCK)
+			.findFirst()
+			.orElseThrow();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			namedLock.tryAllocate(lectureId);
+			status.setRollbackOnly();
+		});
+
+		assertThat(jdbcTemplate.queryForObject("SELECT IS_FREE_LOCK(?)", Integer.class, "payment_seat_" + lectureId))
+			.isEqualTo(1);
+		assertThat(currentCount()).isZero();
+	}
+
+	// 낙관적 방식의 버전 비교는 다른 방식의 갱신(반환 포함)도 감지해야 함
+	@Test
+	void testVersionBumpedByBulkUpdates() {
+		insertLecture(5);
+		SeatAllocationStrategy conditional = strategies.stream()
+			.filter(strategy -> strategy.mode() == SeatAllocationMode.CONDITIONAL_UPDATE)
+			.findFirst()
+			.orElseThrow();
+
+		long before = version();
+		transactionTemplate.executeWithoutResult(status -> conditional.tryAllocate(lectureId));
+		transactionTemplate.executeWithoutResult(status -> conditional.release(lectureId));
+
+		assertThat(version()).isEqualTo(before + 2);
+	}
+
+	private void insertLecture(int capacity) {
+		jdbcTemplate.update("INSERT INTO enrollment_count (id, lecture_id, current_count, capacity) VALUES (?, ?, 0, ?)",
+			TsidFactory.global().next(), lectureId, capacity);
+	}
+
+	private int currentCount() {
+		return jdbcTemplate.queryForObject("SELECT current_count FROM enrollment_count WHERE lecture_id = ?",
+			Integer.class, lectureId);
+	}
+
+	private long version() {
+		return jdbcTemplate.queryForObject("SELECT version FROM enrollment_count WHERE lecture_id = ?",
+			Long.class, lectureId);
+	}
+}
@@ -0,0 +1,239 @@
+package com.example.payment.application.seat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.payment.application.exception.SeatAllocationConflictException;
+import com.example.payment.entity.id.TsidFactory;
+import com.example.payment.repository.EnrollmentCountRepository;
+import com.example.payment.repository.SeatLeaseRepository;
+import com.example.payment.support.EmbeddedMariaDb;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class SeatLeaseManagerTest {
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		EmbeddedMariaDb.shared().springProperties().forEach((key, value) -> registry.add(key, () -> value));
+	}
+
+	@Autowired
+	private SeatLeaseRepository seatLeaseRepository;
+
+	@Autowired
+	private EnrollmentCountRepository enrollmentCountRepository;
+
+	@Autowired
+	private SoldOutCache soldOutCache;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final Long lectureId = 7L;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM seat_lease");
+		jdbcTemplate.update("DELETE FROM enrollment_count_bucket");
+		jdbcTemplate.update("DELETE FROM enrollment_count");
+	}
+
+	// 좌석 묶음을 한 번 임대한 뒤 로컬에서 배분하고, 반환하면 판매한 좌석만 수강 인원에 남아야 함
+	@Test
+	void testLeaseOnce_thenReturnUnused() {
+		insertLecture(100);
+		SeatLeaseManager node = node("node-a");
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(allocate(node, 1)).isEqualTo(1);
+		}
+
+		assertThat(currentCount()).isEqualTo(20);
+		assertThat(jdbcTemplate.queryForObject("SELECT used FROM seat_lease WHERE node_id = 'node-a'", Integer.class))
+			.isEqualTo(5);
+
+		assertThat(node.returnLease(lectureId)).isEqualTo(15);
+		assertThat(currentCount()).isEqualTo(5);
+		assertThat(leaseRows()).isZero();
+	}
+
+	// 롤백된 판매의 좌석은 다시 배분되어야 함
+	@Test
+	void testRollback_returnsSeatToLease() {
+		insertLecture(2);
+		SeatLeaseManager node = node("node-a");
+
+		transactionTemplate.executeWithoutResult(status -> {
+			node.allocate(lectureId, 1);
+			status.setRollbackOnly();
+		});
+
+		assertThat(allocate(node, 2)).isEqualTo(2);
+		assertThat(allocate(node, 1)).isZero();
+		node.returnLease(lectureId);
+		assertThat(currentCount()).isEqualTo(2);
+	}
+
+	// 여러 노드가 동시에 팔아도 정원을 넘지 않고, 반환 후 수강 인원이 판매 수와 같아야 함
+	@Test
+	void testTwoNodes_neverOversell() throws Exception {
+		insertLecture(30);
+		List<SeatLeaseManager> nodes = List.of(node("node-a"), node("node-b"));
+
+		AtomicInteger allocated = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 80; i++) {
+			SeatLeaseManager node = nodes.get(i % nodes.size());
+			executor.submit(() -> allocated.addAndGet(allocateWithRetry(node, 1)));
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+		nodes.forEach(node -> node.returnLease(lectureId));
+		assertThat(allocated.get()).isEqualTo(30);
+		assertThat(currentCount()).isEqualTo(30);
+	}
+
+	// 판매 막바지에는 남은 좌석을 살아 있는 노드 수로 나눈 몫까지만 임대해야 함
+	@Test
+	void testLeaseSize_cappedToShareNearEnd() {
+		insertLecture(30);
+		SeatLeaseManager first = node("node-a");
+		SeatLeaseManager second = node("node-b");
+
+		assertThat(allocate(first, 1)).isEqualTo(1);
+		assertThat(allocate(second, 1)).isEqualTo(1);
+
+		assertThat(granted("node-a")).isEqualTo(20);
+		assertThat(granted("node-b")).isEqualTo(5);
+	}
+
+	// 정원이 다른 노드에 모두 임대되어 있으면 매진으로 끝내지 않고, 그 노드의 미사용 좌석을 회수한 뒤 재시도로 팔아야 함
+	@Test
+	void testShortGrant_reclaimsUnusedSeatsOfOtherNode() {
+		insertLecture(20);
+		SeatLeaseManager first = node("node-a");
+		SeatLeaseManager second = node("node-b");
+		assertThat(allocate(first, 1)).isEqualTo(1);
+
+		assertThatThrownBy(() -> allocate(second, 1)).isInstanceOf(SeatAllocationConflictException.class);
+		assertThat(granted("node-a")).isLessThan(20);
+		assertThat(allocate(second, 1)).isEqualTo(1);
+
+		// 좌석을 회수당한 노드도 초과 판매 없이 남은 좌석을 팔고, 정원이 모두 팔리면 매진
+		int sold = 2;
+		for (int i = 0; i < 40; i++) {
+			sold += allocateWithRetry(i % 2 == 0 ? first : second, 1);
+		}
+		assertThat(sold).isEqualTo(20);
+		first.returnLease(lectureId);
+		second.returnLease(lectureId);
+		assertThat(currentCount()).isEqualTo(20);
+	}
+
+	// 죽은 노드의 임대는 남은 좌석만 반환되어야 하고, 그 노드가 되살아나도 회수된 임대로 판매하면 안 됨
+	@Test
+	void testReclaimExpiredLease() {
+		insertLecture(100);
+		SeatLeaseManager crashed = node("node-b");
+		for (int i = 0; i < 3; i++) {
+			allocate(crashed, 1);
+		}
+		jdbcTemplate.update("UPDATE seat_lease SET lease_until = ? WHERE node_id = 'node-b'",
+			LocalDateTime.now().minusHours(1));
+
+		node("node-a").reclaimExpired();
+
+		assertThat(currentCount()).isEqualTo(3);
+		assertThat(leaseRows()).isZero();
+
+		assertThatThrownBy(() -> allocate(crashed, 1)).isInstanceOf(SeatAllocationConflictException.class);
+		assertThat(allocate(crashed, 1)).isEqualTo(1);
+		crashed.returnLease(lectureId);
+		assertThat(currentCount()).isEqualTo(4);
+	}
+
+	// 임대 크기는 관찰한 판매 속도로 refill-interval 동안 팔 만큼이며 min/max 로 제한되어야 함
+	@Test
+	void testDemandRate_adaptsLeaseSize() {
+		SeatLeaseManager.DemandRate demand = new SeatLeaseManager.DemandRate();
+		assertThat(demand.nextSize(20, 5, 200, 1000)).isEqualTo(20);
+
+		demand.record(100, TimeUnit.SECONDS.toNanos(1));
+		assertThat(demand.nextSize(20, 5, 200, 1000)).isEqualTo(100);
+
+		demand.record(20, TimeUnit.SECONDS.toNanos(10));
+		assertThat(demand.nextSize(20, 5, 200, 1000)).isEqualTo(51);
+
+		demand.record(0, TimeUnit.SECONDS.toNanos(60));
+		demand.record(0, TimeUnit.SECONDS.toNanos(60));
+		demand.record(0, TimeUnit.SECONDS.toNanos(60));
+		assertThat(demand.nextSize(20, 5, 200, 1000)).isEqualTo(7);
+
+		demand.record(1000, TimeUnit.SECONDS.toNanos(1));
+		assertThat(demand.nextSize(20, 5, 200, 1000)).isEqualTo(200);
+	}
+
+	// 스케줄러를 시작하지 않은 노드 (start() 는 호출하지 않음)
+	private SeatLeaseManager node(String nodeId) {
+		return new SeatLeaseManager(seatLeaseRepository, enrollmentCountRepository, soldOutCache, transactionManager,
+			new SimpleMeterRegistry(), nodeId, 20, 5, 200, 1000, 30, 30, 10000, 60000);
+	}
+
+	private int allocate(SeatLeaseManager node, int count) {
+		return transactionTemplate.execute(status -> node.allocate(lectureId, count));
+	}
+
+	// 호출 측(EnrollmentService)처럼 경합이면 새 트랜잭션에서 재시도
+	private int allocateWithRetry(SeatLeaseManager node, int count) {
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return allocate(node, count);
+			} catch (SeatAllocationConflictException e) {
+				if (attempt >= 10) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	private int granted(String nodeId) {
+		return jdbcTemplate.queryForObject("SELECT granted FROM seat_lease WHERE node_id = ?", Integer.class, nodeId);
+	}
+
+	private void insertLecture(int capacity) {
+		jdbcTemplate.update("INSERT INTO enrollment_count (id, lecture_id, current_count, capacity) VALUES (?, ?, 0, ?)",
+			TsidFactory.global().next(), lectureId, capacity);
+	}
+
+	private int currentCount() {
+		return jdbcTemplate.queryForObject("SELECT current_count FROM enrollment_count WHERE lecture_id = ?",
+			Integer.class, lectureId);
+	}
+
+	private int leaseRows() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM seat_lease", Integer.class);
+	}
+}
@@ -0,0 +1,127 @@
+package com.example.payment.application.seat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.payment.entity.EnrollmentCount;
+import com.example.payment.repository.EnrollmentCountRepository;
+import com.example.payment.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SeatLedgerTest {
+
+	@Mock
+	private EnrollmentCountRepository enrollmentCountRepository;
+
+	@Mock
+	private PaymentRepository paymentRepository;
+
+	private SeatLedger seatLedger;
+
+	private final Long lectureId = 1L;
+
+	@BeforeEach
+	void setUp() {
+		seatLedger = new SeatLedger(enrollmentCountRepository, paymentRepository, true);
+	}
+
+	private void givenLecture(int currentCount, int capacity, long heldPayments) {
+		EnrollmentCount ec = new EnrollmentCount();
+		ec.setLectureId(lectureId);
+		ec.setCurrentCount(currentCount);
+		ec.setCapacity(capacity);
+		when(enrollmentCountRepository.findByLectureId(lectureId)).thenReturn(ec);
+		when(paymentRepository.countByLectureIdAndStatusIn(lectureId, SeatLedger.SEAT_HOLDING_STATUSES))
+			.thenReturn(heldPayments);
+	}
+
+	// 잔여 좌석까지만 예약되고, 이후 예약은 실패해야 함
+	@Test
+	void testTryReserve_untilSoldOut() {
+		givenLecture(8, 10, 8);
+
+		assertTrue(seatLedger.tryReserve(lectureId));
+		assertTrue(seatLedger.tryReserve(lectureId));
+		assertFalse(seatLedger.tryReserve(lectureId));
+		assertEquals(0, seatLedger.remaining(lectureId));
+	}
+
+	// 일괄 예약은 잔여 좌석만큼만 예약되어야 함
+	@Test
+	void testTryReserveCount_partial() {
+		givenLecture(7, 10, 7);
+
+		assertEquals(2, seatLedger.tryReserve(lectureId, 2));
+		assertEquals(1, seatLedger.tryReserve(lectureId, 5));
+		assertEquals(0, seatLedger.tryReserve(lectureId, 1));
+		assertEquals(0, seatLedger.remaining(lectureId));
+	}
+
+	// 반환된 좌석은 다시 예약 가능해야 함
+	@Test
+	void testRelease_makesSeatAvailable() {
+		givenLecture(10, 10, 10);
+
+		assertFalse(seatLedger.tryReserve(lectureId));
+		seatLedger.release(lectureId);
+		assertTrue(seatLedger.tryReserve(lectureId));
+	}
+
+	// 예약/반환 누적분은 flush 시 한 번의 UPDATE로 반영되어야 함
+	@Test
+	void testFlush_batchesDeltaIntoSingleUpdate() {
+		givenLecture(0, 10, 0);
+
+		seatLedger.tryReserve(lectureId);
+		seatLedger.tryReserve(lectureId);
+		seatLedger.tryReserve(lectureId);
+		seatLedger.release(lectureId);
+		seatLedger.flush();
+		seatLedger.flush();
+
+		verify(enrollmentCountRepository, times(1)).addCount(lectureId, 2);
+	}
+
+	// 반영 실패 시 누적분은 유지되어 다음 flush 에서 다시 반영되어야 함
+	@Test
+	void testFlush_retriesFailedDelta() {
+		givenLecture(0, 10, 0);
+		seatLedger.tryReserve(lectureId);
+		doThrow(new RuntimeException("db down")).when(enrollmentCountRepository).addCount(lectureId, 1);
+
+		seatLedger.flush();
+		seatLedger.flush();
+
+		verify(enrollmentCountRepository, times(2)).addCount(lectureId, 1);
+	}
+
+	// 반영 전 비정상 종료로 테이블 값이 좌석 점유 Payment 수보다 작으면 보정 후 적재해야 함
+	@Test
+	void testLoad_reconcilesWithHeldPayments() {
+		givenLecture(7, 10, 9);
+
+		assertEquals(1, seatLedger.remaining(lectureId));
+		verify(enrollmentCountRepository, times(1)).raiseCount(lectureId, 9);
+	}
+
+	@Test
+	void testLoad_noReconcileWhenConsistent() {
+		givenLecture(9, 10, 9);
+
+		assertEquals(1, seatLedger.remaining(lectureId));
+		verify(enrollmentCountRepository, never()).raiseCount(anyLong(), anyInt());
+	}
+}
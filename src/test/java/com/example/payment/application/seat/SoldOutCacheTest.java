@@ -0,0 +1,43 @@
+package com.example.payment.application.seat;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SoldOutCacheTest {
+
+	private final Long lectureId = 1L;
+
+	@Test
+	void testMarkAndEvict() {
+		SoldOutCache cache = new SoldOutCache(true, 60_000);
+
+		assertFalse(cache.isSoldOut(lectureId));
+		cache.markSoldOut(lectureId);
+		assertTrue(cache.isSoldOut(lectureId));
+
+		// 트랜잭션 밖에서는 즉시 무효화
+		cache.evictOnCommit(lectureId);
+		assertFalse(cache.isSoldOut(lectureId));
+	}
+
+	// TTL 이 지나면 다시 DB 로 확인하도록 매진 기록이 만료되어야 함
+	@Test
+	void testExpiresAfterTtl() {
+		SoldOutCache cache = new SoldOutCache(true, 0);
+
+		cache.markSoldOut(lectureId);
+
+		assertFalse(cache.isSoldOut(lectureId));
+	}
+
+	@Test
+	void testDisabled() {
+		SoldOutCache cache = new SoldOutCache(false, 60_000);
+
+		cache.markSoldOut(lectureId);
+
+		assertFalse(cache.isSoldOut(lectureId));
+	}
+}
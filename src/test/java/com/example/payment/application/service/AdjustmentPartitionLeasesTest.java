@@ -0,0 +1,179 @@
+package com.example.payment.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.PaymentSystemApplication;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.entity.id.TsidFactory;
+import com.example.payment.support.EmbeddedMariaDb;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 같은 DB 를 쓰는 애플리케이션 컨텍스트 여러 개(노드)로 보정 파티션 분배와 장애 시 인계를 확인합니다.
+ */
+class AdjustmentPartitionLeasesTest {
+
+	private static final int PARTITION_COUNT = 8;
+
+	private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		nodes.forEach(ConfigurableApplicationContext::close);
+	}
+
+	/**
+	 * 두 노드가 파티션을 나눠 가지고, 각 결제는 한 노드에서 한 번만 보정되어야 함
+	 */
+	@Test
+	void testTwoNodes_splitPartitionsWithoutDoubleAdjustment() {
+		ConfigurableApplicationContext nodeA = startNode("node-a");
+		ConfigurableApplicationContext nodeB = startNode("node-b");
+		AdjustmentPartitionLeases leasesA = nodeA.getBean(AdjustmentPartitionLeases.class);
+		AdjustmentPartitionLeases leasesB = nodeB.getBean(AdjustmentPartitionLeases.class);
+
+		await(() -> leasesA.ownedPartitions().size() == PARTITION_COUNT / 2
+			&& leasesB.ownedPartitions().size() == PARTITION_COUNT / 2);
+		Set<Integer> all = new HashSet<>(leasesA.ownedPartitions());
+		all.addAll(leasesB.ownedPartitions());
+		assertThat(all).hasSize(PARTITION_COUNT);
+
+		JdbcTemplate jdbc = nodeA.getBean(JdbcTemplate.class);
+		insertPendingPayments(jdbc, 40);
+
+		CompletableFuture.allOf(
+			CompletableFuture.runAsync(() -> nodeA.getBean(PaymentAdjustmentService.class).adjustPendingPayments()),
+			CompletableFuture.runAsync(() -> nodeB.getBean(PaymentAdjustmentService.class).adjustPendingPayments())
+		).join();
+
+		assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM payment WHERE status = ?", Integer.class,
+			PaymentStatus.FINAL_COMPLETED.getCode())).isEqualTo(40);
+		assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM enrollment", Integer.class)).isEqualTo(40);
+		assertThat(jdbc.queryForObject("SELECT COUNT(DISTINCT user_id) FROM enrollment", Integer.class)).isEqualTo(40);
+
+		double scannedA = nodeA.getBean(MeterRegistry.class).get("payment.adjustment.scanned").counter().count();
+		double scannedB = nodeB.getBean(MeterRegistry.class).get("payment.adjustment.scanned").counter().count();
+		// 각 노드는 자기 파티션의 결제만 조회
+		assertThat(scannedA + scannedB).isGreaterThanOrEqualTo(40.0);
+		assertThat(scannedA).isLessThan(40.0);
+		assertThat(scannedB).isLessThan(40.0);
+	}
+
+	/**
+	 * 임대를 갱신하지 않는(죽은) 노드의 파티션은 만료 후 살아 있는 노드가 가져가야 함
+	 */
+	@Test
+	void testDeadNode_partitionsFailOver() {
+		// 스키마 생성 후 종료 (종료 시 임대 반납)
+		startNode("node-init").close();
+		nodes.clear();
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource());
+		LocalDateTime farFuture = LocalDateTime.now().plusHours(1);
+		jdbc.update("DELETE FROM adjustment_node");
+		jdbc.update("INSERT INTO adjustment_node (node_id, alive_until) VALUES ('node-dead', ?)", farFuture);
+		jdbc.update("UPDATE adjustment_partition_lease SET owner = 'node-dead', lease_until = ?", farFuture);
+
+		ConfigurableApplicationContext survivor = startNode("node-survivor");
+		AdjustmentPartitionLeases leases = survivor.getBean(AdjustmentPartitionLeases.class);
+		assertThat(leases.refresh()).isEmpty();
+
+		// node-dead 가 갱신을 멈춘 채 임대 시간이 지남
+		LocalDateTime expired = LocalDateTime.now().minusSeconds(1);
+		jdbc.update("UPDATE adjustment_node SET alive_until = ? WHERE node_id = 'node-dead'", expired);
+		jdbc.update("UPDATE adjustment_partition_lease SET lease_until = ? WHERE owner = 'node-dead'", expired);
+
+		await(() -> leases.ownedPartitions().size() == PARTITION_COUNT);
+	}
+
+	private ConfigurableApplicationContext startNode(String nodeId) {
+		Map<String, Object> properties = new HashMap<>(EmbeddedMariaDb.shared().springProperties());
+		// 다른 노드가 쓰는 스키마를 지우지 않도록
+		properties.put("spring.jpa.hibernate.ddl-auto", "update");
+		properties.put("logging.level.root", "WARN");
+		properties.put("payment.adjustment.partitioning.enabled", "true");
+		properties.put("payment.adjustment.node-id", nodeId);
+		properties.put("payment.adjustment.partition-count", PARTITION_COUNT);
+		properties.put("payment.adjustment.lease-seconds", 5);
+		properties.put("payment.adjustment.renew-interval-ms", 200);
+
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(Node.class)
+			.web(WebApplicationType.NONE)
+			.properties(properties)
+			.run();
+		nodes.add(context);
+		return context;
+	}
+
+	private static DataSource dataSource() {
+		EmbeddedMariaDb db = EmbeddedMariaDb.shared();
+		return new DriverManagerDataSource(db.getJdbcUrl(), db.getUsername(), db.getPassword());
+	}
+
+	private static void insertPendingPayments(JdbcTemplate jdbc, int count) {
+		jdbc.update("DELETE FROM enrollment");
+		jdbc.update("DELETE FROM payment");
+		LocalDateTime createdAt = LocalDateTime.now().minusMinutes(10);
+		List<Object[]> rows = new ArrayList<>();
+		for (long userId = 1; userId <= count; userId++) {
+			rows.add(new Object[] {TsidFactory.global().next(), 1L, userId, PaymentStatus.PAYMENT_PROCESSED.getCode(), createdAt});
+		}
+		jdbc.batchUpdate("INSERT INTO payment (id, lecture_id, user_id, status, created_at) VALUES (?, ?, ?, ?, ?)", rows);
+	}
+
+	private static void await(BooleanSupplier condition) {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new AssertionError("Condition not met within 10s");
+			}
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new AssertionError(e);
+			}
+		}
+	}
+
+	/**
+	 * 노드 하나 = 애플리케이션 컨텍스트 하나.
+	 * 다른 테스트의 @TestConfiguration 이 스캔되지 않도록 PaymentSystemApplication 대신 사용합니다.
+	 */
+	@TestConfiguration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@AutoConfigurationPackage(basePackageClasses = PaymentSystemApplication.class)
+	@ComponentScan(basePackageClasses = PaymentSystemApplication.class, excludeFilters = {
+		@ComponentScan.Filter(TestConfiguration.class),
+		@ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = PaymentSystemApplication.class)
+	})
+	@EnableScheduling
+	@EnableAsync
+	@EnableRetry
+	static class Node {
+	}
+}
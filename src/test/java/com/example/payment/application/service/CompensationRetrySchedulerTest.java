@@ -0,0 +1,192 @@
+package com.example.payment.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.payment.application.event.CompensationExecutors;
+import com.example.payment.application.event.FinalCompensationEvent;
+import com.example.payment.application.event.SecondCompensationEvent;
+import com.example.payment.entity.CompensationOutbox;
+import com.example.payment.repository.CompensationOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+
+class CompensationRetrySchedulerTest {
+
+	private final CompensationService compensationService = mock(CompensationService.class);
+	private final CompensationOutboxRepository compensationOutboxRepository = mock(CompensationOutboxRepository.class);
+	private final CompensationExecutors compensationExecutors = mock(CompensationExecutors.class);
+	private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final List<Runnable> scheduled = new ArrayList<>();
+	private final List<Instant> scheduledAt = new ArrayList<>();
+	private CompensationRetryScheduler retryScheduler;
+
+	private final SecondCompensationEvent secondEvent = new SecondCompensationEvent(this, 10L, 1L, 100L, "reason");
+	private final FinalCompensationEvent finalEvent = new FinalCompensationEvent(this, 10L, 1L, 100L, "reason");
+
+	@BeforeEach
+	void setUp() {
+		// 예약만 기록하고 실행은 테스트가 직접 수행 (대기 중 스레드를 점유하지 않음)
+		when(taskScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+			scheduled.add(invocation.getArgument(0));
+			scheduledAt.add(invocation.getArgument(1));
+			return null;
+		});
+		// 단계 실행기는 넘겨받은 재시도를 바로 실행
+		doAnswer(invocation -> {
+			invocation.<Runnable>getArgument(1).run();
+			return null;
+		}).when(compensationExecutors).execute(any(), any(), any());
+		retryScheduler = new CompensationRetryScheduler(compensationService, compensationOutboxRepository,
+			compensationExecutors, meterRegistry, 3, 1000, 3000, taskScheduler);
+	}
+
+	private double pendingGauge() {
+		return meterRegistry.get("payment.compensation.retry.pending").gauge().value();
+	}
+
+	// 첫 시도가 성공하면 재시도를 예약하지 않아야 함
+	@Test
+	void testSecondCompensation_success() {
+		retryScheduler.secondCompensation(secondEvent);
+
+		verify(compensationService, times(1)).secondCompensationProcess(secondEvent);
+		assertTrue(scheduled.isEmpty());
+	}
+
+	// 실패하면 1~3초 뒤로 재시도를 예약하고, 예약된 재시도가 성공하면 recover 는 호출되지 않아야 함
+	@Test
+	void testSecondCompensation_retriesWithJitter() {
+		doThrow(new RuntimeException("DB down"))
+			.doNothing()
+			.when(compensationService).secondCompensationProcess(secondEvent);
+		Instant before = Instant.now();
+
+		retryScheduler.secondCompensation(secondEvent);
+
+		assertEquals(1, scheduled.size());
+		assertEquals(1.0, pendingGauge());
+		assertTrue(!scheduledAt.get(0).isBefore(before.plusMillis(1000)));
+		assertTrue(!scheduledAt.get(0).isAfter(Instant.now().plusMillis(3000)));
+
+		scheduled.get(0).run();
+
+		assertEquals(0.0, pendingGauge());
+		verify(compensationExecutors).execute(eq(CompensationOutbox.Type.SECOND), any(), any());
+		verify(compensationService, times(2)).secondCompensationProcess(secondEvent);
+		verify(compensationService, never()).recoverSecondCompensationProcess(any(Exception.class), eq(secondEvent));
+	}
+
+	// 때가 된 재시도를 넣을 단계 실행기가 가득 차 있으면 시도 횟수와 함께 아웃박스 행으로 넘겨야 함
+	@Test
+	void testFinalCompensation_saturatedExecutorDivertsRetry() {
+		doThrow(new RuntimeException("PG down")).when(compensationService).finalCompensationProcess(finalEvent);
+		List<CompensationOutbox> diverted = new ArrayList<>();
+		doAnswer(invocation -> {
+			diverted.add(invocation.<Supplier<CompensationOutbox>>getArgument(2).get());
+			return null;
+		}).when(compensationExecutors).execute(any(), any(), any());
+
+		retryScheduler.finalCompensation(finalEvent);
+		scheduled.get(0).run();
+
+		assertEquals(1, diverted.size());
+		assertEquals(CompensationOutbox.Type.FINAL, diverted.get(0).getType());
+		assertEquals(1, diverted.get(0).getAttempts());
+		verify(compensationService, times(1)).finalCompensationProcess(finalEvent);
+		verify(compensationService, never()).recoverFinalCompensationProcess(any(Exception.class), eq(finalEvent));
+		assertEquals(0, retryScheduler.getPendingCount());
+	}
+
+	// 최대 3회 모두 실패하면 recover 로 최종 실패 처리해야 함
+	@Test
+	void testFinalCompensation_exhaustedRecovers() {
+		RuntimeException failure = new RuntimeException("PG down");
+		doThrow(failure).when(compensationService).finalCompensationProcess(finalEvent);
+
+		retryScheduler.finalCompensation(finalEvent);
+		scheduled.get(0).run();
+		scheduled.get(1).run();
+
+		assertEquals(2, scheduled.size());
+		verify(compensationService, times(3)).finalCompensationProcess(finalEvent);
+		verify(compensationService, times(1)).recoverFinalCompensationProcess(failure, finalEvent);
+		assertEquals(0, retryScheduler.getPendingCount());
+	}
+
+	// 스케줄러가 종료되어 예약할 수 없으면 시도 횟수와 함께 아웃박스로 넘기고, 최종 실패 처리는 하지 않아야 함
+	@Test
+	void testSecondCompensation_rejectedHandsOffToOutbox() {
+		RuntimeException failure = new RuntimeException("DB down");
+		doThrow(failure).when(compensationService).secondCompensationProcess(secondEvent);
+		when(taskScheduler.schedule(any(Runnable.class), any(Instant.class)))
+			.thenThrow(new TaskRejectedException("shutdown"));
+
+		retryScheduler.secondCompensation(secondEvent);
+
+		verify(compensationOutboxRepository).save(argThat((CompensationOutbox outbox) ->
+			outbox.getType() == CompensationOutbox.Type.SECOND && outbox.getPaymentId().equals(10L)
+				&& outbox.getAttempts() == 1));
+		verify(compensationService, never()).recoverSecondCompensationProcess(any(Exception.class), eq(secondEvent));
+		assertEquals(0, retryScheduler.getPendingCount());
+	}
+
+	// 아웃박스에도 넘기지 못하면 최종 실패 처리해야 함
+	@Test
+	void testSecondCompensation_handOffFailureRecovers() {
+		RuntimeException failure = new RuntimeException("DB down");
+		doThrow(failure).when(compensationService).secondCompensationProcess(secondEvent);
+		when(taskScheduler.schedule(any(Runnable.class), any(Instant.class)))
+			.thenThrow(new TaskRejectedException("shutdown"));
+		when(compensationOutboxRepository.save(any(CompensationOutbox.class))).thenThrow(new RuntimeException("DB down"));
+
+		retryScheduler.secondCompensation(secondEvent);
+
+		verify(compensationService, times(1)).recoverSecondCompensationProcess(failure, secondEvent);
+	}
+
+	// 종료 시 대기 중인 재시도는 아웃박스로 넘기고, 그 뒤에 예약 작업이 실행되어도 다시 시도하지 않아야 함
+	@Test
+	void testShutdown_handsOffPendingRetries() {
+		doThrow(new RuntimeException("PG down")).when(compensationService).finalCompensationProcess(finalEvent);
+		retryScheduler.finalCompensation(finalEvent);
+		scheduled.get(0).run();
+		assertEquals(1, retryScheduler.getPendingCount());
+
+		retryScheduler.shutdown();
+		scheduled.get(1).run();
+
+		verify(compensationOutboxRepository).save(argThat((CompensationOutbox outbox) ->
+			outbox.getType() == CompensationOutbox.Type.FINAL && outbox.getAttempts() == 2));
+		verify(compensationService, times(2)).finalCompensationProcess(finalEvent);
+		verify(compensationService, never()).recoverFinalCompensationProcess(any(Exception.class), eq(finalEvent));
+		assertEquals(0, retryScheduler.getPendingCount());
+	}
+
+	// 재시도 지연은 delay ~ maxDelay 범위여야 함
+	@Test
+	void testNextDelayMillis_withinRange() {
+		for (int i = 0; i < 100; i++) {
+			long delay = retryScheduler.nextDelayMillis();
+			assertTrue(delay >= 1000 && delay <= 3000);
+		}
+	}
+}
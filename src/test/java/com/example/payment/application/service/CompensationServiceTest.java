@@ -3,21 +3,37 @@ package com.example.payment.application.service;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.example.payment.application.event.FinalCompensationEvent;
 import com.example.payment.application.event.SecondCompensationEvent;
+import com.example.payment.application.seat.SeatAllocationStrategies;
+import com.example.payment.application.seat.SoldOutCache;
+import com.example.payment.application.seat.impl.ConditionalUpdateSeatAllocation;
+import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
 import com.example.payment.repository.EnrollmentCountRepository;
 import com.example.payment.repository.PaymentRepository;
 import com.example.payment.web.external.PgApiClient;
+import com.example.payment.web.external.PgCallGuard;
+import com.example.payment.web.external.PgCircuitBreaker;
+import com.example.payment.web.external.PgConcurrencyLimiter;
+import com.example.payment.web.external.SlackApiClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
 class CompensationServiceTest {
@@ -31,6 +47,24 @@ class CompensationServiceTest {
 	@Mock
 	private PgApiClient pgApiClient;
 
+	@Spy
+	private PgCallGuard pgCallGuard = new PgCallGuard(
+		new PgCircuitBreaker(20, 10, 0.5, 2000, 10000, System::nanoTime),
+		new PgConcurrencyLimiter(20, 2, 200, 0.9, 1000),
+		new SimpleMeterRegistry());
+
+	@Mock
+	private SeatAllocationStrategies seatAllocationStrategies;
+
+	@Mock
+	private SoldOutCache soldOutCache;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Mock
+	private SlackApiClient slackApiClient;
+
 	@InjectMocks
 	private CompensationService compensationService;
 
@@ -45,6 +79,9 @@ class CompensationServiceTest {
 	void setUp() {
 		cancellationEvent = new SecondCompensationEvent(this, lectureId, userId, reason);
 		finalizationEvent = new FinalCompensationEvent(this, lectureId, userId, reason);
+		// 좌석 반환은 조건부 UPDATE 방식(enrollment_count 직접 감소)
+		lenient().when(seatAllocationStrategies.forLecture(anyLong()))
+			.thenReturn(new ConditionalUpdateSeatAllocation(enrollmentCountRepository));
 	}
 
 	// ================================
@@ -56,20 +93,37 @@ class CompensationServiceTest {
 	void testProcessPaymentCancellation_success() {
 		// enrollmentCountRepository.decrement()는 void 메서드이므로 doNothing()이 기본 동작.
 		// updateStatusConditionally가 정상 동작하면 1을 반환한다고 가정.
-		when(paymentRepository.updateStatusConditionally(lectureId, userId, "COUNT_UPDATED", "CANCELLED"))
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.COUNT_UPDATED, PaymentStatus.CANCELLED))
 			.thenReturn(1);
 
 		assertDoesNotThrow(() -> compensationService.secondCompensationProcess(cancellationEvent));
 
 		verify(enrollmentCountRepository, times(1)).decrement(lectureId);
+		// 반환된 좌석이 바로 판매될 수 있도록 매진 캐시 무효화
+		verify(soldOutCache, times(1)).evictOnCommit(lectureId);
+		verify(paymentRepository, times(1))
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.COUNT_UPDATED, PaymentStatus.CANCELLED);
+	}
+
+	// 이벤트에 결제 ID 가 있으면 PK 기준으로 상태를 변경해야 함
+	@Test
+	void testProcessPaymentCancellation_byPaymentId() {
+		SecondCompensationEvent event = new SecondCompensationEvent(this, 10L, lectureId, userId, reason);
+		when(paymentRepository.updateStatusById(10L, lectureId, userId, PaymentStatus.COUNT_UPDATED, PaymentStatus.CANCELLED))
+			.thenReturn(1);
+
+		assertDoesNotThrow(() -> compensationService.secondCompensationProcess(event));
+
 		verify(paymentRepository, times(1))
-			.updateStatusConditionally(lectureId, userId, "COUNT_UPDATED", "CANCELLED");
+			.updateStatusById(10L, lectureId, userId, PaymentStatus.COUNT_UPDATED, PaymentStatus.CANCELLED);
+		verify(paymentRepository, never())
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.COUNT_UPDATED, PaymentStatus.CANCELLED);
 	}
 
 	// 실패 케이스: Payment 상태 업데이트 실패 (반환값 0)이면 RuntimeException 발생
 	@Test
 	void testProcessPaymentCancellation_failure() {
-		when(paymentRepository.updateStatusConditionally(lectureId, userId, "COUNT_UPDATED", "CANCELLED"))
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.COUNT_UPDATED, PaymentStatus.CANCELLED))
 			.thenReturn(0);
 
 		RuntimeException exception = assertThrows(RuntimeException.class, () ->
@@ -77,9 +131,9 @@ class CompensationServiceTest {
 		);
 		assertTrue(exception.getMessage().contains("Failed to update Payment status during PaymentCancellation compensation"));
 
-		verify(enrollmentCountRepository, times(1)).decrement(lectureId);
+		verify(enrollmentCountRepository, never()).decrement(lectureId);
 		verify(paymentRepository, times(1))
-			.updateStatusConditionally(lectureId, userId, "COUNT_UPDATED", "CANCELLED");
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.COUNT_UPDATED, PaymentStatus.CANCELLED);
 	}
 
 	// ================================
@@ -89,20 +143,43 @@ class CompensationServiceTest {
 	// 성공 케이스: 보상 로직이 정상적으로 수행되어 Payment 상태가 PAYMENT_PROCESSED -> CANCELLED로 변경됨.
 	@Test
 	void testProcessFinalizationCompensation_success() {
-		when(paymentRepository.updateStatusConditionally(lectureId, userId, "PAYMENT_PROCESSED", "CANCELLED"))
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.CANCELLED))
 			.thenReturn(1);
+		when(pgApiClient.cancel(finalizationEvent)).thenReturn(true);
 
 		assertDoesNotThrow(() -> compensationService.finalCompensationProcess(finalizationEvent));
 
 		verify(enrollmentCountRepository, times(1)).decrement(lectureId);
+		verify(soldOutCache, times(1)).evictOnCommit(lectureId);
 		verify(paymentRepository, times(1))
-			.updateStatusConditionally(lectureId, userId, "PAYMENT_PROCESSED", "CANCELLED");
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.CANCELLED);
+		verify(pgApiClient, times(1)).cancel(finalizationEvent);
+	}
+
+	// PG 취소 실패: 상태 변경/좌석 반환은 커밋된 채로 재시도를 요청하고, 재시도는 취소 호출만 다시 해야 함
+	@Test
+	void testProcessFinalizationCompensation_cancelFailureRetriesCancelOnly() {
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.CANCELLED))
+			.thenReturn(1, 0);
+		when(paymentRepository.findByLectureIdAndUserIdAndStatus(lectureId, userId, PaymentStatus.CANCELLED))
+			.thenReturn(new Payment());
+		when(pgApiClient.cancel(finalizationEvent)).thenReturn(false, true);
+
+		RuntimeException exception = assertThrows(RuntimeException.class, () ->
+			compensationService.finalCompensationProcess(finalizationEvent)
+		);
+		assertTrue(exception.getMessage().contains("PG cancel failed"));
+
+		assertDoesNotThrow(() -> compensationService.finalCompensationProcess(finalizationEvent));
+
+		verify(enrollmentCountRepository, times(1)).decrement(lectureId);
+		verify(pgApiClient, times(2)).cancel(finalizationEvent);
 	}
 
 	// 실패 케이스: Payment 상태 업데이트 실패 (반환값 0)이면 RuntimeException 발생
 	@Test
 	void testProcessFinalizationCompensation_failure() {
-		when(paymentRepository.updateStatusConditionally(lectureId, userId, "PAYMENT_PROCESSED", "CANCELLED"))
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.CANCELLED))
 			.thenReturn(0);
 
 		RuntimeException exception = assertThrows(RuntimeException.class, () ->
@@ -110,9 +187,38 @@ class CompensationServiceTest {
 		);
 		assertTrue(exception.getMessage().contains("Failed to update Payment status during Finalization compensation"));
 
-		verify(enrollmentCountRepository, times(1)).decrement(lectureId);
+		verify(enrollmentCountRepository, never()).decrement(lectureId);
+		verify(pgApiClient, never()).cancel(any());
 		verify(paymentRepository, times(1))
-			.updateStatusConditionally(lectureId, userId, "PAYMENT_PROCESSED", "CANCELLED");
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.CANCELLED);
+	}
+
+	// 보정이 사가보다 먼저 결제를 완료한 경우: 좌석 반환/출금 취소 없이 보상을 끝내야 함
+	@Test
+	void testProcessFinalizationCompensation_alreadyAdjusted() {
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.CANCELLED))
+			.thenReturn(0);
+		when(paymentRepository.findByLectureIdAndUserIdAndStatus(lectureId, userId, PaymentStatus.FINAL_COMPLETED))
+			.thenReturn(new Payment());
+
+		assertDoesNotThrow(() -> compensationService.finalCompensationProcess(finalizationEvent));
+
+		verify(enrollmentCountRepository, never()).decrement(lectureId);
+		verify(soldOutCache, never()).evictOnCommit(lectureId);
+		verify(pgApiClient, never()).cancel(any());
+	}
+
+	// 보정이 사가보다 먼저 결제를 완료한 경우: 좌석을 반환하지 않아야 함
+	@Test
+	void testProcessPaymentCancellation_alreadyAdjusted() {
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.COUNT_UPDATED, PaymentStatus.CANCELLED))
+			.thenReturn(0);
+		when(paymentRepository.findByLectureIdAndUserIdAndStatus(lectureId, userId, PaymentStatus.FINAL_COMPLETED))
+			.thenReturn(new Payment());
+
+		assertDoesNotThrow(() -> compensationService.secondCompensationProcess(cancellationEvent));
+
+		verify(enrollmentCountRepository, never()).decrement(lectureId);
 	}
 
 	// =============================================
@@ -123,26 +229,42 @@ class CompensationServiceTest {
 	@Test
 	void testRecoverPaymentCancellation() {
 		// recover 메서드 호출 전, updateStatusConditionally가 호출되었을 때 1을 반환하도록 모킹
-		when(paymentRepository.updateStatusConditionally(lectureId, userId, "COUNT_UPDATED", "CANCELLATION_FAILED"))
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.COUNT_UPDATED, PaymentStatus.CANCELLATION_FAILED))
 			.thenReturn(1);
 
 		// @Recover 메서드는 재시도 실패 후 fallback 호출 시 실행되므로, 직접 호출하여 검증
 		compensationService.recoverSecondCompensationProcess(new Exception("Test Exception"), cancellationEvent);
 
 		verify(paymentRepository, times(1))
-			.updateStatusConditionally(lectureId, userId, "COUNT_UPDATED", "CANCELLATION_FAILED");
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.COUNT_UPDATED, PaymentStatus.CANCELLATION_FAILED);
 		// sendSlackAlert은 내부에서 로그로 처리하므로 별도 검증(로그 확인)을 생략하거나 스파이로 검증할 수 있음
 	}
 
 	// FinalizationCompensationEvent의 @Recover 테스트
 	@Test
 	void testRecoverFinalizationCompensation() {
-		when(paymentRepository.updateStatusConditionally(lectureId, userId, "PAYMENT_PROCESSED", "FINAL_COMPENSATION_FAILED"))
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.FINAL_COMPENSATION_FAILED))
+			.thenReturn(1);
+
+		compensationService.recoverFinalCompensationProcess(new Exception("Test Exception"), finalizationEvent);
+
+		verify(paymentRepository, times(1))
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.FINAL_COMPENSATION_FAILED);
+		verify(paymentRepository, never())
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.CANCELLED, PaymentStatus.FINAL_COMPENSATION_FAILED);
+	}
+
+	// 좌석 반환 후 PG 취소가 끝내 실패한 결제(CANCELLED)도 FINAL_COMPENSATION_FAILED 로 바꿔야 함
+	@Test
+	void testRecoverFinalizationCompensation_afterSeatReleased() {
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.FINAL_COMPENSATION_FAILED))
+			.thenReturn(0);
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.CANCELLED, PaymentStatus.FINAL_COMPENSATION_FAILED))
 			.thenReturn(1);
 
 		compensationService.recoverFinalCompensationProcess(new Exception("Test Exception"), finalizationEvent);
 
 		verify(paymentRepository, times(1))
-			.updateStatusConditionally(lectureId, userId, "PAYMENT_PROCESSED", "FINAL_COMPENSATION_FAILED");
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.CANCELLED, PaymentStatus.FINAL_COMPENSATION_FAILED);
 	}
 }
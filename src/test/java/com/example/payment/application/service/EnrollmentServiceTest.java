@@ -1,19 +1,33 @@
 package com.example.payment.application.service;
 
 import com.example.payment.application.exception.BusinessException;
+import com.example.payment.application.exception.SeatAllocationConflictException;
+import com.example.payment.application.seat.SeatAllocationMode;
+import com.example.payment.application.seat.SeatAllocationStrategies;
+import com.example.payment.application.seat.SeatAllocationStrategy;
+import com.example.payment.application.seat.impl.ConditionalUpdateSeatAllocation;
 import com.example.payment.entity.Enrollment;
+import com.example.payment.entity.PaymentStatus;
 import com.example.payment.repository.EnrollmentCountRepository;
 import com.example.payment.repository.EnrollmentRepository;
+import com.example.payment.repository.PaymentHotPathRepository;
+import com.example.payment.repository.PaymentHotPathRepository.Outcome;
 import com.example.payment.repository.PaymentRepository;
 import com.example.payment.web.controller.dto.PaymentRequest;
 import com.example.payment.web.external.PgApiClient;
+import com.example.payment.web.external.PgCallGuard;
+import com.example.payment.web.external.PgCircuitBreaker;
+import com.example.payment.web.external.PgConcurrencyLimiter;
 import com.example.payment.web.external.dto.PaymentResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,6 +48,21 @@ class EnrollmentServiceTest {
 	@Mock
 	private PgApiClient pgApiClient;
 
+	@Spy
+	private PgCallGuard pgCallGuard = new PgCallGuard(
+		new PgCircuitBreaker(20, 10, 0.5, 2000, 10000, System::nanoTime),
+		new PgConcurrencyLimiter(20, 2, 200, 0.9, 1000),
+		new SimpleMeterRegistry());
+
+	@Mock
+	private SeatAllocationStrategies seatAllocationStrategies;
+
+	@Mock
+	private SeatRequestCombiner seatRequestCombiner;
+
+	@Mock
+	private PaymentHotPathRepository paymentHotPathRepository;
+
 	@InjectMocks
 	private EnrollmentService enrollmentService;
 
@@ -42,7 +71,14 @@ class EnrollmentServiceTest {
 
 	@BeforeEach
 	void setUp() {
-		// 초기화 필요한 작업 (없으면 생략)
+		// 기본 좌석 확보 방식: 조건부 UPDATE
+		lenient().when(seatAllocationStrategies.forLecture(anyLong()))
+			.thenReturn(new ConditionalUpdateSeatAllocation(enrollmentCountRepository));
+		// 요청 결합 비활성화: 결합기는 단건 처리를 그대로 실행
+		lenient().doAnswer(invocation -> {
+			invocation.<Runnable>getArgument(2).run();
+			return null;
+		}).when(seatRequestCombiner).reserve(anyLong(), anyLong(), any(), any());
 	}
 
 	// =========================
@@ -53,14 +89,14 @@ class EnrollmentServiceTest {
 	@Test
 	void testEnrollmentCountTryIncrement_success() {
 		when(enrollmentCountRepository.tryIncrement(lectureId)).thenReturn(1);
-		when(paymentRepository.updateStatusConditionally(lectureId, userId, "CREATED", "COUNT_UPDATED"))
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.CREATED, PaymentStatus.COUNT_UPDATED))
 			.thenReturn(1);
 
 		assertDoesNotThrow(() -> enrollmentService.enrollmentCountTryIncrement(lectureId, userId));
 
 		verify(enrollmentCountRepository, times(1)).tryIncrement(lectureId);
 		verify(paymentRepository, times(1))
-			.updateStatusConditionally(lectureId, userId, "CREATED", "COUNT_UPDATED");
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.CREATED, PaymentStatus.COUNT_UPDATED);
 	}
 
 	// 실패 케이스 1: tryIncrement 실패 (정원 초과)
@@ -73,14 +109,14 @@ class EnrollmentServiceTest {
 
 		assertTrue(exception.getMessage().contains("수강 인원이 모두 찼습니다"));
 		verify(enrollmentCountRepository, times(1)).tryIncrement(lectureId);
-		verify(paymentRepository, never()).updateStatusConditionally(anyLong(), anyLong(), anyString(), anyString());
+		verify(paymentRepository, never()).updateStatusConditionally(anyLong(), anyLong(), any(PaymentStatus.class), any(PaymentStatus.class));
 	}
 
 	// 실패 케이스 2: Payment 상태 업데이트 실패 (CREATED -> COUNT_UPDATED)
 	@Test
 	void testEnrollmentCountTryIncrement_failure_dueToStatusUpdate() {
 		when(enrollmentCountRepository.tryIncrement(lectureId)).thenReturn(1);
-		when(paymentRepository.updateStatusConditionally(lectureId, userId, "CREATED", "COUNT_UPDATED"))
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.CREATED, PaymentStatus.COUNT_UPDATED))
 			.thenReturn(0);
 
 		BusinessException exception = assertThrows(BusinessException.class,
@@ -89,7 +125,136 @@ class EnrollmentServiceTest {
 		assertTrue(exception.getMessage().contains("Payment 상태 업데이트 실패(CREATED -> COUNT_UPDATED)"));
 		verify(enrollmentCountRepository, times(1)).tryIncrement(lectureId);
 		verify(paymentRepository, times(1))
-			.updateStatusConditionally(lectureId, userId, "CREATED", "COUNT_UPDATED");
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.CREATED, PaymentStatus.COUNT_UPDATED);
+	}
+
+	// 핫패스가 활성화되면 프로시저 호출 한 번으로 처리하고 JPA 경로는 쓰지 않아야 함
+	@Test
+	void testEnrollmentCountTryIncrement_hotPath() {
+		when(paymentHotPathRepository.isEnabled()).thenReturn(true);
+		when(paymentHotPathRepository.reserveSeat(lectureId, userId)).thenReturn(Outcome.OK);
+
+		assertDoesNotThrow(() -> enrollmentService.enrollmentCountTryIncrement(lectureId, userId));
+
+		verify(enrollmentCountRepository, never()).tryIncrement(anyLong());
+		verify(paymentRepository, never())
+			.updateStatusConditionally(anyLong(), anyLong(), any(PaymentStatus.class), any(PaymentStatus.class));
+	}
+
+	// 핫패스에서 좌석이 없으면 정원 초과/버킷 모드 판단을 JPA 경로에 맡겨야 함
+	@Test
+	void testEnrollmentCountTryIncrement_hotPathSeatUnavailableFallsBack() {
+		when(paymentHotPathRepository.isEnabled()).thenReturn(true);
+		when(paymentHotPathRepository.reserveSeat(lectureId, userId)).thenReturn(Outcome.SEAT_UNAVAILABLE);
+		when(enrollmentCountRepository.tryIncrement(lectureId)).thenReturn(0);
+
+		BusinessException exception = assertThrows(BusinessException.class,
+			() -> enrollmentService.enrollmentCountTryIncrement(lectureId, userId));
+
+		assertTrue(exception.getMessage().contains("수강 인원이 모두 찼습니다"));
+	}
+
+	// 핫패스에서 Payment 상태가 다르면 예외로 트랜잭션을 롤백해야 함
+	@Test
+	void testEnrollmentCountTryIncrement_hotPathStatusMismatch() {
+		when(paymentHotPathRepository.isEnabled()).thenReturn(true);
+		when(paymentHotPathRepository.reserveSeat(lectureId, userId)).thenReturn(Outcome.STATUS_MISMATCH);
+
+		BusinessException exception = assertThrows(BusinessException.class,
+			() -> enrollmentService.enrollmentCountTryIncrement(lectureId, userId));
+
+		assertTrue(exception.getMessage().contains("Payment 상태 업데이트 실패(CREATED -> COUNT_UPDATED)"));
+		verify(enrollmentCountRepository, never()).tryIncrement(anyLong());
+	}
+
+	// 강의에 지정된 좌석 확보 방식을 쓰고, 조건부 UPDATE 방식이 아니면 핫패스를 쓰지 않아야 함
+	@Test
+	void testEnrollmentCountTryIncrement_usesLectureStrategy() {
+		SeatAllocationStrategy pessimistic = mock(SeatAllocationStrategy.class);
+		when(pessimistic.mode()).thenReturn(SeatAllocationMode.PESSIMISTIC_LOCK);
+		when(pessimistic.tryAllocate(lectureId)).thenReturn(true);
+		when(seatAllocationStrategies.forLecture(lectureId)).thenReturn(pessimistic);
+		lenient().when(paymentHotPathRepository.isEnabled()).thenReturn(true);
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.CREATED, PaymentStatus.COUNT_UPDATED))
+			.thenReturn(1);
+
+		assertDoesNotThrow(() -> enrollmentService.enrollmentCountTryIncrement(lectureId, userId));
+
+		verify(paymentHotPathRepository, never()).reserveSeat(anyLong(), anyLong());
+		verify(enrollmentCountRepository, never()).tryIncrement(anyLong());
+	}
+
+	// 경합으로 좌석을 확보하지 못하면 상태를 바꾸지 않고 SeatAllocationConflictException 을 전달해야 함 (재시도는 프록시가 담당)
+	@Test
+	void testEnrollmentCountTryIncrement_conflictPropagates() {
+		SeatAllocationStrategy optimistic = mock(SeatAllocationStrategy.class);
+		when(optimistic.mode()).thenReturn(SeatAllocationMode.OPTIMISTIC);
+		when(optimistic.tryAllocate(lectureId)).thenThrow(new SeatAllocationConflictException("conflict"));
+		when(seatAllocationStrategies.forLecture(lectureId)).thenReturn(optimistic);
+
+		assertThrows(SeatAllocationConflictException.class,
+			() -> enrollmentService.enrollmentCountTryIncrement(lectureId, userId));
+
+		verify(paymentRepository, never())
+			.updateStatusConditionally(anyLong(), anyLong(), any(PaymentStatus.class), any(PaymentStatus.class));
+	}
+
+	// 트랜잭션 1은 결합기에 위임하고, 결합기가 묶어서 처리하면 직접 카운터를 증가시키지 않아야 함
+	@Test
+	void testEnrollmentCountTryIncrement_delegatesToCombiner() {
+		doNothing().when(seatRequestCombiner).reserve(anyLong(), anyLong(), any(), any());
+
+		assertDoesNotThrow(() -> enrollmentService.enrollmentCountTryIncrement(lectureId, userId));
+
+		verify(seatRequestCombiner, times(1)).reserve(eq(lectureId), eq(userId), any(), any());
+		verify(enrollmentCountRepository, never()).tryIncrement(anyLong());
+	}
+
+	// 일괄 성공 케이스: CREATED 사용자 수만큼 한 번에 증가하고, 한 번의 UPDATE 로 상태 변경
+	@Test
+	void testEnrollmentCountTryIncrementBatch_success() {
+		List<Long> userIds = List.of(100L, 101L, 102L);
+		when(paymentRepository.findUserIdsByLectureIdAndUserIdInAndStatus(lectureId, userIds, PaymentStatus.CREATED))
+			.thenReturn(List.of(102L, 100L));
+		when(enrollmentCountRepository.tryIncrementBy(lectureId, 2)).thenReturn(2);
+		when(paymentRepository.updateStatusConditionallyForUsers(lectureId, List.of(100L, 102L), PaymentStatus.CREATED, PaymentStatus.COUNT_UPDATED))
+			.thenReturn(2);
+
+		BatchSeatReservation reservation = enrollmentService.enrollmentCountTryIncrementBatch(lectureId, userIds);
+
+		// 요청 순서대로 배정, CREATED 가 아닌 사용자는 제외
+		assertEquals(List.of(100L, 102L), reservation.reserved());
+		assertTrue(reservation.exceeded().isEmpty());
+	}
+
+	// 일괄 부분 확보: 남은 좌석만큼만 요청 순서대로 배정
+	@Test
+	void testEnrollmentCountTryIncrementBatch_partialFill() {
+		List<Long> userIds = List.of(100L, 101L, 102L);
+		when(paymentRepository.findUserIdsByLectureIdAndUserIdInAndStatus(lectureId, userIds, PaymentStatus.CREATED))
+			.thenReturn(userIds);
+		when(enrollmentCountRepository.tryIncrementBy(lectureId, 3)).thenReturn(1);
+		when(paymentRepository.updateStatusConditionallyForUsers(lectureId, List.of(100L), PaymentStatus.CREATED, PaymentStatus.COUNT_UPDATED))
+			.thenReturn(1);
+
+		BatchSeatReservation reservation = enrollmentService.enrollmentCountTryIncrementBatch(lectureId, userIds);
+
+		assertEquals(List.of(100L), reservation.reserved());
+		assertEquals(List.of(101L, 102L), reservation.exceeded());
+	}
+
+	// 일괄 실패 케이스: 조회 이후 상태가 바뀌어 일부만 업데이트되면 예외(전체 롤백)
+	@Test
+	void testEnrollmentCountTryIncrementBatch_failure_dueToStatusRace() {
+		List<Long> userIds = List.of(100L, 101L);
+		when(paymentRepository.findUserIdsByLectureIdAndUserIdInAndStatus(lectureId, userIds, PaymentStatus.CREATED))
+			.thenReturn(userIds);
+		when(enrollmentCountRepository.tryIncrementBy(lectureId, 2)).thenReturn(2);
+		when(paymentRepository.updateStatusConditionallyForUsers(lectureId, userIds, PaymentStatus.CREATED, PaymentStatus.COUNT_UPDATED))
+			.thenReturn(1);
+
+		assertThrows(BusinessException.class,
+			() -> enrollmentService.enrollmentCountTryIncrementBatch(lectureId, userIds));
 	}
 
 	// =========================
@@ -107,16 +272,16 @@ class EnrollmentServiceTest {
 		successResponse.setSuccess(true);
 		successResponse.setMessage("Payment Success");
 
-		when(pgApiClient.mockApproveApiCall(ArgumentMatchers.eq(request)))
+		when(pgApiClient.approve(ArgumentMatchers.eq(request)))
 			.thenReturn(successResponse);
-		when(paymentRepository.updateStatusConditionally(lectureId, userId, "COUNT_UPDATED", "PAYMENT_PROCESSED"))
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.COUNT_UPDATED, PaymentStatus.PAYMENT_PROCESSED))
 			.thenReturn(1);
 
 		assertDoesNotThrow(() -> enrollmentService.processPayment(request));
 
-		verify(pgApiClient, times(1)).mockApproveApiCall(request);
+		verify(pgApiClient, times(1)).approve(request);
 		verify(paymentRepository, times(1))
-			.updateStatusConditionally(lectureId, userId, "COUNT_UPDATED", "PAYMENT_PROCESSED");
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.COUNT_UPDATED, PaymentStatus.PAYMENT_PROCESSED);
 	}
 
 	// 실패 케이스 1: PG API 호출 실패 (응답 성공 플래그 false)
@@ -127,16 +292,16 @@ class EnrollmentServiceTest {
 		failedResponse.setSuccess(false);
 		failedResponse.setMessage("Payment Failed");
 
-		when(pgApiClient.mockApproveApiCall(ArgumentMatchers.eq(request)))
+		when(pgApiClient.approve(ArgumentMatchers.eq(request)))
 			.thenReturn(failedResponse);
 
 		BusinessException exception = assertThrows(BusinessException.class,
 			() -> enrollmentService.processPayment(request));
 
 		assertTrue(exception.getMessage().contains("결제 실패"));
-		verify(pgApiClient, times(1)).mockApproveApiCall(request);
+		verify(pgApiClient, times(1)).approve(request);
 		verify(paymentRepository, never())
-			.updateStatusConditionally(anyLong(), anyLong(), eq("COUNT_UPDATED"), eq("PAYMENT_PROCESSED"));
+			.updateStatusConditionally(anyLong(), anyLong(), eq(PaymentStatus.COUNT_UPDATED), eq(PaymentStatus.PAYMENT_PROCESSED));
 	}
 
 	// 실패 케이스 2: Payment 상태 업데이트 실패 (COUNT_UPDATED -> PAYMENT_PROCESSED)
@@ -150,18 +315,18 @@ class EnrollmentServiceTest {
 		successResponse.setSuccess(true);
 		successResponse.setMessage("Payment Success");
 
-		when(pgApiClient.mockApproveApiCall(ArgumentMatchers.eq(request)))
+		when(pgApiClient.approve(ArgumentMatchers.eq(request)))
 			.thenReturn(successResponse);
-		when(paymentRepository.updateStatusConditionally(lectureId, userId, "COUNT_UPDATED", "PAYMENT_PROCESSED"))
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.COUNT_UPDATED, PaymentStatus.PAYMENT_PROCESSED))
 			.thenReturn(0);
 
 		BusinessException exception = assertThrows(BusinessException.class,
 			() -> enrollmentService.processPayment(request));
 
 		assertTrue(exception.getMessage().contains("Payment 상태 업데이트 실패(COUNT_UPDATED -> PAYMENT_PROCESSED)"));
-		verify(pgApiClient, times(1)).mockApproveApiCall(request);
+		verify(pgApiClient, times(1)).approve(request);
 		verify(paymentRepository, times(1))
-			.updateStatusConditionally(lectureId, userId, "COUNT_UPDATED", "PAYMENT_PROCESSED");
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.COUNT_UPDATED, PaymentStatus.PAYMENT_PROCESSED);
 	}
 
 	// =========================
@@ -176,14 +341,14 @@ class EnrollmentServiceTest {
 		enrollment.setUserId(userId);
 
 		when(enrollmentRepository.save(any(Enrollment.class))).thenReturn(enrollment);
-		when(paymentRepository.updateStatusConditionally(lectureId, userId, "PAYMENT_PROCESSED", "FINAL_COMPLETED"))
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.FINAL_COMPLETED))
 			.thenReturn(1);
 
-		assertDoesNotThrow(() -> enrollmentService.finalizeEnrollment(lectureId, userId));
+		assertDoesNotThrow(() -> enrollmentService.finalizeEnrollment(paymentRequest()));
 
 		verify(enrollmentRepository, times(1)).save(any(Enrollment.class));
 		verify(paymentRepository, times(1))
-			.updateStatusConditionally(lectureId, userId, "PAYMENT_PROCESSED", "FINAL_COMPLETED");
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.FINAL_COMPLETED);
 	}
 
 	// 실패 케이스: Payment 상태 업데이트 실패 (PAYMENT_PROCESSED -> FINAL_COMPLETED)
@@ -194,15 +359,49 @@ class EnrollmentServiceTest {
 		enrollment.setUserId(userId);
 
 		when(enrollmentRepository.save(any(Enrollment.class))).thenReturn(enrollment);
-		when(paymentRepository.updateStatusConditionally(lectureId, userId, "PAYMENT_PROCESSED", "FINAL_COMPLETED"))
+		when(paymentRepository.updateStatusConditionally(lectureId, userId, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.FINAL_COMPLETED))
 			.thenReturn(0);
 
 		BusinessException exception = assertThrows(BusinessException.class,
-			() -> enrollmentService.finalizeEnrollment(lectureId, userId));
+			() -> enrollmentService.finalizeEnrollment(paymentRequest()));
 
 		assertTrue(exception.getMessage().contains("Payment 상태 업데이트 실패(PAYMENT_PROCESSED -> FINAL_COMPLETED)"));
 		verify(enrollmentRepository, times(1)).save(any(Enrollment.class));
 		verify(paymentRepository, times(1))
-			.updateStatusConditionally(lectureId, userId, "PAYMENT_PROCESSED", "FINAL_COMPLETED");
+			.updateStatusConditionally(lectureId, userId, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.FINAL_COMPLETED);
+	}
+
+	// 결제 ID 가 있으면 PK 기준으로 상태를 변경해야 함
+	@Test
+	void testFinalizeEnrollment_byPaymentId() {
+		PaymentRequest paymentRequest = paymentRequest();
+		paymentRequest.setPaymentId(10L);
+		when(paymentRepository.updateStatusById(10L, lectureId, userId, PaymentStatus.PAYMENT_PROCESSED, PaymentStatus.FINAL_COMPLETED))
+			.thenReturn(1);
+
+		assertDoesNotThrow(() -> enrollmentService.finalizeEnrollment(paymentRequest));
+
+		verify(paymentRepository, never())
+			.updateStatusConditionally(anyLong(), anyLong(), any(PaymentStatus.class), any(PaymentStatus.class));
+	}
+
+	// 핫패스가 활성화되면 최종 반영도 프로시저 호출 한 번으로 처리해야 함
+	@Test
+	void testFinalizeEnrollment_hotPath() {
+		when(paymentHotPathRepository.isEnabled()).thenReturn(true);
+		when(paymentHotPathRepository.finalizeEnrollment(null, lectureId, userId)).thenReturn(Outcome.STATUS_MISMATCH);
+
+		BusinessException exception = assertThrows(BusinessException.class,
+			() -> enrollmentService.finalizeEnrollment(paymentRequest()));
+
+		assertTrue(exception.getMessage().contains("Payment 상태 업데이트 실패(PAYMENT_PROCESSED -> FINAL_COMPLETED)"));
+		verify(enrollmentRepository, never()).save(any(Enrollment.class));
+	}
+
+	private PaymentRequest paymentRequest() {
+		PaymentRequest paymentRequest = new PaymentRequest();
+		paymentRequest.setLectureId(lectureId);
+		paymentRequest.setUserId(userId);
+		return paymentRequest;
 	}
 }
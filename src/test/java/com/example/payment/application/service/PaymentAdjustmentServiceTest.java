@@ -1,10 +1,10 @@
 package com.example.payment.application.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyLong;
-import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.argThat;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -12,23 +12,34 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.repository.PaymentAdjustmentBatchRepository;
 import com.example.payment.repository.PaymentRepository;
+import com.example.payment.repository.PendingPayment;
 import com.example.payment.web.external.PgApiClient;
+import com.example.payment.web.external.PgCallGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.LocalDateTime;
 import java.util.List;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
 
 class TestPaymentAdjustmentService extends PaymentAdjustmentService {
 	private final boolean withdrawStatus;
 
 	public TestPaymentAdjustmentService(PaymentRepository paymentRepository, EnrollmentService enrollmentService,
-		PgApiClient pgApiClient, boolean withdrawStatus) {
-		super(paymentRepository, enrollmentService, pgApiClient);
+		PaymentAdjustmentBatchRepository paymentAdjustmentBatchRepository, PgApiClient pgApiClient,
+		PgCallGuard pgCallGuard, MeterRegistry meterRegistry, int pageSize, boolean withdrawStatus) {
+		super(paymentRepository, enrollmentService, paymentAdjustmentBatchRepository, pgApiClient, pgCallGuard, null,
+			meterRegistry, pageSize, 2);
 		this.withdrawStatus = withdrawStatus;
 	}
 
@@ -44,13 +55,21 @@ class PaymentAdjustmentServiceTest {
 	@Mock
 	private PaymentRepository paymentRepository;
 
+	@Mock
+	private PaymentAdjustmentBatchRepository paymentAdjustmentBatchRepository;
+
 	@Mock
 	private PgApiClient pgApiClient;
 
+	@Mock
+	private PgCallGuard pgCallGuard;
+
 	@Mock
 	private EnrollmentService enrollmentService;
 
-	private Payment pendingPayment;
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private PendingPayment pendingPayment;
 
 	/**
 	 * 묵킹으로 true가 고정되어 있어 테스트마다 서로 다른 withdrawStatus 값을 설정할 수 있도록 임시처리
@@ -62,63 +81,133 @@ class PaymentAdjustmentServiceTest {
 
 	@BeforeEach
 	void setUp() {
-		pendingPayment = new Payment();
-		pendingPayment.setId(10L);
-		pendingPayment.setLectureId(lectureId);
-		pendingPayment.setUserId(userId);
-		// 생성시간을 현재 시간에서 6분 전으로 설정하여 threshold 조건을 만족하도록 함.
-		pendingPayment.setCreatedAt(LocalDateTime.now().minusMinutes(6));
-		// 초기 상태는 PENDING 상태라고 가정
-		pendingPayment.setStatus("PENDING");
+		// 초기 상태는 PAYMENT_PROCESSED(미완료) 상태라고 가정
+		pendingPayment = new PendingPayment(10L, lectureId, userId, PaymentStatus.PAYMENT_PROCESSED,
+			LocalDateTime.now().minusMinutes(6));
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (testService != null) {
+			testService.shutdown();
+		}
+	}
+
+	private TestPaymentAdjustmentService service(int pageSize, boolean withdrawStatus) {
+		return new TestPaymentAdjustmentService(paymentRepository, enrollmentService, paymentAdjustmentBatchRepository,
+			pgApiClient, pgCallGuard, meterRegistry, pageSize, withdrawStatus);
+	}
+
+	// 단일 노드(파티션 1개) 기준 afterId 이후 페이지 조회
+	private OngoingStubbing<List<PendingPayment>> whenPageAfter(long afterId) {
+		return when(paymentRepository.findPendingPage(eq(PaymentStatus.NOT_ADJUSTABLE), any(LocalDateTime.class), eq(1L),
+			eq(List.of(0L)), eq(afterId), any(Limit.class)));
 	}
 
 	/**
 	 * 성공 케이스: PG 결제내역 조회가 true를 반환하면
-	 * EnrollmentService.finalizeEnrollment 호출, Payment 상태가 FINAL_COMPLETED로 업데이트되어 저장됨.
+	 * 페이지 단위 배치로 Enrollment 생성 및 Payment 상태가 FINAL_COMPLETED로 반영됨.
 	 */
 	@Test
 	void testAdjustPendingPayments_success() {
-		// TestPaymentAdjustmentService의 withdrawStatus를 true로 설정
-		testService = new TestPaymentAdjustmentService(paymentRepository, enrollmentService, pgApiClient ,true);
+		testService = service(100, true);
 
-		// PaymentRepository에서 pendingPayment 반환
-		when(paymentRepository.findByStatusNotInAndCreatedAtBefore(eq(List.of("EXCEEDS_CAPACITY","FINAL_COMPLETED")), any(LocalDateTime.class)))
-			.thenReturn(List.of(pendingPayment));
+		whenPageAfter(0L).thenReturn(List.of(pendingPayment));
+		when(paymentAdjustmentBatchRepository.completeAll(List.of(pendingPayment))).thenReturn(List.of(pendingPayment));
 
 		// 조정 프로세스 실행
 		testService.adjustPendingPayments();
 
-		// EnrollmentService.finalizeEnrollment가 호출되었는지 검증
-		verify(enrollmentService, times(1)).adjustPayments(pendingPayment.getLectureId(), pendingPayment.getUserId());
-
+		verify(paymentAdjustmentBatchRepository, times(1)).completeAll(List.of(pendingPayment));
+		verify(enrollmentService, never()).adjustPayments(any(Payment.class));
+		assertEquals(1.0, meterRegistry.get("payment.adjustment.scanned").counter().count());
+		assertEquals(1.0, meterRegistry.get("payment.adjustment.fixed").counter().count());
+		assertEquals(1, meterRegistry.get("payment.adjustment.duration").timer().count());
 	}
 
 	/**
 	 * 실패 케이스: PG 결제내역 조회가 false를 반환하면
-	 * EnrollmentService.finalizeEnrollment 호출되지 않고 Payment 상태 변경없이 저장됨.
+	 * 보정 반영이 호출되지 않음.
 	 */
 	@Test
 	void testAdjustPendingPayments_noWithdrawal() {
-		// TestPaymentAdjustmentService의 withdrawStatus를 false로 설정
-		testService = new TestPaymentAdjustmentService(paymentRepository, enrollmentService,
-			pgApiClient, true);
+		testService = service(100, false);
 
-		when(paymentRepository.findByStatusNotInAndCreatedAtBefore(
-			eq(List.of("EXCEEDS_CAPACITY", "FINAL_COMPLETED")), any(LocalDateTime.class)))
-			.thenReturn(List.of(pendingPayment));
+		whenPageAfter(0L).thenReturn(List.of(pendingPayment));
 
 		testService.adjustPendingPayments();
 
-		// EnrollmentService.finalizeEnrollment가 호출되지 않아야 함.
-		verify(enrollmentService, never()).finalizeEnrollment(anyLong(), anyLong());
+		verify(paymentAdjustmentBatchRepository, never()).completeAll(anyList());
+		verify(enrollmentService, never()).adjustPayments(any(Payment.class));
+		assertEquals(0.0, meterRegistry.get("payment.adjustment.fixed").counter().count());
+	}
 
-		// Payment 상태가 변경되지 않으므로, save() 호출은 없거나 같은 상태로 저장
-		// 만약 save()가 호출되면 상태가 변경되지 않았는지 확인
-		ArgumentCaptor<Payment> paymentCaptor = ArgumentCaptor.forClass(Payment.class);
-		verify(paymentRepository, atMost(1)).save(paymentCaptor.capture());
-		if (!paymentCaptor.getAllValues().isEmpty()) {
-			Payment savedPayment = paymentCaptor.getValue();
-			assertNotEquals("FINAL_COMPLETED", savedPayment.getStatus());
-		}
+	/**
+	 * 페이지가 가득 차면 마지막 id 이후부터 다음 페이지를 조회해야 함
+	 */
+	@Test
+	void testAdjustPendingPayments_keysetPaging() {
+		testService = service(1, true);
+		PendingPayment next = new PendingPayment(20L, lectureId, 200L, PaymentStatus.CREATED,
+			LocalDateTime.now().minusMinutes(6));
+
+		whenPageAfter(0L).thenReturn(List.of(pendingPayment));
+		whenPageAfter(10L).thenReturn(List.of(next));
+		whenPageAfter(20L).thenReturn(List.of());
+		when(paymentAdjustmentBatchRepository.completeAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		testService.adjustPendingPayments();
+
+		verify(paymentAdjustmentBatchRepository).completeAll(List.of(pendingPayment));
+		verify(paymentAdjustmentBatchRepository).completeAll(List.of(next));
+		assertEquals(2.0, meterRegistry.get("payment.adjustment.scanned").counter().count());
+		assertEquals(2.0, meterRegistry.get("payment.adjustment.fixed").counter().count());
+	}
+
+	/**
+	 * 배치 반영이 실패하면 건별 보정으로 다시 반영해야 함
+	 */
+	@Test
+	void testAdjustPendingPayments_batchFailureFallsBack() {
+		testService = service(100, true);
+
+		whenPageAfter(0L).thenReturn(List.of(pendingPayment));
+		when(paymentAdjustmentBatchRepository.completeAll(anyList()))
+			.thenThrow(new DataAccessResourceFailureException("batch failed"));
+
+		testService.adjustPendingPayments();
+
+		verify(enrollmentService, times(1)).adjustPayments(argThat(payment ->
+			payment.getId().equals(10L) && payment.getStatus() == PaymentStatus.PAYMENT_PROCESSED));
+		assertEquals(1.0, meterRegistry.get("payment.adjustment.fixed").counter().count());
+	}
+
+	/**
+	 * PG 회로가 열려 있으면 PG 를 조회하지 않고 다음 실행으로 넘겨야 함
+	 */
+	@Test
+	void testAdjustPendingPayments_circuitOpen() {
+		testService = service(100, true);
+		when(pgCallGuard.isOpen()).thenReturn(true);
+		whenPageAfter(0L).thenReturn(List.of(pendingPayment));
+
+		testService.adjustPendingPayments();
+
+		verify(paymentAdjustmentBatchRepository, never()).completeAll(anyList());
+		assertEquals(0.0, meterRegistry.get("payment.adjustment.scanned").counter().count());
+	}
+
+	/**
+	 * 기한이 지난 결제는 전체 조회 없이 전달받은 결제만 보정해야 함
+	 */
+	@Test
+	void testAdjust_onlyGivenPayments() {
+		testService = service(100, true);
+		when(paymentAdjustmentBatchRepository.completeAll(List.of(pendingPayment))).thenReturn(List.of(pendingPayment));
+
+		long fixed = testService.adjust(List.of(pendingPayment));
+
+		assertEquals(1, fixed);
+		verify(paymentRepository, never()).findPendingPage(any(), any(), anyLong(), any(), any(), any());
 	}
 }
@@ -0,0 +1,188 @@
+package com.example.payment.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.example.payment.application.exception.CapacityExceededException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class SeatRequestCombinerTest {
+
+	private final Long lectureId = 1L;
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	// 정원 2석: 요청 순서대로 앞의 2명만 확보
+	private final List<List<Long>> groups = new CopyOnWriteArrayList<>();
+	private final Function<List<Long>, BatchSeatReservation> group = userIds -> {
+		groups.add(userIds);
+		int reserved = Math.min(2, userIds.size());
+		return new BatchSeatReservation(userIds.subList(0, reserved), userIds.subList(reserved, userIds.size()));
+	};
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	private SeatRequestCombiner combiner(int maxGroupSize) {
+		// window 를 길게 잡고 그룹이 가득 차면 바로 처리되도록 구성
+		return new SeatRequestCombiner(mock(PlatformTransactionManager.class), true, 5_000_000, maxGroupSize);
+	}
+
+	// 경합이 없으면 기다리지 않고 단건 처리해야 함
+	@Test
+	void testReserve_noContentionRunsSingle() {
+		SeatRequestCombiner combiner = combiner(4);
+		AtomicInteger single = new AtomicInteger();
+
+		combiner.reserve(lectureId, 100L, single::incrementAndGet, group);
+
+		assertEquals(1, single.get());
+		assertTrue(groups.isEmpty());
+	}
+
+	// 같은 강의 요청이 진행 중이면 이후 요청은 한 번의 일괄 처리로 묶이고, 결과를 각자 받아야 함
+	@Test
+	void testReserve_combinesConcurrentRequests() throws Exception {
+		SeatRequestCombiner combiner = combiner(3);
+		CountDownLatch releaseFirst = new CountDownLatch(1);
+		CountDownLatch firstStarted = new CountDownLatch(1);
+
+		// 첫 요청은 단건 처리 중 대기 (행 락 대기 상황)
+		Future<?> first = executor.submit(() -> combiner.reserve(lectureId, 1L, () -> {
+			firstStarted.countDown();
+			await(releaseFirst);
+		}, group));
+		assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+		AtomicInteger exceeded = new AtomicInteger();
+		List<Future<?>> followers = new CopyOnWriteArrayList<>();
+		for (long userId = 100; userId < 103; userId++) {
+			long id = userId;
+			followers.add(executor.submit(() -> {
+				try {
+					combiner.reserve(lectureId, id, () -> {
+						throw new AssertionError("should be combined");
+					}, group);
+				} catch (CapacityExceededException e) {
+					exceeded.incrementAndGet();
+				}
+			}));
+		}
+		for (Future<?> follower : followers) {
+			follower.get(5, TimeUnit.SECONDS);
+		}
+		releaseFirst.countDown();
+		first.get(5, TimeUnit.SECONDS);
+
+		assertEquals(1, groups.size());
+		assertEquals(Set.of(100L, 101L, 102L), Set.copyOf(groups.get(0)));
+		assertEquals(1, exceeded.get());
+	}
+
+	// 일괄 처리가 실패하면 각 요청은 단건 처리로 대체해야 함
+	@Test
+	void testReserve_groupFailureFallsBackToSingle() throws Exception {
+		SeatRequestCombiner combiner = combiner(2);
+		CountDownLatch releaseFirst = new CountDownLatch(1);
+		CountDownLatch firstStarted = new CountDownLatch(1);
+		AtomicInteger single = new AtomicInteger();
+		Function<List<Long>, BatchSeatReservation> failing = userIds -> {
+			throw new IllegalStateException("deadlock");
+		};
+
+		Future<?> first = executor.submit(() -> combiner.reserve(lectureId, 1L, () -> {
+			firstStarted.countDown();
+			await(releaseFirst);
+		}, failing));
+		assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+		Future<?> a = executor.submit(() -> combiner.reserve(lectureId, 100L, single::incrementAndGet, failing));
+		Future<?> b = executor.submit(() -> combiner.reserve(lectureId, 101L, single::incrementAndGet, failing));
+		a.get(5, TimeUnit.SECONDS);
+		b.get(5, TimeUnit.SECONDS);
+		releaseFirst.countDown();
+		first.get(5, TimeUnit.SECONDS);
+
+		assertEquals(2, single.get());
+	}
+
+	// 같은 사용자의 중복 요청은 첫 요청만 좌석을 받아야 함
+	@Test
+	void testReserve_duplicateUserInGroup() throws Exception {
+		SeatRequestCombiner combiner = combiner(2);
+		CountDownLatch releaseFirst = new CountDownLatch(1);
+		CountDownLatch firstStarted = new CountDownLatch(1);
+		Future<?> first = executor.submit(() -> combiner.reserve(lectureId, 1L, () -> {
+			firstStarted.countDown();
+			await(releaseFirst);
+		}, group));
+		assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+		AtomicInteger failed = new AtomicInteger();
+		Runnable duplicate = () -> {
+			try {
+				combiner.reserve(lectureId, 100L, () -> {
+				}, group);
+			} catch (RuntimeException e) {
+				failed.incrementAndGet();
+			}
+		};
+		Future<?> a = executor.submit(duplicate);
+		Future<?> b = executor.submit(duplicate);
+		a.get(5, TimeUnit.SECONDS);
+		b.get(5, TimeUnit.SECONDS);
+		releaseFirst.countDown();
+		first.get(5, TimeUnit.SECONDS);
+
+		assertEquals(1, failed.get());
+	}
+
+	// 묶지 않는 경우 단건 처리의 예외가 그대로 전달되어야 함
+	@Test
+	void testReserve_singleFailurePropagates() {
+		SeatRequestCombiner combiner = combiner(1);
+
+		assertThrows(CapacityExceededException.class, () -> combiner.reserve(lectureId, 100L, () -> {
+			throw new CapacityExceededException("수강 인원이 모두 찼습니다.");
+		}, group));
+	}
+
+	// 단건 처리는 결합기가 연 트랜잭션에서 실행되어야 함 (호출자는 트랜잭션 없이 호출)
+	@Test
+	void testReserve_singleRunsInOwnTransaction() {
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		SeatRequestCombiner combiner = new SeatRequestCombiner(transactionManager, true, 5_000_000, 4);
+		AtomicInteger single = new AtomicInteger();
+
+		combiner.reserve(lectureId, 100L, single::incrementAndGet, group);
+
+		assertEquals(1, single.get());
+		verify(transactionManager).getTransaction(any());
+		verify(transactionManager).commit(any());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.example.payment.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.payment.entity.id.TsidFactory;
+import org.junit.jupiter.api.Test;
+
+class TsidNodeConfigTest {
+
+	// 지정한 노드 번호를 그대로 사용해야 함
+	@Test
+	void testResolveNode_configured() {
+		assertEquals(7, TsidNodeConfig.resolveNode(7, new String[] {"virtual"}));
+	}
+
+	// 프로필을 지정해 실행하면서 노드 번호가 없으면 시작에 실패해야 함
+	@Test
+	void testResolveNode_requiredWithProfile() {
+		assertThrows(IllegalStateException.class, () -> TsidNodeConfig.resolveNode(-1, new String[] {"virtual"}));
+	}
+
+	// 프로필 없는 로컬 실행이나 test 프로필에서만 무작위 노드 번호를 써야 함
+	@Test
+	void testResolveNode_randomWithoutProfile() {
+		int local = TsidNodeConfig.resolveNode(-1, new String[0]);
+		int test = TsidNodeConfig.resolveNode(-1, new String[] {"test"});
+
+		assertTrue(local >= 0 && local <= TsidFactory.MAX_NODE);
+		assertTrue(test >= 0 && test <= TsidFactory.MAX_NODE);
+	}
+}
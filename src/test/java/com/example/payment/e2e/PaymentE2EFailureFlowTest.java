@@ -7,16 +7,22 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.example.payment.application.exception.BusinessException;
 import com.example.payment.application.orchestration.PaymentApproveOrchestration;
+import com.example.payment.application.seat.SeatAllocationStrategies;
 import com.example.payment.application.service.EnrollmentService;
+import com.example.payment.application.service.SeatRequestCombiner;
 import com.example.payment.application.service.PaymentAdjustmentService;
 import com.example.payment.entity.Enrollment;
 import com.example.payment.entity.EnrollmentCount;
 import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
 import com.example.payment.repository.EnrollmentCountRepository;
 import com.example.payment.repository.EnrollmentRepository;
+import com.example.payment.repository.PaymentHotPathRepository;
 import com.example.payment.repository.PaymentRepository;
 import com.example.payment.web.controller.dto.PaymentRequest;
+import com.example.payment.web.external.MockPgApiClient;
 import com.example.payment.web.external.PgApiClient;
+import com.example.payment.web.external.PgCallGuard;
 import com.example.payment.web.external.dto.PaymentResponse;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -88,7 +94,7 @@ class PaymentE2EFailureFlowTest {
 		Payment payment = new Payment();
 		payment.setLectureId(1L);
 		payment.setUserId(1L);
-		payment.setStatus("CREATED");
+		payment.setStatus(PaymentStatus.CREATED);
 		payment.setCreatedAt(LocalDateTime.now().minusMinutes(1));
 		paymentRepository.save(payment);
 
@@ -114,7 +120,7 @@ class PaymentE2EFailureFlowTest {
 		List<Payment> payments = paymentRepository.findAll();
 		assertThat(payments).isNotEmpty();
 		Payment findPayment = payments.get(0);
-		assertThat(findPayment.getStatus()).isEqualTo("CREATED");
+		assertThat(findPayment.getStatus()).isEqualTo(PaymentStatus.CREATED);
 	}
 
 	/**
@@ -138,7 +144,7 @@ class PaymentE2EFailureFlowTest {
 		Payment payment = new Payment();
 		payment.setLectureId(lectureId);
 		payment.setUserId(userId);
-		payment.setStatus("CREATED");
+		payment.setStatus(PaymentStatus.CREATED);
 		payment.setCreatedAt(LocalDateTime.now().minusMinutes(1));
 		paymentRepository.save(payment);
 
@@ -156,7 +162,7 @@ class PaymentE2EFailureFlowTest {
 		// CompensationService의 보상 로직이 비동기적으로 처리되어,
 		// Payment 상태가 "CANCELLED" 또는 "CANCELLATION_FAILED" 중 하나로 업데이트되어야 함.
 		Payment p = paymentRepository.findAll().get(0);
-		assertThat(p.getStatus()).isIn("CANCELLED", "CANCELLATION_FAILED");
+		assertThat(p.getStatus()).isIn(PaymentStatus.CANCELLED, PaymentStatus.CANCELLATION_FAILED);
 
 		// Enrollment는 생성되지 않아야 함.
 		List<Enrollment> enrollments = enrollmentRepository.findAll();
@@ -187,7 +193,7 @@ class PaymentE2EFailureFlowTest {
 		Payment payment = new Payment();
 		payment.setLectureId(lectureId);
 		payment.setUserId(userId);
-		payment.setStatus("CREATED");
+		payment.setStatus(PaymentStatus.CREATED);
 		payment.setCreatedAt(LocalDateTime.now().minusMinutes(1));
 		paymentRepository.save(payment);
 
@@ -204,7 +210,7 @@ class PaymentE2EFailureFlowTest {
 
 		// CompensationService의 보상 로직 실행 후, Payment 상태가 "CANCELLED" 또는 "FINAL_COMPENSATION_FAILED"로 업데이트되어야 함.
 		Payment p = paymentRepository.findAll().get(0);
-		assertThat(p.getStatus()).isIn("CANCELLED", "FINAL_COMPENSATION_FAILED");
+		assertThat(p.getStatus()).isIn(PaymentStatus.CANCELLED, PaymentStatus.FINAL_COMPENSATION_FAILED);
 
 		// Enrollment는 생성되지 않아야 함.
 		List<Enrollment> enrollments = enrollmentRepository.findAll();
@@ -232,9 +238,9 @@ class PaymentE2EFailureFlowTest {
 		@Bean
 		@Primary
 		public PgApiClient testPgApiExecutorService() {
-			return new PgApiClient() {
+			return new MockPgApiClient() {
 				@Override
-				public PaymentResponse mockApproveApiCall(PaymentRequest request) {
+				public PaymentResponse approve(PaymentRequest request) {
 					PaymentResponse response = new PaymentResponse();
 					response.setSuccess(false);
 					response.setMessage("Simulated PG API failure");
@@ -251,13 +257,17 @@ class PaymentE2EFailureFlowTest {
 	static class TestEnrollmentServiceConfig {
 		@Bean
 		@Primary
-		public EnrollmentService testEnrollmentService(EnrollmentCountRepository ecRepo,
-			EnrollmentRepository eRepo,
+		public EnrollmentService testEnrollmentService(EnrollmentRepository eRepo,
 			PaymentRepository pRepo,
-			PgApiClient pgApiClient) {
-			return new EnrollmentService(ecRepo, eRepo, pRepo, pgApiClient) {
+			PgApiClient pgApiClient,
+			PgCallGuard pgCallGuard,
+			SeatAllocationStrategies seatAllocationStrategies,
+			SeatRequestCombiner seatRequestCombiner,
+			PaymentHotPathRepository paymentHotPathRepository) {
+			return new EnrollmentService(eRepo, pRepo, pgApiClient, pgCallGuard, seatAllocationStrategies, seatRequestCombiner,
+				paymentHotPathRepository) {
 				@Override
-				public void finalizeEnrollment(Long lectureId, Long userId) {
+				public void finalizeEnrollment(PaymentRequest paymentRequest) {
 					// Enrollment 생성 전 예외 발생을 통해 트랜잭션 3 실패 시뮬레이션
 					throw new BusinessException("Simulated finalizeEnrollment failure");
 				}
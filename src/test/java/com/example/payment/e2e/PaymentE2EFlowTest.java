@@ -5,6 +5,7 @@ import com.example.payment.application.service.PaymentAdjustmentService;
 import com.example.payment.entity.Enrollment;
 import com.example.payment.entity.EnrollmentCount;
 import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
 import com.example.payment.repository.EnrollmentCountRepository;
 import com.example.payment.repository.EnrollmentRepository;
 import com.example.payment.repository.PaymentRepository;
@@ -79,7 +80,7 @@ class PaymentE2EFlowTest {
 		Payment payment = new Payment();
 		payment.setLectureId(1L);
 		payment.setUserId(1L);
-		payment.setStatus("CREATED");
+		payment.setStatus(PaymentStatus.CREATED);
 		payment.setCreatedAt(LocalDateTime.now().minusMinutes(1));
 		paymentRepository.save(payment);
 
@@ -104,7 +105,7 @@ class PaymentE2EFlowTest {
 		List<Payment> payments = paymentRepository.findAll();
 		assertThat(payments).hasSize(1);
 		Payment findPayment = payments.get(0);
-		assertThat(findPayment.getStatus()).isEqualTo("FINAL_COMPLETED");
+		assertThat(findPayment.getStatus()).isEqualTo(PaymentStatus.FINAL_COMPLETED);
 
 		// Enrollment 레코드가 생성되어야 함
 		List<Enrollment> enrollments = enrollmentRepository.findAll();
@@ -116,7 +117,7 @@ class PaymentE2EFlowTest {
 
 	/**
 	 * 전체 플로우 테스트 2: 조정 프로세스 검증
-	 * - Payment 상태가 FINAL_COMPLETED가 아닌 미완료 상태(PENDING)로 오래 남은 경우,
+	 * - Payment 상태가 FINAL_COMPLETED가 아닌 미완료 상태(PAYMENT_PROCESSED 등)로 오래 남은 경우,
 	 *   PaymentAdjustmentService.adjustPendingPayments()가 작동하여 상태를 FINAL_COMPLETED로 변경하고 Enrollment를 생성해야 합니다.
 	 */
 	@Test
@@ -128,11 +129,11 @@ class PaymentE2EFlowTest {
 		ec.setCapacity(100);
 		enrollmentCountRepository.save(ec);
 
-		// 미완료 상태의 Payment 레코드 생성 (PENDING 상태, 생성 시간이 5분 이전)
+		// 미완료 상태의 Payment 레코드 생성 (PAYMENT_PROCESSED 상태, 생성 시간이 5분 이전)
 		Payment payment = new Payment();
 		payment.setLectureId(1L);
 		payment.setUserId(1L);
-		payment.setStatus("PENDING");
+		payment.setStatus(PaymentStatus.PAYMENT_PROCESSED);
 		payment.setCreatedAt(LocalDateTime.now().minusMinutes(6));
 		paymentRepository.save(payment);
 
@@ -142,7 +143,7 @@ class PaymentE2EFlowTest {
 		// Payment 상태가 FINAL_COMPLETED로 변경되었는지 확인
 		Payment adjustedPayment = paymentRepository.findById(payment.getId()).orElse(null);
 		assertThat(adjustedPayment).isNotNull();
-		assertThat(adjustedPayment.getStatus()).isEqualTo("FINAL_COMPLETED");
+		assertThat(adjustedPayment.getStatus()).isEqualTo(PaymentStatus.FINAL_COMPLETED);
 
 		// Enrollment가 새로 생성되었는지 확인
 		List<Enrollment> enrollments = enrollmentRepository.findAll();
@@ -0,0 +1,57 @@
+package com.example.payment.entity;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class PaymentStatusTest {
+
+	// 정상 흐름과 보상 흐름의 전이는 허용되어야 함
+	@Test
+	void testTransition_allowedMoves() {
+		assertDoesNotThrow(() -> PaymentStatus.CREATED.checkTransitionTo(PaymentStatus.COUNT_UPDATED));
+		assertDoesNotThrow(() -> PaymentStatus.COUNT_UPDATED.checkTransitionTo(PaymentStatus.PAYMENT_PROCESSED));
+		assertDoesNotThrow(() -> PaymentStatus.PAYMENT_PROCESSED.checkTransitionTo(PaymentStatus.FINAL_COMPLETED));
+		assertDoesNotThrow(() -> PaymentStatus.CREATED.checkTransitionTo(PaymentStatus.EXCEEDS_CAPACITY));
+		assertDoesNotThrow(() -> PaymentStatus.COUNT_UPDATED.checkTransitionTo(PaymentStatus.CANCELLATION_FAILED));
+		assertDoesNotThrow(() -> PaymentStatus.PAYMENT_PROCESSED.checkTransitionTo(PaymentStatus.FINAL_COMPENSATION_FAILED));
+	}
+
+	// 단계를 건너뛰거나 되돌리는 전이, 종료 상태에서의 전이는 거부되어야 함
+	@Test
+	void testTransition_illegalMoves() {
+		assertThrows(IllegalStateException.class,
+			() -> PaymentStatus.CREATED.checkTransitionTo(PaymentStatus.PAYMENT_PROCESSED));
+		assertThrows(IllegalStateException.class,
+			() -> PaymentStatus.PAYMENT_PROCESSED.checkTransitionTo(PaymentStatus.COUNT_UPDATED));
+		assertThrows(IllegalStateException.class,
+			() -> PaymentStatus.FINAL_COMPLETED.checkTransitionTo(PaymentStatus.CANCELLED));
+		assertThrows(IllegalStateException.class,
+			() -> PaymentStatus.EXCEEDS_CAPACITY.checkTransitionTo(PaymentStatus.COUNT_UPDATED));
+	}
+
+	// 보정 대상 상태만 FINAL_COMPLETED 로 보정할 수 있어야 함
+	@Test
+	void testSourcesOf_finalCompletedMatchesAdjustableStatuses() {
+		Set<PaymentStatus> sources = PaymentStatus.sourcesOf(PaymentStatus.FINAL_COMPLETED);
+
+		assertEquals(EnumSet.complementOf(EnumSet.copyOf(PaymentStatus.NOT_ADJUSTABLE)), sources);
+		assertFalse(PaymentStatus.EXCEEDS_CAPACITY.canTransitionTo(PaymentStatus.FINAL_COMPLETED));
+	}
+
+	// 코드는 고유해야 하며 코드로 다시 조회할 수 있어야 함
+	@Test
+	void testFromCode_roundTrip() {
+		for (PaymentStatus status : PaymentStatus.values()) {
+			assertEquals(status, PaymentStatus.fromCode(status.getCode()));
+			assertTrue(status.getCode() > 0 && status.getCode() <= Byte.MAX_VALUE);
+		}
+		assertThrows(IllegalArgumentException.class, () -> PaymentStatus.fromCode(0));
+	}
+}
@@ -0,0 +1,114 @@
+package com.example.payment.entity.id;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TsidFactoryTest {
+
+	private static final long NOW = TsidFactory.EPOCH_MILLIS + 1_000_000L;
+
+	// 발급 시각과 노드 번호를 ID 에서 다시 꺼낼 수 있어야 함
+	@Test
+	void testNext_encodesMillisAndNode() {
+		TsidFactory factory = new TsidFactory(37, () -> NOW);
+
+		long id = factory.next();
+
+		assertTrue(id > 0);
+		assertEquals(NOW, TsidFactory.extractMillis(id));
+		assertEquals(37, TsidFactory.extractNode(id));
+	}
+
+	// 같은 밀리초에 순번을 다 써도 다음 밀리초를 당겨 쓰며 계속 증가해야 함
+	@Test
+	void testNext_sequenceOverflowBorrowsNextMillis() {
+		TsidFactory factory = new TsidFactory(1, () -> NOW);
+
+		long previous = factory.next();
+		for (int i = 0; i < 10_000; i++) {
+			long id = factory.next();
+			assertTrue(id > previous);
+			previous = id;
+		}
+		assertTrue(TsidFactory.extractMillis(previous) > NOW);
+	}
+
+	// 시계가 뒤로 가도 ID 는 줄어들지 않아야 함
+	@Test
+	void testNext_clockMovesBackwards() {
+		AtomicLong clock = new AtomicLong(NOW);
+		TsidFactory factory = new TsidFactory(1, clock::get);
+
+		long before = factory.next();
+		clock.set(NOW - 5_000);
+		long after = factory.next();
+
+		assertTrue(after > before);
+	}
+
+	// 여러 스레드가 동시에 발급해도 중복이 없어야 함
+	@Test
+	void testNext_concurrentUnique() throws InterruptedException {
+		TsidFactory factory = new TsidFactory(2);
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int t = 0; t < 8; t++) {
+			executor.submit(() -> {
+				for (int i = 0; i < 20_000; i++) {
+					ids.add(factory.next());
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(160_000, ids.size());
+	}
+
+	// 노드가 다르면 같은 시각이라도 ID 가 겹치지 않아야 함
+	@Test
+	void testNext_differentNodesDoNotCollide() {
+		TsidFactory node1 = new TsidFactory(1, () -> NOW);
+		TsidFactory node2 = new TsidFactory(2, () -> NOW);
+		Set<Long> ids = new HashSet<>();
+
+		for (int i = 0; i < 1000; i++) {
+			ids.add(node1.next());
+			ids.add(node2.next());
+		}
+
+		assertEquals(2000, ids.size());
+	}
+
+	// 한가할 때(밀리초마다 1건)도 하위 비트가 고르게 퍼져야 파티션 분배(MOD)가 한쪽으로 몰리지 않음
+	@Test
+	void testNext_lowBitsSpreadAcrossPartitions() {
+		AtomicLong clock = new AtomicLong(NOW);
+		TsidFactory factory = new TsidFactory(1, clock::get);
+		Set<Long> partitions = new HashSet<>();
+
+		for (int i = 0; i < 200; i++) {
+			clock.incrementAndGet();
+			partitions.add(factory.next() % 16);
+		}
+
+		assertEquals(16, partitions.size());
+	}
+
+	// 노드 번호는 10비트 범위여야 함
+	@Test
+	void testConstructor_rejectsOutOfRangeNode() {
+		assertThrows(IllegalArgumentException.class, () -> new TsidFactory(TsidFactory.MAX_NODE + 1));
+		assertThrows(IllegalArgumentException.class, () -> new TsidFactory(-1));
+	}
+}
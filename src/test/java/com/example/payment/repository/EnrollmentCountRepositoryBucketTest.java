@@ -0,0 +1,117 @@
+package com.example.payment.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.payment.entity.EnrollmentCount;
+import com.example.payment.support.EmbeddedMariaDb;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest
+class EnrollmentCountRepositoryBucketTest {
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		EmbeddedMariaDb.shared().springProperties().forEach((key, value) -> registry.add(key, () -> value));
+	}
+
+	@Autowired
+	private EnrollmentCountRepository enrollmentCountRepository;
+
+	private final Long lectureId = 1L;
+
+	@BeforeEach
+	void setUp() {
+		enrollmentCountRepository.deleteAll();
+		EnrollmentCount ec = new EnrollmentCount();
+		ec.setLectureId(lectureId);
+		ec.setCurrentCount(3);
+		ec.setCapacity(10);
+		enrollmentCountRepository.save(ec);
+	}
+
+	// 버킷으로 나눈 뒤에도 조회 결과는 버킷 합계여야 함
+	@Test
+	void testRebucket_keepsSummedView() {
+		enrollmentCountRepository.rebucket(lectureId, 4);
+
+		EnrollmentCount summed = enrollmentCountRepository.findByLectureId(lectureId);
+		assertThat(summed.getBucketCount()).isEqualTo(4);
+		assertThat(summed.getCapacity()).isEqualTo(10);
+		assertThat(summed.getCurrentCount()).isEqualTo(3);
+	}
+
+	// 버킷이 소진되면 다른 버킷으로 넘어가며, 전체 정원까지만 증가해야 함
+	@Test
+	void testTryIncrement_fallsBackToOtherBuckets() {
+		enrollmentCountRepository.rebucket(lectureId, 4);
+
+		for (int i = 0; i < 7; i++) {
+			assertThat(enrollmentCountRepository.tryIncrement(lectureId)).isEqualTo(1);
+		}
+		assertThat(enrollmentCountRepository.tryIncrement(lectureId)).isZero();
+		assertThat(enrollmentCountRepository.findByLectureId(lectureId).getCurrentCount()).isEqualTo(10);
+
+		// 반환된 좌석은 다시 예약 가능
+		assertThat(enrollmentCountRepository.decrement(lectureId)).isEqualTo(1);
+		assertThat(enrollmentCountRepository.tryIncrement(lectureId)).isEqualTo(1);
+	}
+
+	// 단일 행 모드로 되돌리면 버킷 합계가 요약 행으로 옮겨져야 함
+	@Test
+	void testRebucket_backToSingleRow() {
+		enrollmentCountRepository.rebucket(lectureId, 4);
+		enrollmentCountRepository.tryIncrement(lectureId);
+
+		enrollmentCountRepository.rebucket(lectureId, 1);
+
+		EnrollmentCount ec = enrollmentCountRepository.findByLectureId(lectureId);
+		assertThat(ec.getBucketCount()).isEqualTo(1);
+		assertThat(ec.getCurrentCount()).isEqualTo(4);
+		assertThat(enrollmentCountRepository.tryIncrement(lectureId)).isEqualTo(1);
+	}
+
+	// 일괄 증가: 여유가 있으면 요청 수만큼, 부족하면 남은 좌석만큼만 증가해야 함
+	@Test
+	void testTryIncrementBy_partialFill() {
+		assertThat(enrollmentCountRepository.tryIncrementBy(lectureId, 4)).isEqualTo(4);
+		assertThat(enrollmentCountRepository.tryIncrementBy(lectureId, 5)).isEqualTo(3);
+		assertThat(enrollmentCountRepository.tryIncrementBy(lectureId, 1)).isZero();
+		assertThat(enrollmentCountRepository.findByLectureId(lectureId).getCurrentCount()).isEqualTo(10);
+	}
+
+	// 버킷 모드에서도 일괄 증가는 전체 정원까지만 여러 버킷에 나눠 반영되어야 함
+	@Test
+	void testTryIncrementBy_bucketMode() {
+		enrollmentCountRepository.rebucket(lectureId, 4);
+
+		assertThat(enrollmentCountRepository.tryIncrementBy(lectureId, 5)).isEqualTo(5);
+		assertThat(enrollmentCountRepository.tryIncrementBy(lectureId, 5)).isEqualTo(2);
+		assertThat(enrollmentCountRepository.findByLectureId(lectureId).getCurrentCount()).isEqualTo(10);
+		assertThat(enrollmentCountRepository.tryIncrement(lectureId)).isZero();
+	}
+
+	// 동시 요청에서도 정원을 초과해 증가하지 않아야 함
+	@Test
+	void testTryIncrement_concurrentNeverOversells() throws Exception {
+		enrollmentCountRepository.rebucket(lectureId, 4);
+		AtomicInteger success = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 40; i++) {
+			executor.submit(() -> success.addAndGet(enrollmentCountRepository.tryIncrement(lectureId)));
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(success.get()).isEqualTo(7);
+		assertThat(enrollmentCountRepository.findByLectureId(lectureId).getCurrentCount()).isEqualTo(10);
+	}
+}
@@ -0,0 +1,219 @@
+package com.example.payment.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.payment.application.exception.BusinessException;
+import com.example.payment.application.exception.CapacityExceededException;
+import com.example.payment.application.service.EnrollmentService;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.entity.id.TsidFactory;
+import com.example.payment.support.EmbeddedMariaDb;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(properties = "payment.hot-path.jdbc.enabled=true")
+class PaymentHotPathRepositoryTest {
+
+	private static final Pattern DML_TABLE =
+		Pattern.compile("(?i)\\b(?:UPDATE|INSERT\\s+INTO|DELETE\\s+FROM)\\s+(\\w+)");
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		EmbeddedMariaDb.shared().springProperties().forEach((key, value) -> registry.add(key, () -> value));
+	}
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private EnrollmentCountRepository enrollmentCountRepository;
+
+	@Autowired
+	private PaymentHotPathRepository paymentHotPathRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final Long lectureId = 1L;
+	private final Long userId = 100L;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM enrollment");
+		jdbcTemplate.update("DELETE FROM payment");
+		jdbcTemplate.update("DELETE FROM enrollment_count_bucket");
+		jdbcTemplate.update("DELETE FROM enrollment_count");
+	}
+
+	// 좌석 확보와 Payment 상태 변경이 함께 반영되어야 함
+	@Test
+	void testReserveSeat_success() {
+		insertLecture(10);
+		insertPayment(PaymentStatus.CREATED);
+
+		enrollmentService.enrollmentCountTryIncrement(lectureId, userId);
+
+		assertThat(currentCount()).isEqualTo(1);
+		assertThat(paymentStatus()).isEqualTo(PaymentStatus.COUNT_UPDATED);
+	}
+
+	// Payment 가 CREATED 가 아니면 증가시킨 좌석까지 롤백되어야 함
+	@Test
+	void testReserveSeat_statusMismatchRollsBack() {
+		insertLecture(10);
+		insertPayment(PaymentStatus.PAYMENT_PROCESSED);
+
+		assertThatThrownBy(() -> enrollmentService.enrollmentCountTryIncrement(lectureId, userId))
+			.isInstanceOf(BusinessException.class)
+			.hasMessageContaining("CREATED -> COUNT_UPDATED");
+
+		assertThat(currentCount()).isZero();
+		assertThat(paymentStatus()).isEqualTo(PaymentStatus.PAYMENT_PROCESSED);
+	}
+
+	// 정원이 찼으면 기존과 같이 CapacityExceededException
+	@Test
+	void testReserveSeat_full() {
+		insertLecture(0);
+		insertPayment(PaymentStatus.CREATED);
+
+		assertThatThrownBy(() -> enrollmentService.enrollmentCountTryIncrement(lectureId, userId))
+			.isInstanceOf(CapacityExceededException.class);
+
+		assertThat(paymentStatus()).isEqualTo(PaymentStatus.CREATED);
+	}
+
+	// 버킷 모드 강의는 프로시저가 갱신하지 않고 JPA 경로로 처리되어야 함
+	@Test
+	void testReserveSeat_bucketModeFallsBack() {
+		insertLecture(4);
+		enrollmentCountRepository.rebucket(lectureId, 2);
+		insertPayment(PaymentStatus.CREATED);
+
+		enrollmentService.enrollmentCountTryIncrement(lectureId, userId);
+
+		assertThat(enrollmentCountRepository.findByLectureId(lectureId).getCurrentCount()).isEqualTo(1);
+		assertThat(paymentStatus()).isEqualTo(PaymentStatus.COUNT_UPDATED);
+	}
+
+	// 최종 반영: Payment 상태 변경과 Enrollment 생성이 함께 반영되어야 함
+	@Test
+	void testFinalizeEnrollment_success() {
+		long paymentId = insertPayment(PaymentStatus.PAYMENT_PROCESSED);
+		PaymentRequest request = new PaymentRequest();
+		request.setPaymentId(paymentId);
+		request.setLectureId(lectureId);
+		request.setUserId(userId);
+
+		enrollmentService.finalizeEnrollment(request);
+
+		assertThat(paymentStatus()).isEqualTo(PaymentStatus.FINAL_COMPLETED);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollment WHERE lecture_id = ? AND user_id = ?",
+			Integer.class, lectureId, userId)).isEqualTo(1);
+	}
+
+	// 최종 반영: 다른 사용자의 결제 ID 로는 그 결제를 바꾸지 않아야 함
+	@Test
+	void testFinalizeEnrollment_paymentIdOfAnotherUser() {
+		long paymentId = insertPayment(PaymentStatus.PAYMENT_PROCESSED);
+		PaymentRequest request = new PaymentRequest();
+		request.setPaymentId(paymentId);
+		request.setLectureId(lectureId);
+		request.setUserId(userId + 1);
+
+		assertThatThrownBy(() -> enrollmentService.finalizeEnrollment(request))
+			.isInstanceOf(BusinessException.class);
+
+		assertThat(paymentStatus()).isEqualTo(PaymentStatus.PAYMENT_PROCESSED);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollment", Integer.class)).isZero();
+	}
+
+	// 최종 반영: 상태가 다르면 Enrollment 를 만들지 않아야 함
+	@Test
+	void testFinalizeEnrollment_statusMismatch() {
+		insertPayment(PaymentStatus.COUNT_UPDATED);
+		PaymentRequest request = new PaymentRequest();
+		request.setLectureId(lectureId);
+		request.setUserId(userId);
+
+		assertThatThrownBy(() -> enrollmentService.finalizeEnrollment(request))
+			.isInstanceOf(BusinessException.class);
+
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollment", Integer.class)).isZero();
+	}
+
+	// 설치된 프로시저의 버전이 다를 때만 다시 설치해야 함
+	@Test
+	void testInstallProcedures_onlyWhenVersionChanged() throws IOException {
+		String script = new ClassPathResource(PaymentHotPathRepository.PROCEDURES_SCRIPT)
+			.getContentAsString(StandardCharsets.UTF_8);
+		assertThat(script.split(Pattern.quote("COMMENT '" + PaymentHotPathRepository.PROCEDURES_VERSION + "'")))
+			.hasSize(PaymentHotPathRepository.PROCEDURES.size() + 1);
+		assertThat(paymentHotPathRepository.isInstalled()).isTrue();
+
+		jdbcTemplate.execute("ALTER PROCEDURE payment_reserve_seat COMMENT 'payment-hot-path v0'");
+		assertThat(paymentHotPathRepository.isInstalled()).isFalse();
+
+		paymentHotPathRepository.installProcedures();
+		assertThat(paymentHotPathRepository.isInstalled()).isTrue();
+	}
+
+	// 프로시저의 갱신 순서가 LockOrder 를 따라야 함 (JPA 경로와 같은 락 순서)
+	@Test
+	void testProcedures_followLockOrder() throws IOException {
+		String script = new ClassPathResource(PaymentHotPathRepository.PROCEDURES_SCRIPT)
+			.getContentAsString(StandardCharsets.UTF_8);
+		int procedures = 0;
+		for (String statement : script.split(Pattern.quote(PaymentHotPathRepository.PROCEDURES_SEPARATOR))) {
+			if (!statement.contains("CREATE PROCEDURE")) {
+				continue;
+			}
+			procedures++;
+			List<LockOrder> touched = new ArrayList<>();
+			Matcher matcher = DML_TABLE.matcher(statement);
+			while (matcher.find()) {
+				String table = matcher.group(1);
+				touched.add(LockOrder.ofTable(table)
+					.orElseThrow(() -> new AssertionError("Table not in LockOrder: " + table)));
+			}
+			assertThat(touched).isNotEmpty().isSorted();
+		}
+		assertThat(procedures).isEqualTo(2);
+	}
+
+	private void insertLecture(int capacity) {
+		jdbcTemplate.update("INSERT INTO enrollment_count (id, lecture_id, current_count, capacity, bucket_count) "
+			+ "VALUES (?, ?, 0, ?, 1)", TsidFactory.global().next(), lectureId, capacity);
+	}
+
+	private long insertPayment(PaymentStatus status) {
+		long id = TsidFactory.global().next();
+		jdbcTemplate.update("INSERT INTO payment (id, lecture_id, user_id, status, created_at) VALUES (?, ?, ?, ?, NOW())",
+			id, lectureId, userId, status.getCode());
+		return id;
+	}
+
+	private int currentCount() {
+		return jdbcTemplate.queryForObject("SELECT current_count FROM enrollment_count WHERE lecture_id = ?",
+			Integer.class, lectureId);
+	}
+
+	private PaymentStatus paymentStatus() {
+		return PaymentStatus.fromCode(jdbcTemplate.queryForObject(
+			"SELECT status FROM payment WHERE lecture_id = ? AND user_id = ?", Integer.class, lectureId, userId));
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.payment.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.entity.id.TsidFactory;
+import com.example.payment.support.EmbeddedMariaDb;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * payment 테이블의 상태 변경/보정 조회가 인덱스를 사용하는지 EXPLAIN 으로 확인합니다.
+ */
+@SpringBootTest
+class PaymentRepositoryIndexTest {
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		EmbeddedMariaDb.shared().springProperties().forEach((key, value) -> registry.add(key, () -> value));
+	}
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM payment");
+		// 대부분 완료된 결제, 일부만 미완료 (운영 데이터 분포)
+		LocalDateTime createdAt = LocalDateTime.now().minusDays(1);
+		List<Object[]> rows = new ArrayList<>();
+		for (long i = 0; i < 2000; i++) {
+			PaymentStatus status = i % 200 == 0 ? PaymentStatus.PAYMENT_PROCESSED : PaymentStatus.FINAL_COMPLETED;
+			rows.add(new Object[] {TsidFactory.global().next(), i % 50, i, status.getCode(), createdAt});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO payment (id, lecture_id, user_id, status, created_at) VALUES (?, ?, ?, ?, ?)", rows);
+		jdbcTemplate.execute("ANALYZE TABLE payment");
+	}
+
+	@Test
+	void testStatusTransition_usesLectureUserStatusIndex() {
+		Map<String, Object> plan = explain(
+			"UPDATE payment SET status = 3 WHERE lecture_id = 1 AND user_id = 1 AND status = 2");
+
+		assertThat(plan.get("key")).isEqualTo("idx_payment_lecture_user_status");
+	}
+
+	@Test
+	void testStatusTransitionById_usesPrimaryKey() {
+		Map<String, Object> plan = explain("UPDATE payment SET status = 4 WHERE id = 1 AND status = 3");
+
+		assertThat(plan.get("key")).isEqualTo("PRIMARY");
+	}
+
+	@Test
+	void testAdjustmentScan_usesStatusCreatedAtIndex() {
+		Map<String, Object> plan = explain("SELECT * FROM payment WHERE status NOT IN ("
+			+ PaymentStatus.EXCEEDS_CAPACITY.getCode() + ", " + PaymentStatus.FINAL_COMPLETED.getCode()
+			+ ") AND created_at < NOW()");
+
+		assertThat(plan.get("key")).isEqualTo("idx_payment_status_created_at");
+		assertThat(plan.get("type")).isEqualTo("range");
+	}
+
+	private Map<String, Object> explain(String sql) {
+		List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql);
+		assertThat(plan).hasSize(1);
+		return plan.get(0);
+	}
+}
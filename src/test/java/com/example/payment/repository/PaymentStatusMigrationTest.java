@@ -0,0 +1,106 @@
+package com.example.payment.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.payment.support.EmbeddedMariaDb;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.init.ScriptStatementFailedException;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+/**
+ * db/payment-status-migration.sql 을 임베디드 DB 의 별도 스키마(기존 VARCHAR status 테이블)에 실행해 확인합니다.
+ */
+class PaymentStatusMigrationTest {
+
+	private static final String SCRIPT = "db/payment-status-migration.sql";
+	private static final String SCHEMA = "payment_status_migration";
+
+	private Connection connection;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		EmbeddedMariaDb db = EmbeddedMariaDb.shared();
+		connection = DriverManager.getConnection(db.getJdbcUrl(), db.getUsername(), db.getPassword());
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE DATABASE IF NOT EXISTS " + SCHEMA);
+		}
+		connection.setCatalog(SCHEMA);
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS payment");
+			statement.execute("CREATE TABLE payment (id BIGINT PRIMARY KEY, status VARCHAR(32) NULL)");
+		}
+	}
+
+	@AfterEach
+	void tearDown() throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP DATABASE IF EXISTS " + SCHEMA);
+		}
+		connection.close();
+	}
+
+	// 상태명이 모두 알려진 값이면 status 가 TINYINT 코드로 바뀌어야 함 (NULL 은 그대로)
+	@Test
+	void testMigration_convertsKnownStatuses() throws SQLException {
+		insert("INSERT INTO payment (id, status) VALUES (1, 'CREATED'), (2, 'FINAL_COMPLETED'), (3, NULL)");
+
+		ScriptUtils.executeSqlScript(connection, script());
+
+		assertThat(statuses()).containsEntry(1L, 1).containsEntry(2L, 4).containsEntry(3L, null);
+		assertThat(columnType()).isEqualTo("tinyint");
+	}
+
+	// 알 수 없는 상태명이 남아 있으면 기존 status 컬럼을 지우기 전에 멈춰야 함
+	@Test
+	void testMigration_abortsOnUnknownStatus() throws SQLException {
+		insert("INSERT INTO payment (id, status) VALUES (1, 'CREATED'), (2, 'REFUNDED')");
+
+		assertThatThrownBy(() -> ScriptUtils.executeSqlScript(connection, script()))
+			.isInstanceOf(ScriptStatementFailedException.class);
+
+		assertThat(columnType()).isEqualTo("varchar");
+	}
+
+	private static EncodedResource script() {
+		return new EncodedResource(new ClassPathResource(SCRIPT), "UTF-8");
+	}
+
+	private void insert(String sql) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+
+	private Map<Long, Integer> statuses() throws SQLException {
+		Map<Long, Integer> statuses = new HashMap<>();
+		try (Statement statement = connection.createStatement();
+			 ResultSet resultSet = statement.executeQuery("SELECT id, status FROM payment")) {
+			while (resultSet.next()) {
+				int status = resultSet.getInt("status");
+				statuses.put(resultSet.getLong("id"), resultSet.wasNull() ? null : status);
+			}
+		}
+		return statuses;
+	}
+
+	private String columnType() throws SQLException {
+		try (Statement statement = connection.createStatement();
+			 ResultSet resultSet = statement.executeQuery("SELECT DATA_TYPE FROM information_schema.COLUMNS "
+				 + "WHERE TABLE_SCHEMA = '" + SCHEMA + "' AND TABLE_NAME = 'payment' AND COLUMN_NAME = 'status'")) {
+			resultSet.next();
+			return resultSet.getString(1);
+		}
+	}
+}
@@ -2,11 +2,13 @@ package com.example.payment.web.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.example.payment.entity.Enrollment;
 import com.example.payment.entity.EnrollmentCount;
 import com.example.payment.entity.Payment;
+import com.example.payment.entity.PaymentStatus;
 import com.example.payment.repository.EnrollmentCountRepository;
 import com.example.payment.repository.EnrollmentRepository;
 import com.example.payment.repository.PaymentRepository;
@@ -60,7 +62,7 @@ class PaymentControllerTest {
 		Payment payment = new Payment();
 		payment.setLectureId(1L);
 		payment.setUserId(1L);
-		payment.setStatus("CREATED");
+		payment.setStatus(PaymentStatus.CREATED);
 		payment.setCreatedAt(LocalDateTime.now().minusMinutes(1));
 		paymentRepository.save(payment);
 	}
@@ -89,6 +91,81 @@ class PaymentControllerTest {
 			.filter(p -> p.getLectureId().equals(1L) && p.getUserId().equals(1L))
 			.findFirst();
 		assertThat(paymentOpt).isPresent();
-		assertThat(paymentOpt.get().getStatus()).isEqualTo("FINAL_COMPLETED");
+		assertThat(paymentOpt.get().getStatus()).isEqualTo(PaymentStatus.FINAL_COMPLETED);
+	}
+
+	// 요청 본문의 paymentId 는 무시되어 다른 사용자의 결제 상태를 바꿀 수 없어야 함
+	@Test
+	void testPaymentEndpoint_ignoresClientPaymentId() throws Exception {
+		Payment other = new Payment();
+		other.setLectureId(1L);
+		other.setUserId(2L);
+		other.setStatus(PaymentStatus.COUNT_UPDATED);
+		other.setCreatedAt(LocalDateTime.now());
+		Long otherPaymentId = paymentRepository.save(other).getId();
+
+		String body = "{\"paymentId\":" + otherPaymentId + ",\"userId\":1,\"lectureId\":1,\"amount\":100.0}";
+		assertThat(objectMapper.readValue(body, PaymentRequest.class).getPaymentId()).isNull();
+
+		mockMvc.perform(post("/payment")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+			.andExpect(status().isOk());
+
+		assertThat(paymentRepository.findById(otherPaymentId).orElseThrow().getStatus())
+			.isEqualTo(PaymentStatus.COUNT_UPDATED);
+		assertThat(enrollmentRepository.findAll()).hasSize(1);
+	}
+
+	// 같은 Idempotency-Key 로 재시도하면 결제를 다시 진행하지 않고 처음 응답을 돌려줘야 함
+	@Test
+	void testPaymentEndpoint_idempotencyKeyReplays() throws Exception {
+		PaymentRequest paymentRequest = new PaymentRequest();
+		paymentRequest.setAmount(100.0);
+		paymentRequest.setUserId(1L);
+		paymentRequest.setLectureId(1L);
+		String body = objectMapper.writeValueAsString(paymentRequest);
+
+		mockMvc.perform(post("/payment")
+				.header("Idempotency-Key", "retry-key-1")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+			.andExpect(status().isOk())
+			.andExpect(header().string("Idempotent-Replayed", "false"));
+
+		mockMvc.perform(post("/payment")
+				.header("Idempotency-Key", "retry-key-1")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+			.andExpect(status().isOk())
+			.andExpect(header().string("Idempotent-Replayed", "true"));
+
+		assertThat(enrollmentRepository.findAll()).hasSize(1);
+		assertThat(enrollmentCountRepository.findByLectureId(1L).getCurrentCount()).isEqualTo(1);
+
+		// 같은 키로 다른 요청이면 422
+		paymentRequest.setAmount(200.0);
+		mockMvc.perform(post("/payment")
+				.header("Idempotency-Key", "retry-key-1")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(paymentRequest)))
+			.andExpect(status().isUnprocessableEntity());
+	}
+
+	// 저장할 수 없는 길이의 Idempotency-Key 는 결제를 진행하지 않고 400 이어야 함 (409 가 계속 반복되지 않도록)
+	@Test
+	void testPaymentEndpoint_rejectsTooLongIdempotencyKey() throws Exception {
+		PaymentRequest paymentRequest = new PaymentRequest();
+		paymentRequest.setAmount(100.0);
+		paymentRequest.setUserId(1L);
+		paymentRequest.setLectureId(1L);
+
+		mockMvc.perform(post("/payment")
+				.header("Idempotency-Key", "k".repeat(65))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(paymentRequest)))
+			.andExpect(status().isBadRequest());
+
+		assertThat(enrollmentRepository.findAll()).isEmpty();
 	}
 }
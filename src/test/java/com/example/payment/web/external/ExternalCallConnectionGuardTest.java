@@ -0,0 +1,93 @@
+package com.example.payment.web.external;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.payment.application.service.EnrollmentService;
+import com.example.payment.entity.PaymentStatus;
+import com.example.payment.entity.id.TsidFactory;
+import com.example.payment.support.EmbeddedMariaDb;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = "payment.external-call-guard.mode=fail")
+class ExternalCallConnectionGuardTest {
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		EmbeddedMariaDb.shared().springProperties().forEach((key, value) -> registry.add(key, () -> value));
+	}
+
+	@Autowired
+	private PgApiClient pgApiClient;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final Long lectureId = 1L;
+	private final Long userId = 100L;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM payment");
+	}
+
+	// 트랜잭션(커넥션) 안에서 외부 호출을 하면 막혀야 함
+	@Test
+	void testExternalCall_insideTransaction_rejected() {
+		assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+			jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+			pgApiClient.approve(paymentRequest());
+		}))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("holding a DB connection");
+
+		assertThat(meterRegistry.find("payment.external_call.connection_held").counter()).isNotNull();
+	}
+
+	// 트랜잭션 밖의 외부 호출은 그대로 통과해야 함
+	@Test
+	void testExternalCall_outsideTransaction_allowed() {
+		assertThat(pgApiClient.approve(paymentRequest()).isSuccess()).isTrue();
+	}
+
+	// 트랜잭션 2는 PG 호출 동안 커넥션을 쥐지 않고, 상태 변경만 반영해야 함
+	@Test
+	void testProcessPayment_pgCallWithoutConnection() {
+		long paymentId = TsidFactory.global().next();
+		jdbcTemplate.update("INSERT INTO payment (id, lecture_id, user_id, status, created_at) VALUES (?, ?, ?, ?, NOW())",
+			paymentId, lectureId, userId, PaymentStatus.COUNT_UPDATED.getCode());
+		PaymentRequest request = paymentRequest();
+		request.setPaymentId(paymentId);
+
+		enrollmentService.processPayment(request);
+
+		assertThat(jdbcTemplate.queryForObject("SELECT status FROM payment WHERE id = ?", Integer.class, paymentId))
+			.isEqualTo(PaymentStatus.PAYMENT_PROCESSED.getCode());
+	}
+
+	private PaymentRequest paymentRequest() {
+		PaymentRequest request = new PaymentRequest();
+		request.setLectureId(lectureId);
+		request.setUserId(userId);
+		request.setAmount(1000.0);
+		return request;
+	}
+}
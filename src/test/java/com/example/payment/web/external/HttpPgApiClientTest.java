@@ -0,0 +1,126 @@
+package com.example.payment.web.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.payment.application.deadline.RequestDeadline;
+import com.example.payment.application.event.FinalCompensationEvent;
+import com.example.payment.application.exception.DeadlineExceededException;
+import com.example.payment.config.HttpClientConfig;
+import com.example.payment.config.HttpClientConfig.PoolSettings;
+import com.example.payment.support.PgStubServer;
+import com.example.payment.web.controller.dto.PaymentRequest;
+import com.example.payment.web.external.dto.PaymentResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+class HttpPgApiClientTest {
+
+	private PgStubServer pgStubServer;
+
+	@BeforeEach
+	void setUp() {
+		pgStubServer = new PgStubServer().start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		pgStubServer.close();
+	}
+
+	private HttpPgApiClient client(int maxPerRoute, long readTimeoutMs, long poolAcquireTimeoutMs, long keepAliveMs) {
+		PoolSettings settings = new PoolSettings(maxPerRoute, maxPerRoute, 1000, readTimeoutMs, poolAcquireTimeoutMs, keepAliveMs);
+		return new HttpPgApiClient(HttpClientConfig.pooledRestTemplate(settings), pgStubServer.getBaseUrl());
+	}
+
+	private PaymentRequest paymentRequest() {
+		PaymentRequest request = new PaymentRequest();
+		request.setPaymentId(10L);
+		request.setLectureId(1L);
+		request.setUserId(100L);
+		request.setAmount(1000.0);
+		return request;
+	}
+
+	// 승인/취소 응답을 PG 결과 그대로 돌려줘야 함
+	@Test
+	void testApproveAndCancel() {
+		HttpPgApiClient client = client(4, 1000, 500, 30_000);
+
+		PaymentResponse response = client.approve(paymentRequest());
+
+		assertTrue(response.isSuccess());
+		assertTrue(client.cancel(new FinalCompensationEvent(this, 10L, 1L, 100L, "reason")));
+
+		pgStubServer.declineRate(1.0);
+		assertFalse(client.approve(paymentRequest()).isSuccess());
+	}
+
+	// keep-alive 가 켜져 있으면 연속 호출이 같은 연결을 재사용해야 함
+	@Test
+	void testKeepAliveReusesConnection() {
+		HttpPgApiClient keepAlive = client(4, 1000, 500, 30_000);
+		for (int i = 0; i < 5; i++) {
+			keepAlive.approve(paymentRequest());
+		}
+		assertEquals(1, pgStubServer.getConnectionCount());
+
+		pgStubServer.reset();
+		HttpPgApiClient noKeepAlive = client(4, 1000, 500, 0);
+		for (int i = 0; i < 5; i++) {
+			noKeepAlive.approve(paymentRequest());
+		}
+		assertEquals(5, pgStubServer.getConnectionCount());
+	}
+
+	// PG 응답이 read timeout 보다 늦으면 예외로 끊어야 함
+	@Test
+	void testReadTimeout() {
+		pgStubServer.latencyMs(500);
+		HttpPgApiClient client = client(4, 100, 500, 30_000);
+
+		assertThrows(ResourceAccessException.class, () -> client.approve(paymentRequest()));
+	}
+
+	// 요청 기한의 남은 시간이 read timeout 보다 짧으면 남은 시간만큼만 기다려야 함
+	@Test
+	void testDeadlineShortensReadTimeout() {
+		pgStubServer.latencyMs(1000);
+		HttpPgApiClient client = client(4, 3000, 500, 30_000);
+		PaymentRequest request = paymentRequest();
+		request.setDeadline(RequestDeadline.after(100));
+
+		long started = System.nanoTime();
+		assertThrows(ResourceAccessException.class, () -> client.approve(request));
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 900);
+		assertNull(PgRequestTimeout.current());
+
+		// 기한이 이미 지났으면 PG 를 호출하지 않아야 함
+		pgStubServer.reset();
+		request.setDeadline(RequestDeadline.after(0));
+		assertThrows(DeadlineExceededException.class, () -> client.approve(request));
+		assertEquals(0, pgStubServer.getRequestCount());
+	}
+
+	// 풀의 연결이 모두 사용 중이면 pool-acquire timeout 만큼만 기다리고 실패해야 함
+	@Test
+	void testPoolAcquireTimeout() throws Exception {
+		pgStubServer.latencyMs(500);
+		HttpPgApiClient client = client(1, 2000, 50, 30_000);
+		CompletableFuture<PaymentResponse> inFlight = CompletableFuture.supplyAsync(
+			() -> client.approve(paymentRequest()));
+		while (pgStubServer.getRequestCount() == 0) {
+			Thread.onSpinWait();
+		}
+
+		assertThrows(ResourceAccessException.class, () -> client.approve(paymentRequest()));
+		assertTrue(inFlight.get(5, TimeUnit.SECONDS).isSuccess());
+	}
+}
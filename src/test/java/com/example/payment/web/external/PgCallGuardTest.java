@@ -0,0 +1,174 @@
+package com.example.payment.web.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.payment.application.deadline.RequestDeadline;
+import com.example.payment.application.exception.DeadlineExceededException;
+import com.example.payment.application.exception.PgUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class PgCallGuardTest {
+
+	// 테스트에서 직접 움직이는 시계
+	private final AtomicLong nanoTime = new AtomicLong();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	// 최근 4건 중 절반 이상 실패하면 1초 동안 OPEN
+	private final PgCircuitBreaker circuitBreaker = new PgCircuitBreaker(4, 4, 0.5, 2000, 1000, nanoTime::get);
+
+	private PgCallGuard guard(PgConcurrencyLimiter limiter) {
+		return new PgCallGuard(circuitBreaker, limiter, meterRegistry);
+	}
+
+	private void fail(PgCallGuard guard) {
+		assertThrows(IllegalStateException.class, () -> guard.call(() -> {
+			throw new IllegalStateException("PG timeout");
+		}));
+	}
+
+	// 실패율이 임계치를 넘으면 회로를 열고, 열린 동안은 PG 를 호출하지 않아야 함
+	@Test
+	void testCircuitOpensAndFailsFast() {
+		PgCallGuard guard = guard(new PgConcurrencyLimiter(20, 2, 200, 0.9, 1000));
+		AtomicInteger calls = new AtomicInteger();
+
+		guard.call(calls::incrementAndGet);
+		guard.call(calls::incrementAndGet);
+		fail(guard);
+		fail(guard);
+
+		assertTrue(guard.isOpen());
+		assertThrows(PgUnavailableException.class, () -> guard.call(calls::incrementAndGet));
+		assertEquals(2, calls.get());
+		assertEquals(1.0, meterRegistry.get("payment.pg.rejected").tag("reason", "circuit_open").counter().count());
+	}
+
+	// OPEN 시간이 지나면 시험 호출 한 건만 허용하고, 성공하면 회로를 닫아야 함
+	@Test
+	void testHalfOpenProbe() {
+		PgCallGuard guard = guard(new PgConcurrencyLimiter(20, 2, 200, 0.9, 1000));
+		for (int i = 0; i < 4; i++) {
+			fail(guard);
+		}
+		nanoTime.addAndGet(1_000_000_000L);
+
+		assertFalse(guard.isOpen());
+		assertEquals(PgCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+		assertTrue(circuitBreaker.tryAcquirePermission());
+		// 시험 호출이 진행 중이면 다른 호출은 거절
+		assertFalse(circuitBreaker.tryAcquirePermission());
+		circuitBreaker.onResult(1_000_000L, true);
+
+		assertEquals(PgCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+	}
+
+	// 시험 호출이 실패하면 다시 OPEN
+	@Test
+	void testHalfOpenProbeFailureReopens() {
+		PgCallGuard guard = guard(new PgConcurrencyLimiter(20, 2, 200, 0.9, 1000));
+		for (int i = 0; i < 4; i++) {
+			fail(guard);
+		}
+		nanoTime.addAndGet(1_000_000_000L);
+
+		fail(guard);
+
+		assertTrue(guard.isOpen());
+	}
+
+	// 느린 호출(slow-call)도 실패로 집계해야 함
+	@Test
+	void testSlowCallsCountAsFailures() {
+		for (int i = 0; i < 4; i++) {
+			assertTrue(circuitBreaker.tryAcquirePermission());
+			circuitBreaker.onResult(2_500_000_000L, true);
+		}
+
+		assertEquals(PgCircuitBreaker.State.OPEN, circuitBreaker.getState());
+	}
+
+	// 한도만큼 진행 중이면 기다리지 않고 거절해야 함
+	@Test
+	void testLimiterRejectsOverLimit() {
+		PgConcurrencyLimiter limiter = new PgConcurrencyLimiter(2, 1, 10, 0.5, 1000);
+
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+	}
+
+	// 느린 응답이면 한도를 줄이고(곱셈), 한도를 충분히 쓰는 중의 빠른 응답이면 1씩 늘려야 함
+	@Test
+	void testLimiterAimd() {
+		PgConcurrencyLimiter limiter = new PgConcurrencyLimiter(10, 1, 20, 0.5, 1000);
+
+		assertTrue(limiter.tryAcquire());
+		limiter.release(1_500_000_000L, true);
+		assertEquals(5, limiter.getLimit());
+
+		for (int i = 0; i < 5; i++) {
+			assertTrue(limiter.tryAcquire());
+		}
+		limiter.release(1_000_000L, true);
+		assertEquals(6, limiter.getLimit());
+
+		// 한도의 절반 미만만 사용 중이면 늘리지 않음
+		PgConcurrencyLimiter idle = new PgConcurrencyLimiter(10, 1, 20, 0.5, 1000);
+		assertTrue(idle.tryAcquire());
+		idle.release(1_000_000L, true);
+		assertEquals(10, idle.getLimit());
+
+		// 실패도 한도를 줄임
+		idle.tryAcquire();
+		idle.release(1_000_000L, false);
+		assertEquals(5, idle.getLimit());
+	}
+
+	// 클라이언트가 짧은 기한을 보내 끝난 호출은 회로 차단기/동시 호출 한도를 움직이지 않아야 함
+	@Test
+	void testShortClientDeadlineDoesNotMoveBreaker() {
+		PgConcurrencyLimiter limiter = new PgConcurrencyLimiter(20, 2, 200, 0.5, 1000);
+		PgCallGuard guard = guard(limiter);
+		RequestDeadline deadline = RequestDeadline.after(1);
+
+		for (int i = 0; i < 4; i++) {
+			// 기한만큼 줄어든 시간 제한으로 끝난 호출
+			assertThrows(IllegalStateException.class, () -> guard.call(deadline, () -> {
+				sleepPast(deadline);
+				throw new IllegalStateException("Read timed out");
+			}));
+			// 호출 직전에 기한이 지난 경우
+			assertThrows(DeadlineExceededException.class, () -> guard.call(deadline, () -> {
+				throw new DeadlineExceededException("요청 기한이 지나 PG 승인을 호출하지 않습니다.");
+			}));
+		}
+
+		assertEquals(PgCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+		assertEquals(20, limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+		assertEquals(8.0, meterRegistry.get("payment.pg.deadline_ignored").counter().count());
+
+		// 기한이 남아 있는 동안의 실패는 그대로 집계
+		for (int i = 0; i < 4; i++) {
+			fail(guard);
+		}
+		assertTrue(guard.isOpen());
+	}
+
+	private static void sleepPast(RequestDeadline deadline) {
+		while (!deadline.isExpired()) {
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+}
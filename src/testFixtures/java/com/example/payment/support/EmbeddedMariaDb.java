@@ -0,0 +1,133 @@
+package com.example.payment.support;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 테스트/벤치마크용 임베디드 MySQL 호환 DB(MariaDB4j, InnoDB).
+ * 실제 MySQL과 같은 행 락/실행 계획을 확인해야 하는 경우에 사용합니다.
+ */
+public class EmbeddedMariaDb implements AutoCloseable {
+
+	private static final String USERNAME = "root";
+	private static final String PASSWORD = "";
+
+	private static EmbeddedMariaDb shared;
+
+	private final String databaseName;
+	private DB db;
+	private int port;
+
+	public EmbeddedMariaDb(String databaseName) {
+		this.databaseName = databaseName;
+	}
+
+	/**
+	 * 테스트 JVM 전체에서 공유하는 인스턴스 (JVM 종료 시 정지)
+	 */
+	public static synchronized EmbeddedMariaDb shared() {
+		if (shared == null) {
+			EmbeddedMariaDb db = new EmbeddedMariaDb("payment_test").start();
+			Runtime.getRuntime().addShutdownHook(new Thread(db::close));
+			shared = db;
+		}
+		return shared;
+	}
+
+	public EmbeddedMariaDb start() {
+		try {
+			DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+			config.setPort(0); // 사용 가능한 임의 포트
+			config.addArg("--innodb-lock-wait-timeout=50");
+			config.addArg("--max-connections=500");
+			db = DB.newEmbeddedDB(config.build());
+			db.start();
+			db.createDB(databaseName);
+			port = db.getConfiguration().getPort();
+			return this;
+		} catch (Exception e) {
+			throw new IllegalStateException("Failed to start embedded MariaDB", e);
+		}
+	}
+
+	public String getJdbcUrl() {
+		return "jdbc:mysql://localhost:" + port + "/" + databaseName
+			+ "?useSSL=false&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true";
+	}
+
+	public String getUsername() {
+		return USERNAME;
+	}
+
+	public String getPassword() {
+		return PASSWORD;
+	}
+
+	/**
+	 * Spring Boot 애플리케이션을 이 DB에 연결하기 위한 프로퍼티
+	 */
+	public Map<String, Object> springProperties() {
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("spring.datasource.url", getJdbcUrl());
+		properties.put("spring.datasource.username", USERNAME);
+		properties.put("spring.datasource.password", PASSWORD);
+		properties.put("spring.jpa.hibernate.ddl-auto", "create");
+		return properties;
+	}
+
+	/**
+	 * InnoDB 행 락 대기 누적 통계(서버 전역)를 조회합니다.
+	 */
+	public RowLockStats rowLockStats() {
+		long waits = 0;
+		long timeMs = 0;
+		try (Connection connection = DriverManager.getConnection(getJdbcUrl(), USERNAME, PASSWORD);
+			 Statement statement = connection.createStatement();
+			 ResultSet rs = statement.executeQuery("SHOW GLOBAL STATUS LIKE 'Innodb_row_lock_%'")) {
+			while (rs.next()) {
+				String name = rs.getString(1);
+				if ("Innodb_row_lock_waits".equalsIgnoreCase(name)) {
+					waits = rs.getLong(2);
+				} else if ("Innodb_row_lock_time".equalsIgnoreCase(name)) {
+					timeMs = rs.getLong(2);
+				}
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException("Failed to read InnoDB row lock status", e);
+		}
+		return new RowLockStats(waits, timeMs);
+	}
+
+	@Override
+	public void close() {
+		if (db == null) {
+			return;
+		}
+		try {
+			db.stop();
+		} catch (Exception e) {
+			throw new IllegalStateException("Failed to stop embedded MariaDB", e);
+		}
+	}
+
+	/**
+	 * Innodb_row_lock_waits / Innodb_row_lock_time 스냅샷
+	 */
+	public record RowLockStats(long waits, long timeMs) {
+
+		public RowLockStats minus(RowLockStats before) {
+			return new RowLockStats(waits - before.waits, timeMs - before.timeMs);
+		}
+
+		public double averageWaitMs() {
+			return waits == 0 ? 0 : (double) timeMs / waits;
+		}
+	}
+}
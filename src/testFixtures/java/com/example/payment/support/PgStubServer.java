@@ -0,0 +1,120 @@
+package com.example.payment.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 테스트/벤치마크용 로컬 PG 스텁 서버 (JDK HttpServer)
+ * HttpPgApiClient 가 호출하는 승인/취소/내역 조회 API 를 흉내 내며, 응답 지연과 승인 거절 비율을 조절할 수 있습니다.
+ * 클라이언트 포트 기준으로 맺어진 연결 수를 세므로 커넥션 풀 크기/keep-alive 효과를 확인할 수 있습니다.
+ */
+public class PgStubServer implements AutoCloseable {
+
+	private final Set<SocketAddress> connections = ConcurrentHashMap.newKeySet();
+	private final AtomicLong requestCount = new AtomicLong();
+
+	private HttpServer server;
+	private ExecutorService executor;
+	private volatile long latencyMs;
+	private volatile double declineRate;
+
+	public PgStubServer start() {
+		try {
+			server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+			executor = Executors.newCachedThreadPool();
+			server.setExecutor(executor);
+			server.createContext("/v1/payments/approve", exchange ->
+				handle(exchange, declined() ? "{\"success\":false,\"message\":\"Payment Declined\"}"
+					: "{\"success\":true,\"message\":\"Payment Success\"}"));
+			server.createContext("/v1/payments/cancel", exchange ->
+				handle(exchange, "{\"success\":true,\"message\":\"Cancel Success\"}"));
+			server.createContext("/v1/payments/history", exchange ->
+				handle(exchange, "{\"success\":true,\"message\":\"Found\"}"));
+			server.start();
+			return this;
+		} catch (IOException e) {
+			throw new IllegalStateException("Failed to start PG stub server", e);
+		}
+	}
+
+	public String getBaseUrl() {
+		return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+	}
+
+	/**
+	 * 모든 응답에 적용할 지연
+	 */
+	public PgStubServer latencyMs(long latencyMs) {
+		this.latencyMs = latencyMs;
+		return this;
+	}
+
+	/**
+	 * 승인 요청을 거절할 비율 (0.0 ~ 1.0)
+	 */
+	public PgStubServer declineRate(double declineRate) {
+		this.declineRate = declineRate;
+		return this;
+	}
+
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * 지금까지 맺어진 TCP 연결 수 (keep-alive 로 재사용되면 늘지 않음)
+	 */
+	public int getConnectionCount() {
+		return connections.size();
+	}
+
+	public void reset() {
+		connections.clear();
+		requestCount.set(0);
+	}
+
+	private boolean declined() {
+		return declineRate > 0 && ThreadLocalRandom.current().nextDouble() < declineRate;
+	}
+
+	private void handle(HttpExchange exchange, String body) throws IOException {
+		requestCount.incrementAndGet();
+		connections.add(exchange.getRemoteAddress());
+		try (InputStream in = exchange.getRequestBody()) {
+			in.readAllBytes();
+		}
+		if (latencyMs > 0) {
+			LockSupport.parkNanos(latencyMs * 1_000_000L);
+		}
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (server != null) {
+			server.stop(0);
+		}
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+}